@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.math4.examples.jmh.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleBinaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.core.jdkmath.AccurateMath;
+
+/**
+ * Benchmarks comparing {@link AccurateMath} with {@link Math}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx2G"})
+public class AccurateMathBenchmark {
+    /** Number of function evaluations per invocation. */
+    private static final int SIZE = 1000;
+
+    /** Function to evaluate. */
+    @Param({"exp", "log", "sin", "cos", "tan", "atan", "atan2", "pow", "cbrt"})
+    private String function;
+    /** Implementation. */
+    @Param({"AccurateMath", "Math"})
+    private String implementation;
+    /** Function (second argument is ignored by unary functions). */
+    private DoubleBinaryOperator f;
+    /** First arguments. */
+    private final double[] x = new double[SIZE];
+    /** Second arguments. */
+    private final double[] y = new double[SIZE];
+
+    /**
+     * Selects the function and creates its arguments.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final boolean accurate = "AccurateMath".equals(implementation);
+        switch (function) {
+        case "exp":
+            f = accurate ? (a, b) -> AccurateMath.exp(a) : (a, b) -> Math.exp(a);
+            break;
+        case "log":
+            f = accurate ? (a, b) -> AccurateMath.log(a) : (a, b) -> Math.log(a);
+            break;
+        case "sin":
+            f = accurate ? (a, b) -> AccurateMath.sin(a) : (a, b) -> Math.sin(a);
+            break;
+        case "cos":
+            f = accurate ? (a, b) -> AccurateMath.cos(a) : (a, b) -> Math.cos(a);
+            break;
+        case "tan":
+            f = accurate ? (a, b) -> AccurateMath.tan(a) : (a, b) -> Math.tan(a);
+            break;
+        case "atan":
+            f = accurate ? (a, b) -> AccurateMath.atan(a) : (a, b) -> Math.atan(a);
+            break;
+        case "atan2":
+            f = accurate ? AccurateMath::atan2 : Math::atan2;
+            break;
+        case "pow":
+            f = accurate ? AccurateMath::pow : Math::pow;
+            break;
+        case "cbrt":
+            f = accurate ? (a, b) -> AccurateMath.cbrt(a) : (a, b) -> Math.cbrt(a);
+            break;
+        default:
+            throw new IllegalStateException("Unknown function: " + function);
+        }
+
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(975318642L);
+        for (int i = 0; i < SIZE; i++) {
+            // Positive arguments, so that all functions are defined.
+            x[i] = 10 * rng.nextDouble();
+            y[i] = 10 * rng.nextDouble();
+        }
+    }
+
+    /**
+     * @return the sum of the function values (to prevent dead code elimination).
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double evaluate() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += f.applyAsDouble(x[i], y[i]);
+        }
+        return sum;
+    }
+}
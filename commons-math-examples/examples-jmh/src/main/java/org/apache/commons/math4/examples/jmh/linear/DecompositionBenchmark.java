@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.math4.examples.jmh.linear;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.legacy.linear.EigenDecomposition;
+import org.apache.commons.math4.legacy.linear.LUDecomposition;
+import org.apache.commons.math4.legacy.linear.QRDecomposition;
+import org.apache.commons.math4.legacy.linear.RealMatrix;
+
+/**
+ * Benchmarks for the {@link LUDecomposition}, {@link QRDecomposition}
+ * and {@link EigenDecomposition} classes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx2G"})
+public class DecompositionBenchmark {
+    /** Dimension of the (square) matrix. */
+    @Param({"10", "100", "400"})
+    private int size;
+    /** Matrix to decompose. */
+    private RealMatrix matrix;
+    /** Symmetric matrix to decompose. */
+    private RealMatrix symmetric;
+
+    /**
+     * Creates the matrices.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        matrix = MatrixMultiplyBenchmark.createMatrix(RandomSource.XO_RO_SHI_RO_128_PP.create(987654321L),
+                                                      size);
+        symmetric = matrix.add(matrix.transpose());
+    }
+
+    /**
+     * @return the decomposition.
+     */
+    @Benchmark
+    public LUDecomposition lu() {
+        return new LUDecomposition(matrix);
+    }
+
+    /**
+     * @return the decomposition.
+     */
+    @Benchmark
+    public QRDecomposition qr() {
+        return new QRDecomposition(matrix);
+    }
+
+    /**
+     * @return the decomposition.
+     */
+    @Benchmark
+    public EigenDecomposition eigen() {
+        return new EigenDecomposition(symmetric);
+    }
+}
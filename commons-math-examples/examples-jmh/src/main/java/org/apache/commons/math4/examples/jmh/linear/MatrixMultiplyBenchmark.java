@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.math4.examples.jmh.linear;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.legacy.linear.BlockRealMatrix;
+
+/**
+ * Benchmarks for {@link BlockRealMatrix#multiply(BlockRealMatrix)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx4G"})
+public class MatrixMultiplyBenchmark {
+    /** Dimension of the (square) operands. */
+    @Param({"50", "200", "1000"})
+    private int size;
+    /** Left operand. */
+    private BlockRealMatrix left;
+    /** Right operand. */
+    private BlockRealMatrix right;
+
+    /**
+     * Creates random operands.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(123456789L);
+        left = createMatrix(rng, size);
+        right = createMatrix(rng, size);
+    }
+
+    /**
+     * @return the product computed in the calling thread.
+     */
+    @Benchmark
+    public BlockRealMatrix serial() {
+        return left.multiply(right);
+    }
+
+    /**
+     * @return the product computed in the common pool.
+     */
+    @Benchmark
+    public BlockRealMatrix parallel() {
+        return left.multiply(right, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param rng Generator.
+     * @param n Dimension.
+     * @return a square matrix with entries in {@code [-1, 1)}.
+     */
+    static BlockRealMatrix createMatrix(UniformRandomProvider rng,
+                                        int n) {
+        final BlockRealMatrix m = new BlockRealMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                m.setEntry(i, j, 2 * rng.nextDouble() - 1);
+            }
+        }
+        return m;
+    }
+}
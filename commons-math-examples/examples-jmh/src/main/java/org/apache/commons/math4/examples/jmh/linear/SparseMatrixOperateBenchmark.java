@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.examples.jmh.linear;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.math4.legacy.linear.CompressedRowRealMatrix;
+import org.apache.commons.math4.legacy.linear.OpenMapRealMatrix;
+import org.apache.commons.math4.legacy.linear.SparseRealMatrixBuilder;
+
+/**
+ * Benchmarks for the product of a sparse matrix with a vector.
+ * The matrix is the 5-point discretization of the 2D Laplacian on a
+ * {@code size x size} grid.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx4G"})
+public class SparseMatrixOperateBenchmark {
+    /** Number of grid points along each direction. */
+    @Param({"100", "400"})
+    private int size;
+    /** Matrix in compressed sparse row format. */
+    private CompressedRowRealMatrix compressed;
+    /** Matrix backed by a hash map. */
+    private OpenMapRealMatrix openMap;
+    /** Operand. */
+    private double[] x;
+
+    /**
+     * Creates the matrices.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final int n = size * size;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                final int k = i * size + j;
+                builder.add(k, k, 4);
+                if (i > 0) {
+                    builder.add(k, k - size, -1);
+                }
+                if (i < size - 1) {
+                    builder.add(k, k + size, -1);
+                }
+                if (j > 0) {
+                    builder.add(k, k - 1, -1);
+                }
+                if (j < size - 1) {
+                    builder.add(k, k + 1, -1);
+                }
+            }
+        }
+        compressed = builder.buildCompressedRow();
+        if ((long) n * n < Integer.MAX_VALUE) {
+            openMap = new OpenMapRealMatrix(n, n);
+            for (int k = 0; k < n; k++) {
+                for (final int l : new int[] {k - size, k - 1, k, k + 1, k + size}) {
+                    if (l >= 0 && l < n) {
+                        final double v = compressed.getEntry(k, l);
+                        if (v != 0) {
+                            openMap.setEntry(k, l, v);
+                        }
+                    }
+                }
+            }
+        }
+        x = new double[n];
+        for (int k = 0; k < n; k++) {
+            x[k] = Math.sin(k);
+        }
+    }
+
+    /**
+     * @return the product.
+     */
+    @Benchmark
+    public double[] compressedRow() {
+        return compressed.operate(x);
+    }
+
+    /**
+     * @return the product (null if the matrix is too large for
+     * {@link OpenMapRealMatrix}).
+     */
+    @Benchmark
+    public double[] openMap() {
+        return openMap == null ? null : openMap.operate(x);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.math4.examples.jmh.ml.clustering;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.legacy.ml.clustering.CentroidCluster;
+import org.apache.commons.math4.legacy.ml.clustering.DoublePoint;
+import org.apache.commons.math4.legacy.ml.clustering.KMeansPlusPlusClusterer;
+import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
+
+/**
+ * Benchmarks for {@link KMeansPlusPlusClusterer#cluster(java.util.Collection)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx4G"})
+public class KMeansPlusPlusClustererBenchmark {
+    /** Seed of the generators. */
+    private static final long SEED = 86421357L;
+    /** Number of points. */
+    @Param({"1000", "10000", "100000"})
+    private int numPoints;
+    /** Dimension of the space. */
+    @Param({"2", "16"})
+    private int dimension;
+    /** Number of clusters. */
+    @Param({"10"})
+    private int numClusters;
+    /** Maximum number of iterations. */
+    @Param({"50"})
+    private int maxIterations;
+    /** Points to cluster. */
+    private List<DoublePoint> points;
+
+    /**
+     * Creates points distributed around {@link #numClusters} random centers.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(SEED);
+        final double[][] centers = new double[numClusters][dimension];
+        for (final double[] c : centers) {
+            for (int j = 0; j < dimension; j++) {
+                c[j] = 100 * rng.nextDouble();
+            }
+        }
+
+        points = new ArrayList<>(numPoints);
+        for (int i = 0; i < numPoints; i++) {
+            final double[] c = centers[rng.nextInt(numClusters)];
+            final double[] p = new double[dimension];
+            for (int j = 0; j < dimension; j++) {
+                p[j] = c[j] + 10 * (rng.nextDouble() - 0.5);
+            }
+            points.add(new DoublePoint(p));
+        }
+    }
+
+    /**
+     * @return the clusters.
+     */
+    @Benchmark
+    public List<CentroidCluster<DoublePoint>> cluster() {
+        final KMeansPlusPlusClusterer<DoublePoint> clusterer =
+            new KMeansPlusPlusClusterer<>(numClusters,
+                                          maxIterations,
+                                          new EuclideanDistance(),
+                                          RandomSource.XO_RO_SHI_RO_128_PP.create(SEED));
+        return clusterer.cluster(points);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.math4.examples.jmh.ode;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.math4.legacy.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math4.legacy.ode.nonstiff.DormandPrince853Integrator;
+
+/**
+ * Benchmarks for {@link DormandPrince853Integrator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx2G"})
+public class DormandPrince853IntegratorBenchmark {
+    /** Scalar relative and absolute tolerance. */
+    @Param({"1e-6", "1e-10"})
+    private double tolerance;
+    /** Duration of the integration. */
+    @Param({"10", "100"})
+    private double duration;
+    /** Equations. */
+    private final FirstOrderDifferentialEquations lorenz = new Lorenz();
+
+    /**
+     * @return the final state.
+     */
+    @Benchmark
+    public double[] integrate() {
+        final DormandPrince853Integrator integrator =
+            new DormandPrince853Integrator(1e-10, 100, tolerance, tolerance);
+        final double[] y = {1, 1, 1};
+        integrator.integrate(lorenz, 0, y, duration, y);
+        return y;
+    }
+
+    /**
+     * Lorenz system, with the classical (chaotic) parameters.
+     */
+    private static final class Lorenz implements FirstOrderDifferentialEquations {
+        /** Parameter. */
+        private static final double SIGMA = 10;
+        /** Parameter. */
+        private static final double RHO = 28;
+        /** Parameter. */
+        private static final double BETA = 8d / 3;
+
+        /** {@inheritDoc} */
+        @Override
+        public int getDimension() {
+            return 3;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void computeDerivatives(double t, double[] y, double[] yDot) {
+            yDot[0] = SIGMA * (y[1] - y[0]);
+            yDot[1] = y[0] * (RHO - y[2]) - y[1];
+            yDot[2] = y[0] * y[1] - BETA * y[2];
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.math4.examples.jmh.stat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.legacy.stat.descriptive.rank.Percentile;
+
+/**
+ * Benchmarks for {@link Percentile#evaluate(double[], double)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx2G"})
+public class PercentileBenchmark {
+    /** Number of values. */
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+    /** Quantile to compute (in percent). */
+    @Param({"50", "99"})
+    private double quantile;
+    /** Data. */
+    private double[] values;
+    /** Statistic. */
+    private final Percentile percentile = new Percentile();
+
+    /**
+     * Creates the data.
+     * Values are drawn from an exponential distribution, i.e. a skewed
+     * sample similar to latency measurements.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(24681357L);
+        values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = -Math.log(1 - rng.nextDouble());
+        }
+    }
+
+    /**
+     * @return the quantile.
+     */
+    @Benchmark
+    public double evaluate() {
+        return percentile.evaluate(values, quantile);
+    }
+}
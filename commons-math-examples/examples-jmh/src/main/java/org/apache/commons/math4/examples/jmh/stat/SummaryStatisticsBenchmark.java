@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.examples.jmh.stat;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.math4.legacy.stat.descriptive.ConcurrentSummaryStatistics;
+import org.apache.commons.math4.legacy.stat.descriptive.SynchronizedSummaryStatistics;
+
+/**
+ * Benchmarks for adding values to summary statistics shared by several
+ * threads.
+ * The number of threads is set with the JMH "-t" option.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx2G"})
+public class SummaryStatisticsBenchmark {
+    /** Statistics using a lock. */
+    private final SynchronizedSummaryStatistics synchronizedStatistics = new SynchronizedSummaryStatistics();
+    /** Statistics using per-thread accumulators. */
+    private final ConcurrentSummaryStatistics concurrentStatistics = new ConcurrentSummaryStatistics();
+
+    /**
+     * Adds a value to the synchronized statistics.
+     */
+    @Benchmark
+    public void addValueSynchronized() {
+        synchronizedStatistics.addValue(1 + ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * Adds a value to the concurrent statistics.
+     */
+    @Benchmark
+    public void addValueConcurrent() {
+        concurrentStatistics.addValue(1 + ThreadLocalRandom.current().nextDouble());
+    }
+}
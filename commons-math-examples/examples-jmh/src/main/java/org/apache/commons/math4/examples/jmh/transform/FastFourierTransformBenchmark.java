@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.math4.examples.jmh.transform;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.commons.numbers.complex.Complex;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.transform.FastFourierTransform;
+
+/**
+ * Benchmarks for {@link FastFourierTransform}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx2G"})
+public class FastFourierTransformBenchmark {
+    /** Base-2 logarithm of the signal length. */
+    @Param({"8", "12", "16", "20"})
+    private int logSize;
+    /**
+     * Transform.
+     * The unitary normalization preserves the norm of the data, so that
+     * repeatedly transforming the same array does not overflow.
+     */
+    private final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.Norm.UNIT);
+    /** Real and imaginary parts of the data. */
+    private double[][] dataRI;
+    /** Real data. */
+    private double[] real;
+    /** Plan. */
+    private FastFourierTransform.Plan plan;
+    /** Real parts of the half spectrum. */
+    private double[] halfR;
+    /** Imaginary parts of the half spectrum. */
+    private double[] halfI;
+
+    /**
+     * Creates a random signal.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(1357924680L);
+        final int n = 1 << logSize;
+        dataRI = new double[2][n];
+        real = new double[n];
+        for (int i = 0; i < n; i++) {
+            dataRI[0][i] = 2 * rng.nextDouble() - 1;
+            dataRI[1][i] = 2 * rng.nextDouble() - 1;
+            real[i] = 2 * rng.nextDouble() - 1;
+        }
+        plan = fft.plan(n);
+        halfR = new double[plan.getHalfSpectrumLength()];
+        halfI = new double[plan.getHalfSpectrumLength()];
+    }
+
+    /**
+     * @return the transformed data.
+     */
+    @Benchmark
+    public double[][] transformInPlace() {
+        fft.transformInPlace(dataRI);
+        return dataRI;
+    }
+
+    /**
+     * @return the full spectrum of the real data.
+     */
+    @Benchmark
+    public Complex[] applyReal() {
+        return fft.apply(real);
+    }
+
+    /**
+     * @return the half spectrum of the real data.
+     */
+    @Benchmark
+    public Complex[] applyHalfSpectrum() {
+        return fft.applyHalfSpectrum(real);
+    }
+
+    /**
+     * @return the transformed data.
+     */
+    @Benchmark
+    public double[][] planTransform() {
+        plan.transform(dataRI[0], dataRI[1]);
+        return dataRI;
+    }
+
+    /**
+     * @return the real parts of the half spectrum of the real data.
+     */
+    @Benchmark
+    public double[] planTransformReal() {
+        plan.transformReal(real, halfR, halfI);
+        return halfR;
+    }
+}
@@ -23,7 +23,8 @@ import org.apache.commons.math4.legacy.exception.MathIllegalArgumentException;
 import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
 
 /**
- * Mutation for {@link BinaryChromosome}s. Randomly changes one gene.
+ * Mutation for {@link BinaryChromosome}s and {@link BitsetChromosome}s.
+ * Randomly changes one gene.
  *
  * @since 2.0
  */
@@ -34,10 +35,14 @@ public class BinaryMutation implements MutationPolicy {
      *
      * @param original the original chromosome.
      * @return the mutated chromosome.
-     * @throws MathIllegalArgumentException if <code>original</code> is not an instance of {@link BinaryChromosome}.
+     * @throws MathIllegalArgumentException if <code>original</code> is not an instance of {@link BinaryChromosome}
+     * or {@link BitsetChromosome}.
      */
     @Override
     public Chromosome mutate(Chromosome original) throws MathIllegalArgumentException {
+        if (original instanceof BitsetChromosome) {
+            return mutate((BitsetChromosome) original);
+        }
         if (!(original instanceof BinaryChromosome)) {
             throw new MathIllegalArgumentException(LocalizedFormats.INVALID_BINARY_CHROMOSOME);
         }
@@ -52,4 +57,20 @@ public class BinaryMutation implements MutationPolicy {
 
         return origChrom.newFixedLengthChromosome(newRepr);
     }
+
+    /**
+     * Helper for {@link #mutate(Chromosome)}. Flips one random bit.
+     *
+     * @param original the original chromosome.
+     * @return the mutated chromosome.
+     */
+    private static Chromosome mutate(BitsetChromosome original) {
+        final long[] newRepr = original.getWords();
+
+        // randomly select a gene and change it
+        final int geneIndex = GeneticAlgorithm.getRandomGenerator().nextInt(original.getLength());
+        newRepr[geneIndex / BitsetChromosome.WORD_SIZE] ^= 1L << geneIndex;
+
+        return original.newBitsetChromosome(newRepr);
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.genetics;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Chromosome represented by an immutable vector of bits.
+ * <p>
+ * Unlike {@link BinaryChromosome}, the bits are packed in an array of
+ * {@code long} words: bit {@code i} is bit {@code i % 64} of word
+ * {@code i / 64}. A gene takes one bit instead of one reference in a
+ * list of (cached) integers, i.e. about 32 times less memory with
+ * compressed references, and {@link BinaryMutation}, {@link OnePointCrossover}
+ * and {@link UniformCrossover} can operate a word at a time.
+ * Fitness functions can use {@link #getWord(int)} and
+ * {@link #cardinality()} to count bits without unpacking them.
+ * </p>
+ *
+ * @since 4.0
+ */
+public abstract class BitsetChromosome extends Chromosome {
+    /** Number of bits per word. */
+    static final int WORD_SIZE = Long.SIZE;
+
+    /** Words representing the chromosome. */
+    private final long[] words;
+
+    /** Number of bits. */
+    private final int length;
+
+    /**
+     * Constructor.
+     * Bits of the last word beyond {@code length} are ignored.
+     *
+     * @param words bits representing the chromosome
+     * @param length number of bits
+     * @throws NotStrictlyPositiveException if {@code length <= 0}.
+     * @throws DimensionMismatchException if the number of words is not
+     * {@code ceil(length / 64)}.
+     */
+    public BitsetChromosome(final long[] words,
+                            final int length) {
+        this(words, length, true);
+    }
+
+    /**
+     * Constructor.
+     * Bits of the last word beyond {@code length} are ignored.
+     *
+     * @param words bits representing the chromosome
+     * @param length number of bits
+     * @param copyArray if {@code true}, the array is copied, otherwise it is
+     * used directly (and cleared beyond {@code length})
+     * @throws NotStrictlyPositiveException if {@code length <= 0}.
+     * @throws DimensionMismatchException if the number of words is not
+     * {@code ceil(length / 64)}.
+     */
+    public BitsetChromosome(final long[] words,
+                            final int length,
+                            final boolean copyArray) {
+        if (length <= 0) {
+            throw new NotStrictlyPositiveException(length);
+        }
+        if (words.length != numberOfWords(length)) {
+            throw new DimensionMismatchException(words.length, numberOfWords(length));
+        }
+        this.words = copyArray ? words.clone() : words;
+        this.length = length;
+        this.words[this.words.length - 1] &= lastWordMask(length);
+    }
+
+    /**
+     * Returns the number of bits.
+     *
+     * @return the length of the chromosome
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the number of words.
+     *
+     * @return the number of words representing the chromosome
+     */
+    public int getNumberOfWords() {
+        return words.length;
+    }
+
+    /**
+     * Returns a word of the representation.
+     * Bits of the last word beyond {@link #getLength()} are {@code 0}.
+     *
+     * @param index index of the word
+     * @return bits {@code 64 * index} to {@code 64 * index + 63}
+     */
+    public long getWord(final int index) {
+        return words[index];
+    }
+
+    /**
+     * Returns a copy of the representation.
+     *
+     * @return the words representing the chromosome
+     */
+    public long[] getWords() {
+        return words.clone();
+    }
+
+    /**
+     * Returns a bit of the representation.
+     *
+     * @param index index of the bit
+     * @return {@code true} if the bit is set
+     */
+    public boolean getBit(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return (words[index / WORD_SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the number of bits set.
+     *
+     * @return the number of {@code 1} genes
+     */
+    public int cardinality() {
+        int count = 0;
+        for (final long w : words) {
+            count += Long.bitCount(w);
+        }
+        return count;
+    }
+
+    /**
+     * Creates a new instance of the same class as <code>this</code> is, with
+     * the same length and a given representation.
+     * Implementations must not copy {@code chromosomeRepresentation}: it is
+     * always a new array, owned by the new chromosome.
+     *
+     * @param chromosomeRepresentation the words of the new chromosome
+     * @return new instance extended from BitsetChromosome with the given representation
+     */
+    public abstract BitsetChromosome newBitsetChromosome(long[] chromosomeRepresentation);
+
+    /**
+     * Returns a random representation of length <code>length</code>.
+     *
+     * @param length number of bits
+     * @return random words representing <code>length</code> bits
+     * @throws NotStrictlyPositiveException if {@code length <= 0}.
+     */
+    public static long[] randomBitsetRepresentation(final int length) {
+        if (length <= 0) {
+            throw new NotStrictlyPositiveException(length);
+        }
+        final UniformRandomProvider random = GeneticAlgorithm.getRandomGenerator();
+        final long[] words = new long[numberOfWords(length)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = random.nextLong();
+        }
+        words[words.length - 1] &= lastWordMask(length);
+        return words;
+    }
+
+    /**
+     * Computes the number of words needed to store bits.
+     *
+     * @param length number of bits
+     * @return the number of words
+     */
+    static int numberOfWords(final int length) {
+        return (length + WORD_SIZE - 1) / WORD_SIZE;
+    }
+
+    /**
+     * Computes the mask of the valid bits of the last word.
+     *
+     * @param length number of bits
+     * @return the mask
+     */
+    static long lastWordMask(final int length) {
+        return -1L >>> -length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isSame(final Chromosome another) {
+        if (!(another instanceof BitsetChromosome)) {
+            return false;
+        }
+        final BitsetChromosome anotherBc = (BitsetChromosome) another;
+        return length == anotherBc.length &&
+            Arrays.equals(words, anotherBc.words);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(getBit(i) ? '1' : '0');
+        }
+        return String.format("(f=%s %s)", getFitness(), sb);
+    }
+}
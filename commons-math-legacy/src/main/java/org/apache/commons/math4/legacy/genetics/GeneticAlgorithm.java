@@ -16,8 +16,15 @@
  */
 package org.apache.commons.math4.legacy.genetics;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
 import org.apache.commons.math4.legacy.exception.OutOfRangeException;
 import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
+import org.apache.commons.math4.legacy.util.ConcurrentTasks;
 import org.apache.commons.rng.simple.RandomSource;
 import org.apache.commons.rng.UniformRandomProvider;
 
@@ -37,6 +44,20 @@ public class GeneticAlgorithm {
     //@GuardedBy("this")
     private static UniformRandomProvider randomGenerator = RandomSource.WELL_19937_C.create();
 
+    /**
+     * Random number generator of the current thread, set while a chunk of a
+     * generation is produced by a parallel genetic algorithm.
+     * When set, it takes precedence over {@link #randomGenerator}.
+     */
+    private static final ThreadLocal<UniformRandomProvider> LOCAL_GENERATOR = new ThreadLocal<>();
+
+    /**
+     * Number of pairs of offspring produced by each task of a parallel
+     * genetic algorithm. It does not depend on the number of threads, so
+     * that the result only depends on the seed.
+     */
+    private static final int CHUNK_SIZE = 32;
+
     /** the crossover policy used by the algorithm. */
     private final CrossoverPolicy crossoverPolicy;
 
@@ -52,6 +73,15 @@ public class GeneticAlgorithm {
     /** the selection policy used by the algorithm. */
     private final SelectionPolicy selectionPolicy;
 
+    /**
+     * Generator of the seeds of the per-task random generators
+     * ({@code null} if the algorithm is sequential).
+     */
+    private final UniformRandomProvider random;
+
+    /** Executor for producing the generations ({@code null} if sequential). */
+    private final ExecutorService executor;
+
     /** the number of generations evolved to reach {@link StoppingCondition} in the last run. */
     private int generationsEvolved;
 
@@ -69,6 +99,45 @@ public class GeneticAlgorithm {
                             final MutationPolicy mutationPolicy,
                             final double mutationRate,
                             final SelectionPolicy selectionPolicy) throws OutOfRangeException {
+        this(crossoverPolicy, crossoverRate, mutationPolicy, mutationRate, selectionPolicy, null, null);
+    }
+
+    /**
+     * Create a new parallel genetic algorithm.
+     * <p>
+     * Each generation is produced by independent tasks, each one creating a
+     * fixed number of offspring and evaluating their fitness. The tasks run
+     * on {@code executor}; while a task runs,
+     * {@link #getRandomGenerator()} returns a generator owned by the task,
+     * seeded from {@code random} before the tasks are started. Hence the
+     * evolution does not contend on the shared generator, and its result
+     * only depends on the seed of {@code random}, whatever the number of
+     * threads of {@code executor}.
+     * </p>
+     * <p>
+     * The policies and the {@link Fitness#fitness() fitness} function
+     * are called concurrently; they must be thread-safe and draw their
+     * random numbers from {@link #getRandomGenerator()}.
+     * </p>
+     *
+     * @param crossoverPolicy The {@link CrossoverPolicy}
+     * @param crossoverRate The crossover rate as a percentage (0-1 inclusive)
+     * @param mutationPolicy The {@link MutationPolicy}
+     * @param mutationRate The mutation rate as a percentage (0-1 inclusive)
+     * @param selectionPolicy The {@link SelectionPolicy}
+     * @param random Generator of the seeds of the per-task generators.
+     * @param executor Executor for running the tasks, or {@code null} to
+     * run them sequentially in the calling thread.
+     * @throws OutOfRangeException if the crossover or mutation rate is outside the [0, 1] range
+     * @since 4.0
+     */
+    public GeneticAlgorithm(final CrossoverPolicy crossoverPolicy,
+                            final double crossoverRate,
+                            final MutationPolicy mutationPolicy,
+                            final double mutationRate,
+                            final SelectionPolicy selectionPolicy,
+                            final UniformRandomProvider random,
+                            final ExecutorService executor) throws OutOfRangeException {
 
         if (crossoverRate < 0 || crossoverRate > 1) {
             throw new OutOfRangeException(LocalizedFormats.CROSSOVER_RATE,
@@ -83,6 +152,8 @@ public class GeneticAlgorithm {
         this.mutationPolicy = mutationPolicy;
         this.mutationRate = mutationRate;
         this.selectionPolicy = selectionPolicy;
+        this.random = random;
+        this.executor = executor;
     }
 
     /**
@@ -94,12 +165,24 @@ public class GeneticAlgorithm {
         randomGenerator = random;
     }
 
+    /**
+     * Returns the random generator to be used by GA implementation classes.
+     * This is the generator of the current task when called from a task of a
+     * parallel genetic algorithm, the (static) random generator otherwise.
+     *
+     * @return the random generator used by GA implementation classes
+     */
+    public static UniformRandomProvider getRandomGenerator() {
+        final UniformRandomProvider local = LOCAL_GENERATOR.get();
+        return local != null ? local : getSharedRandomGenerator();
+    }
+
     /**
      * Returns the (static) random generator.
      *
      * @return the static random generator shared by GA implementation classes
      */
-    public static synchronized UniformRandomProvider getRandomGenerator() {
+    private static synchronized UniformRandomProvider getSharedRandomGenerator() {
         return randomGenerator;
     }
 
@@ -116,6 +199,9 @@ public class GeneticAlgorithm {
     public Population evolve(final Population initial, final StoppingCondition condition) {
         Population current = initial;
         generationsEvolved = 0;
+        if (random != null) {
+            evaluate(current);
+        }
         while (!condition.isSatisfied(current)) {
             current = nextGeneration(current);
             generationsEvolved++;
@@ -145,6 +231,10 @@ public class GeneticAlgorithm {
      * @return the population for the next generation.
      */
     public Population nextGeneration(final Population current) {
+        if (random != null) {
+            return nextGenerationConcurrently(current);
+        }
+
         Population nextGeneration = current.nextGeneration();
 
         UniformRandomProvider randGen = getRandomGenerator();
@@ -179,6 +269,121 @@ public class GeneticAlgorithm {
         return nextGeneration;
     }
 
+    /**
+     * Produces the next generation with independent tasks.
+     * The offspring are created as in the sequential algorithm, by chunks
+     * of {@link #CHUNK_SIZE} pairs, each chunk using its own generator; the
+     * fitness of each offspring is computed by the task that created it.
+     *
+     * @param current the current population.
+     * @return the population for the next generation.
+     */
+    private Population nextGenerationConcurrently(final Population current) {
+        final Population nextGeneration = current.nextGeneration();
+        final int missing = nextGeneration.getPopulationLimit() - nextGeneration.getPopulationSize();
+        final int pairs = (missing + 1) / 2;
+
+        // draw the seeds of all tasks beforehand
+        final List<Callable<List<Chromosome>>> tasks = new ArrayList<>();
+        for (int start = 0; start < pairs; start += CHUNK_SIZE) {
+            final int size = Math.min(CHUNK_SIZE, pairs - start);
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(random.nextLong());
+            tasks.add(() -> withGenerator(rng, () -> offspring(current, size, rng)));
+        }
+
+        for (final List<Chromosome> chunk : ConcurrentTasks.invokeAll(executor, tasks)) {
+            for (final Chromosome c : chunk) {
+                if (nextGeneration.getPopulationSize() >= nextGeneration.getPopulationLimit()) {
+                    break;
+                }
+                nextGeneration.addChromosome(c);
+            }
+        }
+
+        return nextGeneration;
+    }
+
+    /**
+     * Creates offspring by selection, crossover and mutation, and computes
+     * their fitness.
+     *
+     * @param current the current population.
+     * @param pairs Number of pairs of offspring.
+     * @param randGen Random generator.
+     * @return the offspring.
+     */
+    private List<Chromosome> offspring(final Population current,
+                                       final int pairs,
+                                       final UniformRandomProvider randGen) {
+        final List<Chromosome> offspring = new ArrayList<>(2 * pairs);
+        for (int i = 0; i < pairs; i++) {
+            ChromosomePair pair = getSelectionPolicy().select(current);
+            if (randGen.nextDouble() < getCrossoverRate()) {
+                pair = getCrossoverPolicy().crossover(pair.getFirst(), pair.getSecond());
+            }
+            if (randGen.nextDouble() < getMutationRate()) {
+                pair = new ChromosomePair(
+                    getMutationPolicy().mutate(pair.getFirst()),
+                    getMutationPolicy().mutate(pair.getSecond()));
+            }
+            offspring.add(pair.getFirst());
+            offspring.add(pair.getSecond());
+        }
+        for (final Chromosome c : offspring) {
+            c.getFitness();
+        }
+        return offspring;
+    }
+
+    /**
+     * Computes the fitness of all the chromosomes of a population with
+     * independent tasks.
+     *
+     * @param population Population.
+     */
+    private void evaluate(final Population population) {
+        final List<Callable<List<Chromosome>>> tasks = new ArrayList<>();
+        final Iterator<Chromosome> it = population.iterator();
+        while (it.hasNext()) {
+            final List<Chromosome> chunk = new ArrayList<>(2 * CHUNK_SIZE);
+            while (it.hasNext() && chunk.size() < 2 * CHUNK_SIZE) {
+                chunk.add(it.next());
+            }
+            tasks.add(() -> {
+                for (final Chromosome c : chunk) {
+                    c.getFitness();
+                }
+                return chunk;
+            });
+        }
+        ConcurrentTasks.invokeAll(executor, tasks);
+    }
+
+    /**
+     * Runs a computation with the given generator set as the generator of
+     * the current thread.
+     *
+     * @param <T> Type of the result.
+     * @param rng Generator.
+     * @param task Computation.
+     * @return the result of the computation.
+     * @throws Exception if the computation fails.
+     */
+    private static <T> T withGenerator(final UniformRandomProvider rng,
+                                       final Callable<T> task) throws Exception {
+        final UniformRandomProvider previous = LOCAL_GENERATOR.get();
+        LOCAL_GENERATOR.set(rng);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                LOCAL_GENERATOR.remove();
+            } else {
+                LOCAL_GENERATOR.set(previous);
+            }
+        }
+    }
+
     /**
      * Returns the crossover policy.
      * @return crossover policy
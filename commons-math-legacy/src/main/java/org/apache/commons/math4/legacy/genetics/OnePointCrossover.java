@@ -41,8 +41,9 @@ import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
  * c1 = (1 0 1 0 0 1  | 1 1 1)    X    c2 = (0 1 1 0 1 0  | 0 1 1)
  * </pre>
  *
- * This policy works only on {@link AbstractListChromosome}, and therefore it
- * is parameterized by T. Moreover, the chromosomes must have same lengths.
+ * This policy works on {@link AbstractListChromosome}, and therefore it
+ * is parameterized by T, and on {@link BitsetChromosome}. Moreover, the
+ * chromosomes must have same lengths.
  *
  * @param <T> generic type of the {@link AbstractListChromosome}s for crossover
  * @since 2.0
@@ -70,8 +71,8 @@ public class OnePointCrossover<T> implements CrossoverPolicy {
      * @param first first parent (p1)
      * @param second second parent (p2)
      * @return pair of two children (c1,c2)
-     * @throws MathIllegalArgumentException iff one of the chromosomes is
-     *   not an instance of {@link AbstractListChromosome}
+     * @throws MathIllegalArgumentException iff the chromosomes are not both
+     *   instances of {@link AbstractListChromosome} or {@link BitsetChromosome}
      * @throws DimensionMismatchException if the length of the two chromosomes is different
      */
     @Override
@@ -79,6 +80,9 @@ public class OnePointCrossover<T> implements CrossoverPolicy {
     public ChromosomePair crossover(final Chromosome first, final Chromosome second)
         throws DimensionMismatchException, MathIllegalArgumentException {
 
+        if (first instanceof BitsetChromosome && second instanceof BitsetChromosome) {
+            return crossover((BitsetChromosome) first, (BitsetChromosome) second);
+        }
         if (! (first instanceof AbstractListChromosome<?> && second instanceof AbstractListChromosome<?>)) {
             throw new MathIllegalArgumentException(LocalizedFormats.INVALID_FIXED_LENGTH_CHROMOSOME);
         }
@@ -125,4 +129,44 @@ public class OnePointCrossover<T> implements CrossoverPolicy {
         return new ChromosomePair(first.newFixedLengthChromosome(child1Rep),
                                   second.newFixedLengthChromosome(child2Rep));
     }
+
+    /**
+     * Helper for {@link #crossover(Chromosome, Chromosome)}. Performs the actual
+     * crossover, a word at a time.
+     *
+     * @param first the first chromosome.
+     * @param second the second chromosome.
+     * @return the pair of new chromosomes that resulted from the crossover.
+     * @throws DimensionMismatchException if the length of the two chromosomes is different
+     */
+    private static ChromosomePair crossover(final BitsetChromosome first,
+                                            final BitsetChromosome second) throws DimensionMismatchException {
+        final int length = first.getLength();
+        if (length != second.getLength()) {
+            throw new DimensionMismatchException(second.getLength(), length);
+        }
+
+        // select a crossover point at random (0 and length makes no sense)
+        final int crossoverIndex = 1 + (GeneticAlgorithm.getRandomGenerator().nextInt(length-2));
+
+        // the children start as copies of the parents
+        final long[] child1Rep = first.getWords();
+        final long[] child2Rep = second.getWords();
+
+        // switch the second part of the word containing the crossover point
+        final int crossoverWord = crossoverIndex / BitsetChromosome.WORD_SIZE;
+        final long secondPart = -1L << crossoverIndex;
+        final long diff = (child1Rep[crossoverWord] ^ child2Rep[crossoverWord]) & secondPart;
+        child1Rep[crossoverWord] ^= diff;
+        child2Rep[crossoverWord] ^= diff;
+        // and the following words
+        for (int i = crossoverWord + 1; i < child1Rep.length; i++) {
+            final long w = child1Rep[i];
+            child1Rep[i] = child2Rep[i];
+            child2Rep[i] = w;
+        }
+
+        return new ChromosomePair(first.newBitsetChromosome(child1Rep),
+                                  second.newBitsetChromosome(child2Rep));
+    }
 }
@@ -39,8 +39,9 @@ import org.apache.commons.rng.UniformRandomProvider;
  * first parent and 70% from the second parent will be selected for the first offspring (and
  * vice versa for the second offspring).
  * <p>
- * This policy works only on {@link AbstractListChromosome}, and therefore it
- * is parameterized by T. Moreover, the chromosomes must have same lengths.
+ * This policy works on {@link AbstractListChromosome}, and therefore it
+ * is parameterized by T, and on {@link BitsetChromosome}. Moreover, the
+ * chromosomes must have same lengths.
  *
  * @see <a href="http://en.wikipedia.org/wiki/Crossover_%28genetic_algorithm%29">Crossover techniques (Wikipedia)</a>
  * @see <a href="http://www.obitko.com/tutorials/genetic-algorithms/crossover-mutation.php">Crossover (Obitko.com)</a>
@@ -78,8 +79,8 @@ public class UniformCrossover<T> implements CrossoverPolicy {
     /**
      * {@inheritDoc}
      *
-     * @throws MathIllegalArgumentException iff one of the chromosomes is
-     *   not an instance of {@link AbstractListChromosome}
+     * @throws MathIllegalArgumentException iff the chromosomes are not both
+     *   instances of {@link AbstractListChromosome} or {@link BitsetChromosome}
      * @throws DimensionMismatchException if the length of the two chromosomes is different
      */
     @Override
@@ -87,6 +88,9 @@ public class UniformCrossover<T> implements CrossoverPolicy {
     public ChromosomePair crossover(final Chromosome first, final Chromosome second)
         throws DimensionMismatchException, MathIllegalArgumentException {
 
+        if (first instanceof BitsetChromosome && second instanceof BitsetChromosome) {
+            return mate((BitsetChromosome) first, (BitsetChromosome) second);
+        }
         if (!(first instanceof AbstractListChromosome<?> && second instanceof AbstractListChromosome<?>)) {
             throw new MathIllegalArgumentException(LocalizedFormats.INVALID_FIXED_LENGTH_CHROMOSOME);
         }
@@ -132,4 +136,45 @@ public class UniformCrossover<T> implements CrossoverPolicy {
         return new ChromosomePair(first.newFixedLengthChromosome(child1Rep),
                                   second.newFixedLengthChromosome(child2Rep));
     }
+
+    /**
+     * Helper for {@link #crossover(Chromosome, Chromosome)}. Performs the actual
+     * crossover: the bits to swap are collected in a mask, which is then applied
+     * a word at a time.
+     *
+     * @param first the first chromosome
+     * @param second the second chromosome
+     * @return the pair of new chromosomes that resulted from the crossover
+     * @throws DimensionMismatchException if the length of the two chromosomes is different
+     */
+    private ChromosomePair mate(final BitsetChromosome first,
+                                final BitsetChromosome second) throws DimensionMismatchException {
+        final int length = first.getLength();
+        if (length != second.getLength()) {
+            throw new DimensionMismatchException(second.getLength(), length);
+        }
+
+        // the children start as copies of the parents
+        final long[] child1Rep = first.getWords();
+        final long[] child2Rep = second.getWords();
+
+        final UniformRandomProvider random = GeneticAlgorithm.getRandomGenerator();
+
+        for (int w = 0; w < child1Rep.length; w++) {
+            final int bits = Math.min(BitsetChromosome.WORD_SIZE, length - w * BitsetChromosome.WORD_SIZE);
+            long swap = 0;
+            for (int b = 0; b < bits; b++) {
+                if (random.nextDouble() < ratio) {
+                    // swap the bits -> take other parent
+                    swap |= 1L << b;
+                }
+            }
+            final long diff = (child1Rep[w] ^ child2Rep[w]) & swap;
+            child1Rep[w] ^= diff;
+            child2Rep[w] ^= diff;
+        }
+
+        return new ChromosomePair(first.newBitsetChromosome(child1Rep),
+                                  second.newBitsetChromosome(child2Rep));
+    }
 }
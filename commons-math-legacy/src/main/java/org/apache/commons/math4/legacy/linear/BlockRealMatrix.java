@@ -19,6 +19,8 @@ package org.apache.commons.math4.legacy.linear;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.NoDataException;
@@ -70,6 +72,12 @@ import org.apache.commons.math4.core.jdkmath.JdkMath;
 public class BlockRealMatrix extends AbstractRealMatrix implements Serializable {
     /** Block size. */
     public static final int BLOCK_SIZE = 52;
+    /**
+     * Default minimum number of output blocks for which
+     * {@link #multiply(BlockRealMatrix, ForkJoinPool)} runs in parallel.
+     * @since 4.0
+     */
+    public static final int PARALLEL_MULTIPLY_THRESHOLD = 4;
     /** Serializable version identifier. */
     private static final long serialVersionUID = 4991895511313664478L;
     /** Blocks of matrix entries. */
@@ -536,57 +544,144 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
         final BlockRealMatrix out = new BlockRealMatrix(rows, m.columns);
 
         // perform multiplication block-wise, to ensure good cache behavior
-        int blockIndex = 0;
-        for (int iBlock = 0; iBlock < out.blockRows; ++iBlock) {
+        multiplyBlocks(m, out, 0, out.blocks.length);
+
+        return out;
+    }
+
+    /**
+     * Returns the result of postmultiplying this by {@code m}, computing
+     * the output blocks concurrently.
+     * <p>
+     * This is equivalent to calling {@link #multiply(BlockRealMatrix,
+     * ForkJoinPool, int) multiply(m, pool, PARALLEL_MULTIPLY_THRESHOLD)}.
+     * </p>
+     *
+     * @param m Matrix to postmultiply by.
+     * @param pool Pool in which the output blocks are computed.
+     * @return {@code this} * m.
+     * @throws DimensionMismatchException if the matrices are not compatible.
+     * @throws NullArgumentException if {@code pool} is {@code null}.
+     * @since 4.0
+     */
+    public BlockRealMatrix multiply(BlockRealMatrix m,
+                                    ForkJoinPool pool)
+        throws DimensionMismatchException, NullArgumentException {
+        return multiply(m, pool, PARALLEL_MULTIPLY_THRESHOLD);
+    }
+
+    /**
+     * Returns the result of postmultiplying this by {@code m}, computing
+     * the output blocks concurrently.
+     * <p>
+     * Each output block depends only on one block row of {@code this} and
+     * one block column of {@code m}, so the blocks are computed independently
+     * by tasks submitted to {@code pool}. Each block is computed with exactly
+     * the same sequence of floating point operations as in the serial
+     * {@link #multiply(BlockRealMatrix)} method, hence the result is
+     * bit-for-bit identical to the serial one.
+     * </p>
+     * <p>
+     * When the product has fewer than {@code threshold} output blocks, the
+     * overhead of task scheduling is not worth it and the product is computed
+     * serially in the calling thread.
+     * </p>
+     *
+     * @param m Matrix to postmultiply by.
+     * @param pool Pool in which the output blocks are computed.
+     * @param threshold Minimum number of output blocks for which the
+     * computation is split across the pool.
+     * @return {@code this} * m.
+     * @throws DimensionMismatchException if the matrices are not compatible.
+     * @throws NullArgumentException if {@code pool} is {@code null}.
+     * @throws NotStrictlyPositiveException if {@code threshold <= 0}.
+     * @since 4.0
+     */
+    public BlockRealMatrix multiply(BlockRealMatrix m,
+                                    ForkJoinPool pool,
+                                    int threshold)
+        throws DimensionMismatchException, NullArgumentException, NotStrictlyPositiveException {
+        NullArgumentException.check(pool);
+        if (threshold <= 0) {
+            throw new NotStrictlyPositiveException(threshold);
+        }
+
+        // safety check
+        checkMultiply(m);
+
+        final BlockRealMatrix out = new BlockRealMatrix(rows, m.columns);
+
+        final int nBlocks = out.blocks.length;
+        if (nBlocks < threshold) {
+            multiplyBlocks(m, out, 0, nBlocks);
+        } else {
+            pool.invoke(new MultiplyTask(this, m, out, 0, nBlocks));
+        }
+
+        return out;
+    }
+
+    /**
+     * Computes a range of output blocks of the product {@code this} * m.
+     * <p>
+     * Blocks are identified by their index in the row major block layout
+     * of {@code out}. Only the blocks in the range are written, so disjoint
+     * ranges may safely be computed by different threads.
+     * </p>
+     *
+     * @param m Matrix to postmultiply by.
+     * @param out Matrix where the product is stored.
+     * @param start Index of the first output block to compute.
+     * @param end Index after the last output block to compute.
+     */
+    private void multiplyBlocks(final BlockRealMatrix m, final BlockRealMatrix out,
+                                final int start, final int end) {
+        for (int blockIndex = start; blockIndex < end; ++blockIndex) {
+            final int iBlock = blockIndex / out.blockColumns;
+            final int jBlock = blockIndex % out.blockColumns;
 
             final int pStart = iBlock * BLOCK_SIZE;
             final int pEnd = JdkMath.min(pStart + BLOCK_SIZE, rows);
 
-            for (int jBlock = 0; jBlock < out.blockColumns; ++jBlock) {
-                final int jWidth = out.blockWidth(jBlock);
-                final int jWidth2 = jWidth  + jWidth;
-                final int jWidth3 = jWidth2 + jWidth;
-                final int jWidth4 = jWidth3 + jWidth;
+            final int jWidth = out.blockWidth(jBlock);
+            final int jWidth2 = jWidth  + jWidth;
+            final int jWidth3 = jWidth2 + jWidth;
+            final int jWidth4 = jWidth3 + jWidth;
 
-                // select current block
-                final double[] outBlock = out.blocks[blockIndex];
+            // select current block
+            final double[] outBlock = out.blocks[blockIndex];
 
-                // perform multiplication on current block
-                for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
-                    final int kWidth = blockWidth(kBlock);
-                    final double[] tBlock = blocks[iBlock * blockColumns + kBlock];
-                    final double[] mBlock = m.blocks[kBlock * m.blockColumns + jBlock];
-                    int k = 0;
-                    for (int p = pStart; p < pEnd; ++p) {
-                        final int lStart = (p - pStart) * kWidth;
-                        final int lEnd = lStart + kWidth;
-                        for (int nStart = 0; nStart < jWidth; ++nStart) {
-                            double sum = 0;
-                            int l = lStart;
-                            int n = nStart;
-                            while (l < lEnd - 3) {
-                                sum += tBlock[l] * mBlock[n] +
-                                       tBlock[l + 1] * mBlock[n + jWidth] +
-                                       tBlock[l + 2] * mBlock[n + jWidth2] +
-                                       tBlock[l + 3] * mBlock[n + jWidth3];
-                                l += 4;
-                                n += jWidth4;
-                            }
-                            while (l < lEnd) {
-                                sum += tBlock[l++] * mBlock[n];
-                                n += jWidth;
-                            }
-                            outBlock[k] += sum;
-                            ++k;
+            // perform multiplication on current block
+            for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
+                final int kWidth = blockWidth(kBlock);
+                final double[] tBlock = blocks[iBlock * blockColumns + kBlock];
+                final double[] mBlock = m.blocks[kBlock * m.blockColumns + jBlock];
+                int k = 0;
+                for (int p = pStart; p < pEnd; ++p) {
+                    final int lStart = (p - pStart) * kWidth;
+                    final int lEnd = lStart + kWidth;
+                    for (int nStart = 0; nStart < jWidth; ++nStart) {
+                        double sum = 0;
+                        int l = lStart;
+                        int n = nStart;
+                        while (l < lEnd - 3) {
+                            sum += tBlock[l] * mBlock[n] +
+                                   tBlock[l + 1] * mBlock[n + jWidth] +
+                                   tBlock[l + 2] * mBlock[n + jWidth2] +
+                                   tBlock[l + 3] * mBlock[n + jWidth3];
+                            l += 4;
+                            n += jWidth4;
+                        }
+                        while (l < lEnd) {
+                            sum += tBlock[l++] * mBlock[n];
+                            n += jWidth;
                         }
+                        outBlock[k] += sum;
+                        ++k;
                     }
                 }
-                // go to next block
-                ++blockIndex;
             }
         }
-
-        return out;
     }
 
     /** {@inheritDoc} */
@@ -1575,4 +1670,56 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
     private int blockWidth(final int blockColumn) {
         return (blockColumn == blockColumns - 1) ? columns - blockColumn * BLOCK_SIZE : BLOCK_SIZE;
     }
+
+    /**
+     * Task computing a range of output blocks of a matrix product.
+     * <p>
+     * The range is split in halves until it contains a single block,
+     * and each block is computed by
+     * {@link BlockRealMatrix#multiplyBlocks(BlockRealMatrix, BlockRealMatrix, int, int)}.
+     * </p>
+     */
+    private static final class MultiplyTask extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261017L;
+        /** Left operand. */
+        private final BlockRealMatrix left;
+        /** Right operand. */
+        private final BlockRealMatrix right;
+        /** Product. */
+        private final BlockRealMatrix out;
+        /** Index of the first output block to compute. */
+        private final int start;
+        /** Index after the last output block to compute. */
+        private final int end;
+
+        /**
+         * @param left Left operand.
+         * @param right Right operand.
+         * @param out Product.
+         * @param start Index of the first output block to compute.
+         * @param end Index after the last output block to compute.
+         */
+        MultiplyTask(final BlockRealMatrix left, final BlockRealMatrix right,
+                     final BlockRealMatrix out, final int start, final int end) {
+            this.left = left;
+            this.right = right;
+            this.out = out;
+            this.start = start;
+            this.end = end;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            final int n = end - start;
+            if (n == 1) {
+                left.multiplyBlocks(right, out, start, end);
+            } else {
+                final int mid = start + n / 2;
+                invokeAll(new MultiplyTask(left, right, out, start, mid),
+                          new MultiplyTask(left, right, out, mid, end));
+            }
+        }
+    }
 }
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import java.io.Serializable;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MathUnsupportedOperationException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.exception.NumberIsTooLargeException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+
+/**
+ * Immutable sparse matrix in compressed sparse column (CSC) format.
+ * <p>
+ * The non-zero entries of each column are stored contiguously, sorted by
+ * row index. This makes the product with a vector
+ * ({@link #operate(double[]) operate}) and with its transpose
+ * ({@link #preMultiply(double[]) preMultiply}) much faster than with
+ * {@link OpenMapRealMatrix}; the latter is the faster of the two.
+ * {@link #transpose()} does not copy the entries.
+ * </p>
+ * <p>
+ * Instances are created by a {@link SparseRealMatrixBuilder}, or by
+ * conversion from another matrix. The methods that would modify the
+ * matrix throw {@link MathUnsupportedOperationException}.
+ * </p>
+ * <p>
+ *  Caveat: As with {@link OpenMapRealMatrix}, the entries that are not
+ *  stored are assumed to be zero, and {@code x * 0d == 0d} is assumed to
+ *  hold for any {@code x}.
+ * </p>
+ *
+ * @see CompressedRowRealMatrix
+ * @since 4.0
+ */
+public class CompressedColumnRealMatrix extends AbstractRealMatrix
+    implements SparseRealMatrix, Serializable {
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20261017L;
+    /** Storage (major index is the column index). */
+    private final CompressedStorage storage;
+
+    /**
+     * Creates a matrix with the same entries as another matrix.
+     * The conversion only visits the non-zero entries if {@code matrix} is
+     * an {@link OpenMapRealMatrix}.
+     *
+     * @param matrix Matrix to convert.
+     */
+    public CompressedColumnRealMatrix(RealMatrix matrix) {
+        this(SparseRealMatrixBuilder.of(matrix).buildCompressedColumn().storage);
+    }
+
+    /**
+     * @param storage Storage (major index is the column index).
+     */
+    CompressedColumnRealMatrix(CompressedStorage storage) {
+        super(storage.getMinorDimension(), storage.getMajorDimension());
+        this.storage = storage;
+    }
+
+    /**
+     * @return the storage (major index is the column index).
+     */
+    CompressedStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Gets the number of stored (non-zero) entries.
+     *
+     * @return the number of stored entries.
+     */
+    public int getNonZeroCount() {
+        return storage.getNonZeroCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return storage.getMinorDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return storage.getMajorDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(int row, int column) throws OutOfRangeException {
+        MatrixUtils.checkRowIndex(this, row);
+        MatrixUtils.checkColumnIndex(this, column);
+        return storage.get(column, row);
+    }
+
+    /**
+     * Unsupported operation: the matrix is immutable.
+     *
+     * @param row Row index.
+     * @param column Column index.
+     * @param value Value.
+     * @throws MathUnsupportedOperationException always.
+     */
+    @Override
+    public void setEntry(int row, int column, double value) {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * Unsupported operation: the matrix is immutable.
+     *
+     * @param row Row index.
+     * @param column Column index.
+     * @param increment Increment.
+     * @throws MathUnsupportedOperationException always.
+     */
+    @Override
+    public void addToEntry(int row, int column, double increment) {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * Unsupported operation: the matrix is immutable.
+     *
+     * @param row Row index.
+     * @param column Column index.
+     * @param factor Factor.
+     * @throws MathUnsupportedOperationException always.
+     */
+    @Override
+    public void multiplyEntry(int row, int column, double factor) {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Since instances are immutable, the copy shares the storage of this
+     * instance.
+     */
+    @Override
+    public CompressedColumnRealMatrix copy() {
+        return new CompressedColumnRealMatrix(storage);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned matrix is a (mutable) {@link OpenMapRealMatrix}.
+     *
+     * @throws NumberIsTooLargeException if the total number of entries of the
+     * matrix is larger than {@code Integer.MAX_VALUE}.
+     */
+    @Override
+    public OpenMapRealMatrix createMatrix(int rowDimension, int columnDimension)
+        throws NotStrictlyPositiveException, NumberIsTooLargeException {
+        return new OpenMapRealMatrix(rowDimension, columnDimension);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The transpose shares the storage of this instance.
+     */
+    @Override
+    public CompressedRowRealMatrix transpose() {
+        return new CompressedRowRealMatrix(storage);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] operate(final double[] v) throws DimensionMismatchException {
+        final int nCols = getColumnDimension();
+        if (v.length != nCols) {
+            throw new DimensionMismatchException(v.length, nCols);
+        }
+        final double[] out = new double[getRowDimension()];
+        storage.scatter(v, out);
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector v) throws DimensionMismatchException {
+        return new ArrayRealVector(operate(CompressedRowRealMatrix.toArray(v)), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v) throws DimensionMismatchException {
+        final int nRows = getRowDimension();
+        if (v.length != nRows) {
+            throw new DimensionMismatchException(v.length, nRows);
+        }
+        final double[] out = new double[getColumnDimension()];
+        storage.gather(v, out, 0, out.length);
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v) throws DimensionMismatchException {
+        return new ArrayRealVector(preMultiply(CompressedRowRealMatrix.toArray(v)), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operateTranspose(final RealVector x) throws DimensionMismatchException {
+        return preMultiply(x);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isTransposable() {
+        return true;
+    }
+}
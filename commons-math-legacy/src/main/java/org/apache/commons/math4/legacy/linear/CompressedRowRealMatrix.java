@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import java.io.Serializable;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MathUnsupportedOperationException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.exception.NumberIsTooLargeException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+
+/**
+ * Immutable sparse matrix in compressed sparse row (CSR) format.
+ * <p>
+ * The non-zero entries of each row are stored contiguously, sorted by
+ * column index. This makes the product with a vector
+ * ({@link #operate(double[]) operate}), which dominates the cost of the
+ * {@link IterativeLinearSolver iterative solvers}, much faster than with
+ * {@link OpenMapRealMatrix}. The product with the transpose
+ * ({@link #preMultiply(double[]) preMultiply}) is also efficient, and
+ * {@link #transpose()} does not copy the entries.
+ * </p>
+ * <p>
+ * Instances are created by a {@link SparseRealMatrixBuilder}, or by
+ * conversion from another matrix. The methods that would modify the
+ * matrix throw {@link MathUnsupportedOperationException}.
+ * </p>
+ * <p>
+ *  Caveat: As with {@link OpenMapRealMatrix}, the entries that are not
+ *  stored are assumed to be zero, and {@code x * 0d == 0d} is assumed to
+ *  hold for any {@code x}.
+ * </p>
+ *
+ * @see CompressedColumnRealMatrix
+ * @since 4.0
+ */
+public class CompressedRowRealMatrix extends AbstractRealMatrix
+    implements SparseRealMatrix, Serializable {
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20261017L;
+    /** Storage (major index is the row index). */
+    private final CompressedStorage storage;
+
+    /**
+     * Creates a matrix with the same entries as another matrix.
+     * The conversion only visits the non-zero entries if {@code matrix} is
+     * an {@link OpenMapRealMatrix}.
+     *
+     * @param matrix Matrix to convert.
+     */
+    public CompressedRowRealMatrix(RealMatrix matrix) {
+        this(SparseRealMatrixBuilder.of(matrix).buildCompressedRow().storage);
+    }
+
+    /**
+     * @param storage Storage (major index is the row index).
+     */
+    CompressedRowRealMatrix(CompressedStorage storage) {
+        super(storage.getMajorDimension(), storage.getMinorDimension());
+        this.storage = storage;
+    }
+
+    /**
+     * @return the storage (major index is the row index).
+     */
+    CompressedStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Gets the number of stored (non-zero) entries.
+     *
+     * @return the number of stored entries.
+     */
+    public int getNonZeroCount() {
+        return storage.getNonZeroCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return storage.getMajorDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return storage.getMinorDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(int row, int column) throws OutOfRangeException {
+        MatrixUtils.checkRowIndex(this, row);
+        MatrixUtils.checkColumnIndex(this, column);
+        return storage.get(row, column);
+    }
+
+    /**
+     * Unsupported operation: the matrix is immutable.
+     *
+     * @param row Row index.
+     * @param column Column index.
+     * @param value Value.
+     * @throws MathUnsupportedOperationException always.
+     */
+    @Override
+    public void setEntry(int row, int column, double value) {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * Unsupported operation: the matrix is immutable.
+     *
+     * @param row Row index.
+     * @param column Column index.
+     * @param increment Increment.
+     * @throws MathUnsupportedOperationException always.
+     */
+    @Override
+    public void addToEntry(int row, int column, double increment) {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * Unsupported operation: the matrix is immutable.
+     *
+     * @param row Row index.
+     * @param column Column index.
+     * @param factor Factor.
+     * @throws MathUnsupportedOperationException always.
+     */
+    @Override
+    public void multiplyEntry(int row, int column, double factor) {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Since instances are immutable, the copy shares the storage of this
+     * instance.
+     */
+    @Override
+    public CompressedRowRealMatrix copy() {
+        return new CompressedRowRealMatrix(storage);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned matrix is a (mutable) {@link OpenMapRealMatrix}.
+     *
+     * @throws NumberIsTooLargeException if the total number of entries of the
+     * matrix is larger than {@code Integer.MAX_VALUE}.
+     */
+    @Override
+    public OpenMapRealMatrix createMatrix(int rowDimension, int columnDimension)
+        throws NotStrictlyPositiveException, NumberIsTooLargeException {
+        return new OpenMapRealMatrix(rowDimension, columnDimension);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The transpose shares the storage of this instance.
+     */
+    @Override
+    public CompressedColumnRealMatrix transpose() {
+        return new CompressedColumnRealMatrix(storage);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] operate(final double[] v) throws DimensionMismatchException {
+        final int nCols = getColumnDimension();
+        if (v.length != nCols) {
+            throw new DimensionMismatchException(v.length, nCols);
+        }
+        final double[] out = new double[getRowDimension()];
+        storage.gather(v, out, 0, out.length);
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector v) throws DimensionMismatchException {
+        return new ArrayRealVector(operate(toArray(v)), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v) throws DimensionMismatchException {
+        final int nRows = getRowDimension();
+        if (v.length != nRows) {
+            throw new DimensionMismatchException(v.length, nRows);
+        }
+        final double[] out = new double[getColumnDimension()];
+        storage.scatter(v, out);
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v) throws DimensionMismatchException {
+        return new ArrayRealVector(preMultiply(toArray(v)), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operateTranspose(final RealVector x) throws DimensionMismatchException {
+        return preMultiply(x);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isTransposable() {
+        return true;
+    }
+
+    /**
+     * @param v Vector.
+     * @return the entries of {@code v} (not copied if possible).
+     */
+    static double[] toArray(RealVector v) {
+        return v instanceof ArrayRealVector ?
+            ((ArrayRealVector) v).getDataRef() :
+            v.toArray();
+    }
+}
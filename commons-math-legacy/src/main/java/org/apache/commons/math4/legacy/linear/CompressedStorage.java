@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Storage of a sparse matrix in compressed form: the non-zero entries are
+ * grouped by "major" index (the row index for the compressed sparse row
+ * format, the column index for the compressed sparse column format) and
+ * sorted by "minor" index within each group.
+ * Instances are immutable.
+ *
+ * @since 4.0
+ */
+final class CompressedStorage implements Serializable { // Not in public API.
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20261017L;
+    /** Number of major indices. */
+    private final int majorDimension;
+    /** Number of minor indices. */
+    private final int minorDimension;
+    /**
+     * Entries of major index {@code i} are stored at positions
+     * {@code pointers[i]} (inclusive) to {@code pointers[i + 1]} (exclusive).
+     */
+    private final int[] pointers;
+    /** Minor index of each entry. */
+    private final int[] indices;
+    /** Value of each entry. */
+    private final double[] values;
+
+    /**
+     * @param majorDimension Number of major indices.
+     * @param minorDimension Number of minor indices.
+     * @param pointers Start of the entries of each major index.
+     * @param indices Minor index of each entry.
+     * @param values Value of each entry.
+     */
+    private CompressedStorage(int majorDimension,
+                              int minorDimension,
+                              int[] pointers,
+                              int[] indices,
+                              double[] values) {
+        this.majorDimension = majorDimension;
+        this.minorDimension = minorDimension;
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    /**
+     * Creates the storage from entries given in coordinate format.
+     * Entries with the same indices are summed (in the order in which they
+     * appear); entries whose value is zero are not stored.
+     *
+     * @param majorDimension Number of major indices.
+     * @param minorDimension Number of minor indices.
+     * @param major Major index of each entry.
+     * @param minor Minor index of each entry.
+     * @param value Value of each entry.
+     * @param count Number of entries.
+     * @return the compressed storage.
+     */
+    static CompressedStorage create(int majorDimension,
+                                    int minorDimension,
+                                    int[] major,
+                                    int[] minor,
+                                    double[] value,
+                                    int count) {
+        // Counting sort by minor index.
+        final int[] byMinor = new int[count];
+        final int[] start = new int[JdkMath.max(majorDimension, minorDimension) + 1];
+        for (int k = 0; k < count; k++) {
+            ++start[minor[k] + 1];
+        }
+        for (int j = 0; j < minorDimension; j++) {
+            start[j + 1] += start[j];
+        }
+        for (int k = 0; k < count; k++) {
+            byMinor[start[minor[k]]++] = k;
+        }
+
+        // Stable counting sort by major index.
+        final int[] order = new int[count];
+        Arrays.fill(start, 0);
+        for (int k = 0; k < count; k++) {
+            ++start[major[k] + 1];
+        }
+        for (int i = 0; i < majorDimension; i++) {
+            start[i + 1] += start[i];
+        }
+        for (final int k : byMinor) {
+            order[start[major[k]]++] = k;
+        }
+
+        // Sum duplicates and drop zeros.
+        final int[] pointers = new int[majorDimension + 1];
+        final int[] indices = new int[count];
+        final double[] values = new double[count];
+        int size = 0;
+        int k = 0;
+        for (int i = 0; i < majorDimension; i++) {
+            while (k < count && major[order[k]] == i) {
+                final int j = minor[order[k]];
+                double sum = value[order[k]];
+                ++k;
+                while (k < count && major[order[k]] == i && minor[order[k]] == j) {
+                    sum += value[order[k]];
+                    ++k;
+                }
+                if (sum != 0) {
+                    indices[size] = j;
+                    values[size] = sum;
+                    ++size;
+                }
+            }
+            pointers[i + 1] = size;
+        }
+
+        return new CompressedStorage(majorDimension, minorDimension, pointers,
+                                     size == count ? indices : Arrays.copyOf(indices, size),
+                                     size == count ? values : Arrays.copyOf(values, size));
+    }
+
+    /**
+     * @return the number of major indices.
+     */
+    int getMajorDimension() {
+        return majorDimension;
+    }
+
+    /**
+     * @return the number of minor indices.
+     */
+    int getMinorDimension() {
+        return minorDimension;
+    }
+
+    /**
+     * @return the number of stored entries.
+     */
+    int getNonZeroCount() {
+        return values.length;
+    }
+
+    /**
+     * @return the start of the entries of each major index (not to be modified).
+     */
+    int[] getPointers() {
+        return pointers;
+    }
+
+    /**
+     * @return the minor index of each entry (not to be modified).
+     */
+    int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * @return the value of each entry (not to be modified).
+     */
+    double[] getValues() {
+        return values;
+    }
+
+    /**
+     * @param major Major index.
+     * @param minor Minor index.
+     * @return the value of the entry.
+     */
+    double get(int major,
+               int minor) {
+        final int k = Arrays.binarySearch(indices, pointers[major], pointers[major + 1], minor);
+        return k < 0 ? 0 : values[k];
+    }
+
+    /**
+     * Computes the product with a vector indexed by minor index, for a range
+     * of major indices: {@code y[i] = sum_j a(i, j) x[j]}.
+     *
+     * @param x Vector (indexed by minor index).
+     * @param y Result (indexed by major index).
+     * @param from First major index (inclusive).
+     * @param to Last major index (exclusive).
+     */
+    void gather(double[] x,
+                double[] y,
+                int from,
+                int to) {
+        for (int i = from; i < to; i++) {
+            double sum = 0;
+            for (int k = pointers[i], end = pointers[i + 1]; k < end; k++) {
+                sum += values[k] * x[indices[k]];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Computes the product with a vector indexed by major index:
+     * {@code y[j] = sum_i a(i, j) x[i]}.
+     *
+     * @param x Vector (indexed by major index).
+     * @param y Result (indexed by minor index), initially filled with zeros.
+     */
+    void scatter(double[] x,
+                 double[] y) {
+        for (int i = 0; i < majorDimension; i++) {
+            final double xi = x[i];
+            for (int k = pointers[i], end = pointers[i + 1]; k < end; k++) {
+                y[indices[k]] += values[k] * xi;
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package org.apache.commons.math4.legacy.linear;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
 import org.apache.commons.math4.legacy.exception.NullArgumentException;
@@ -125,6 +127,32 @@ public class ConjugateGradient
         this.check = check;
     }
 
+    /**
+     * Creates a new instance of this class, with <a href="#stopcrit">default
+     * stopping criterion</a>, custom iteration manager, and vector operations
+     * computed concurrently (see
+     * {@link PreconditionedIterativeLinearSolver#PreconditionedIterativeLinearSolver(IterationManager, ForkJoinPool)}).
+     * Note that setting {@code check} to {@code true} entails an extra
+     * matrix-vector product in the initial phase.
+     *
+     * @param manager the custom iteration manager
+     * @param delta the &delta; parameter for the default stopping criterion
+     * @param check {@code true} if positive definiteness of both matrix and
+     * preconditioner should be checked
+     * @param pool the pool in which the vector operations are computed
+     * @throws NullArgumentException if {@code manager} or {@code pool} is
+     * {@code null}
+     * @since 4.0
+     */
+    public ConjugateGradient(final IterationManager manager,
+                             final double delta, final boolean check,
+                             final ForkJoinPool pool)
+        throws NullArgumentException {
+        super(manager, pool);
+        this.delta = delta;
+        this.check = check;
+    }
+
     /**
      * Returns {@code true} if positive-definiteness should be checked for both
      * matrix and preconditioner.
@@ -151,9 +179,10 @@ public class ConjugateGradient
         MaxCountExceededException {
         checkParameters(a, m, b, x0);
         final IterationManager manager = getIterationManager();
+        final VectorKernels kernels = getVectorKernels();
         // Initialization of default stopping criterion
         manager.resetIterationCount();
-        final double rmax = delta * b.getNorm();
+        final double rmax = delta * kernels.getNorm(b);
         final RealVector bro = RealVector.unmodifiableRealVector(b);
 
         // Initialization phase counts as one iteration.
@@ -168,7 +197,7 @@ public class ConjugateGradient
 
         final RealVector r = b.combine(1, -1, q);
         final RealVector rro = RealVector.unmodifiableRealVector(r);
-        double rnorm = r.getNorm();
+        double rnorm = kernels.getNorm(r);
         RealVector z;
         if (m == null) {
             z = r;
@@ -192,7 +221,7 @@ public class ConjugateGradient
             if (m != null) {
                 z = m.operate(r);
             }
-            final double rhoNext = r.dotProduct(z);
+            final double rhoNext = kernels.dotProduct(r, z);
             if (check && rhoNext <= 0) {
                 final NonPositiveDefiniteOperatorException e;
                 e = new NonPositiveDefiniteOperatorException();
@@ -204,10 +233,10 @@ public class ConjugateGradient
             if (manager.getIterations() == 2) {
                 p.setSubVector(0, z);
             } else {
-                p.combineToSelf(rhoNext / rhoPrev, 1., z);
+                kernels.combineToSelf(rhoNext / rhoPrev, 1., p, z);
             }
             q = a.operate(p);
-            final double pq = p.dotProduct(q);
+            final double pq = kernels.dotProduct(p, q);
             if (check && pq <= 0) {
                 final NonPositiveDefiniteOperatorException e;
                 e = new NonPositiveDefiniteOperatorException();
@@ -217,10 +246,10 @@ public class ConjugateGradient
                 throw e;
             }
             final double alpha = rhoNext / pq;
-            x.combineToSelf(1., alpha, p);
-            r.combineToSelf(1., -alpha, q);
+            kernels.combineToSelf(1., alpha, x, p);
+            kernels.combineToSelf(1., -alpha, r, q);
             rhoPrev = rhoNext;
-            rnorm = r.getNorm();
+            rnorm = kernels.getNorm(r);
             evt = new DefaultIterativeLinearSolverEvent(this,
                 manager.getIterations(), xro, bro, rro, rnorm);
             manager.fireIterationPerformedEvent(evt);
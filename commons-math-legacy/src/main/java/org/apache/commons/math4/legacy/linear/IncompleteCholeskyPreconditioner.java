@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+
+/**
+ * Incomplete Cholesky preconditioner with no fill-in, IC(0).
+ * <p>
+ * For a symmetric positive definite matrix A, a lower triangular matrix L
+ * with the same sparsity pattern as the lower triangle of A is computed, such
+ * that (L &middot; L<sup>T</sup>)<sub>ij</sub> = A<sub>ij</sub> for all the
+ * non-zero entries of L. The preconditioner is
+ * M = (L &middot; L<sup>T</sup>)<sup>-1</sup>: it is symmetric positive
+ * definite, and can be used with {@link ConjugateGradient} and
+ * {@link SymmLQ}. Only the lower triangle of A is read.
+ * </p>
+ * <p>
+ * The factorization may break down even when A is positive definite (it
+ * cannot for M-matrices, e.g. the discretizations of the Poisson equation).
+ * </p>
+ *
+ * @since 4.0
+ */
+public final class IncompleteCholeskyPreconditioner
+    extends IncompleteFactorizationPreconditioner {
+
+    /**
+     * @param pointers Start of the entries of each row of L.
+     * @param indices Column index of each entry of L.
+     * @param values Value of each entry of L.
+     * @param diagonal Position of the diagonal entry of each row of L.
+     * @param constructionTime Construction time, in nanoseconds.
+     */
+    private IncompleteCholeskyPreconditioner(int[] pointers,
+                                             int[] indices,
+                                             double[] values,
+                                             int[] diagonal,
+                                             long constructionTime) {
+        super(pointers, indices, values, diagonal, constructionTime);
+    }
+
+    /**
+     * Computes the incomplete Cholesky factorization of the specified matrix.
+     *
+     * @param a Symmetric positive definite matrix (only the lower triangle
+     * is read). If it is not a {@link CompressedRowRealMatrix}, it is
+     * converted to one.
+     * @return the preconditioner.
+     * @throws NonSquareOperatorException if {@code a} is not square.
+     * @throws NonPositiveDefiniteMatrixException if a non-positive pivot is
+     * encountered (in particular, if a diagonal entry is missing).
+     */
+    public static IncompleteCholeskyPreconditioner create(final RealMatrix a) {
+        final long start = System.nanoTime();
+        final CompressedStorage storage = rowStorage(a);
+        final int n = storage.getMajorDimension();
+        final int[] aPointers = storage.getPointers();
+        final int[] aIndices = storage.getIndices();
+        final double[] aValues = storage.getValues();
+
+        // Extract the lower triangle.
+        final int[] pointers = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            for (int k = aPointers[i]; k < aPointers[i + 1] && aIndices[k] <= i; k++) {
+                ++count;
+            }
+            pointers[i + 1] = pointers[i] + count;
+        }
+        final int[] indices = new int[pointers[n]];
+        final double[] values = new double[pointers[n]];
+        final int[] diagonal = new int[n];
+        for (int i = 0; i < n; i++) {
+            final int length = pointers[i + 1] - pointers[i];
+            System.arraycopy(aIndices, aPointers[i], indices, pointers[i], length);
+            System.arraycopy(aValues, aPointers[i], values, pointers[i], length);
+            diagonal[i] = pointers[i + 1] - 1;
+            if (length == 0 || indices[diagonal[i]] != i) {
+                throw new NonPositiveDefiniteMatrixException(0, i, 0);
+            }
+        }
+
+        // L(i, j) = (A(i, j) - sum_{k < j} L(i, k) L(j, k)) / L(j, j),
+        // where the sum runs over the stored entries of rows i and j.
+        for (int i = 0; i < n; i++) {
+            for (int k = pointers[i]; k <= diagonal[i]; k++) {
+                final int j = indices[k];
+                double s = values[k];
+                int p = pointers[i];
+                int q = pointers[j];
+                final int qEnd = diagonal[j];
+                while (p < k && q < qEnd) {
+                    final int cp = indices[p];
+                    final int cq = indices[q];
+                    if (cp == cq) {
+                        s -= values[p++] * values[q++];
+                    } else if (cp < cq) {
+                        ++p;
+                    } else {
+                        ++q;
+                    }
+                }
+                if (j < i) {
+                    values[k] = s / values[qEnd];
+                } else {
+                    if (!(s > 0)) {
+                        throw new NonPositiveDefiniteMatrixException(s, i, 0);
+                    }
+                    values[k] = JdkMath.sqrt(s);
+                }
+            }
+        }
+
+        return new IncompleteCholeskyPreconditioner(pointers, indices, values, diagonal,
+                                                    System.nanoTime() - start);
+    }
+
+    /**
+     * Computes the incomplete Cholesky factorization of the specified matrix,
+     * and reports its cost to the listeners of the specified iteration
+     * manager by firing a {@link PreconditionerConstructionEvent}.
+     *
+     * @param a Symmetric positive definite matrix (only the lower triangle
+     * is read). If it is not a {@link CompressedRowRealMatrix}, it is
+     * converted to one.
+     * @param manager Iteration manager of the solver in which the
+     * preconditioner is to be used.
+     * @return the preconditioner.
+     * @throws NonSquareOperatorException if {@code a} is not square.
+     * @throws NonPositiveDefiniteMatrixException if a non-positive pivot is
+     * encountered (in particular, if a diagonal entry is missing).
+     */
+    public static IncompleteCholeskyPreconditioner create(final RealMatrix a,
+                                                          final IterationManager manager) {
+        final IncompleteCholeskyPreconditioner m = create(a);
+        m.fireConstructionEvent(manager);
+        return m;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result is obtained by solving L &middot; L<sup>T</sup> &middot; y = x.
+     */
+    @Override
+    public RealVector operate(final RealVector x) throws DimensionMismatchException {
+        final double[] y = copyOf(x);
+        final int[] pointers = getPointers();
+        final int[] indices = getIndices();
+        final double[] values = getValues();
+        final int[] diagonal = getDiagonal();
+        final int n = y.length;
+        // L.z = x
+        for (int i = 0; i < n; i++) {
+            double s = y[i];
+            for (int k = pointers[i]; k < diagonal[i]; k++) {
+                s -= values[k] * y[indices[k]];
+            }
+            y[i] = s / values[diagonal[i]];
+        }
+        // L^T.y = z
+        for (int i = n - 1; i >= 0; i--) {
+            final double yi = y[i] / values[diagonal[i]];
+            y[i] = yi;
+            for (int k = pointers[i]; k < diagonal[i]; k++) {
+                y[indices[k]] -= values[k] * yi;
+            }
+        }
+        return new ArrayRealVector(y, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The preconditioner is symmetric.
+     */
+    @Override
+    public RealVector operateTranspose(final RealVector x) throws DimensionMismatchException {
+        return operate(x);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+
+/**
+ * Base class for the preconditioners defined by an incomplete factorization
+ * of a sparse matrix A, whose factors have the same sparsity pattern as A
+ * (no fill-in). Such a preconditioner M approximates A<sup>-1</sup>, and
+ * M &middot; x is computed by forward and backward substitutions.
+ * <p>
+ * The factors are stored in compressed sparse row format. The time spent
+ * building them and the memory they use are available through
+ * {@link #getConstructionTime()} and {@link #getMemoryFootprint()}, and can
+ * be reported to the listeners of an {@link IterationManager} by a
+ * {@link PreconditionerConstructionEvent}.
+ * </p>
+ *
+ * @see IncompleteCholeskyPreconditioner
+ * @see IncompleteLUPreconditioner
+ * @since 4.0
+ */
+public abstract class IncompleteFactorizationPreconditioner extends RealLinearOperator {
+    /** Size of an {@code int}, in bytes. */
+    private static final int INT_BYTES = 4;
+    /** Size of a {@code double}, in bytes. */
+    private static final int DOUBLE_BYTES = 8;
+    /** Entries of row {@code i} are stored at positions {@code pointers[i]} to {@code pointers[i + 1] - 1}. */
+    private final int[] pointers;
+    /** Column index of each entry. */
+    private final int[] indices;
+    /** Value of each entry. */
+    private final double[] values;
+    /** Position of the diagonal entry of each row. */
+    private final int[] diagonal;
+    /** Construction time, in nanoseconds. */
+    private final long constructionTime;
+
+    /**
+     * @param pointers Start of the entries of each row.
+     * @param indices Column index of each entry.
+     * @param values Value of each entry.
+     * @param diagonal Position of the diagonal entry of each row.
+     * @param constructionTime Construction time, in nanoseconds.
+     */
+    IncompleteFactorizationPreconditioner(int[] pointers,
+                                          int[] indices,
+                                          double[] values,
+                                          int[] diagonal,
+                                          long constructionTime) {
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+        this.diagonal = diagonal;
+        this.constructionTime = constructionTime;
+    }
+
+    /**
+     * @return the start of the entries of each row (not to be modified).
+     */
+    int[] getPointers() {
+        return pointers;
+    }
+
+    /**
+     * @return the column index of each entry (not to be modified).
+     */
+    int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * @return the value of each entry (not to be modified).
+     */
+    double[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return the position of the diagonal entry of each row (not to be
+     * modified).
+     */
+    int[] getDiagonal() {
+        return diagonal;
+    }
+
+    /**
+     * Returns the time spent computing the factorization.
+     *
+     * @return the construction time, in nanoseconds.
+     */
+    public long getConstructionTime() {
+        return constructionTime;
+    }
+
+    /**
+     * Returns an estimate of the memory used by the factors (the overhead of
+     * the array headers is not included).
+     *
+     * @return the memory footprint, in bytes.
+     */
+    public long getMemoryFootprint() {
+        return (long) INT_BYTES * (pointers.length + indices.length + diagonal.length) +
+            (long) DOUBLE_BYTES * values.length;
+    }
+
+    /**
+     * Gets the number of entries stored in the factors.
+     *
+     * @return the number of stored entries.
+     */
+    public int getNonZeroCount() {
+        return values.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return diagonal.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return diagonal.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isTransposable() {
+        return true;
+    }
+
+    /**
+     * Fires a {@link PreconditionerConstructionEvent} reporting the cost of
+     * the construction of {@code this} preconditioner, as an
+     * {@link IterationManager#fireInitializationEvent(IterationEvent)
+     * initialization event}.
+     *
+     * @param manager Iteration manager of the solver.
+     */
+    void fireConstructionEvent(IterationManager manager) {
+        manager.fireInitializationEvent(new PreconditionerConstructionEvent(this,
+                                                                            manager.getIterations(),
+                                                                            constructionTime,
+                                                                            getMemoryFootprint()));
+    }
+
+    /**
+     * Copies the entries of a vector into a new array.
+     *
+     * @param x Vector.
+     * @return a copy of the entries of {@code x}.
+     * @throws DimensionMismatchException if the dimension of {@code x} does
+     * not match the dimension of {@code this} operator.
+     */
+    double[] copyOf(RealVector x) {
+        final int n = getColumnDimension();
+        if (x.getDimension() != n) {
+            throw new DimensionMismatchException(x.getDimension(), n);
+        }
+        return x.toArray();
+    }
+
+    /**
+     * Gets the storage of a square matrix in compressed sparse row format.
+     *
+     * @param a Matrix.
+     * @return the storage of {@code a}.
+     * @throws NonSquareOperatorException if {@code a} is not square.
+     */
+    static CompressedStorage rowStorage(RealMatrix a) {
+        if (a.getRowDimension() != a.getColumnDimension()) {
+            throw new NonSquareOperatorException(a.getRowDimension(), a.getColumnDimension());
+        }
+        return a instanceof CompressedRowRealMatrix ?
+            ((CompressedRowRealMatrix) a).getStorage() :
+            new CompressedRowRealMatrix(a).getStorage();
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+
+/**
+ * Incomplete LU preconditioner with no fill-in, ILU(0).
+ * <p>
+ * For a square matrix A, a unit lower triangular matrix L and an upper
+ * triangular matrix U, whose entries are restricted to the sparsity pattern
+ * of A, are computed such that (L &middot; U)<sub>ij</sub> = A<sub>ij</sub>
+ * for all the non-zero entries of A. The preconditioner is
+ * M = (L &middot; U)<sup>-1</sup>.
+ * </p>
+ * <p>
+ * When A is symmetric, U = D &middot; L<sup>T</sup> where D is the diagonal
+ * of U, and M is symmetric; it is moreover positive definite whenever the
+ * {@link IncompleteCholeskyPreconditioner incomplete Cholesky} factorization
+ * of A exists, in which case M is the same preconditioner (up to rounding
+ * errors). Otherwise, M should not be used with {@link ConjugateGradient} or
+ * {@link SymmLQ}, which require a symmetric preconditioner.
+ * </p>
+ *
+ * @since 4.0
+ */
+public final class IncompleteLUPreconditioner
+    extends IncompleteFactorizationPreconditioner {
+
+    /**
+     * @param pointers Start of the entries of each row of L and U.
+     * @param indices Column index of each entry of L and U.
+     * @param values Value of each entry of L and U.
+     * @param diagonal Position of the diagonal entry of each row.
+     * @param constructionTime Construction time, in nanoseconds.
+     */
+    private IncompleteLUPreconditioner(int[] pointers,
+                                       int[] indices,
+                                       double[] values,
+                                       int[] diagonal,
+                                       long constructionTime) {
+        super(pointers, indices, values, diagonal, constructionTime);
+    }
+
+    /**
+     * Computes the incomplete LU factorization of the specified matrix.
+     *
+     * @param a Matrix. If it is not a {@link CompressedRowRealMatrix}, it is
+     * converted to one.
+     * @return the preconditioner.
+     * @throws NonSquareOperatorException if {@code a} is not square.
+     * @throws SingularMatrixException if a zero pivot is encountered (in
+     * particular, if a diagonal entry is missing).
+     */
+    public static IncompleteLUPreconditioner create(final RealMatrix a) {
+        final long start = System.nanoTime();
+        final CompressedStorage storage = rowStorage(a);
+        final int n = storage.getMajorDimension();
+        // The storage is immutable: its structure is shared.
+        final int[] pointers = storage.getPointers();
+        final int[] indices = storage.getIndices();
+        final double[] values = storage.getValues().clone();
+
+        final int[] diagonal = new int[n];
+        for (int i = 0; i < n; i++) {
+            final int k = Arrays.binarySearch(indices, pointers[i], pointers[i + 1], i);
+            if (k < 0) {
+                throw new SingularMatrixException();
+            }
+            diagonal[i] = k;
+        }
+
+        // Position in the current row of each column (-1 if absent).
+        final int[] position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+                position[indices[k]] = k;
+            }
+            // Eliminate the entries of row i below the diagonal, using the
+            // rows of U computed so far.
+            for (int k = pointers[i]; k < diagonal[i]; k++) {
+                final int j = indices[k];
+                final double lij = values[k] / values[diagonal[j]];
+                values[k] = lij;
+                for (int q = diagonal[j] + 1; q < pointers[j + 1]; q++) {
+                    final int p = position[indices[q]];
+                    if (p >= 0) {
+                        values[p] -= lij * values[q];
+                    }
+                }
+            }
+            if (values[diagonal[i]] == 0) {
+                throw new SingularMatrixException();
+            }
+            for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+                position[indices[k]] = -1;
+            }
+        }
+
+        return new IncompleteLUPreconditioner(pointers, indices, values, diagonal,
+                                              System.nanoTime() - start);
+    }
+
+    /**
+     * Computes the incomplete LU factorization of the specified matrix, and
+     * reports its cost to the listeners of the specified iteration manager by
+     * firing a {@link PreconditionerConstructionEvent}.
+     *
+     * @param a Matrix. If it is not a {@link CompressedRowRealMatrix}, it is
+     * converted to one.
+     * @param manager Iteration manager of the solver in which the
+     * preconditioner is to be used.
+     * @return the preconditioner.
+     * @throws NonSquareOperatorException if {@code a} is not square.
+     * @throws SingularMatrixException if a zero pivot is encountered (in
+     * particular, if a diagonal entry is missing).
+     */
+    public static IncompleteLUPreconditioner create(final RealMatrix a,
+                                                    final IterationManager manager) {
+        final IncompleteLUPreconditioner m = create(a);
+        m.fireConstructionEvent(manager);
+        return m;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result is obtained by solving L &middot; U &middot; y = x.
+     */
+    @Override
+    public RealVector operate(final RealVector x) throws DimensionMismatchException {
+        final double[] y = copyOf(x);
+        final int[] pointers = getPointers();
+        final int[] indices = getIndices();
+        final double[] values = getValues();
+        final int[] diagonal = getDiagonal();
+        final int n = y.length;
+        // L.z = x
+        for (int i = 0; i < n; i++) {
+            double s = y[i];
+            for (int k = pointers[i]; k < diagonal[i]; k++) {
+                s -= values[k] * y[indices[k]];
+            }
+            y[i] = s;
+        }
+        // U.y = z
+        for (int i = n - 1; i >= 0; i--) {
+            double s = y[i];
+            for (int k = diagonal[i] + 1; k < pointers[i + 1]; k++) {
+                s -= values[k] * y[indices[k]];
+            }
+            y[i] = s / values[diagonal[i]];
+        }
+        return new ArrayRealVector(y, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result is obtained by solving
+     * U<sup>T</sup> &middot; L<sup>T</sup> &middot; y = x.
+     */
+    @Override
+    public RealVector operateTranspose(final RealVector x) throws DimensionMismatchException {
+        final double[] y = copyOf(x);
+        final int[] pointers = getPointers();
+        final int[] indices = getIndices();
+        final double[] values = getValues();
+        final int[] diagonal = getDiagonal();
+        final int n = y.length;
+        // U^T.z = x
+        for (int i = 0; i < n; i++) {
+            final double yi = y[i] / values[diagonal[i]];
+            y[i] = yi;
+            for (int k = diagonal[i] + 1; k < pointers[i + 1]; k++) {
+                y[indices[k]] -= values[k] * yi;
+            }
+        }
+        // L^T.y = z
+        for (int i = n - 1; i >= 0; i--) {
+            final double yi = y[i];
+            for (int k = pointers[i]; k < diagonal[i]; k++) {
+                y[indices[k]] -= values[k] * yi;
+            }
+        }
+        return new ArrayRealVector(y, false);
+    }
+}
@@ -292,6 +292,15 @@ public class OpenMapRealMatrix extends AbstractRealMatrix
         }
     }
 
+    /**
+     * Gets the storage of the non-zero entries.
+     *
+     * @return the map from keys (see {@link #computeKey(int, int)}) to values.
+     */
+    OpenIntToDoubleHashMap getEntries() {
+        return entries;
+    }
+
     /**
      * Compute the key to access a matrix element.
      * @param row row index of the matrix element
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.exception.NullArgumentException;
+
+/**
+ * Linear operator that computes the product of a sparse matrix with a
+ * vector concurrently.
+ * <p>
+ * The matrix is stored in compressed sparse row format
+ * ({@link CompressedRowRealMatrix}), and its rows are partitioned into
+ * contiguous chunks holding roughly the same number of non-zero entries.
+ * The chunks are processed by tasks submitted to a {@link ForkJoinPool}.
+ * Each entry of the result is computed by a single task, with exactly the
+ * same sequence of floating point operations as in
+ * {@link CompressedRowRealMatrix#operate(double[])}, hence the result is
+ * bit-for-bit identical to the serial one.
+ * </p>
+ * <p>
+ * This operator is intended to be passed to the
+ * {@link IterativeLinearSolver iterative solvers}, whose cost is dominated
+ * by the matrix-vector products. The product with the transpose is computed
+ * serially.
+ * </p>
+ *
+ * @since 4.0
+ */
+public class ParallelSparseOperator extends RealLinearOperator {
+    /**
+     * Default minimum number of non-zero entries processed by a single task.
+     * Below this size, the overhead of task scheduling is not worth it.
+     */
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 8192;
+    /** Number of chunks per worker thread, for load balancing. */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /** Wrapped matrix. */
+    private final CompressedRowRealMatrix matrix;
+    /** Storage of the wrapped matrix. */
+    private final CompressedStorage storage;
+    /** Pool in which the products are computed. */
+    private final ForkJoinPool pool;
+    /**
+     * Chunk {@code c} spans rows {@code bounds[c]} (inclusive) to
+     * {@code bounds[c + 1]} (exclusive).
+     */
+    private final int[] bounds;
+
+    /**
+     * Creates an operator with the {@link #DEFAULT_MIN_CHUNK_SIZE default}
+     * minimum chunk size.
+     *
+     * @param matrix Matrix. If it is not a {@link CompressedRowRealMatrix},
+     * it is converted to one.
+     * @param pool Pool in which the products are computed.
+     * @throws NullArgumentException if any of the arguments is {@code null}.
+     */
+    public ParallelSparseOperator(SparseRealMatrix matrix,
+                                  ForkJoinPool pool) {
+        this(matrix, pool, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * @param matrix Matrix. If it is not a {@link CompressedRowRealMatrix},
+     * it is converted to one.
+     * @param pool Pool in which the products are computed.
+     * @param minChunkSize Minimum number of non-zero entries processed by a
+     * single task.
+     * @throws NullArgumentException if {@code matrix} or {@code pool} is
+     * {@code null}.
+     * @throws NotStrictlyPositiveException if {@code minChunkSize <= 0}.
+     */
+    public ParallelSparseOperator(SparseRealMatrix matrix,
+                                  ForkJoinPool pool,
+                                  int minChunkSize) {
+        NullArgumentException.check(matrix);
+        NullArgumentException.check(pool);
+        if (minChunkSize <= 0) {
+            throw new NotStrictlyPositiveException(minChunkSize);
+        }
+
+        this.matrix = matrix instanceof CompressedRowRealMatrix ?
+            (CompressedRowRealMatrix) matrix :
+            new CompressedRowRealMatrix(matrix);
+        this.storage = this.matrix.getStorage();
+        this.pool = pool;
+        this.bounds = partition(storage.getPointers(),
+                                JdkMath.max(minChunkSize,
+                                            storage.getNonZeroCount() /
+                                            (CHUNKS_PER_THREAD * pool.getParallelism())));
+    }
+
+    /**
+     * Splits the rows into contiguous chunks holding at least
+     * {@code chunkSize} entries (except for the last one).
+     *
+     * @param pointers Start of the entries of each row.
+     * @param chunkSize Minimum number of entries per chunk.
+     * @return the chunk boundaries.
+     */
+    private static int[] partition(int[] pointers,
+                                   int chunkSize) {
+        final int rows = pointers.length - 1;
+        final int[] tmp = new int[rows + 1];
+        int count = 0;
+        int row = 0;
+        while (row < rows) {
+            tmp[count++] = row;
+            final int limit = pointers[row] + chunkSize;
+            do {
+                ++row;
+            } while (row < rows && pointers[row] < limit);
+        }
+        tmp[count++] = rows;
+        return Arrays.copyOf(tmp, count);
+    }
+
+    /**
+     * Gets the wrapped matrix.
+     *
+     * @return the matrix.
+     */
+    public CompressedRowRealMatrix getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * Gets the number of row chunks in which the products are split.
+     *
+     * @return the number of chunks.
+     */
+    public int getChunkCount() {
+        return bounds.length - 1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return matrix.getRowDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return matrix.getColumnDimension();
+    }
+
+    /**
+     * Returns the result of multiplying the wrapped matrix by the given
+     * array.
+     *
+     * @param x Array to multiply by.
+     * @return the product.
+     * @throws DimensionMismatchException if the length of {@code x} does
+     * not match the column dimension.
+     */
+    public double[] operate(double[] x) {
+        final int nCols = getColumnDimension();
+        if (x.length != nCols) {
+            throw new DimensionMismatchException(x.length, nCols);
+        }
+        final double[] y = new double[getRowDimension()];
+        final int nChunks = getChunkCount();
+        if (nChunks <= 1) {
+            storage.gather(x, y, 0, y.length);
+        } else {
+            pool.invoke(new OperateTask(x, y, 0, nChunks));
+        }
+        return y;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(RealVector x) {
+        return new ArrayRealVector(operate(CompressedRowRealMatrix.toArray(x)), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operateTranspose(RealVector x) {
+        return matrix.operateTranspose(x);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isTransposable() {
+        return true;
+    }
+
+    /**
+     * Task computing the rows of a range of chunks.
+     * <p>
+     * The range is split in halves until it contains a single chunk.
+     * </p>
+     */
+    private final class OperateTask extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261017L;
+        /** Vector to multiply by. */
+        private final double[] x;
+        /** Product. */
+        private final double[] y;
+        /** Index of the first chunk. */
+        private final int start;
+        /** Index after the last chunk. */
+        private final int end;
+
+        /**
+         * @param x Vector to multiply by.
+         * @param y Product.
+         * @param start Index of the first chunk.
+         * @param end Index after the last chunk.
+         */
+        OperateTask(double[] x, double[] y, int start, int end) {
+            this.x = x;
+            this.y = y;
+            this.start = start;
+            this.end = end;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            final int n = end - start;
+            if (n == 1) {
+                storage.gather(x, y, bounds[start], bounds[end]);
+            } else {
+                final int mid = start + n / 2;
+                invokeAll(new OperateTask(x, y, start, mid),
+                          new OperateTask(x, y, mid, end));
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package org.apache.commons.math4.legacy.linear;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
 import org.apache.commons.math4.legacy.exception.NullArgumentException;
@@ -48,6 +50,9 @@ import org.apache.commons.math4.legacy.exception.NullArgumentException;
 public abstract class PreconditionedIterativeLinearSolver
     extends IterativeLinearSolver {
 
+    /** Vector operations performed at each iteration. */
+    private final VectorKernels kernels;
+
     /**
      * Creates a new instance of this class, with default iteration manager.
      *
@@ -55,6 +60,7 @@ public abstract class PreconditionedIterativeLinearSolver
      */
     public PreconditionedIterativeLinearSolver(final int maxIterations) {
         super(maxIterations);
+        kernels = VectorKernels.SERIAL;
     }
 
     /**
@@ -66,6 +72,54 @@ public abstract class PreconditionedIterativeLinearSolver
     public PreconditionedIterativeLinearSolver(final IterationManager manager)
         throws NullArgumentException {
         super(manager);
+        kernels = VectorKernels.SERIAL;
+    }
+
+    /**
+     * Creates a new instance of this class, with custom iteration manager,
+     * whose linear combinations of vectors are computed concurrently.
+     * <p>
+     * Element-wise operations give the same results as the serial ones, and
+     * inner products are summed in the serial order, so that the sequence of
+     * iterates is identical to the serial one, whatever the number of threads.
+     * Vector operations are only parallelized when the vectors are instances
+     * of {@link ArrayRealVector}. The products with the operator and the
+     * preconditioner are left to the operators themselves: see e.g.
+     * {@link ParallelSparseOperator}.
+     * </p>
+     *
+     * @param manager the custom iteration manager
+     * @param pool the pool in which the vector operations are computed
+     * @throws NullArgumentException if {@code manager} or {@code pool} is
+     * {@code null}
+     * @since 4.0
+     */
+    public PreconditionedIterativeLinearSolver(final IterationManager manager,
+                                               final ForkJoinPool pool)
+        throws NullArgumentException {
+        super(manager);
+        NullArgumentException.check(pool);
+        kernels = new VectorKernels(pool);
+    }
+
+    /**
+     * Gets the pool in which the vector operations are computed.
+     *
+     * @return the pool, or {@code null} if the vector operations are computed
+     * serially.
+     * @since 4.0
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return kernels.getPool();
+    }
+
+    /**
+     * Gets the vector operations to be used at each iteration.
+     *
+     * @return the vector operations.
+     */
+    VectorKernels getVectorKernels() {
+        return kernels;
     }
 
     /**
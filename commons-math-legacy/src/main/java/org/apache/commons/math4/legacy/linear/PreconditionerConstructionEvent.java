@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+/**
+ * Event fired by the {@link IterationManager} of an iterative solver once a
+ * preconditioner has been built. It reports the cost of the construction.
+ *
+ * @see IncompleteFactorizationPreconditioner
+ * @since 4.0
+ */
+public class PreconditionerConstructionEvent extends IterationEvent {
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20261017L;
+
+    /** Construction time, in nanoseconds. */
+    private final long constructionTime;
+
+    /** Estimated memory used by the preconditioner, in bytes. */
+    private final long memoryFootprint;
+
+    /**
+     * Creates a new instance of this class.
+     *
+     * @param source the preconditioner which has been built
+     * @param iterations the number of iterations performed at the time
+     * {@code this} event is created
+     * @param constructionTime the construction time, in nanoseconds
+     * @param memoryFootprint the estimated memory used by the preconditioner,
+     * in bytes
+     */
+    public PreconditionerConstructionEvent(final Object source,
+                                           final int iterations,
+                                           final long constructionTime,
+                                           final long memoryFootprint) {
+        super(source, iterations);
+        this.constructionTime = constructionTime;
+        this.memoryFootprint = memoryFootprint;
+    }
+
+    /**
+     * Returns the time spent building the preconditioner.
+     *
+     * @return the construction time, in nanoseconds
+     */
+    public long getConstructionTime() {
+        return constructionTime;
+    }
+
+    /**
+     * Returns the estimated memory used by the preconditioner.
+     *
+     * @return the memory footprint, in bytes
+     */
+    public long getMemoryFootprint() {
+        return memoryFootprint;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
+
+/**
+ * Builder of immutable sparse matrices from entries given in coordinate
+ * format (row index, column index, value).
+ * <p>
+ * Entries can be added in any order. Entries with the same row and column
+ * indices are summed (as is usual when assembling finite element systems);
+ * entries whose value is zero are not stored in the built matrices.
+ * A builder can be used to build several matrices; it is not synchronized.
+ * </p>
+ *
+ * @see CompressedRowRealMatrix
+ * @see CompressedColumnRealMatrix
+ * @since 4.0
+ */
+public class SparseRealMatrixBuilder {
+    /** Initial capacity. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Number of rows. */
+    private final int rows;
+    /** Number of columns. */
+    private final int columns;
+    /** Row indices. */
+    private int[] rowIndices = new int[INITIAL_CAPACITY];
+    /** Column indices. */
+    private int[] columnIndices = new int[INITIAL_CAPACITY];
+    /** Values. */
+    private double[] values = new double[INITIAL_CAPACITY];
+    /** Number of entries. */
+    private int size;
+
+    /**
+     * @param rowDimension Number of rows of the matrix.
+     * @param columnDimension Number of columns of the matrix.
+     * @throws NotStrictlyPositiveException if a dimension is not positive.
+     */
+    public SparseRealMatrixBuilder(int rowDimension,
+                                   int columnDimension) {
+        if (rowDimension <= 0) {
+            throw new NotStrictlyPositiveException(rowDimension);
+        }
+        if (columnDimension <= 0) {
+            throw new NotStrictlyPositiveException(columnDimension);
+        }
+        this.rows = rowDimension;
+        this.columns = columnDimension;
+    }
+
+    /**
+     * Creates a builder containing the non-zero entries of a matrix.
+     *
+     * @param matrix Matrix.
+     * @return a new builder.
+     */
+    static SparseRealMatrixBuilder of(RealMatrix matrix) {
+        final int nRows = matrix.getRowDimension();
+        final int nCols = matrix.getColumnDimension();
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(nRows, nCols);
+        if (matrix instanceof OpenMapRealMatrix) {
+            final OpenIntToDoubleHashMap entries = ((OpenMapRealMatrix) matrix).getEntries();
+            builder.ensureCapacity(entries.size());
+            for (OpenIntToDoubleHashMap.Iterator iterator = entries.iterator(); iterator.hasNext();) {
+                iterator.advance();
+                final int row = iterator.key() / nCols;
+                final int col = iterator.key() - row * nCols;
+                builder.add(row, col, iterator.value());
+            }
+        } else {
+            for (int i = 0; i < nRows; i++) {
+                for (int j = 0; j < nCols; j++) {
+                    final double value = matrix.getEntry(i, j);
+                    if (value != 0) {
+                        builder.add(i, j, value);
+                    }
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param row Row index.
+     * @param column Column index.
+     * @param value Value (added to the values of the other entries with
+     * the same indices, if any).
+     * @return this builder.
+     * @throws OutOfRangeException if an index is out of range.
+     */
+    public SparseRealMatrixBuilder add(int row,
+                                       int column,
+                                       double value) {
+        if (row < 0 || row >= rows) {
+            throw new OutOfRangeException(LocalizedFormats.ROW_INDEX, row, 0, rows - 1);
+        }
+        if (column < 0 || column >= columns) {
+            throw new OutOfRangeException(LocalizedFormats.COLUMN_INDEX, column, 0, columns - 1);
+        }
+        if (size == values.length) {
+            ensureCapacity(2 * size);
+        }
+        rowIndices[size] = row;
+        columnIndices[size] = column;
+        values[size] = value;
+        ++size;
+        return this;
+    }
+
+    /**
+     * Builds a matrix in compressed sparse row format.
+     *
+     * @return a new matrix.
+     */
+    public CompressedRowRealMatrix buildCompressedRow() {
+        return new CompressedRowRealMatrix(CompressedStorage.create(rows, columns,
+                                                                    rowIndices, columnIndices,
+                                                                    values, size));
+    }
+
+    /**
+     * Builds a matrix in compressed sparse column format.
+     *
+     * @return a new matrix.
+     */
+    public CompressedColumnRealMatrix buildCompressedColumn() {
+        return new CompressedColumnRealMatrix(CompressedStorage.create(columns, rows,
+                                                                       columnIndices, rowIndices,
+                                                                       values, size));
+    }
+
+    /**
+     * @param capacity Minimum capacity.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            rowIndices = Arrays.copyOf(rowIndices, capacity);
+            columnIndices = Arrays.copyOf(columnIndices, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+    }
+}
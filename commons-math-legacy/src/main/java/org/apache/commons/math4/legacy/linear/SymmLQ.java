@@ -16,6 +16,8 @@
  */
 package org.apache.commons.math4.legacy.linear;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
 import org.apache.commons.math4.legacy.exception.NullArgumentException;
@@ -258,6 +260,9 @@ public class SymmLQ
          */
         private final double delta;
 
+        /** Vector operations performed at each iteration. */
+        private final VectorKernels kernels;
+
         /** The value of beta[k+1]. */
         private double beta;
 
@@ -377,6 +382,7 @@ public class SymmLQ
          * @param delta the &delta; parameter for the default stopping criterion
          * @param check {@code true} if self-adjointedness of both matrix and
          * preconditioner should be checked
+         * @param kernels the vector operations performed at each iteration
          */
         State(final RealLinearOperator a,
             final RealLinearOperator m,
@@ -384,7 +390,8 @@ public class SymmLQ
             final boolean goodb,
             final double shift,
             final double delta,
-            final boolean check) {
+            final boolean check,
+            final VectorKernels kernels) {
             this.a = a;
             this.m = m;
             this.b = b;
@@ -395,6 +402,7 @@ public class SymmLQ
             this.hasConverged = false;
             this.check = check;
             this.delta = delta;
+            this.kernels = kernels;
         }
 
         /**
@@ -446,44 +454,6 @@ public class SymmLQ
             throw e;
         }
 
-        /**
-         * A clone of the BLAS {@code DAXPY} function, which carries out the
-         * operation y &larr; a &middot; x + y. This is for internal use only: no
-         * dimension checks are provided.
-         *
-         * @param a the scalar by which {@code x} is to be multiplied
-         * @param x the vector to be added to {@code y}
-         * @param y the vector to be incremented
-         */
-        private static void daxpy(final double a, final RealVector x,
-            final RealVector y) {
-            final int n = x.getDimension();
-            for (int i = 0; i < n; i++) {
-                y.setEntry(i, a * x.getEntry(i) + y.getEntry(i));
-            }
-        }
-
-        /**
-         * A BLAS-like function, for the operation z &larr; a &middot; x + b
-         * &middot; y + z. This is for internal use only: no dimension checks are
-         * provided.
-         *
-         * @param a the scalar by which {@code x} is to be multiplied
-         * @param x the first vector to be added to {@code z}
-         * @param b the scalar by which {@code y} is to be multiplied
-         * @param y the second vector to be added to {@code z}
-         * @param z the vector to be incremented
-         */
-        private static void daxpbypz(final double a, final RealVector x,
-            final double b, final RealVector y, final RealVector z) {
-            final int n = z.getDimension();
-            for (int i = 0; i < n; i++) {
-                final double zi;
-                zi = a * x.getEntry(i) + b * y.getEntry(i) + z.getEntry(i);
-                z.setEntry(i, zi);
-            }
-        }
-
         /**
          * <p>
          * Move to the CG point if it seems better. In this version of SYMMLQ,
@@ -550,7 +520,7 @@ public class SymmLQ
                 checkSymmetry(this.m, this.r1, this.y, this.m.operate(this.y));
             }
 
-            this.beta1 = this.r1.dotProduct(this.y);
+            this.beta1 = this.kernels.dotProduct(this.r1, this.y);
             if (this.beta1 < 0.) {
                 throwNPDLOException(this.m, this.y);
             }
@@ -575,24 +545,24 @@ public class SymmLQ
              * Set up y for the second Lanczos vector. y and beta will be zero
              * or very small if b is an eigenvector.
              */
-            daxpy(-this.shift, v, this.y);
-            final double alpha = v.dotProduct(this.y);
-            daxpy(-alpha / this.beta1, this.r1, this.y);
+            this.kernels.axpy(-this.shift, v, this.y);
+            final double alpha = this.kernels.dotProduct(v, this.y);
+            this.kernels.axpy(-alpha / this.beta1, this.r1, this.y);
             /*
              * At this point
              *   alpha = alpha[1]
              *   y     = beta[2] * M^(-1) * P' * v[2]
              */
             /* Make sure r2 will be orthogonal to the first v. */
-            final double vty = v.dotProduct(this.y);
-            final double vtv = v.dotProduct(v);
-            daxpy(-vty / vtv, v, this.y);
+            final double vty = this.kernels.dotProduct(v, this.y);
+            final double vtv = this.kernels.dotProduct(v, v);
+            this.kernels.axpy(-vty / vtv, v, this.y);
             this.r2 = this.y.copy();
             if (this.m != null) {
                 this.y = this.m.operate(this.r2);
             }
             this.oldb = this.beta1;
-            this.beta = this.r2.dotProduct(this.y);
+            this.beta = this.kernels.dotProduct(this.r2, this.y);
             if (this.beta < 0.) {
                 throwNPDLOException(this.m, this.y);
             }
@@ -634,8 +604,8 @@ public class SymmLQ
         void update() {
             final RealVector v = y.mapMultiply(1. / beta);
             y = a.operate(v);
-            daxpbypz(-shift, v, -beta / oldb, r1, y);
-            final double alpha = v.dotProduct(y);
+            kernels.axpbypz(-shift, v, -beta / oldb, r1, y);
+            final double alpha = kernels.dotProduct(v, y);
             /*
              * At this point
              *   v     = P' * v[k],
@@ -646,7 +616,7 @@ public class SymmLQ
              *           - beta[k] * v[k]' * v[k-1]
              *         = alpha[k].
              */
-            daxpy(-alpha / beta, r2, y);
+            kernels.axpy(-alpha / beta, r2, y);
             /*
              * At this point
              *   y = (A - shift * I) * P' * v[k] - alpha[k] * M^(-1) * P' * v[k]
@@ -666,7 +636,7 @@ public class SymmLQ
                 y = m.operate(r2);
             }
             oldb = beta;
-            beta = r2.dotProduct(y);
+            beta = kernels.dotProduct(r2, y);
             if (beta < 0.) {
                 throwNPDLOException(m, y);
             }
@@ -889,6 +859,30 @@ public class SymmLQ
         this.check = check;
     }
 
+    /**
+     * Creates a new instance of this class, with <a href="#stopcrit">default
+     * stopping criterion</a>, custom iteration manager, and vector operations
+     * computed concurrently (see
+     * {@link PreconditionedIterativeLinearSolver#PreconditionedIterativeLinearSolver(IterationManager, ForkJoinPool)}).
+     * Note that setting {@code check} to {@code true} entails an extra
+     * matrix-vector product in the initial phase.
+     *
+     * @param manager the custom iteration manager
+     * @param delta the &delta; parameter for the default stopping criterion
+     * @param check {@code true} if self-adjointedness of both matrix and
+     * preconditioner should be checked
+     * @param pool the pool in which the vector operations are computed
+     * @throws NullArgumentException if {@code manager} or {@code pool} is
+     * {@code null}
+     * @since 4.0
+     */
+    public SymmLQ(final IterationManager manager, final double delta,
+                  final boolean check, final ForkJoinPool pool) {
+        super(manager, pool);
+        this.delta = delta;
+        this.check = check;
+    }
+
     /**
      * Returns {@code true} if symmetry of the matrix, and symmetry as well as
      * positive definiteness of the preconditioner should be checked.
@@ -1153,7 +1147,8 @@ public class SymmLQ
         manager.incrementIterationCount();
 
         final State state;
-        state = new State(a, m, b, goodb, shift, delta, check);
+        state = new State(a, m, b, goodb, shift, delta, check,
+                          getVectorKernels());
         state.init();
         state.refineSolution(x);
         IterativeLinearSolverEvent event;
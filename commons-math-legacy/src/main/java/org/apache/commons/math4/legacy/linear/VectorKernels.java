@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.linear;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Vector operations performed by the
+ * {@link PreconditionedIterativeLinearSolver iterative solvers} at each
+ * iteration, optionally computed concurrently.
+ * <p>
+ * When no pool is set, or when the operands are not {@link ArrayRealVector}
+ * instances, the operations are delegated to the {@link RealVector} methods.
+ * Otherwise, the element-wise operations split the vectors into chunks of
+ * {@link #CHUNK_SIZE} entries which are processed by tasks submitted to the
+ * pool; they give the same result as the serial ones.
+ * </p>
+ * <p>
+ * Inner products and norms are always computed serially: summing partial
+ * inner products of the chunks would regroup the floating-point additions,
+ * and the iterates of the solvers would then differ from the serial ones.
+ * </p>
+ *
+ * @since 4.0
+ */
+final class VectorKernels { // Not in public API.
+    /** Number of entries processed by a single task. */
+    static final int CHUNK_SIZE = 16384;
+    /** Serial operations. */
+    static final VectorKernels SERIAL = new VectorKernels(null);
+    /** Pool (may be {@code null}). */
+    private final ForkJoinPool pool;
+
+    /**
+     * @param pool Pool in which the operations are computed, or
+     * {@code null} for serial computations.
+     */
+    VectorKernels(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the pool (may be {@code null}).
+     */
+    ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Computes the inner product {@code x}<sup>T</sup>{@code y}, in the
+     * order of the serial {@link RealVector#dotProduct(RealVector)} method.
+     *
+     * @param x First vector.
+     * @param y Second vector.
+     * @return the inner product.
+     * @throws org.apache.commons.math4.legacy.exception.DimensionMismatchException
+     * if the dimensions do not match.
+     */
+    double dotProduct(RealVector x,
+                      RealVector y) {
+        return x.dotProduct(y);
+    }
+
+    /**
+     * Computes the Euclidean norm of {@code x}, in the order of the serial
+     * {@link RealVector#getNorm()} method.
+     *
+     * @param x Vector.
+     * @return the norm.
+     */
+    double getNorm(RealVector x) {
+        return x.getNorm();
+    }
+
+    /**
+     * Updates {@code x} in place: {@code x = a * x + b * y}.
+     *
+     * @param a Coefficient of {@code x}.
+     * @param b Coefficient of {@code y}.
+     * @param x Vector to update.
+     * @param y Second vector.
+     * @throws org.apache.commons.math4.legacy.exception.DimensionMismatchException
+     * if the dimensions do not match.
+     */
+    void combineToSelf(final double a,
+                       final double b,
+                       RealVector x,
+                       RealVector y) {
+        if (!isParallel(x, y)) {
+            x.combineToSelf(a, b, y);
+            return;
+        }
+        checkDimensions(x, y);
+        final double[] xData = ((ArrayRealVector) x).getDataRef();
+        final double[] yData = ((ArrayRealVector) y).getDataRef();
+        pool.invoke(new ChunkTask(xData.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                xData[i] = a * xData[i] + b * yData[i];
+            }
+        }));
+    }
+
+    /**
+     * Updates {@code z} in place: {@code z = a * x + b * y + z}.
+     *
+     * @param a Coefficient of {@code x}.
+     * @param x First vector.
+     * @param b Coefficient of {@code y}.
+     * @param y Second vector.
+     * @param z Vector to update.
+     */
+    void axpbypz(final double a,
+                 RealVector x,
+                 final double b,
+                 RealVector y,
+                 RealVector z) {
+        if (!isParallel(x, y) || !isParallel(z, z)) {
+            final int n = z.getDimension();
+            for (int i = 0; i < n; i++) {
+                z.setEntry(i, a * x.getEntry(i) + b * y.getEntry(i) + z.getEntry(i));
+            }
+            return;
+        }
+        checkDimensions(x, y);
+        checkDimensions(x, z);
+        final double[] xData = ((ArrayRealVector) x).getDataRef();
+        final double[] yData = ((ArrayRealVector) y).getDataRef();
+        final double[] zData = ((ArrayRealVector) z).getDataRef();
+        pool.invoke(new ChunkTask(zData.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                zData[i] = a * xData[i] + b * yData[i] + zData[i];
+            }
+        }));
+    }
+
+    /**
+     * Updates {@code y} in place: {@code y = a * x + y}.
+     *
+     * @param a Coefficient of {@code x}.
+     * @param x Vector to add.
+     * @param y Vector to update.
+     */
+    void axpy(final double a,
+              RealVector x,
+              RealVector y) {
+        if (!isParallel(x, y)) {
+            final int n = x.getDimension();
+            for (int i = 0; i < n; i++) {
+                y.setEntry(i, a * x.getEntry(i) + y.getEntry(i));
+            }
+            return;
+        }
+        checkDimensions(x, y);
+        final double[] xData = ((ArrayRealVector) x).getDataRef();
+        final double[] yData = ((ArrayRealVector) y).getDataRef();
+        pool.invoke(new ChunkTask(yData.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                yData[i] = a * xData[i] + yData[i];
+            }
+        }));
+    }
+
+    /**
+     * @param x First vector.
+     * @param y Second vector.
+     * @return whether the operation on {@code x} and {@code y} should be
+     * computed concurrently.
+     */
+    private boolean isParallel(RealVector x,
+                               RealVector y) {
+        return pool != null &&
+            x instanceof ArrayRealVector &&
+            y instanceof ArrayRealVector &&
+            x.getDimension() > CHUNK_SIZE;
+    }
+
+    /**
+     * @param x First vector.
+     * @param y Second vector.
+     * @throws org.apache.commons.math4.legacy.exception.DimensionMismatchException
+     * if the dimensions do not match.
+     */
+    private static void checkDimensions(RealVector x,
+                                        RealVector y) {
+        ((ArrayRealVector) x).checkVectorDimensions(y);
+    }
+
+    /**
+     * @param n Dimension.
+     * @return the number of chunks.
+     */
+    private static int chunks(int n) {
+        return (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Operation on a chunk of entries.
+     */
+    @FunctionalInterface
+    private interface ChunkOperation {
+        /**
+         * @param from Index of the first entry of the chunk.
+         * @param to Index after the last entry of the chunk.
+         */
+        void apply(int from, int to);
+    }
+
+    /**
+     * Task applying an operation to a range of chunks.
+     * The range is split in halves until it contains a single chunk.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261017L;
+        /** Operation. */
+        private final transient ChunkOperation operation;
+        /** Dimension of the vectors. */
+        private final int dimension;
+        /** Index of the first chunk. */
+        private final int start;
+        /** Index after the last chunk. */
+        private final int end;
+
+        /**
+         * @param dimension Dimension of the vectors.
+         * @param operation Operation.
+         */
+        ChunkTask(int dimension,
+                  ChunkOperation operation) {
+            this(operation, dimension, 0, chunks(dimension));
+        }
+
+        /**
+         * @param operation Operation.
+         * @param dimension Dimension of the vectors.
+         * @param start Index of the first chunk.
+         * @param end Index after the last chunk.
+         */
+        private ChunkTask(ChunkOperation operation,
+                          int dimension,
+                          int start,
+                          int end) {
+            this.operation = operation;
+            this.dimension = dimension;
+            this.start = start;
+            this.end = end;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            final int n = end - start;
+            if (n == 1) {
+                operation.apply(start * CHUNK_SIZE,
+                                JdkMath.min(end * CHUNK_SIZE, dimension));
+            } else {
+                final int mid = start + n / 2;
+                invokeAll(new ChunkTask(operation, dimension, start, mid),
+                          new ChunkTask(operation, dimension, mid, end));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ml.clustering;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
+
+/**
+ * Neighborhood index that compares the query point against all the points
+ * of the data set.
+ * It supports any {@link DistanceMeasure} but each query runs in linear time.
+ *
+ * @param <T> Type of the points.
+ * @since 4.0
+ */
+class BruteForceNeighborhoodIndex<T extends Clusterable> implements NeighborhoodIndex<T> {
+    /** Indexed points. */
+    private final List<T> points;
+    /** Distance measure. */
+    private final DistanceMeasure measure;
+    /** Radius of the neighborhood. */
+    private final double radius;
+
+    /**
+     * @param points Data set.
+     * @param measure Distance measure.
+     * @param radius Radius of the neighborhood.
+     */
+    BruteForceNeighborhoodIndex(final Collection<T> points,
+                                final DistanceMeasure measure,
+                                final double radius) {
+        this.points = new ArrayList<>(points);
+        this.measure = measure;
+        this.radius = radius;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<T> getNeighbors(final T point) {
+        final double[] q = point.getPoint();
+        final List<T> neighbors = new ArrayList<>();
+        for (final T p : points) {
+            if (p != point && measure.compute(p.getPoint(), q) <= radius) {
+                neighbors.add(p);
+            }
+        }
+        return neighbors;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ml.clustering;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+
+/**
+ * Result of a centroid-based clustering of points stored in a flat array.
+ * <p>
+ * Points and centroids are stored in row major order: coordinate {@code j}
+ * of point {@code i} is at index {@code i * dimension + j}.
+ * </p>
+ *
+ * @see KMeansPlusPlusClusterer#cluster(double[], int)
+ * @since 4.0
+ */
+public class CentroidPartition {
+    /** Dimension of the space. */
+    private final int dimension;
+    /** Centroids, in row major order. */
+    private final double[] centroids;
+    /** Index of the cluster of each point. */
+    private final int[] labels;
+
+    /**
+     * @param dimension Dimension of the space.
+     * @param centroids Centroids, in row major order (not copied).
+     * @param labels Index of the cluster of each point (not copied).
+     */
+    CentroidPartition(final int dimension,
+                      final double[] centroids,
+                      final int[] labels) {
+        this.dimension = dimension;
+        this.centroids = centroids;
+        this.labels = labels;
+    }
+
+    /**
+     * @return the dimension of the space.
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @return the number of clusters.
+     */
+    public int getNumberOfClusters() {
+        return centroids.length / dimension;
+    }
+
+    /**
+     * Gets the centroids of all clusters.
+     * The returned array is a reference to the internal storage (it is not
+     * copied, so that clustering large data sets does not duplicate it).
+     *
+     * @return the centroids, in row major order.
+     */
+    public double[] getCentroids() {
+        return centroids;
+    }
+
+    /**
+     * @param cluster Index of the cluster.
+     * @return a copy of the centroid of the given cluster.
+     * @throws OutOfRangeException if {@code cluster} is out of range.
+     */
+    public double[] getCentroid(final int cluster) {
+        if (cluster < 0 || cluster >= getNumberOfClusters()) {
+            throw new OutOfRangeException(cluster, 0, getNumberOfClusters() - 1);
+        }
+        final int start = cluster * dimension;
+        return Arrays.copyOfRange(centroids, start, start + dimension);
+    }
+
+    /**
+     * Gets the index of the cluster of each point.
+     * The returned array is a reference to the internal storage.
+     *
+     * @return the labels ({@code labels[i]} is the index of the cluster
+     * to which point {@code i} has been assigned).
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+}
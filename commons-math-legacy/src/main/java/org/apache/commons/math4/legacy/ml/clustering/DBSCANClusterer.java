@@ -23,7 +23,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.apache.commons.math4.legacy.exception.NullArgumentException;
 import org.apache.commons.math4.legacy.exception.NotPositiveException;
@@ -48,6 +47,13 @@ import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
  *   <li>eps: the distance that defines the &epsilon;-neighborhood of a point
  *   <li>minPoints: the minimum number of density-connected points required to form a cluster
  * </ul>
+ * <p>
+ * The &epsilon;-neighborhoods are retrieved from a {@link NeighborhoodIndex}
+ * built for each data set; by default, a spatial index is used for the
+ * Euclidean, Chebyshev and Manhattan distances (see
+ * {@link NeighborhoodIndexType#AUTOMATIC}), so that clustering does not
+ * require computing all the pairwise distances.
+ * </p>
  *
  * @param <T> type of the points to cluster
  * @see <a href="http://en.wikipedia.org/wiki/DBSCAN">DBSCAN (wikipedia)</a>
@@ -63,6 +69,9 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
     /** Minimum number of points needed for a cluster. */
     private final int                 minPts;
 
+    /** Factory of the neighborhood index. */
+    private final NeighborhoodIndex.Factory indexFactory;
+
     /** Status of a point during the clustering process. */
     private enum PointStatus {
         /** The point has is considered to be noise. */
@@ -93,7 +102,24 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
      * @throws NotPositiveException if {@code eps < 0.0} or {@code minPts < 0}
      */
     public DBSCANClusterer(final double eps, final int minPts, final DistanceMeasure measure) {
+        this(eps, minPts, measure, NeighborhoodIndexType.AUTOMATIC);
+    }
+
+    /**
+     * Creates a new instance of a DBSCANClusterer.
+     *
+     * @param eps maximum radius of the neighborhood to be considered
+     * @param minPts minimum number of points needed for a cluster
+     * @param measure the distance measure to use
+     * @param indexFactory the factory of the index used to retrieve the neighborhoods
+     * @throws NotPositiveException if {@code eps < 0.0} or {@code minPts < 0}
+     * @throws NullArgumentException if {@code indexFactory} is {@code null}
+     * @since 4.0
+     */
+    public DBSCANClusterer(final double eps, final int minPts, final DistanceMeasure measure,
+                           final NeighborhoodIndex.Factory indexFactory) {
         super(measure);
+        NullArgumentException.check(indexFactory);
 
         if (eps < 0.0d) {
             throw new NotPositiveException(eps);
@@ -103,6 +129,7 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
         }
         this.eps = eps;
         this.minPts = minPts;
+        this.indexFactory = indexFactory;
     }
 
     /**
@@ -134,16 +161,17 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
 
         final List<Cluster<T>> clusters = new ArrayList<>();
         final Map<Clusterable, PointStatus> visited = new HashMap<>();
+        final NeighborhoodIndex<T> index = indexFactory.create(points, getDistanceMeasure(), eps);
 
         for (final T point : points) {
             if (visited.get(point) != null) {
                 continue;
             }
-            final List<T> neighbors = getNeighbors(point, points);
+            final List<T> neighbors = index.getNeighbors(point);
             if (neighbors.size() >= minPts) {
                 // DBSCAN does not care about center points
                 final Cluster<T> cluster = new Cluster<>();
-                clusters.add(expandCluster(cluster, point, neighbors, points, visited));
+                clusters.add(expandCluster(cluster, point, neighbors, index, visited));
             } else {
                 visited.put(point, PointStatus.NOISE);
             }
@@ -158,28 +186,29 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
      * @param cluster Cluster to expand
      * @param point Point to add to cluster
      * @param neighbors List of neighbors
-     * @param points the data set
+     * @param index the neighborhood index of the data set
      * @param visited the set of already visited points
      * @return the expanded cluster
      */
     private Cluster<T> expandCluster(final Cluster<T> cluster,
                                      final T point,
                                      final List<T> neighbors,
-                                     final Collection<T> points,
+                                     final NeighborhoodIndex<T> index,
                                      final Map<Clusterable, PointStatus> visited) {
         cluster.addPoint(point);
         visited.put(point, PointStatus.PART_OF_CLUSTER);
 
-        List<T> seeds = new ArrayList<>(neighbors);
-        int index = 0;
-        while (index < seeds.size()) {
-            final T current = seeds.get(index);
+        final List<T> seeds = new ArrayList<>(neighbors);
+        final Set<T> seedSet = new HashSet<>(neighbors);
+        int next = 0;
+        while (next < seeds.size()) {
+            final T current = seeds.get(next);
             PointStatus pStatus = visited.get(current);
             // only check non-visited points
             if (pStatus == null) {
-                final List<T> currentNeighbors = getNeighbors(current, points);
+                final List<T> currentNeighbors = index.getNeighbors(current);
                 if (currentNeighbors.size() >= minPts) {
-                    seeds = merge(seeds, currentNeighbors);
+                    merge(seeds, seedSet, currentNeighbors);
                 }
             }
 
@@ -188,33 +217,24 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
                 cluster.addPoint(current);
             }
 
-            index++;
+            next++;
         }
         return cluster;
     }
 
     /**
-     * Returns a list of density-reachable neighbors of a {@code point}.
+     * Appends to the seeds the new points of another list.
      *
-     * @param point the point to look for
-     * @param points possible neighbors
-     * @return the List of neighbors
+     * @param seeds the seeds
+     * @param seedSet the points contained in {@code seeds} (updated)
+     * @param two the list to merge
      */
-    private List<T> getNeighbors(final T point, final Collection<T> points) {
-        return points.stream().filter(neighbor -> point != neighbor && distance(neighbor, point) <= eps)
-                              .collect(Collectors.toList());
-    }
-
-    /**
-     * Merges two lists together.
-     *
-     * @param one first list
-     * @param two second list
-     * @return merged lists
-     */
-    private List<T> merge(final List<T> one, final List<T> two) {
-        final Set<T> oneSet = new HashSet<>(one);
-        two.stream().filter(item -> !oneSet.contains(item)).forEach(one::add);
-        return one;
+    private void merge(final List<T> seeds, final Set<T> seedSet, final List<T> two) {
+        for (final T item : two) {
+            if (!seedSet.contains(item)) {
+                seeds.add(item);
+            }
+        }
+        seedSet.addAll(two);
     }
 }
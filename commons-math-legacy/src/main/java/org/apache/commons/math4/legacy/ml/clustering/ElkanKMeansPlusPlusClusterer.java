@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
@@ -96,6 +97,38 @@ public class ElkanKMeansPlusPlusClusterer<T extends Clusterable>
         super(k, maxIterations, measure, random, emptyStrategy);
     }
 
+    /**
+     * @param k Clustering parameter.
+     * @param maxIterations Allowed number of iterations.
+     * @param measure Distance measure.
+     * @param random Random generator.
+     * @param emptyStrategy Strategy for handling empty clusters that
+     * may appear during algorithm progress.
+     * @param executor Executor for the assignment of the points to
+     * the clusters, or {@code null} to run all computations in the
+     * calling thread.
+     * @since 4.0
+     */
+    public ElkanKMeansPlusPlusClusterer(int k,
+                                        int maxIterations,
+                                        DistanceMeasure measure,
+                                        UniformRandomProvider random,
+                                        EmptyClusterStrategy emptyStrategy,
+                                        ExecutorService executor) {
+        super(k, maxIterations, measure, random, emptyStrategy, executor);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected ElkanKMeansPlusPlusClusterer<T> withRandomGenerator(UniformRandomProvider rng) {
+        return new ElkanKMeansPlusPlusClusterer<>(getNumberOfClusters(),
+                                                  getMaxIterations(),
+                                                  getDistanceMeasure(),
+                                                  rng,
+                                                  getEmptyClusterStrategy(),
+                                                  getExecutor());
+    }
+
     /** {@inheritDoc} */
     @Override
     public List<CentroidCluster<T>> cluster(final Collection<T> points) {
@@ -136,44 +169,48 @@ public class ElkanKMeansPlusPlusClusterer<T extends Clusterable>
         for (int it = 0, max = getMaxIterations();
              it < max;
              it++) {
-            int changes = 0;
             // Step I.
             // Compute inter-cluster distances.
             updateIntraCentersDistances(centers, dcc, s);
 
-            for (int xi = 0; xi < n; xi++) {
-                boolean r = true;
+            // Steps II and III (points are independent from each other).
+            final int changes = forEachChunk(n, (chunk, start, end) -> {
+                int chunkChanges = 0;
+                for (int xi = start; xi < end; xi++) {
+                    boolean r = true;
 
-                // Step II.
-                if (u[xi] <= s[partitions[xi]]) {
-                    continue;
-                }
-
-                for (int c = 0; c < k; c++) {
-                    // Check condition III.
-                    if (isSkipNext(partitions, u, l, dcc, xi, c)) {
+                    // Step II.
+                    if (u[xi] <= s[partitions[xi]]) {
                         continue;
                     }
 
-                    final double[] x = pointsList.get(xi).getPoint();
+                    for (int c = 0; c < k; c++) {
+                        // Check condition III.
+                        if (isSkipNext(partitions, u, l, dcc, xi, c)) {
+                            continue;
+                        }
 
-                    // III(a)
-                    if (r) {
-                        u[xi] = distance(x, centers[partitions[xi]]);
-                        l[xi][partitions[xi]] = u[xi];
-                        r = false;
-                    }
-                    // III(b)
-                    if (u[xi] > l[xi][c] || u[xi] > dcc[partitions[xi]][c]) {
-                        l[xi][c] = distance(x, centers[c]);
-                        if (l[xi][c] < u[xi]) {
-                            partitions[xi] = c;
-                            u[xi] = l[xi][c];
-                            ++changes;
+                        final double[] x = pointsList.get(xi).getPoint();
+
+                        // III(a)
+                        if (r) {
+                            u[xi] = distance(x, centers[partitions[xi]]);
+                            l[xi][partitions[xi]] = u[xi];
+                            r = false;
+                        }
+                        // III(b)
+                        if (u[xi] > l[xi][c] || u[xi] > dcc[partitions[xi]][c]) {
+                            l[xi][c] = distance(x, centers[c]);
+                            if (l[xi][c] < u[xi]) {
+                                partitions[xi] = c;
+                                u[xi] = l[xi][c];
+                                ++chunkChanges;
+                            }
                         }
                     }
                 }
-            }
+                return chunkChanges;
+            });
 
             // Stopping criterion.
             if (changes == 0 &&
@@ -275,16 +312,19 @@ public class ElkanKMeansPlusPlusClusterer<T extends Clusterable>
         final int[] assignments = new int[n];
         Arrays.fill(assignments, -1);
         // Need to assign points to the clusters for the first time and intitialize the lower bound l(x, c)
-        for (int i = 0; i < n; i++) {
-            final double[] x = pointsList.get(i).getPoint();
-            for (int j = 0; j < k; j++) {
-                l[i][j] = distance(x, centers[j]); // l(x, c) = d(x, c)
-                if (u[i] > l[i][j]) {
-                    u[i] = l[i][j]; // u(x) = min_c d(x, c)
-                    assignments[i] = j; // c(x) = argmin_c d(x, c)
+        forEachChunk(n, (chunk, start, end) -> {
+            for (int i = start; i < end; i++) {
+                final double[] x = pointsList.get(i).getPoint();
+                for (int j = 0; j < k; j++) {
+                    l[i][j] = distance(x, centers[j]); // l(x, c) = d(x, c)
+                    if (u[i] > l[i][j]) {
+                        u[i] = l[i][j]; // u(x) = min_c d(x, c)
+                        assignments[i] = j; // c(x) = argmin_c d(x, c)
+                    }
                 }
             }
-        }
+            return 0;
+        });
         return assignments;
     }
 
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ml.clustering;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Neighborhood index backed by a uniform grid whose cells have the size of
+ * the neighborhood radius.
+ * <p>
+ * Only non-empty cells are stored (in a hash table), and a query visits the
+ * 3<sup>d</sup> cells surrounding the query point (where d is the dimension of
+ * the space), so that this index is best suited to low-dimensional data.
+ * </p>
+ *
+ * @param <T> Type of the points.
+ * @since 4.0
+ */
+class GridNeighborhoodIndex<T extends Clusterable> extends SpatialNeighborhoodIndex<T> {
+    /**
+     * Bound on the cell indices, ensuring that they are exactly represented
+     * both as {@code double} and {@code long}.
+     */
+    private static final double MAX_CELL = 0x1.0p52;
+    /** Indices of the points in each non-empty cell. */
+    private final Map<Cell, int[]> cells = new HashMap<>();
+
+    /**
+     * @param points Data set (must be {@link #isSupported(Collection,DistanceMeasure,double)
+     * supported}).
+     * @param measure Distance measure.
+     * @param radius Radius of the neighborhood.
+     */
+    GridNeighborhoodIndex(final Collection<T> points,
+                          final DistanceMeasure measure,
+                          final double radius) {
+        super(points, measure, radius);
+        final int dim = getDimension();
+        final Map<Cell, Candidates> content = new HashMap<>();
+        for (int i = 0; i < size(); i++) {
+            final long[] index = new long[dim];
+            for (int j = 0; j < dim; j++) {
+                index[j] = cell(coordinate(i, j));
+            }
+            content.computeIfAbsent(new Cell(index), c -> new Candidates()).add(i);
+        }
+        for (final Map.Entry<Cell, Candidates> e : content.entrySet()) {
+            cells.put(e.getKey(), e.getValue().toArray());
+        }
+    }
+
+    /**
+     * Checks whether the grid can be used.
+     *
+     * @param points Data set (must be {@link #isSupported(Collection,DistanceMeasure,double)
+     * supported}).
+     * @param radius Radius of the neighborhood.
+     * @return {@code true} if the cell indices of all the points can be
+     * represented exactly.
+     */
+    static boolean fitsGrid(final Collection<? extends Clusterable> points,
+                            final double radius) {
+        // Leave room for the cells surrounding the points.
+        final double max = MAX_CELL * radius * 0.5;
+        for (final Clusterable p : points) {
+            for (final double x : p.getPoint()) {
+                if (!(JdkMath.abs(x) < max)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void collect(final T query,
+                           final double[] queryCoordinates,
+                           final Candidates candidates) {
+        final int dim = getDimension();
+        final double r = getRadius();
+
+        // Bounds of the cells intersecting the neighborhood.
+        // The neighborhood is widened by a few ulps to account for the
+        // rounding of the coordinate differences in the distance computation.
+        final long[] lo = new long[dim];
+        final long[] hi = new long[dim];
+        for (int j = 0; j < dim; j++) {
+            final double x = queryCoordinates[j];
+            final double tol = 4 * JdkMath.ulp(JdkMath.abs(x) + r);
+            lo[j] = cell(x - r - tol);
+            hi[j] = cell(x + r + tol);
+        }
+
+        // Visit all the cells in the box.
+        final Cell probe = new Cell(lo.clone());
+        final long[] index = probe.index;
+        while (true) {
+            final int[] content = cells.get(probe);
+            if (content != null) {
+                for (final int i : content) {
+                    check(i, query, queryCoordinates, candidates);
+                }
+            }
+
+            int j = 0;
+            while (j < dim && index[j] == hi[j]) {
+                index[j] = lo[j];
+                ++j;
+            }
+            if (j == dim) {
+                return;
+            }
+            ++index[j];
+        }
+    }
+
+    /**
+     * @param x Coordinate.
+     * @return the index of the cell containing {@code x}.
+     */
+    private long cell(final double x) {
+        return (long) JdkMath.floor(x / getRadius());
+    }
+
+    /**
+     * Key of a grid cell.
+     */
+    private static final class Cell {
+        /** Index of the cell along each coordinate. */
+        private final long[] index;
+
+        /**
+         * @param index Index of the cell along each coordinate (not copied).
+         */
+        Cell(final long[] index) {
+            this.index = index;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Cell &&
+                Arrays.equals(index, ((Cell) other).index);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(index);
+        }
+    }
+}
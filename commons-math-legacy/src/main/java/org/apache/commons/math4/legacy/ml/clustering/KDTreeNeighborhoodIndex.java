@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ml.clustering;
+
+import java.util.Collection;
+
+import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Neighborhood index backed by a balanced k-d tree.
+ * <p>
+ * The tree is stored implicitly in a permutation of the point indices: the
+ * node of a range is its middle element, which splits the range along the
+ * coordinate with the largest spread.
+ * A query visits about {@code O(log n)} nodes plus the candidates lying in the
+ * bounding box of the neighborhood.
+ * </p>
+ *
+ * @param <T> Type of the points.
+ * @since 4.0
+ */
+class KDTreeNeighborhoodIndex<T extends Clusterable> extends SpatialNeighborhoodIndex<T> {
+    /** Ranges smaller than this size are scanned linearly. */
+    private static final int LEAF_SIZE = 8;
+    /** Permutation of the point indices. */
+    private final int[] perm;
+    /** Splitting coordinate of each node (indexed as {@link #perm}). */
+    private final int[] axis;
+
+    /**
+     * @param points Data set (must be {@link #isSupported(Collection,DistanceMeasure,double)
+     * supported}).
+     * @param measure Distance measure.
+     * @param radius Radius of the neighborhood.
+     */
+    KDTreeNeighborhoodIndex(final Collection<T> points,
+                            final DistanceMeasure measure,
+                            final double radius) {
+        super(points, measure, radius);
+        final int n = size();
+        perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        axis = new int[n];
+        build(0, n);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void collect(final T query,
+                           final double[] queryCoordinates,
+                           final Candidates candidates) {
+        search(0, perm.length, query, queryCoordinates, candidates);
+    }
+
+    /**
+     * Builds the sub-tree of a range.
+     *
+     * @param lo First index of the range (inclusive).
+     * @param hi Last index of the range (exclusive).
+     */
+    private void build(final int lo,
+                       final int hi) {
+        if (hi - lo <= LEAF_SIZE) {
+            return;
+        }
+
+        // Split along the coordinate with the largest spread.
+        int d = 0;
+        double maxSpread = -1;
+        for (int j = 0; j < getDimension(); j++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                final double x = coordinate(perm[i], j);
+                min = JdkMath.min(min, x);
+                max = JdkMath.max(max, x);
+            }
+            if (max - min > maxSpread) {
+                maxSpread = max - min;
+                d = j;
+            }
+        }
+
+        final int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, d);
+        axis[mid] = d;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    /**
+     * Partially sorts a range of the permutation so that all the points
+     * before {@code k} have a coordinate {@code d} less than or equal to
+     * that of point {@code k}, and all the points after {@code k} have a
+     * coordinate greater than or equal to it.
+     *
+     * @param lo First index of the range (inclusive).
+     * @param hi Last index of the range (inclusive).
+     * @param k Index of the element to select.
+     * @param d Coordinate.
+     */
+    private void select(final int lo,
+                        final int hi,
+                        final int k,
+                        final int d) {
+        int left = lo;
+        int right = hi;
+        while (right > left) {
+            final double pivot = coordinate(perm[(left + right) >>> 1], d);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(perm[i], d) < pivot) {
+                    ++i;
+                }
+                while (coordinate(perm[j], d) > pivot) {
+                    --j;
+                }
+                if (i <= j) {
+                    final int tmp = perm[i];
+                    perm[i] = perm[j];
+                    perm[j] = tmp;
+                    ++i;
+                    --j;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Searches the sub-tree of a range.
+     *
+     * @param lo First index of the range (inclusive).
+     * @param hi Last index of the range (exclusive).
+     * @param query Query point.
+     * @param q Coordinates of the query point.
+     * @param candidates Receives the indices of the neighbors.
+     */
+    private void search(final int lo,
+                        final int hi,
+                        final T query,
+                        final double[] q,
+                        final Candidates candidates) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                check(perm[i], query, q, candidates);
+            }
+            return;
+        }
+
+        final int mid = (lo + hi) >>> 1;
+        final int d = axis[mid];
+        final double split = coordinate(perm[mid], d);
+        final double r = getRadius();
+        check(perm[mid], query, q, candidates);
+        // The comparisons use the same (monotonic) floating-point subtraction
+        // as the distance computation: a pruned sub-tree only contains points
+        // whose coordinate difference with the query exceeds the radius.
+        if (!(q[d] - split > r)) {
+            search(lo, mid, query, q, candidates);
+        }
+        if (!(split - q[d] > r)) {
+            search(mid + 1, hi, query, q, candidates);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.commons.math4.legacy.ml.clustering;
 
+import org.apache.commons.math4.legacy.exception.MathIllegalArgumentException;
 import org.apache.commons.math4.legacy.exception.NullArgumentException;
 import org.apache.commons.math4.legacy.exception.ConvergenceException;
 import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
@@ -25,13 +26,18 @@ import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
 import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
 import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
 import org.apache.commons.math4.legacy.stat.descriptive.moment.Variance;
+import org.apache.commons.math4.legacy.util.ConcurrentTasks;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Clustering algorithm based on David Arthur and Sergei Vassilvitski k-means++ algorithm.
@@ -57,6 +63,12 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
         ERROR
     }
 
+    /** Minimum number of points processed by a task of the assignment step. */
+    static final int MIN_CHUNK_SIZE = 1024;
+
+    /** Maximum number of tasks of the assignment step. */
+    static final int MAX_CHUNKS = 128;
+
     /** The number of clusters. */
     private final int numberOfClusters;
 
@@ -69,6 +81,9 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
     /** Selected strategy for empty clusters. */
     private final EmptyClusterStrategy emptyStrategy;
 
+    /** Executor for the assignment step ({@code null} if single-threaded). */
+    private final ExecutorService executor;
+
     /** Build a clusterer.
      * <p>
      * The default strategy for handling empty clusters that may appear during
@@ -144,6 +159,39 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
                                    final DistanceMeasure measure,
                                    final UniformRandomProvider random,
                                    final EmptyClusterStrategy emptyStrategy) {
+        this(k, maxIterations, measure, random, emptyStrategy, null);
+    }
+
+    /** Build a clusterer.
+     * <p>
+     * When an {@code executor} is provided, the points are split into
+     * chunks whose number and bounds depend only on the number of points,
+     * and the chunks are assigned to their nearest cluster concurrently.
+     * The partial results are then combined in chunk order, so that the
+     * clusters do not depend on the number of threads of the executor
+     * (for a given seed of the random generator).
+     * The executor must not be a single-threaded executor that is also
+     * running the call to {@link #cluster(Collection) cluster}.
+     * </p>
+     *
+     * @param k the number of clusters to split the data into
+     * @param maxIterations the maximum number of iterations to run the algorithm for.
+     * @param measure the distance measure to use
+     * @param random random generator to use for choosing initial centers
+     * @param emptyStrategy strategy to use for handling empty clusters that
+     * may appear during algorithm iterations
+     * @param executor executor for the assignment step, or {@code null}
+     * to run all computations in the calling thread
+     * @throws NotStrictlyPositiveException if {@code k <= 0} or
+     * {@code maxIterations <= 0}.
+     * @since 4.0
+     */
+    public KMeansPlusPlusClusterer(final int k,
+                                   final int maxIterations,
+                                   final DistanceMeasure measure,
+                                   final UniformRandomProvider random,
+                                   final EmptyClusterStrategy emptyStrategy,
+                                   final ExecutorService executor) {
         super(measure);
 
         if (k <= 0) {
@@ -157,6 +205,7 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
         this.maxIterations = maxIterations;
         this.random = random;
         this.emptyStrategy = emptyStrategy;
+        this.executor = executor;
     }
 
     /**
@@ -199,16 +248,19 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
         // create the initial clusters
         List<CentroidCluster<T>> clusters = chooseInitialCenters(points);
 
+        // copy to list for indexed access
+        final List<T> pointList = new ArrayList<>(points);
+
         // create an array containing the latest assignment of a point to a cluster
         // no need to initialize the array, as it will be filled with the first assignment
         int[] assignments = new int[points.size()];
-        assignPointsToClusters(clusters, points, assignments);
+        assignPointsToClusters(clusters, pointList, assignments);
 
         // iterate through updating the centers until we're done
         for (int count = 0; count < maxIterations; count++) {
             boolean hasEmptyCluster = clusters.stream().anyMatch(cluster->cluster.getPoints().isEmpty());
             List<CentroidCluster<T>> newClusters = adjustClustersCenters(clusters);
-            int changes = assignPointsToClusters(newClusters, points, assignments);
+            int changes = assignPointsToClusters(newClusters, pointList, assignments);
             clusters = newClusters;
 
             // if there were no more changes in the point-to-cluster assignment
@@ -220,6 +272,81 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
         return clusters;
     }
 
+    /**
+     * Runs the K-means++ clustering algorithm on points stored in a flat array.
+     * <p>
+     * This method is a fast path for large data sets: it works directly on
+     * primitive arrays and does not create any {@link Clusterable} or
+     * {@link Cluster} instance, so that the assignment of the points to
+     * their nearest centroid does not allocate memory.
+     * Whatever the {@link #getDistanceMeasure() distance measure} this
+     * instance was built with, the squared Euclidean distance is used for
+     * the assignment (which yields the same partition as the Euclidean
+     * distance, without computing square roots).
+     * </p>
+     *
+     * @param points Coordinates of the points, in row major order:
+     * coordinate {@code j} of point {@code i} is {@code points[i * dimension + j]}.
+     * @param dimension Dimension of the space.
+     * @return the centroids and the index of the cluster of each point.
+     * @throws NullArgumentException if {@code points} is {@code null}.
+     * @throws NotStrictlyPositiveException if {@code dimension <= 0}.
+     * @throws MathIllegalArgumentException if the length of {@code points}
+     * is not a multiple of {@code dimension}.
+     * @throws NumberIsTooSmallException if the number of clusters is larger
+     * than the number of points.
+     * @throws ConvergenceException if an empty cluster is encountered and the
+     * empty cluster strategy is set to {@link EmptyClusterStrategy#ERROR}
+     * @since 4.0
+     */
+    public CentroidPartition cluster(final double[] points,
+                                     final int dimension) {
+        // sanity checks
+        NullArgumentException.check(points);
+        if (dimension <= 0) {
+            throw new NotStrictlyPositiveException(dimension);
+        }
+        if (points.length % dimension != 0) {
+            throw new MathIllegalArgumentException(LocalizedFormats.WRONG_BLOCK_LENGTH,
+                                                   points.length, dimension);
+        }
+
+        final int numPoints = points.length / dimension;
+        // number of clusters has to be smaller or equal the number of data points
+        if (numPoints < numberOfClusters) {
+            throw new NumberIsTooSmallException(numPoints, numberOfClusters, false);
+        }
+
+        final double[] centers = chooseInitialCenters(points, dimension);
+        final double[] sums = new double[centers.length];
+        final int[] counts = new int[numberOfClusters];
+        final int numBuffers = executor == null ? 1 : numberOfChunks(numPoints);
+        final double[][] chunkSums = new double[numBuffers][centers.length];
+        final int[][] chunkCounts = new int[numBuffers][numberOfClusters];
+
+        // no need to initialize the array, as it will be filled with the first assignment
+        final int[] labels = new int[numPoints];
+        assignPointsToClusters(points, dimension, centers, labels, sums, counts,
+                               chunkSums, chunkCounts);
+
+        // iterate through updating the centers until we're done
+        for (int count = 0; count < maxIterations; count++) {
+            final boolean hasEmptyCluster = adjustClustersCenters(points, dimension, centers,
+                                                                  labels, sums, counts);
+            final int changes = assignPointsToClusters(points, dimension, centers,
+                                                       labels, sums, counts,
+                                                       chunkSums, chunkCounts);
+
+            // if there were no more changes in the point-to-cluster assignment
+            // and there are no empty clusters left, return the current clusters
+            if (changes == 0 && !hasEmptyCluster) {
+                break;
+            }
+        }
+
+        return new CentroidPartition(dimension, centers, labels);
+    }
+
     /**
      * @return the random generator
      */
@@ -234,6 +361,33 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
         return emptyStrategy;
     }
 
+    /**
+     * @return the executor for the assignment step, or {@code null}
+     * if the computations are single-threaded.
+     */
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Creates a clusterer with the same settings as this instance, but
+     * using the given random generator.
+     * <p>
+     * This is used by {@link MultiKMeansPlusPlusClusterer} to run trials
+     * concurrently; subclasses should override it to return an instance
+     * of their own type.
+     * </p>
+     *
+     * @param rng random generator to use for choosing initial centers
+     * @return a new clusterer.
+     * @since 4.0
+     */
+    protected KMeansPlusPlusClusterer<T> withRandomGenerator(final UniformRandomProvider rng) {
+        return new KMeansPlusPlusClusterer<>(numberOfClusters, maxIterations,
+                                             getDistanceMeasure(), rng,
+                                             emptyStrategy, executor);
+    }
+
     /**
      * Adjust the clusters's centers with means of points.
      * @param clusters the origin clusters
@@ -274,24 +428,380 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
      * @return the number of points assigned to different clusters as the iteration before
      */
     private int assignPointsToClusters(final List<CentroidCluster<T>> clusters,
-                                       final Collection<T> points,
+                                       final List<T> points,
                                        final int[] assignments) {
+        // find the nearest cluster of each point
+        final int[] nearest = new int[assignments.length];
+        forEachChunk(points.size(), (chunk, start, end) -> {
+            for (int i = start; i < end; i++) {
+                nearest[i] = getNearestCluster(clusters, points.get(i));
+            }
+            return 0;
+        });
+
+        // add the points to the clusters, in a deterministic order
         int assignedDifferently = 0;
-        int pointIndex = 0;
-        for (final T p : points) {
-            int clusterIndex = getNearestCluster(clusters, p);
+        for (int pointIndex = 0; pointIndex < nearest.length; pointIndex++) {
+            final int clusterIndex = nearest[pointIndex];
             if (clusterIndex != assignments[pointIndex]) {
                 assignedDifferently++;
             }
 
             CentroidCluster<T> cluster = clusters.get(clusterIndex);
-            cluster.addPoint(p);
-            assignments[pointIndex++] = clusterIndex;
+            cluster.addPoint(points.get(pointIndex));
+            assignments[pointIndex] = clusterIndex;
         }
 
         return assignedDifferently;
     }
 
+    /**
+     * Applies an operation to contiguous chunks of a range of indices.
+     * <p>
+     * The range is split into at most {@link #MAX_CHUNKS} chunks of at least
+     * {@link #MIN_CHUNK_SIZE} indices; their bounds depend only on {@code n}.
+     * If this instance has an executor, the chunks are processed concurrently.
+     * </p>
+     *
+     * @param n Size of the range {@code [0, n)}.
+     * @param operation Operation to apply on the chunks.
+     * @return the sum of the results of all chunks.
+     */
+    int forEachChunk(final int n,
+                     final ChunkOperation operation) {
+        final int numChunks = numberOfChunks(n);
+        if (executor == null || numChunks == 1) {
+            return operation.apply(0, 0, n);
+        }
+
+        final List<Callable<Integer>> tasks = new ArrayList<>(numChunks);
+        for (int c = 0; c < numChunks; c++) {
+            final int chunk = c;
+            final int start = chunkStart(c, numChunks, n);
+            final int end = chunkStart(c + 1, numChunks, n);
+            tasks.add(() -> operation.apply(chunk, start, end));
+        }
+
+        int sum = 0;
+        for (final Integer r : ConcurrentTasks.invokeAll(executor, tasks)) {
+            sum += r;
+        }
+        return sum;
+    }
+
+    /**
+     * @param n Number of indices.
+     * @return the number of chunks the range {@code [0, n)} is split into.
+     */
+    static int numberOfChunks(final int n) {
+        return JdkMath.max(1, JdkMath.min(MAX_CHUNKS, n / MIN_CHUNK_SIZE));
+    }
+
+    /**
+     * @param chunk Index of the chunk.
+     * @param numChunks Number of chunks.
+     * @param n Number of indices.
+     * @return the first index of the chunk.
+     */
+    static int chunkStart(final int chunk,
+                          final int numChunks,
+                          final int n) {
+        return (int) (((long) n * chunk) / numChunks);
+    }
+
+    /**
+     * Assigns each point to its closest center, and accumulates the sums
+     * of coordinates and the number of points of each cluster.
+     * <p>
+     * The points are processed in chunks (see {@link #forEachChunk(int,
+     * ChunkOperation) forEachChunk}); each chunk accumulates into its own
+     * buffers, which are then added in chunk order, so that the sums do not
+     * depend on whether, or how many, threads are used.
+     * </p>
+     *
+     * @param points Coordinates of the points, in row major order.
+     * @param dimension Dimension of the space.
+     * @param centers Coordinates of the centers, in row major order.
+     * @param labels Index of the cluster of each point. On input, it contains
+     * the assignment of the previous iteration; on output, the new assignment.
+     * @param sums On output, the sums of the coordinates of the points of each
+     * cluster, in row major order.
+     * @param counts On output, the number of points of each cluster.
+     * @param chunkSums Work buffers for the sums of each chunk.
+     * @param chunkCounts Work buffers for the counts of each chunk.
+     * @return the number of points assigned to a different cluster than in the
+     * previous iteration.
+     */
+    private int assignPointsToClusters(final double[] points,
+                                       final int dimension,
+                                       final double[] centers,
+                                       final int[] labels,
+                                       final double[] sums,
+                                       final int[] counts,
+                                       final double[][] chunkSums,
+                                       final int[][] chunkCounts) {
+        final int n = labels.length;
+        final int numChunks = numberOfChunks(n);
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
+
+        int changes = 0;
+        if (executor == null) {
+            // reuse a single pair of buffers
+            for (int c = 0; c < numChunks; c++) {
+                Arrays.fill(chunkSums[0], 0);
+                Arrays.fill(chunkCounts[0], 0);
+                changes += assignPointsToClusters(points, dimension, centers, labels,
+                                                  chunkSums[0], chunkCounts[0],
+                                                  chunkStart(c, numChunks, n),
+                                                  chunkStart(c + 1, numChunks, n));
+                addChunk(sums, counts, chunkSums[0], chunkCounts[0]);
+            }
+        } else {
+            changes = forEachChunk(n, (c, start, end) -> {
+                Arrays.fill(chunkSums[c], 0);
+                Arrays.fill(chunkCounts[c], 0);
+                return assignPointsToClusters(points, dimension, centers, labels,
+                                              chunkSums[c], chunkCounts[c],
+                                              start, end);
+            });
+            for (int c = 0; c < numChunks; c++) {
+                addChunk(sums, counts, chunkSums[c], chunkCounts[c]);
+            }
+        }
+
+        return changes;
+    }
+
+    /**
+     * Adds the partial sums of a chunk to the totals.
+     *
+     * @param sums Sums of the coordinates.
+     * @param counts Number of points.
+     * @param chunkSums Sums of the coordinates of the chunk.
+     * @param chunkCounts Number of points of the chunk.
+     */
+    private static void addChunk(final double[] sums,
+                                 final int[] counts,
+                                 final double[] chunkSums,
+                                 final int[] chunkCounts) {
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] += chunkSums[i];
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += chunkCounts[i];
+        }
+    }
+
+    /**
+     * Assigns a range of points to their closest center, and accumulates
+     * the sums of coordinates and the number of points of each cluster.
+     * This loop does not allocate memory.
+     *
+     * @param points Coordinates of the points, in row major order.
+     * @param dimension Dimension of the space.
+     * @param centers Coordinates of the centers, in row major order.
+     * @param labels Index of the cluster of each point. On input, it contains
+     * the assignment of the previous iteration; on output, the new assignment
+     * of the points in the range.
+     * @param sums Sums of the coordinates of the points of each cluster, in row
+     * major order, to which the coordinates of the points in the range are added.
+     * @param counts Number of points of each cluster, to which the points in the
+     * range are added.
+     * @param start Index of the first point of the range.
+     * @param end Index after the last point of the range.
+     * @return the number of points of the range assigned to a different cluster
+     * than in the previous iteration.
+     */
+    static int assignPointsToClusters(final double[] points,
+                                      final int dimension,
+                                      final double[] centers,
+                                      final int[] labels,
+                                      final double[] sums,
+                                      final int[] counts,
+                                      final int start,
+                                      final int end) {
+        int assignedDifferently = 0;
+        for (int i = start; i < end; i++) {
+            final int cluster = getNearestCluster(points, i * dimension, centers, dimension);
+            if (cluster != labels[i]) {
+                assignedDifferently++;
+                labels[i] = cluster;
+            }
+
+            ++counts[cluster];
+            int p = i * dimension;
+            int c = cluster * dimension;
+            for (int j = 0; j < dimension; j++) {
+                sums[c++] += points[p++];
+            }
+        }
+
+        return assignedDifferently;
+    }
+
+    /**
+     * Computes the new centers as the means of the points of each cluster.
+     * Empty clusters are handled according to the {@link EmptyClusterStrategy}.
+     *
+     * @param points Coordinates of the points, in row major order.
+     * @param dimension Dimension of the space.
+     * @param centers On input, the current centers; on output, the new centers.
+     * @param labels Index of the cluster of each point (updated if a point
+     * is moved to an empty cluster).
+     * @param sums Sums of the coordinates of the points of each cluster
+     * (updated if a point is moved to an empty cluster).
+     * @param counts Number of points of each cluster (updated if a point
+     * is moved to an empty cluster).
+     * @return {@code true} if an empty cluster was encountered.
+     * @throws ConvergenceException if an empty cluster is encountered and the
+     * empty cluster strategy is set to {@link EmptyClusterStrategy#ERROR}
+     */
+    private boolean adjustClustersCenters(final double[] points,
+                                          final int dimension,
+                                          final double[] centers,
+                                          final int[] labels,
+                                          final double[] sums,
+                                          final int[] counts) {
+        boolean hasEmptyCluster = false;
+        for (int cluster = 0; cluster < numberOfClusters; cluster++) {
+            if (counts[cluster] == 0) {
+                hasEmptyCluster = true;
+                final int point;
+                switch (emptyStrategy) {
+                    case LARGEST_VARIANCE :
+                        point = getPointFromLargestVarianceCluster(points, dimension, centers, labels, counts);
+                        break;
+                    case LARGEST_POINTS_NUMBER :
+                        point = getPointFromLargestNumberCluster(labels, counts);
+                        break;
+                    case FARTHEST_POINT :
+                        point = getFarthestPoint(points, dimension, centers, labels);
+                        break;
+                    default :
+                        throw new ConvergenceException(LocalizedFormats.EMPTY_CLUSTER_IN_K_MEANS);
+                }
+
+                // move the point to the empty cluster
+                final int donor = labels[point];
+                --counts[donor];
+                ++counts[cluster];
+                labels[point] = cluster;
+                final int p = point * dimension;
+                final int d = donor * dimension;
+                final int c = cluster * dimension;
+                for (int j = 0; j < dimension; j++) {
+                    sums[d + j] -= points[p + j];
+                    sums[c + j] = points[p + j];
+                }
+            }
+        }
+
+        for (int cluster = 0; cluster < numberOfClusters; cluster++) {
+            final int n = counts[cluster];
+            final int c = cluster * dimension;
+            if (n > 0) {
+                for (int j = 0; j < dimension; j++) {
+                    centers[c + j] = sums[c + j] / n;
+                }
+            }
+        }
+
+        return hasEmptyCluster;
+    }
+
+    /**
+     * Use K-means++ to choose the initial centers.
+     *
+     * @param points Coordinates of the points, in row major order.
+     * @param dimension Dimension of the space.
+     * @return the coordinates of the initial centers, in row major order.
+     */
+    private double[] chooseInitialCenters(final double[] points,
+                                          final int dimension) {
+        final int numPoints = points.length / dimension;
+        final double[] centers = new double[numberOfClusters * dimension];
+
+        // Set the corresponding element in this array to indicate when
+        // points are no longer available.
+        final boolean[] taken = new boolean[numPoints];
+
+        // Choose one center uniformly at random from among the data points.
+        final int firstPointIndex = random.nextInt(numPoints);
+        System.arraycopy(points, firstPointIndex * dimension, centers, 0, dimension);
+        taken[firstPointIndex] = true;
+
+        // To keep track of the minimum distance squared of points to the centers.
+        final double[] minDistSquared = new double[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            if (i != firstPointIndex) { // That point isn't considered
+                minDistSquared[i] = distanceSquared(points, i * dimension, centers, 0, dimension);
+            }
+        }
+
+        int numCenters = 1;
+        while (numCenters < numberOfClusters) {
+
+            // Sum up the squared distances for the points not already taken.
+            double distSqSum = 0.0;
+            for (int i = 0; i < numPoints; i++) {
+                if (!taken[i]) {
+                    distSqSum += minDistSquared[i];
+                }
+            }
+
+            // Add one new data point as a center. Each point x is chosen with
+            // probability proportional to D(x)2
+            final double r = random.nextDouble() * distSqSum;
+
+            // Sum through the squared min distances again, stopping when
+            // sum >= r.
+            int nextPointIndex = -1;
+            double sum = 0.0;
+            for (int i = 0; i < numPoints; i++) {
+                if (!taken[i]) {
+                    sum += minDistSquared[i];
+                    if (sum >= r) {
+                        nextPointIndex = i;
+                        break;
+                    }
+                }
+            }
+
+            // If it's not set to >= 0, the point wasn't found in the previous
+            // for loop, probably because distances are extremely small.  Just pick
+            // the last available point.
+            if (nextPointIndex == -1) {
+                for (int i = numPoints - 1; i >= 0; i--) {
+                    if (!taken[i]) {
+                        nextPointIndex = i;
+                        break;
+                    }
+                }
+            }
+
+            final int c = numCenters * dimension;
+            System.arraycopy(points, nextPointIndex * dimension, centers, c, dimension);
+            taken[nextPointIndex] = true;
+            ++numCenters;
+
+            if (numCenters < numberOfClusters) {
+                // Now update elements of minDistSquared.  We only have to compute
+                // the distance to the new center to do this.
+                for (int j = 0; j < numPoints; j++) {
+                    if (!taken[j]) {
+                        final double d2 = distanceSquared(points, j * dimension, centers, c, dimension);
+                        if (d2 < minDistSquared[j]) {
+                            minDistSquared[j] = d2;
+                        }
+                    }
+                }
+            }
+        }
+
+        return centers;
+    }
+
     /**
      * Use K-means++ to choose the initial centers.
      *
@@ -542,4 +1052,200 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
         }
         return minCluster;
     }
+
+    /**
+     * Get a random point from the cluster with the largest distance variance.
+     *
+     * @param points Coordinates of the points, in row major order.
+     * @param dimension Dimension of the space.
+     * @param centers Coordinates of the centers, in row major order.
+     * @param labels Index of the cluster of each point.
+     * @param counts Number of points of each cluster.
+     * @return the index of a random point from the selected cluster
+     * @throws ConvergenceException if clusters are all empty
+     */
+    private int getPointFromLargestVarianceCluster(final double[] points,
+                                                   final int dimension,
+                                                   final double[] centers,
+                                                   final int[] labels,
+                                                   final int[] counts) {
+        // compute the distance variance of all clusters
+        final Variance[] stats = new Variance[numberOfClusters];
+        for (int i = 0; i < labels.length; i++) {
+            final int cluster = labels[i];
+            if (stats[cluster] == null) {
+                stats[cluster] = new Variance();
+            }
+            stats[cluster].increment(JdkMath.sqrt(distanceSquared(points, i * dimension,
+                                                                  centers, cluster * dimension,
+                                                                  dimension)));
+        }
+
+        // select the cluster with the largest variance
+        double maxVariance = Double.NEGATIVE_INFINITY;
+        int selected = -1;
+        for (int cluster = 0; cluster < numberOfClusters; cluster++) {
+            if (stats[cluster] != null) {
+                final double variance = stats[cluster].getResult();
+                if (variance > maxVariance) {
+                    maxVariance = variance;
+                    selected = cluster;
+                }
+            }
+        }
+
+        // did we find at least one non-empty cluster ?
+        if (selected == -1) {
+            throw new ConvergenceException(LocalizedFormats.EMPTY_CLUSTER_IN_K_MEANS);
+        }
+
+        return getRandomPoint(labels, selected, counts[selected]);
+    }
+
+    /**
+     * Get a random point from the cluster with the largest number of points.
+     *
+     * @param labels Index of the cluster of each point.
+     * @param counts Number of points of each cluster.
+     * @return the index of a random point from the selected cluster
+     * @throws ConvergenceException if clusters are all empty
+     */
+    private int getPointFromLargestNumberCluster(final int[] labels,
+                                                 final int[] counts) {
+        int maxNumber = 0;
+        int selected = -1;
+        for (int cluster = 0; cluster < numberOfClusters; cluster++) {
+            if (counts[cluster] > maxNumber) {
+                maxNumber = counts[cluster];
+                selected = cluster;
+            }
+        }
+
+        // did we find at least one non-empty cluster ?
+        if (selected == -1) {
+            throw new ConvergenceException(LocalizedFormats.EMPTY_CLUSTER_IN_K_MEANS);
+        }
+
+        return getRandomPoint(labels, selected, maxNumber);
+    }
+
+    /**
+     * Get the point farthest to its cluster center.
+     *
+     * @param points Coordinates of the points, in row major order.
+     * @param dimension Dimension of the space.
+     * @param centers Coordinates of the centers, in row major order.
+     * @param labels Index of the cluster of each point.
+     * @return the index of the point farthest to its cluster center
+     * @throws ConvergenceException if clusters are all empty
+     */
+    private static int getFarthestPoint(final double[] points,
+                                        final int dimension,
+                                        final double[] centers,
+                                        final int[] labels) {
+        double maxDistance = Double.NEGATIVE_INFINITY;
+        int selected = -1;
+        for (int i = 0; i < labels.length; i++) {
+            final double distance = distanceSquared(points, i * dimension,
+                                                    centers, labels[i] * dimension,
+                                                    dimension);
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                selected = i;
+            }
+        }
+
+        // did we find at least one non-empty cluster ?
+        if (selected == -1) {
+            throw new ConvergenceException(LocalizedFormats.EMPTY_CLUSTER_IN_K_MEANS);
+        }
+
+        return selected;
+    }
+
+    /**
+     * Selects a point uniformly at random among the points of a cluster.
+     *
+     * @param labels Index of the cluster of each point.
+     * @param cluster Index of the cluster.
+     * @param size Number of points of the cluster.
+     * @return the index of the selected point.
+     */
+    private int getRandomPoint(final int[] labels,
+                               final int cluster,
+                               final int size) {
+        int remaining = random.nextInt(size);
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == cluster) {
+                if (remaining == 0) {
+                    return i;
+                }
+                --remaining;
+            }
+        }
+        // Should never happen.
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Returns the nearest center to the given point.
+     *
+     * @param points Coordinates of the points, in row major order.
+     * @param offset Index of the first coordinate of the point.
+     * @param centers Coordinates of the centers, in row major order.
+     * @param dimension Dimension of the space.
+     * @return the index of the nearest center to the given point.
+     */
+    static int getNearestCluster(final double[] points,
+                                 final int offset,
+                                 final double[] centers,
+                                 final int dimension) {
+        double minDistance = Double.POSITIVE_INFINITY;
+        int minCluster = 0;
+        for (int c = 0, cluster = 0; c < centers.length; c += dimension, cluster++) {
+            final double distance = distanceSquared(points, offset, centers, c, dimension);
+            if (distance < minDistance) {
+                minDistance = distance;
+                minCluster = cluster;
+            }
+        }
+        return minCluster;
+    }
+
+    /**
+     * Computes the squared Euclidean distance between two points.
+     *
+     * @param a Array containing the coordinates of the first point.
+     * @param aOffset Index of the first coordinate of the first point.
+     * @param b Array containing the coordinates of the second point.
+     * @param bOffset Index of the first coordinate of the second point.
+     * @param dimension Dimension of the space.
+     * @return the squared distance between the two points.
+     */
+    static double distanceSquared(final double[] a,
+                                  final int aOffset,
+                                  final double[] b,
+                                  final int bOffset,
+                                  final int dimension) {
+        double sum = 0;
+        for (int j = 0; j < dimension; j++) {
+            final double d = a[aOffset + j] - b[bOffset + j];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    /**
+     * Operation applied to a chunk of a range of indices.
+     */
+    @FunctionalInterface
+    interface ChunkOperation {
+        /**
+         * @param chunk Index of the chunk.
+         * @param start Index of the first element of the chunk.
+         * @param end Index after the last element of the chunk.
+         * @return a result (results of all chunks are added).
+         */
+        int apply(int chunk, int start, int end);
+    }
 }
@@ -17,10 +17,17 @@
 
 package org.apache.commons.math4.legacy.ml.clustering;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.legacy.core.Pair;
 import org.apache.commons.math4.legacy.ml.clustering.evaluation.SumOfClusterVariances;
+import org.apache.commons.math4.legacy.util.ConcurrentTasks;
 
 /**
  * A wrapper around a k-means++ clustering algorithm which performs multiple trials
@@ -39,6 +46,9 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
     /** The cluster evaluator to use. */
     private final ClusterRanking evaluator;
 
+    /** Executor for running the trials ({@code null} if sequential). */
+    private final ExecutorService executor;
+
     /** Build a clusterer.
      * @param clusterer the k-means clusterer to use
      * @param numTrials number of trial runs
@@ -59,10 +69,37 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
     public MultiKMeansPlusPlusClusterer(final KMeansPlusPlusClusterer<T> clusterer,
                                         final int numTrials,
                                         final ClusterRanking evaluator) {
+        this(clusterer, numTrials, evaluator, null);
+    }
+
+    /** Build a clusterer.
+     * <p>
+     * When an {@code executor} is provided, the trials are run concurrently.
+     * Each trial then uses its own copy of {@code clusterer} (see
+     * {@link KMeansPlusPlusClusterer#withRandomGenerator(UniformRandomProvider)}),
+     * with a random generator seeded from the generator of {@code clusterer};
+     * the seeds are drawn before the trials are started so that the result
+     * does not depend on the number of threads of the executor.
+     * If {@code clusterer} also has an executor, it should not be the same
+     * as {@code executor}, to avoid starving the trials of threads.
+     * </p>
+     *
+     * @param clusterer the k-means clusterer to use
+     * @param numTrials number of trial runs
+     * @param evaluator the cluster evaluator to use
+     * @param executor executor for running the trials, or {@code null}
+     * to run them sequentially in the calling thread
+     * @since 4.0
+     */
+    public MultiKMeansPlusPlusClusterer(final KMeansPlusPlusClusterer<T> clusterer,
+                                        final int numTrials,
+                                        final ClusterRanking evaluator,
+                                        final ExecutorService executor) {
         super(clusterer.getDistanceMeasure());
         this.clusterer = clusterer;
         this.numTrials = numTrials;
         this.evaluator = evaluator;
+        this.executor = executor;
     }
 
     /**
@@ -79,6 +116,10 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
      */
     @Override
     public List<CentroidCluster<T>> cluster(final Collection<T> points) {
+        if (executor != null) {
+            return clusterConcurrently(points);
+        }
+
         // at first, we have not found any clusters list yet
         List<CentroidCluster<T>> best = null;
         double bestRank = Double.NEGATIVE_INFINITY;
@@ -102,4 +143,37 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
         // return the best clusters list found
         return best;
     }
+
+    /**
+     * Runs the trials concurrently.
+     *
+     * @param points the points to cluster
+     * @return the best clusters list (the first one in trial order,
+     * in case of ties).
+     */
+    private List<CentroidCluster<T>> clusterConcurrently(final Collection<T> points) {
+        // draw the seeds of all trials beforehand
+        final UniformRandomProvider random = clusterer.getRandomGenerator();
+        final List<Callable<Pair<List<CentroidCluster<T>>, Double>>> trials = new ArrayList<>(numTrials);
+        for (int i = 0; i < numTrials; ++i) {
+            final KMeansPlusPlusClusterer<T> trial =
+                clusterer.withRandomGenerator(RandomSource.XO_RO_SHI_RO_128_PP.create(random.nextLong()));
+            trials.add(() -> {
+                final List<CentroidCluster<T>> clusters = trial.cluster(points);
+                return new Pair<>(clusters, evaluator.compute(clusters));
+            });
+        }
+
+        List<CentroidCluster<T>> best = null;
+        double bestRank = Double.NEGATIVE_INFINITY;
+        for (final Pair<List<CentroidCluster<T>>, Double> result : ConcurrentTasks.invokeAll(executor, trials)) {
+            final double rank = result.getSecond();
+            if (rank > bestRank) {
+                best = result.getFirst();
+                bestRank = rank;
+            }
+        }
+
+        return best;
+    }
 }
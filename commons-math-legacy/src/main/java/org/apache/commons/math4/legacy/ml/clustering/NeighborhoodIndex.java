@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ml.clustering;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
+
+/**
+ * Index answering fixed-radius neighborhood queries over a set of points.
+ * <p>
+ * Implementations are built for a given data set, distance measure and
+ * radius; they are used by {@link DBSCANClusterer} to find the
+ * &epsilon;-neighborhood of each point without scanning the whole data set.
+ * </p>
+ *
+ * @param <T> Type of the points.
+ * @see NeighborhoodIndexType
+ * @since 4.0
+ */
+public interface NeighborhoodIndex<T extends Clusterable> {
+    /**
+     * Gets the points of the indexed data set whose distance to the given
+     * {@code point} is less than or equal to the radius of the index.
+     * The {@code point} instance itself is not part of the result; the
+     * neighbors are returned in the iteration order of the indexed data set.
+     *
+     * @param point Point (must belong to the indexed data set).
+     * @return the neighbors of {@code point}.
+     */
+    List<T> getNeighbors(T point);
+
+    /**
+     * Creates indices.
+     */
+    interface Factory {
+        /**
+         * Creates an index.
+         *
+         * @param <T> Type of the points.
+         * @param points Data set to index.
+         * @param measure Distance measure.
+         * @param radius Radius of the neighborhood.
+         * @return a new index over {@code points}.
+         */
+        <T extends Clusterable> NeighborhoodIndex<T> create(Collection<T> points,
+                                                            DistanceMeasure measure,
+                                                            double radius);
+    }
+}
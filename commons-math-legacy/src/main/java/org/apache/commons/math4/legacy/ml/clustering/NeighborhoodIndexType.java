@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ml.clustering;
+
+import java.util.Collection;
+
+import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
+
+/**
+ * Built-in {@link NeighborhoodIndex neighborhood indices}.
+ * <p>
+ * The spatial indices ({@link #KD_TREE} and {@link #GRID}) are restricted to
+ * the {@link org.apache.commons.math4.legacy.ml.distance.EuclideanDistance Euclidean},
+ * {@link org.apache.commons.math4.legacy.ml.distance.ChebyshevDistance Chebyshev}
+ * and {@link org.apache.commons.math4.legacy.ml.distance.ManhattanDistance Manhattan}
+ * distances, to points with finite coordinates, and to a positive radius;
+ * whenever they cannot be used, a
+ * brute-force index is created instead.
+ * All the indices return the same neighbors.
+ * </p>
+ *
+ * @since 4.0
+ */
+public enum NeighborhoodIndexType implements NeighborhoodIndex.Factory {
+    /** Linear scan of the data set (supports any distance measure). */
+    BRUTE_FORCE {
+        /** {@inheritDoc} */
+        @Override
+        public <T extends Clusterable> NeighborhoodIndex<T> create(final Collection<T> points,
+                                                                   final DistanceMeasure measure,
+                                                                   final double radius) {
+            return new BruteForceNeighborhoodIndex<>(points, measure, radius);
+        }
+    },
+    /** Balanced k-d tree. */
+    KD_TREE {
+        /** {@inheritDoc} */
+        @Override
+        public <T extends Clusterable> NeighborhoodIndex<T> create(final Collection<T> points,
+                                                                   final DistanceMeasure measure,
+                                                                   final double radius) {
+            return SpatialNeighborhoodIndex.isSupported(points, measure, radius) ?
+                new KDTreeNeighborhoodIndex<>(points, measure, radius) :
+                BRUTE_FORCE.create(points, measure, radius);
+        }
+    },
+    /** Uniform grid with cells of the size of the radius. */
+    GRID {
+        /** {@inheritDoc} */
+        @Override
+        public <T extends Clusterable> NeighborhoodIndex<T> create(final Collection<T> points,
+                                                                   final DistanceMeasure measure,
+                                                                   final double radius) {
+            return SpatialNeighborhoodIndex.isSupported(points, measure, radius) &&
+                GridNeighborhoodIndex.fitsGrid(points, radius) ?
+                new GridNeighborhoodIndex<>(points, measure, radius) :
+                BRUTE_FORCE.create(points, measure, radius);
+        }
+    },
+    /**
+     * Grid in low dimension (up to {@value #MAX_GRID_DIMENSION}) and
+     * k-d tree otherwise, when the distance measure allows it; linear scan
+     * otherwise.
+     */
+    AUTOMATIC {
+        /** {@inheritDoc} */
+        @Override
+        public <T extends Clusterable> NeighborhoodIndex<T> create(final Collection<T> points,
+                                                                   final DistanceMeasure measure,
+                                                                   final double radius) {
+            if (!SpatialNeighborhoodIndex.isSupported(points, measure, radius)) {
+                return BRUTE_FORCE.create(points, measure, radius);
+            }
+            final int dimension = points.iterator().next().getPoint().length;
+            return dimension <= MAX_GRID_DIMENSION &&
+                GridNeighborhoodIndex.fitsGrid(points, radius) ?
+                new GridNeighborhoodIndex<>(points, measure, radius) :
+                new KDTreeNeighborhoodIndex<>(points, measure, radius);
+        }
+    };
+
+    /** Largest dimension for which {@link #AUTOMATIC} selects the grid. */
+    public static final int MAX_GRID_DIMENSION = 3;
+}
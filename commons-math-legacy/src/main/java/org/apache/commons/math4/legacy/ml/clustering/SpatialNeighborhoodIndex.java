@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ml.clustering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.math4.legacy.ml.distance.ChebyshevDistance;
+import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
+import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
+import org.apache.commons.math4.legacy.ml.distance.ManhattanDistance;
+
+/**
+ * Base class for neighborhood indices that partition the space.
+ * <p>
+ * Subclasses only prune candidates using the fact that, for the supported
+ * distance measures (Euclidean, Chebyshev and Manhattan), the distance between
+ * two points is larger than the absolute difference between any of their
+ * coordinates.
+ * The final decision is always made by calling the distance measure, so that
+ * queries return exactly the same neighbors as a brute-force scan.
+ * </p>
+ *
+ * @param <T> Type of the points.
+ * @since 4.0
+ */
+abstract class SpatialNeighborhoodIndex<T extends Clusterable> implements NeighborhoodIndex<T> {
+    /**
+     * Smallest supported radius.
+     * Below this value, the square of a coordinate difference larger than
+     * the radius could underflow in the computation of the Euclidean distance.
+     */
+    private static final double MIN_RADIUS = 0x1.0p-500;
+    /** Indexed points. */
+    private final List<T> points;
+    /** Coordinates of the points, in row major order. */
+    private final double[] coordinates;
+    /** Dimension of the space. */
+    private final int dimension;
+    /** Distance measure. */
+    private final DistanceMeasure measure;
+    /** Radius of the neighborhood. */
+    private final double radius;
+
+    /**
+     * @param points Data set (must be {@link #isSupported(Collection,DistanceMeasure,double)
+     * supported}).
+     * @param measure Distance measure.
+     * @param radius Radius of the neighborhood.
+     */
+    SpatialNeighborhoodIndex(final Collection<T> points,
+                             final DistanceMeasure measure,
+                             final double radius) {
+        this.points = new ArrayList<>(points);
+        this.measure = measure;
+        this.radius = radius;
+        dimension = this.points.get(0).getPoint().length;
+        coordinates = new double[this.points.size() * dimension];
+        for (int i = 0; i < this.points.size(); i++) {
+            System.arraycopy(this.points.get(i).getPoint(), 0, coordinates, i * dimension, dimension);
+        }
+    }
+
+    /**
+     * Checks whether a spatial index can be used.
+     *
+     * @param points Data set.
+     * @param measure Distance measure.
+     * @param radius Radius of the neighborhood.
+     * @return {@code true} if the data set is not empty, all its points have
+     * the same dimension and finite coordinates, the radius is finite and
+     * not too small, and the distance is the Euclidean, Chebyshev or
+     * Manhattan distance.
+     */
+    static boolean isSupported(final Collection<? extends Clusterable> points,
+                               final DistanceMeasure measure,
+                               final double radius) {
+        if (points.isEmpty() ||
+            !(radius >= MIN_RADIUS) ||
+            Double.isInfinite(radius)) {
+            return false;
+        }
+        final Class<?> type = measure.getClass();
+        if (type != EuclideanDistance.class &&
+            type != ChebyshevDistance.class &&
+            type != ManhattanDistance.class) {
+            return false;
+        }
+
+        final int dimension = points.iterator().next().getPoint().length;
+        for (final Clusterable p : points) {
+            final double[] coord = p.getPoint();
+            if (coord.length != dimension) {
+                return false;
+            }
+            for (final double x : coord) {
+                if (!Double.isFinite(x)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<T> getNeighbors(final T point) {
+        final Candidates candidates = new Candidates();
+        collect(point, point.getPoint(), candidates);
+
+        // Report neighbors in the order of the data set, as a linear scan would.
+        final int[] index = candidates.toArray();
+        Arrays.sort(index);
+        final List<T> neighbors = new ArrayList<>(index.length);
+        for (final int i : index) {
+            neighbors.add(points.get(i));
+        }
+        return neighbors;
+    }
+
+    /**
+     * Adds to {@code candidates} the indices of all the points (other than
+     * {@code query}) whose distance to {@code query} is within the radius.
+     * Implementations select the points to check and call
+     * {@link #check(int,Clusterable,double[],Candidates) check} on them.
+     *
+     * @param query Query point.
+     * @param queryCoordinates Coordinates of the query point.
+     * @param candidates Receives the indices of the neighbors.
+     */
+    protected abstract void collect(T query,
+                                    double[] queryCoordinates,
+                                    Candidates candidates);
+
+    /**
+     * Adds point {@code i} to the neighbors if it lies within the radius of
+     * the query.
+     *
+     * @param i Index of the point.
+     * @param query Query point.
+     * @param queryCoordinates Coordinates of the query point.
+     * @param candidates Receives the indices of the neighbors.
+     */
+    protected void check(final int i,
+                         final Clusterable query,
+                         final double[] queryCoordinates,
+                         final Candidates candidates) {
+        final T p = points.get(i);
+        if (p != query &&
+            measure.compute(p.getPoint(), queryCoordinates) <= radius) {
+            candidates.add(i);
+        }
+    }
+
+    /**
+     * @return the number of indexed points.
+     */
+    protected int size() {
+        return points.size();
+    }
+
+    /**
+     * @return the dimension of the space.
+     */
+    protected int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @return the radius of the neighborhood.
+     */
+    protected double getRadius() {
+        return radius;
+    }
+
+    /**
+     * @param i Index of the point.
+     * @param d Index of the coordinate.
+     * @return the coordinate {@code d} of point {@code i}.
+     */
+    protected double coordinate(final int i,
+                                final int d) {
+        return coordinates[i * dimension + d];
+    }
+
+    /**
+     * Growable list of point indices.
+     */
+    protected static final class Candidates {
+        /** Initial capacity. */
+        private static final int INITIAL_CAPACITY = 16;
+        /** Indices. */
+        private int[] data = new int[INITIAL_CAPACITY];
+        /** Number of indices. */
+        private int size;
+
+        /**
+         * @param i Index to add.
+         */
+        void add(final int i) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, 2 * size);
+            }
+            data[size++] = i;
+        }
+
+        /**
+         * @return a copy of the indices.
+         */
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -339,19 +339,25 @@ public abstract class AbstractIntegrator implements FirstOrderIntegrator {
 
             // search for next events that may occur during the step
             final int orderingSign = interpolator.isForward() ? +1 : -1;
-            SortedSet<EventState> occurringEvents = new TreeSet<>(new Comparator<EventState>() {
+            final SortedSet<EventState> occurringEvents;
+            if (eventsStates.isEmpty()) {
+                // nothing to allocate for the common case without events
+                occurringEvents = Collections.emptySortedSet();
+            } else {
+                occurringEvents = new TreeSet<>(new Comparator<EventState>() {
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public int compare(EventState es0, EventState es1) {
+                        return orderingSign * Double.compare(es0.getEventTime(), es1.getEventTime());
+                    }
+                });
 
-                /** {@inheritDoc} */
-                @Override
-                public int compare(EventState es0, EventState es1) {
-                    return orderingSign * Double.compare(es0.getEventTime(), es1.getEventTime());
-                }
-            });
-
-            for (final EventState state : eventsStates) {
-                if (state.evaluateStep(interpolator)) {
-                    // the event occurs during the current step
-                    occurringEvents.add(state);
+                for (final EventState state : eventsStates) {
+                    if (state.evaluateStep(interpolator)) {
+                        // the event occurs during the current step
+                        occurringEvents.add(state);
+                    }
                 }
             }
 
@@ -421,17 +427,19 @@ public abstract class AbstractIntegrator implements FirstOrderIntegrator {
 
             // last part of the step, after the last event
             interpolator.setInterpolatedTime(currentT);
-            final double[] currentY = new double[y.length];
-            expandable.getPrimaryMapper().insertEquationData(interpolator.getInterpolatedState(),
-                                                             currentY);
-            int index = 0;
-            for (EquationsMapper secondary : expandable.getSecondaryMappers()) {
-                secondary.insertEquationData(interpolator.getInterpolatedSecondaryState(index++),
-                                             currentY);
-            }
-            for (final EventState state : eventsStates) {
-                state.stepAccepted(currentT, currentY);
-                isLastStep = isLastStep || state.stop();
+            if (!eventsStates.isEmpty()) {
+                final double[] currentY = new double[y.length];
+                expandable.getPrimaryMapper().insertEquationData(interpolator.getInterpolatedState(),
+                                                                 currentY);
+                int index = 0;
+                for (EquationsMapper secondary : expandable.getSecondaryMappers()) {
+                    secondary.insertEquationData(interpolator.getInterpolatedSecondaryState(index++),
+                                                 currentY);
+                }
+                for (final EventState state : eventsStates) {
+                    state.stepAccepted(currentT, currentY);
+                    isLastStep = isLastStep || state.stop();
+                }
             }
             isLastStep = isLastStep || Precision.equals(currentT, tEnd, 1);
 
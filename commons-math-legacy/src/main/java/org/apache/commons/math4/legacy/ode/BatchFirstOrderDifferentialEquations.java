@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.ode;
+
+/** This interface represents a batch of independent first order
+ * differential equations sets with the same dimension.
+ *
+ * <p>It is intended for ensembles of small systems that are advanced in
+ * lock-step with a single integrator call (see
+ * {@link org.apache.commons.math4.legacy.ode.nonstiff.RungeKuttaIntegrator#integrateBatch
+ * RungeKuttaIntegrator.integrateBatch}). The states of all the systems are
+ * stored in a single array, component by component: component {@code k}
+ * of system {@code i} is at index {@code k * n + i}, where {@code n} is the
+ * number of systems. Hence implementations can compute each component of
+ * the derivatives of all the systems in one loop over contiguous
+ * elements.</p>
+ *
+ * @see FirstOrderDifferentialEquations
+ * @since 4.0
+ */
+public interface BatchFirstOrderDifferentialEquations {
+
+    /** Get the dimension of each system.
+     * @return dimension of each system
+     */
+    int getDimension();
+
+    /** Get the current time derivatives of the state vectors of all the systems.
+     * @param t current value of the independent <I>time</I> variable
+     * @param n number of systems
+     * @param y array containing the current values of the state vectors,
+     * component by component
+     * @param yDot placeholder array where to put the time derivatives of
+     * the state vectors, component by component
+     */
+    void computeDerivatives(double t, int n, double[] y, double[] yDot);
+}
@@ -17,14 +17,19 @@
 
 package org.apache.commons.math4.legacy.ode;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.MathIllegalArgumentException;
 import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
 import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
+import org.apache.commons.math4.legacy.ode.sampling.AbstractStepInterpolator;
 import org.apache.commons.math4.legacy.ode.sampling.StepHandler;
 import org.apache.commons.math4.legacy.ode.sampling.StepInterpolator;
 import org.apache.commons.math4.core.jdkmath.JdkMath;
@@ -36,8 +41,9 @@ import org.apache.commons.math4.core.jdkmath.JdkMath;
  *
  * <p>This class act as a step handler from the integrator point of
  * view. It is called iteratively during the integration process and
- * stores a copy of all steps information in a sorted collection for
- * later use. Once the integration process is over, the user can use
+ * stores all steps information in a sorted collection for later use
+ * (packed in a single array when the step interpolators support it, see
+ * {@link AbstractStepInterpolator#pack(double[], int)}). Once the integration process is over, the user can use
  * the {@link #setInterpolatedTime setInterpolatedTime} and {@link
  * #getInterpolatedState getInterpolatedState} to retrieve this
  * information at any time. It is important to wait for the
@@ -90,7 +96,7 @@ public class ContinuousOutputModel
   implements StepHandler, Serializable {
 
     /** Serializable version identifier. */
-    private static final long serialVersionUID = -1417964919405031606L;
+    private static final long serialVersionUID = 20261017L;
 
     /** Initial integration time. */
     private double initialTime;
@@ -104,18 +110,41 @@ public class ContinuousOutputModel
     /** Current interpolator index. */
     private int index;
 
-    /** Steps table. */
+    /** Number of steps. */
+    private int size;
+
+    /** Previous and current times of the steps (two values per step). */
+    private transient double[] times;
+
+    /** Steps table ({@code null} if the steps are packed). */
     private List<StepInterpolator> steps;
 
+    /** Packed steps ({@code null} if the steps are stored in {@link #steps}). */
+    private transient double[] packed;
+
+    /** Number of packed values per step. */
+    private int packedSize;
+
+    /** Interpolator for unpacking the steps ({@code null} if the steps are not packed). */
+    private AbstractStepInterpolator reader;
+
+    /** Index of the step currently unpacked in {@link #reader}. */
+    private int unpacked;
+
   /** Simple constructor.
    * Build an empty continuous output model.
    */
   public ContinuousOutputModel() {
-    steps = new ArrayList<>();
     initialTime = Double.NaN;
     finalTime   = Double.NaN;
     forward     = true;
     index       = 0;
+    size        = 0;
+    times       = new double[0];
+    steps       = null;
+    packed      = null;
+    reader      = null;
+    unpacked    = -1;
   }
 
   /** Append another model at the end of the instance.
@@ -129,11 +158,11 @@ public class ContinuousOutputModel
   public void append(final ContinuousOutputModel model)
     throws MathIllegalArgumentException, MaxCountExceededException {
 
-    if (model.steps.isEmpty()) {
+    if (model.size == 0) {
       return;
     }
 
-    if (steps.isEmpty()) {
+    if (size == 0) {
       initialTime = model.initialTime;
       forward     = model.forward;
     } else {
@@ -147,9 +176,8 @@ public class ContinuousOutputModel
           throw new MathIllegalArgumentException(LocalizedFormats.PROPAGATION_DIRECTION_MISMATCH);
       }
 
-      final StepInterpolator lastInterpolator = steps.get(index);
-      final double current  = lastInterpolator.getCurrentTime();
-      final double previous = lastInterpolator.getPreviousTime();
+      final double current  = times[2 * index + 1];
+      final double previous = times[2 * index];
       final double step = current - previous;
       final double gap = model.getInitialTime() - current;
       if (JdkMath.abs(gap) > 1.0e-3 * JdkMath.abs(step)) {
@@ -158,12 +186,12 @@ public class ContinuousOutputModel
       }
     }
 
-    for (StepInterpolator interpolator : model.steps) {
-      steps.add(interpolator.copy());
+    for (int i = 0; i < model.size; ++i) {
+      addStep(model.getStep(i));
     }
 
-    index = steps.size() - 1;
-    finalTime = (steps.get(index)).getCurrentTime();
+    index = size - 1;
+    finalTime = times[2 * index + 1];
   }
 
   /** {@inheritDoc} */
@@ -173,32 +201,160 @@ public class ContinuousOutputModel
     finalTime   = Double.NaN;
     forward     = true;
     index       = 0;
-    steps.clear();
+    size        = 0;
+    // the arrays are kept for reuse, but not the interpolators
+    steps       = null;
+    reader      = null;
+    unpacked    = -1;
   }
 
   /** Handle the last accepted step.
-   * A copy of the information provided by the last step is stored in
-   * the instance for later use.
+   * The information provided by the last step is stored in the instance
+   * for later use: it is packed in a large array shared by all steps if
+   * the interpolator supports it (see {@link AbstractStepInterpolator#pack(double[], int)}),
+   * which avoids allocating arrays for each step; otherwise a copy of the
+   * interpolator is stored.
    * @param interpolator interpolator for the last accepted step.
    * @param isLast true if the step is the last one
    * @exception MaxCountExceededException if the number of functions evaluations is exceeded
    * during step finalization
    */
   @Override
-public void handleStep(final StepInterpolator interpolator, final boolean isLast)
+  public void handleStep(final StepInterpolator interpolator, final boolean isLast)
       throws MaxCountExceededException {
 
-    if (steps.isEmpty()) {
+    if (size == 0) {
       initialTime = interpolator.getPreviousTime();
       forward     = interpolator.isForward();
     }
 
-    steps.add(interpolator.copy());
+    addStep(interpolator);
 
     if (isLast) {
       finalTime = interpolator.getCurrentTime();
-      index     = steps.size() - 1;
+      index     = size - 1;
+    }
+  }
+
+  /** Store a step.
+   * @param interpolator interpolator for the step
+   * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+   * during step finalization
+   */
+  private void addStep(final StepInterpolator interpolator)
+      throws MaxCountExceededException {
+
+    if (steps == null) {
+      if (canPack(interpolator)) {
+        final AbstractStepInterpolator asi = (AbstractStepInterpolator) interpolator;
+        if (reader == null) {
+          // a single copy is needed, to unpack all steps
+          reader     = (AbstractStepInterpolator) asi.copy();
+          packedSize = asi.getPackedSize();
+          unpacked   = -1;
+        }
+        packed = ensureCapacity(packed, (size + 1) * packedSize);
+        asi.pack(packed, size * packedSize);
+      } else {
+        // fall back to storing copies of the interpolators
+        final List<StepInterpolator> copies = new ArrayList<>(size + 1);
+        for (int i = 0; i < size; ++i) {
+          copies.add(getStep(i).copy());
+        }
+        steps  = copies;
+        packed = null;
+        reader = null;
+      }
+    }
+    if (steps != null) {
+      steps.add(interpolator.copy());
+    }
+
+    times = ensureCapacity(times, 2 * (size + 1));
+    times[2 * size]     = interpolator.getPreviousTime();
+    times[2 * size + 1] = interpolator.getCurrentTime();
+    ++size;
+  }
+
+  /** Check if a step can be packed along with the already stored steps.
+   * @param interpolator interpolator for the step
+   * @return true if the step can be packed
+   */
+  private boolean canPack(final StepInterpolator interpolator) {
+    if (!(interpolator instanceof AbstractStepInterpolator)) {
+      return false;
+    }
+    final int interpolatorPackedSize = ((AbstractStepInterpolator) interpolator).getPackedSize();
+    if (reader == null) {
+      return size == 0 && interpolatorPackedSize >= 0;
+    }
+    return interpolator.getClass() == reader.getClass() &&
+           interpolatorPackedSize == packedSize;
+  }
+
+  /** Get a stored step.
+   * <p>For packed steps, the returned interpolator is shared by all steps,
+   * it is only valid until the next call to this method.</p>
+   * @param i index of the step
+   * @return interpolator for the step
+   */
+  private StepInterpolator getStep(final int i) {
+    if (steps != null) {
+      return steps.get(i);
+    }
+    if (i != unpacked) {
+      reader.unpack(packed, i * packedSize);
+      unpacked = i;
+    }
+    return reader;
+  }
+
+  /** Serialize the instance, without the unused capacity of the packed array.
+   * @param out stream where to write the instance
+   * @exception IOException in case of write error
+   */
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeObject(packed == null || packed.length == size * packedSize ?
+                    packed : Arrays.copyOf(packed, size * packedSize));
+  }
+
+  /** Deserialize the instance.
+   * <p>The steps times are not serialized as they are already
+   * available in the stored steps, they are rebuilt here.</p>
+   * @param in stream where to read the instance
+   * @exception IOException in case of read error
+   * @exception ClassNotFoundException if a class in the stream cannot be found
+   */
+  private void readObject(final ObjectInputStream in)
+    throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    packed = (double[]) in.readObject();
+    times = new double[2 * size];
+    for (int i = 0; i < size; ++i) {
+      if (steps == null) {
+        times[2 * i]     = packed[i * packedSize + AbstractStepInterpolator.PACKED_PREVIOUS_TIME];
+        times[2 * i + 1] = packed[i * packedSize + AbstractStepInterpolator.PACKED_CURRENT_TIME];
+      } else {
+        times[2 * i]     = steps.get(i).getPreviousTime();
+        times[2 * i + 1] = steps.get(i).getCurrentTime();
+      }
+    }
+  }
+
+  /** Ensure an array has at least a given length.
+   * @param array array to check (may be null)
+   * @param length minimal length
+   * @return the array itself if it is large enough, or a larger copy of it
+   */
+  private static double[] ensureCapacity(final double[] array, final int length) {
+    if (array == null) {
+      return new double[length];
     }
+    if (array.length >= length) {
+      return array;
+    }
+    return Arrays.copyOf(array, JdkMath.max(length, 2 * array.length));
   }
 
   /**
@@ -224,7 +380,7 @@ public void handleStep(final StepInterpolator interpolator, final boolean isLast
    * @return interpolation point time
    */
   public double getInterpolatedTime() {
-    return steps.get(index).getInterpolatedTime();
+    return getStep(index).getInterpolatedTime();
   }
 
   /** Set the time of the interpolated point.
@@ -250,23 +406,21 @@ public void handleStep(final StepInterpolator interpolator, final boolean isLast
 
       // initialize the search with the complete steps table
       int iMin = 0;
-      final StepInterpolator sMin = steps.get(iMin);
-      double tMin = 0.5 * (sMin.getPreviousTime() + sMin.getCurrentTime());
+      double tMin = 0.5 * (times[0] + times[1]);
 
-      int iMax = steps.size() - 1;
-      final StepInterpolator sMax = steps.get(iMax);
-      double tMax = 0.5 * (sMax.getPreviousTime() + sMax.getCurrentTime());
+      int iMax = size - 1;
+      double tMax = 0.5 * (times[2 * iMax] + times[2 * iMax + 1]);
 
       // handle points outside of the integration interval
       // or in the first and last step
-      if (locatePoint(time, sMin) <= 0) {
+      if (locatePoint(time, iMin) <= 0) {
         index = iMin;
-        sMin.setInterpolatedTime(time);
+        getStep(index).setInterpolatedTime(time);
         return;
       }
-      if (locatePoint(time, sMax) >= 0) {
+      if (locatePoint(time, iMax) >= 0) {
         index = iMax;
-        sMax.setInterpolatedTime(time);
+        getStep(index).setInterpolatedTime(time);
         return;
       }
 
@@ -274,24 +428,22 @@ public void handleStep(final StepInterpolator interpolator, final boolean isLast
       while (iMax - iMin > 5) {
 
         // use the last estimated index as the splitting index
-        final StepInterpolator si = steps.get(index);
-        final int location = locatePoint(time, si);
+        final int location = locatePoint(time, index);
         if (location < 0) {
           iMax = index;
-          tMax = 0.5 * (si.getPreviousTime() + si.getCurrentTime());
+          tMax = 0.5 * (times[2 * index] + times[2 * index + 1]);
         } else if (location > 0) {
           iMin = index;
-          tMin = 0.5 * (si.getPreviousTime() + si.getCurrentTime());
+          tMin = 0.5 * (times[2 * index] + times[2 * index + 1]);
         } else {
           // we have found the target step, no need to continue searching
-          si.setInterpolatedTime(time);
+          getStep(index).setInterpolatedTime(time);
           return;
         }
 
         // compute a new estimate of the index in the reduced table slice
         final int iMed = (iMin + iMax) / 2;
-        final StepInterpolator sMed = steps.get(iMed);
-        final double tMed = 0.5 * (sMed.getPreviousTime() + sMed.getCurrentTime());
+        final double tMed = 0.5 * (times[2 * iMed] + times[2 * iMed + 1]);
 
         if (JdkMath.abs(tMed - tMin) < 1e-6 || JdkMath.abs(tMax - tMed) < 1e-6) {
           // too close to the bounds, we estimate using a simple dichotomy
@@ -325,11 +477,11 @@ public void handleStep(final StepInterpolator interpolator, final boolean isLast
 
       // now the table slice is very small, we perform an iterative search
       index = iMin;
-      while (index <= iMax && locatePoint(time, steps.get(index)) > 0) {
+      while (index <= iMax && locatePoint(time, index) > 0) {
         ++index;
       }
 
-      steps.get(index).setInterpolatedTime(time);
+      getStep(index).setInterpolatedTime(time);
   }
 
   /**
@@ -346,7 +498,7 @@ public void handleStep(final StepInterpolator interpolator, final boolean isLast
    * @see #getInterpolatedSecondaryDerivatives(int)
    */
   public double[] getInterpolatedState() throws MaxCountExceededException {
-    return steps.get(index).getInterpolatedState();
+    return getStep(index).getInterpolatedState();
   }
 
   /**
@@ -364,7 +516,34 @@ public void handleStep(final StepInterpolator interpolator, final boolean isLast
    * @since 3.4
    */
   public double[] getInterpolatedDerivatives() throws MaxCountExceededException {
-    return steps.get(index).getInterpolatedDerivatives();
+    return getStep(index).getInterpolatedDerivatives();
+  }
+
+  /**
+   * Get the state vector of the interpolated point into a caller-provided array.
+   * @param state placeholder array where to put the state vector at time
+   * {@link #getInterpolatedTime}
+   * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+   * @see #setInterpolatedTime(double)
+   * @see #getInterpolatedState()
+   * @since 4.0
+   */
+  public void getInterpolatedState(final double[] state) throws MaxCountExceededException {
+    getStep(index).getInterpolatedState(state);
+  }
+
+  /**
+   * Get the derivatives of the state vector of the interpolated point into
+   * a caller-provided array.
+   * @param yDot placeholder array where to put the derivatives of the state
+   * vector at time {@link #getInterpolatedTime}
+   * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+   * @see #setInterpolatedTime(double)
+   * @see #getInterpolatedDerivatives()
+   * @since 4.0
+   */
+  public void getInterpolatedDerivatives(final double[] yDot) throws MaxCountExceededException {
+    getStep(index).getInterpolatedDerivatives(yDot);
   }
 
   /** Get the interpolated secondary state corresponding to the secondary equations.
@@ -386,7 +565,7 @@ public void handleStep(final StepInterpolator interpolator, final boolean isLast
    */
   public double[] getInterpolatedSecondaryState(final int secondaryStateIndex)
     throws MaxCountExceededException {
-    return steps.get(index).getInterpolatedSecondaryState(secondaryStateIndex);
+    return getStep(index).getInterpolatedSecondaryState(secondaryStateIndex);
   }
 
   /** Get the interpolated secondary derivatives corresponding to the secondary equations.
@@ -408,29 +587,31 @@ public void handleStep(final StepInterpolator interpolator, final boolean isLast
    */
   public double[] getInterpolatedSecondaryDerivatives(final int secondaryStateIndex)
     throws MaxCountExceededException {
-    return steps.get(index).getInterpolatedSecondaryDerivatives(secondaryStateIndex);
+    return getStep(index).getInterpolatedSecondaryDerivatives(secondaryStateIndex);
   }
 
   /** Compare a step interval and a double.
    * @param time point to locate
-   * @param interval step interval
+   * @param step index of the step interval
    * @return -1 if the double is before the interval, 0 if it is in
    * the interval, and +1 if it is after the interval, according to
    * the interval direction
    */
-  private int locatePoint(final double time, final StepInterpolator interval) {
+  private int locatePoint(final double time, final int step) {
+    final double previousTime = times[2 * step];
+    final double currentTime  = times[2 * step + 1];
     if (forward) {
-      if (time < interval.getPreviousTime()) {
+      if (time < previousTime) {
         return -1;
-      } else if (time > interval.getCurrentTime()) {
+      } else if (time > currentTime) {
         return +1;
       } else {
         return 0;
       }
     }
-    if (time > interval.getPreviousTime()) {
+    if (time > previousTime) {
       return -1;
-    } else if (time < interval.getCurrentTime()) {
+    } else if (time < currentTime) {
       return +1;
     } else {
       return 0;
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.ode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.ode.sampling.StepHandler;
+import org.apache.commons.math4.legacy.ode.sampling.StepInterpolator;
+import org.apache.commons.math4.legacy.util.ConcurrentTasks;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Integrates an ensemble of initial value problems, e.g. the same model
+ * from many initial states and parameter sets.
+ * <p>
+ * Integrators hold the state of the current step, so each task of the
+ * ensemble integration uses its own integrator, created by a factory (e.g.
+ * {@code () -> new DormandPrince853Integrator(1e-8, 100, 1e-10, 1e-10)}).
+ * The members of the ensemble are split into chunks (of
+ * {@link #DEFAULT_CHUNK_SIZE} members by default), and each chunk is
+ * integrated sequentially by one task. The tasks run concurrently on an
+ * optional {@link ExecutorService}; the results are returned in the order
+ * of the members.
+ * </p>
+ * <p>
+ * After each run, aggregate metrics (total number of evaluations of the
+ * equations, elapsed time and throughput) are available from this instance.
+ * Hence an instance should not be used by several threads at the same time.
+ * </p>
+ *
+ * @since 4.0
+ */
+public class EnsembleIntegrator {
+    /**
+     * Default number of members integrated by each task.
+     * Large enough for the cost of a task (creation of an integrator,
+     * scheduling) to be negligible for all but the cheapest members, and
+     * small enough to balance the load on a few threads for ensembles of
+     * a few hundred members.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16;
+
+    /** Factory of the integrators. */
+    private final Supplier<? extends FirstOrderIntegrator> factory;
+
+    /** Executor for running the tasks ({@code null} if sequential). */
+    private final ExecutorService executor;
+
+    /** Number of members integrated by each task. */
+    private final int chunkSize;
+
+    /** Number of members integrated in the last run. */
+    private int members;
+
+    /** Number of evaluations of the equations in the last run. */
+    private long evaluations;
+
+    /** Duration of the last run, in nanoseconds. */
+    private long elapsed;
+
+    /**
+     * @param factory Factory of the integrators. Each call must return a new
+     * instance, with the event handlers and step handlers that must be used
+     * by each member (if any); handlers are shared by all the members
+     * integrated by the same task, in sequence.
+     * @param executor Executor for running the tasks, or {@code null} to
+     * integrate all the members sequentially in the calling thread.
+     * @see #DEFAULT_CHUNK_SIZE
+     */
+    public EnsembleIntegrator(Supplier<? extends FirstOrderIntegrator> factory,
+                              ExecutorService executor) {
+        this(factory, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param factory Factory of the integrators. Each call must return a new
+     * instance, with the event handlers and step handlers that must be used
+     * by each member (if any); handlers are shared by all the members
+     * integrated by the same task, in sequence.
+     * @param executor Executor for running the tasks, or {@code null} to
+     * integrate all the members sequentially in the calling thread.
+     * @param chunkSize Number of members integrated by each task. Small
+     * chunks balance the load better when the members have very different
+     * costs; large chunks reduce the overhead of the tasks when the members
+     * are cheap.
+     * @throws NotStrictlyPositiveException if {@code chunkSize <= 0}.
+     */
+    public EnsembleIntegrator(Supplier<? extends FirstOrderIntegrator> factory,
+                              ExecutorService executor,
+                              int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new NotStrictlyPositiveException(chunkSize);
+        }
+        this.factory = factory;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Integrates the members of the ensemble up to the given time.
+     * <p>
+     * If integration of a member is stopped by an event, its final state is
+     * the state at the time of the event.
+     * </p>
+     *
+     * @param equations Equations of each member (member index as argument).
+     * The same instance can be returned for all members if it is
+     * thread-safe.
+     * @param t0 Initial time.
+     * @param y0 Initial state of each member.
+     * @param t Target time for the integration (can be set to a value
+     * smaller than {@code t0} for backward integration).
+     * @return the final state of each member.
+     * @throws org.apache.commons.math4.legacy.exception.DimensionMismatchException
+     * if the dimension of an initial state does not match its equations.
+     * @throws org.apache.commons.math4.legacy.exception.NumberIsTooSmallException
+     * if the integration step is too small.
+     * @throws org.apache.commons.math4.legacy.exception.MaxCountExceededException
+     * if the number of functions evaluations of a member is exceeded.
+     * @throws org.apache.commons.math4.legacy.exception.NoBracketingException
+     * if the location of an event cannot be bracketed.
+     */
+    public double[][] integrate(final IntFunction<? extends FirstOrderDifferentialEquations> equations,
+                                final double t0,
+                                final double[][] y0,
+                                final double t) {
+        final double[][] y = new double[y0.length][];
+        run(y0.length, integrator -> i -> {
+            final FirstOrderDifferentialEquations ode = equations.apply(i);
+            y[i] = new double[ode.getDimension()];
+            integrator.integrate(ode, t0, y0[i], t, y[i]);
+        });
+        return y;
+    }
+
+    /**
+     * Integrates the members of the ensemble up to the given time, and
+     * records their dense output.
+     *
+     * @param equations Equations of each member (member index as argument).
+     * The same instance can be returned for all members if it is
+     * thread-safe.
+     * @param t0 Initial time.
+     * @param y0 Initial state of each member.
+     * @param t Target time for the integration (can be set to a value
+     * smaller than {@code t0} for backward integration).
+     * @return the continuous output of each member.
+     * @throws org.apache.commons.math4.legacy.exception.DimensionMismatchException
+     * if the dimension of an initial state does not match its equations.
+     * @throws org.apache.commons.math4.legacy.exception.NumberIsTooSmallException
+     * if the integration step is too small.
+     * @throws org.apache.commons.math4.legacy.exception.MaxCountExceededException
+     * if the number of functions evaluations of a member is exceeded.
+     * @throws org.apache.commons.math4.legacy.exception.NoBracketingException
+     * if the location of an event cannot be bracketed.
+     */
+    public ContinuousOutputModel[] integrateDense(final IntFunction<? extends FirstOrderDifferentialEquations> equations,
+                                                  final double t0,
+                                                  final double[][] y0,
+                                                  final double t) {
+        final ContinuousOutputModel[] models = new ContinuousOutputModel[y0.length];
+        run(y0.length, integrator -> {
+            // a single handler is registered, which forwards the steps to
+            // the model of the member being integrated
+            final OutputSwitch output = new OutputSwitch();
+            integrator.addStepHandler(output);
+            return i -> {
+                final FirstOrderDifferentialEquations ode = equations.apply(i);
+                models[i] = new ContinuousOutputModel();
+                output.model = models[i];
+                integrator.integrate(ode, t0, y0[i], t, new double[ode.getDimension()]);
+            };
+        });
+        return models;
+    }
+
+    /**
+     * Gets the number of members integrated in the last run.
+     *
+     * @return the number of members.
+     */
+    public int getMembers() {
+        return members;
+    }
+
+    /**
+     * Gets the total number of evaluations of the equations in the last run.
+     *
+     * @return the number of evaluations of the equations of all members.
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Gets the duration of the last run.
+     *
+     * @return the wall-clock time of the last run, in seconds.
+     */
+    public double getElapsedTime() {
+        return elapsed * 1e-9;
+    }
+
+    /**
+     * Gets the throughput of the last run, in members.
+     *
+     * @return the number of members integrated per second.
+     */
+    public double getMembersPerSecond() {
+        return members / getElapsedTime();
+    }
+
+    /**
+     * Gets the throughput of the last run, in evaluations.
+     *
+     * @return the number of evaluations of the equations per second.
+     */
+    public double getEvaluationsPerSecond() {
+        return evaluations / getElapsedTime();
+    }
+
+    /**
+     * Integrates all members, by chunks, and updates the metrics.
+     *
+     * @param size Number of members.
+     * @param setup Creates the integration of a member from the integrator
+     * of a chunk.
+     */
+    private void run(final int size,
+                     final ChunkSetup setup) {
+        final long start = System.nanoTime();
+
+        final List<Callable<Long>> tasks = new ArrayList<>();
+        for (int first = 0; first < size; first += chunkSize) {
+            final int from = first;
+            final int to = JdkMath.min(size, first + chunkSize);
+            tasks.add(() -> {
+                final FirstOrderIntegrator integrator = factory.get();
+                final Member member = setup.create(integrator);
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    member.integrate(i);
+                    count += integrator.getEvaluations();
+                }
+                return count;
+            });
+        }
+
+        long total = 0;
+        for (final Long count : ConcurrentTasks.invokeAll(executor, tasks)) {
+            total += count;
+        }
+
+        members = size;
+        evaluations = total;
+        elapsed = System.nanoTime() - start;
+    }
+
+    /** Prepares the integration of the members of a chunk. */
+    private interface ChunkSetup {
+        /**
+         * @param integrator Integrator of the chunk.
+         * @return the integration of a member.
+         */
+        Member create(FirstOrderIntegrator integrator);
+    }
+
+    /** Integration of a member. */
+    private interface Member {
+        /**
+         * @param index Index of the member.
+         */
+        void integrate(int index);
+    }
+
+    /** Step handler forwarding the steps to a continuous output model. */
+    private static class OutputSwitch implements StepHandler {
+        /** Model of the member being integrated. */
+        private ContinuousOutputModel model;
+
+        /** {@inheritDoc} */
+        @Override
+        public void init(double t0, double[] y0, double t) {
+            model.init(t0, y0, t);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void handleStep(StepInterpolator interpolator, boolean isLast) {
+            model.handleStep(interpolator, isLast);
+        }
+    }
+}
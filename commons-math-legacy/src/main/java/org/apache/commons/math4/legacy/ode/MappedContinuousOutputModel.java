@@ -0,0 +1,608 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.exception.MathIllegalStateException;
+import org.apache.commons.math4.legacy.exception.MathUnsupportedOperationException;
+import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
+import org.apache.commons.math4.legacy.exception.NoDataException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
+import org.apache.commons.math4.legacy.ode.sampling.AbstractStepInterpolator;
+import org.apache.commons.math4.legacy.ode.sampling.StepHandler;
+import org.apache.commons.math4.legacy.ode.sampling.StepInterpolator;
+
+/**
+ * Continuous output model storing the steps in a file instead of in memory.
+ *
+ * <p>This class is a step handler providing the same dense output as
+ * {@link ContinuousOutputModel}, but the steps are
+ * {@link AbstractStepInterpolator#pack(double[], int) packed} and written
+ * to a file as they are handled, and the file is memory-mapped for lookups
+ * once the integration is over. Only one step is unpacked at a time and the
+ * file is mapped lazily by regions holding a fixed number of steps, so the
+ * heap used does not depend on the number of steps: the operating system
+ * pages in the parts of the trajectory that are actually used. This allows
+ * very long integrations (e.g. years of orbit propagation) to keep a dense
+ * output larger than the heap.</p>
+ *
+ * <p>The file has a fixed binary layout, with big-endian values:</p>
+ * <ul>
+ *   <li>a 64 bytes header: magic number (long), format version (int),
+ *   number of packed values per step (int), number of steps (long),
+ *   initial time (double), final time (double), then padding,</li>
+ *   <li>one record per step, holding the packed values of the step
+ *   (doubles) in integration order.</li>
+ * </ul>
+ * <p>The time of the first step of each mapped region is kept in memory,
+ * which is enough to locate any time with two binary searches: one among
+ * the regions, and one among the steps of a region, directly in the
+ * mapped file.</p>
+ *
+ * <p>All steps must be handled by interpolators of the same class, which
+ * must support packing (the Runge-Kutta and Adams interpolators do);
+ * a {@link MathUnsupportedOperationException} is thrown otherwise.
+ * As for {@link ContinuousOutputModel}, the integration must be over
+ * before {@link #setInterpolatedTime(double)} is called, and the instance
+ * is reset (and the file truncated) each time an integration starts.</p>
+ *
+ * <p>The file is scratch storage for a single instance: it is truncated
+ * each time an integration starts, and the header does not identify the
+ * interpolator class needed to unpack the steps, so the file cannot be
+ * reopened by another instance. The header is only meant for checking the
+ * layout with external tools.</p>
+ *
+ * <p>The file is not deleted by this class, it is left to the caller once
+ * the instance has been {@link #close() closed}. The JDK cannot unmap a
+ * file explicitly: a mapped region is released when its buffer is garbage
+ * collected, after another region has been mapped or the instance has been
+ * closed. Until then, some operating systems (e.g. Windows) do not allow
+ * the file to be deleted or truncated. Instances are not thread-safe.</p>
+ *
+ * @see ContinuousOutputModel
+ * @since 4.0
+ */
+public class MappedContinuousOutputModel implements StepHandler, Closeable {
+
+    /** Magic number identifying the files ("CMOMAP01" in ASCII). */
+    public static final long MAGIC = 0x434d4f4d41503031L;
+
+    /** Version of the file format. */
+    public static final int VERSION = 1;
+
+    /** Size of the file header in bytes. */
+    public static final int HEADER_SIZE = 64;
+
+    /** Default maximal size of the mapped regions in bytes. */
+    private static final long DEFAULT_REGION_SIZE = 1L << 26;
+
+    /** Size of the write buffer in bytes. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Number of bytes in a double. */
+    private static final int DOUBLE_SIZE = 8;
+
+    /** Storage file. */
+    private final Path file;
+
+    /** Maximal size of the mapped regions in bytes. */
+    private final long regionSize;
+
+    /** Channel to the storage file ({@code null} if closed). */
+    private FileChannel channel;
+
+    /** Buffer for the steps not yet written. */
+    private ByteBuffer buffer;
+
+    /** Initial integration time. */
+    private double initialTime;
+
+    /** Final integration time. */
+    private double finalTime;
+
+    /** Integration direction indicator. */
+    private boolean forward;
+
+    /** Number of steps. */
+    private long size;
+
+    /** Number of packed values per step. */
+    private int packedSize;
+
+    /** Number of steps per mapped region. */
+    private long stepsPerRegion;
+
+    /** Previous time of the first step of each region. */
+    private double[] regionTimes;
+
+    /** Interpolator for unpacking the steps. */
+    private AbstractStepInterpolator reader;
+
+    /** Packed values of the step currently unpacked in {@link #reader}. */
+    private double[] record;
+
+    /** Current step index. */
+    private long index;
+
+    /** Index of the step currently unpacked in {@link #reader}. */
+    private long unpacked;
+
+    /** Index of the currently mapped region. */
+    private long mappedRegion;
+
+    /** Currently mapped region ({@code null} if none). */
+    private MappedByteBuffer mapped;
+
+    /** Indicator for steps written since the header was last written. */
+    private boolean dirty;
+
+    /** Simple constructor.
+     * Build an empty model, storing the steps in the given file.
+     * @param file storage file (created if needed, overwritten otherwise)
+     */
+    public MappedContinuousOutputModel(final Path file) {
+        this(file, DEFAULT_REGION_SIZE);
+    }
+
+    /** Simple constructor.
+     * Build an empty model, storing the steps in the given file.
+     * @param file storage file (created if needed, overwritten otherwise)
+     * @param regionSize maximal size in bytes of the regions of the file
+     * that are mapped at once (a region holds at least one step)
+     * @exception NotStrictlyPositiveException if {@code regionSize} is not
+     * strictly positive
+     */
+    public MappedContinuousOutputModel(final Path file, final long regionSize) {
+        if (regionSize <= 0) {
+            throw new NotStrictlyPositiveException(regionSize);
+        }
+        this.file        = file;
+        this.regionSize  = regionSize;
+        this.initialTime = Double.NaN;
+        this.finalTime   = Double.NaN;
+        this.forward     = true;
+        this.regionTimes = new double[0];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void init(double t0, double[] y0, double t) {
+        try {
+            release();
+            channel = FileChannel.open(file,
+                                       StandardOpenOption.CREATE,
+                                       StandardOpenOption.TRUNCATE_EXISTING,
+                                       StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+            channel.position(HEADER_SIZE);
+        } catch (IOException e) {
+            throw new MathIllegalStateException(e, LocalizedFormats.SIMPLE_MESSAGE, e);
+        }
+        initialTime = Double.NaN;
+        finalTime   = Double.NaN;
+        forward     = true;
+        size        = 0;
+        index       = 0;
+        reader      = null;
+        record      = null;
+        buffer      = null;
+        dirty       = false;
+    }
+
+    /** Handle the last accepted step.
+     * The step is packed and buffered, the buffer is written to the
+     * file when full and after the last step.
+     * @param interpolator interpolator for the last accepted step.
+     * @param isLast true if the step is the last one
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * during step finalization
+     * @exception MathUnsupportedOperationException if the interpolator does
+     * not support packing, or is not compatible with the previous steps
+     */
+    @Override
+    public void handleStep(final StepInterpolator interpolator, final boolean isLast)
+        throws MaxCountExceededException {
+
+        if (channel == null) {
+            // the integrator did not call init
+            init(interpolator.getPreviousTime(), null, interpolator.getCurrentTime());
+        }
+
+        if (!canStore(interpolator)) {
+            throw new MathUnsupportedOperationException(LocalizedFormats.UNSUPPORTED_OPERATION);
+        }
+        final AbstractStepInterpolator asi = (AbstractStepInterpolator) interpolator;
+
+        if (size == 0) {
+            initialTime = interpolator.getPreviousTime();
+            forward     = interpolator.isForward();
+            // a single copy is needed, to unpack all steps
+            reader         = (AbstractStepInterpolator) asi.copy();
+            packedSize     = asi.getPackedSize();
+            record         = new double[packedSize];
+            stepsPerRegion = Math.max(1, Math.min(regionSize, Integer.MAX_VALUE) /
+                                         (DOUBLE_SIZE * packedSize));
+            final int recordSize = DOUBLE_SIZE * packedSize;
+            buffer         = ByteBuffer.allocate(Math.max(1, BUFFER_SIZE / recordSize) * recordSize);
+            unpacked       = -1;
+            mappedRegion   = -1;
+        }
+
+        asi.pack(record, 0);
+        if (size % stepsPerRegion == 0) {
+            final int region = (int) (size / stepsPerRegion);
+            if (region >= regionTimes.length) {
+                regionTimes = Arrays.copyOf(regionTimes, Math.max(16, 2 * regionTimes.length));
+            }
+            regionTimes[region] = record[AbstractStepInterpolator.PACKED_PREVIOUS_TIME];
+        }
+        if (buffer.remaining() < DOUBLE_SIZE * packedSize) {
+            flush();
+        }
+        for (final double value : record) {
+            buffer.putDouble(value);
+        }
+        ++size;
+
+        if (isLast) {
+            finalTime = interpolator.getCurrentTime();
+            index     = size - 1;
+            flush();
+            writeHeader();
+        }
+    }
+
+    /** Check if a step can be stored along with the already stored steps.
+     * @param interpolator interpolator for the step
+     * @return true if the step can be stored
+     */
+    private boolean canStore(final StepInterpolator interpolator) {
+        if (!(interpolator instanceof AbstractStepInterpolator)) {
+            return false;
+        }
+        final int interpolatorPackedSize = ((AbstractStepInterpolator) interpolator).getPackedSize();
+        if (size == 0) {
+            return interpolatorPackedSize >= 0;
+        }
+        return interpolator.getClass() == reader.getClass() &&
+               interpolatorPackedSize == packedSize;
+    }
+
+    /** Write the buffered steps to the file.
+     */
+    private void flush() {
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            dirty = true;
+            // the mapped region may not contain the new steps
+            mappedRegion = -1;
+            mapped       = null;
+        } catch (IOException e) {
+            throw new MathIllegalStateException(e, LocalizedFormats.SIMPLE_MESSAGE, e);
+        }
+    }
+
+    /** Write the file header.
+     */
+    private void writeHeader() {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(packedSize);
+        header.putLong(size);
+        header.putDouble(initialTime);
+        header.putDouble(finalTime);
+        header.clear();
+        try {
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            throw new MathIllegalStateException(e, LocalizedFormats.SIMPLE_MESSAGE, e);
+        }
+    }
+
+    /** Get the storage file.
+     * @return storage file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /** Get the number of stored steps.
+     * @return number of stored steps
+     */
+    public long getNumberOfSteps() {
+        return size;
+    }
+
+    /**
+     * Get the initial integration time.
+     * @return initial integration time
+     */
+    public double getInitialTime() {
+        return initialTime;
+    }
+
+    /**
+     * Get the final integration time.
+     * @return final integration time
+     */
+    public double getFinalTime() {
+        return finalTime;
+    }
+
+    /**
+     * Get the time of the interpolated point.
+     * If {@link #setInterpolatedTime} has not been called, it returns
+     * the final integration time.
+     * @return interpolation point time
+     */
+    public double getInterpolatedTime() {
+        return getStep(index).getInterpolatedTime();
+    }
+
+    /** Set the time of the interpolated point.
+     * <p>This method should <strong>not</strong> be called before the
+     * integration is over. The step containing the time is located in
+     * O(log n) through the in-memory index of the mapped regions and a
+     * binary search in the region. Times outside of the integration
+     * interval are allowed, the first or last step is then extrapolated.</p>
+     * <p>Note that each time this method is called, the internal arrays
+     * returned in {@link #getInterpolatedState()}, {@link
+     * #getInterpolatedDerivatives()} and {@link #getInterpolatedSecondaryState(int)}
+     * <em>will</em> be overwritten. So if their content must be preserved
+     * across several calls, user must copy them or use the methods
+     * filling caller-provided arrays.</p>
+     * @param time time of the interpolated point
+     * @exception NoDataException if no step has been stored
+     * @exception MathIllegalStateException if the storage file has been closed
+     */
+    public void setInterpolatedTime(final double time) {
+
+        if (size == 0) {
+            throw new NoDataException();
+        }
+        checkOpen();
+
+        // the steps must be in the file before it is mapped
+        flushPending();
+
+        // locate the region: last one starting before time
+        final int regions = (int) ((size - 1) / stepsPerRegion) + 1;
+        int lo = 0;
+        int hi = regions - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+            if (isBefore(regionTimes[mid], time)) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        // locate the step in the region: last one starting before time
+        map(lo);
+        long first = lo * stepsPerRegion;
+        long last  = Math.min(size, first + stepsPerRegion) - 1;
+        final long base = first;
+        while (first < last) {
+            final long mid = (first + last + 1) >>> 1;
+            if (isBefore(mapped.getDouble(offset(mid - base) + DOUBLE_SIZE * AbstractStepInterpolator.PACKED_PREVIOUS_TIME), time)) {
+                first = mid;
+            } else {
+                last = mid - 1;
+            }
+        }
+
+        index = first;
+        getStep(index).setInterpolatedTime(time);
+    }
+
+    /** Check if a time is before another one in integration direction.
+     * @param t1 first time
+     * @param t2 second time
+     * @return true if t1 is before or equal to t2 in integration direction
+     */
+    private boolean isBefore(final double t1, final double t2) {
+        return forward ? t1 <= t2 : t1 >= t2;
+    }
+
+    /** Get the offset of a step in its mapped region.
+     * @param i index of the step in the region
+     * @return offset of the step in bytes
+     */
+    private int offset(final long i) {
+        return (int) (i * DOUBLE_SIZE * packedSize);
+    }
+
+    /** Check the storage file is still open.
+     * @exception MathIllegalStateException if the storage file has been closed
+     */
+    private void checkOpen() {
+        if (channel == null) {
+            throw new MathIllegalStateException(LocalizedFormats.SIMPLE_MESSAGE, "storage file closed");
+        }
+    }
+
+    /** Write the steps buffered before the last step has been handled.
+     */
+    private void flushPending() {
+        if (buffer.position() > 0) {
+            flush();
+        }
+    }
+
+    /** Map a region of the file.
+     * @param region index of the region
+     */
+    private void map(final long region) {
+        if (region != mappedRegion) {
+            final long recordSize = (long) DOUBLE_SIZE * packedSize;
+            final long first      = region * stepsPerRegion;
+            final long count      = Math.min(stepsPerRegion, size - first);
+            try {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                                     HEADER_SIZE + first * recordSize,
+                                     count * recordSize);
+            } catch (IOException e) {
+                throw new MathIllegalStateException(e, LocalizedFormats.SIMPLE_MESSAGE, e);
+            }
+            mappedRegion = region;
+        }
+    }
+
+    /** Get a stored step.
+     * <p>The returned interpolator is shared by all steps, it is only
+     * valid until the next call to this method.</p>
+     * @param i index of the step
+     * @return interpolator for the step
+     * @exception MathIllegalStateException if the storage file has been closed
+     */
+    private StepInterpolator getStep(final long i) {
+        checkOpen();
+        if (i != unpacked) {
+            flushPending();
+            final long region = i / stepsPerRegion;
+            map(region);
+            final int start = offset(i - region * stepsPerRegion);
+            for (int k = 0; k < packedSize; ++k) {
+                record[k] = mapped.getDouble(start + DOUBLE_SIZE * k);
+            }
+            reader.unpack(record, 0);
+            unpacked = i;
+        }
+        return reader;
+    }
+
+    /**
+     * Get the state vector of the interpolated point.
+     * <p>The returned vector is a reference to a reused array, so
+     * it should not be modified and it should be copied if it needs
+     * to be preserved across several calls.</p>
+     * @return state vector at time {@link #getInterpolatedTime}
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @see #getInterpolatedState(double[])
+     */
+    public double[] getInterpolatedState() throws MaxCountExceededException {
+        return getStep(index).getInterpolatedState();
+    }
+
+    /**
+     * Get the state vector of the interpolated point into a caller-provided array.
+     * @param state placeholder array where to put the state vector at time
+     * {@link #getInterpolatedTime}
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @see #getInterpolatedState()
+     */
+    public void getInterpolatedState(final double[] state) throws MaxCountExceededException {
+        getStep(index).getInterpolatedState(state);
+    }
+
+    /**
+     * Get the derivatives of the state vector of the interpolated point.
+     * <p>The returned vector is a reference to a reused array, so
+     * it should not be modified and it should be copied if it needs
+     * to be preserved across several calls.</p>
+     * @return derivatives of the state vector at time {@link #getInterpolatedTime}
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @see #getInterpolatedDerivatives(double[])
+     */
+    public double[] getInterpolatedDerivatives() throws MaxCountExceededException {
+        return getStep(index).getInterpolatedDerivatives();
+    }
+
+    /**
+     * Get the derivatives of the state vector of the interpolated point into
+     * a caller-provided array.
+     * @param yDot placeholder array where to put the derivatives of the state
+     * vector at time {@link #getInterpolatedTime}
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @see #getInterpolatedDerivatives()
+     */
+    public void getInterpolatedDerivatives(final double[] yDot) throws MaxCountExceededException {
+        getStep(index).getInterpolatedDerivatives(yDot);
+    }
+
+    /** Get the interpolated secondary state corresponding to the secondary equations.
+     * <p>The returned vector is a reference to a reused array, so
+     * it should not be modified and it should be copied if it needs
+     * to be preserved across several calls.</p>
+     * @param secondaryStateIndex index of the secondary set, as returned by {@link
+     * ExpandableStatefulODE#addSecondaryEquations(SecondaryEquations)}
+     * @return interpolated secondary state at the current interpolation date
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     */
+    public double[] getInterpolatedSecondaryState(final int secondaryStateIndex)
+        throws MaxCountExceededException {
+        return getStep(index).getInterpolatedSecondaryState(secondaryStateIndex);
+    }
+
+    /** Close the storage file.
+     * <p>The stored steps are written and the file is kept, but no
+     * interpolation can be performed afterwards (until a new
+     * integration is started): the interpolation methods then throw a
+     * {@link MathIllegalStateException}. The mapped region is dropped, so
+     * that it can be reclaimed by the garbage collector.</p>
+     * @exception IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            if (buffer != null) {
+                flushPending();
+            }
+            if (dirty) {
+                writeHeader();
+            }
+            channel.close();
+            channel      = null;
+            mapped       = null;
+            mappedRegion = -1;
+            unpacked     = -1;
+        }
+    }
+
+    /** Close the storage file, if open, before a new integration.
+     * @exception IOException if the file cannot be closed
+     */
+    private void release() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        mapped       = null;
+        mappedRegion = -1;
+        unpacked     = -1;
+    }
+}
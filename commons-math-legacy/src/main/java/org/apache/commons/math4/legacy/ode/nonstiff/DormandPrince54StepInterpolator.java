@@ -163,6 +163,13 @@ class DormandPrince54StepInterpolator
     vectorsInitialized = false;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected void doUnpack(final double[] data, final int offset) {
+    super.doUnpack(data, offset);
+    vectorsInitialized = false;
+  }
+
   /** {@inheritDoc} */
   @Override
   protected void computeInterpolatedStateAndDerivatives(final double theta,
@@ -217,6 +217,9 @@ class DormandPrince853StepInterpolator
     /** Initialization indicator for the interpolation vectors. */
     private boolean vectorsInitialized;
 
+    /** Work array for the last evaluations. */
+    private double[] yTmp;
+
   /** Simple constructor.
    * This constructor builds an instance that is not usable yet, the
    * {@link #reinitialize} method should be called before using the
@@ -308,6 +311,38 @@ class DormandPrince853StepInterpolator
     vectorsInitialized = false;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected int getPackedDataSize() {
+    final int size = super.getPackedDataSize();
+    return (size < 0 || yDotKLast == null) ? -1 : size + yDotKLast.length * currentState.length;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void doPack(final double[] data, final int offset) {
+    super.doPack(data, offset);
+    final int n = currentState.length;
+    int index = offset + super.getPackedDataSize();
+    for (final double[] yDot : yDotKLast) {
+      System.arraycopy(yDot, 0, data, index, n);
+      index += n;
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void doUnpack(final double[] data, final int offset) {
+    super.doUnpack(data, offset);
+    final int n = currentState.length;
+    int index = offset + super.getPackedDataSize();
+    for (final double[] yDot : yDotKLast) {
+      System.arraycopy(data, index, yDot, 0, n);
+      index += n;
+    }
+    vectorsInitialized = false;
+  }
+
   /** {@inheritDoc} */
   @Override
   protected void computeInterpolatedStateAndDerivatives(final double theta,
@@ -407,7 +442,9 @@ class DormandPrince853StepInterpolator
       }
 
       double s;
-      final double[] yTmp = new double[currentState.length];
+      if (yTmp == null || yTmp.length != currentState.length) {
+          yTmp = new double[currentState.length];
+      }
       final double pT = getGlobalPreviousTime();
 
       // k14
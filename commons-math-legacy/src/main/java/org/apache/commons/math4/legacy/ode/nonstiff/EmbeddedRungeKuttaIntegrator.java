@@ -20,7 +20,10 @@ package org.apache.commons.math4.legacy.ode.nonstiff;
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
 import org.apache.commons.math4.legacy.exception.NoBracketingException;
+import org.apache.commons.math4.legacy.exception.NotFiniteNumberException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
 import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.ode.BatchFirstOrderDifferentialEquations;
 import org.apache.commons.math4.legacy.ode.ExpandableStatefulODE;
 import org.apache.commons.math4.core.jdkmath.JdkMath;
 
@@ -330,6 +333,39 @@ public abstract class EmbeddedRungeKuttaIntegrator
     resetInternalState();
   }
 
+  /** Fixed step integration of a batch of independent systems.
+   * <p>This method is intended for ensembles of small systems, for which
+   * the per-step overhead of {@link #integrate(ExpandableStatefulODE, double)}
+   * dominates. All the systems are advanced in lock-step with the given
+   * step, using the high order propagation weights of the Butcher array,
+   * over arrays storing the states component by component (see {@link
+   * BatchFirstOrderDifferentialEquations}). There is no error control: the
+   * step size, the tolerances and the stepsize control parameters of the
+   * integrator are ignored. Step handlers, events handlers, additional
+   * states, interpolators and evaluations count are not used either, so
+   * this method is thread-safe <em>if and only if</em> the provided
+   * differential equations are themselves thread-safe.</p>
+   * @param equations differential equations of the systems
+   * @param t0 initial time
+   * @param y initial states of the systems, component by component;
+   * it is overwritten with the states at {@code t}
+   * @param t target time for the integration
+   * (can be set to a value smaller than {@code t0} for backward integration)
+   * @param step integration step (sign is irrelevant), the last step can
+   * be smaller than this
+   * @throws DimensionMismatchException if the length of {@code y} is not
+   * a multiple of the dimension of the equations
+   * @throws NotFiniteNumberException if {@code step} is infinite or NaN
+   * @throws NotStrictlyPositiveException if {@code step} is zero
+   * @since 4.0
+   */
+  public void integrateBatch(final BatchFirstOrderDifferentialEquations equations,
+                             final double t0, final double[] y, final double t,
+                             final double step)
+      throws DimensionMismatchException, NotFiniteNumberException, NotStrictlyPositiveException {
+      RungeKuttaBatch.integrate(c, a, b, step, equations, t0, y, t);
+  }
+
   /** Get the minimal reduction factor for stepsize control.
    * @return minimal reduction factor
    */
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.ode.nonstiff;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.NotFiniteNumberException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.ode.BatchFirstOrderDifferentialEquations;
+import org.apache.commons.numbers.core.Precision;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Fixed step integration of a batch of systems with an explicit Runge-Kutta
+ * Butcher array.
+ *
+ * <p>All the systems are advanced in lock-step. The state arrays are stored
+ * component by component (see {@link BatchFirstOrderDifferentialEquations}),
+ * so each stage is a sequence of loops over contiguous elements, with no
+ * per-system overhead. For each system, the arithmetic operations are the
+ * same, in the same order, as in {@link RungeKuttaIntegrator#integrate}.</p>
+ *
+ * @since 4.0
+ */
+final class RungeKuttaBatch {
+
+    /** Utility class. */
+    private RungeKuttaBatch() {}
+
+    /** Integrate a batch of systems up to the given time.
+     * @param c time steps from Butcher array (without the first zero)
+     * @param a internal weights from Butcher array (without the first empty row)
+     * @param b propagation weights from Butcher array
+     * @param step integration step (sign is irrelevant)
+     * @param equations differential equations of the systems
+     * @param t0 initial time
+     * @param y initial states of the systems, component by component;
+     * it is overwritten with the states at {@code t}
+     * @param t target time for the integration
+     * (can be set to a value smaller than {@code t0} for backward integration)
+     * @throws DimensionMismatchException if the length of {@code y} is not
+     * a multiple of the dimension of the equations
+     * @throws NotFiniteNumberException if {@code step} is infinite or NaN
+     * @throws NotStrictlyPositiveException if {@code step} is zero
+     */
+    static void integrate(final double[] c, final double[][] a, final double[] b,
+                          final double step,
+                          final BatchFirstOrderDifferentialEquations equations,
+                          final double t0, final double[] y, final double t) {
+
+        if (!Double.isFinite(step)) {
+            throw new NotFiniteNumberException(step);
+        }
+        if (step == 0) {
+            throw new NotStrictlyPositiveException(step);
+        }
+
+        final int dimension = equations.getDimension();
+        final int length    = y.length;
+        if (length % dimension != 0) {
+            throw new DimensionMismatchException(length, (length / dimension + 1) * dimension);
+        }
+        final int n = length / dimension;
+        if (n == 0 || t == t0) {
+            return;
+        }
+
+        // create some internal working arrays
+        final int stages       = c.length + 1;
+        final double[][] yDotK = new double[stages][length];
+        final double[] yTmp    = new double[length];
+        final double[] sum     = new double[length];
+
+        final boolean forward = t > t0;
+        final double h = forward ? JdkMath.abs(step) : -JdkMath.abs(step);
+        double stepStart = t0;
+        double stepSize  = (forward ? (t0 + h >= t) : (t0 + h <= t)) ? t - t0 : h;
+
+        boolean isLastStep = false;
+        while (!isLastStep) {
+
+            // first stage
+            equations.computeDerivatives(stepStart, n, y, yDotK[0]);
+
+            // next stages
+            for (int k = 1; k < stages; ++k) {
+                combine(a[k - 1], k, yDotK, sum);
+                for (int j = 0; j < length; ++j) {
+                    yTmp[j] = y[j] + stepSize * sum[j];
+                }
+                equations.computeDerivatives(stepStart + c[k - 1] * stepSize, n, yTmp, yDotK[k]);
+            }
+
+            // estimate the state at the end of the step
+            combine(b, stages, yDotK, sum);
+            for (int j = 0; j < length; ++j) {
+                y[j] += stepSize * sum[j];
+            }
+
+            stepStart += stepSize;
+            isLastStep = Precision.equals(stepStart, t, 1);
+            if (!isLastStep) {
+                // stepsize control for next step
+                final double  nextT      = stepStart + stepSize;
+                final boolean nextIsLast = forward ? (nextT >= t) : (nextT <= t);
+                if (nextIsLast) {
+                    stepSize = t - stepStart;
+                }
+            }
+        }
+    }
+
+    /** Compute a linear combination of the stages derivatives.
+     * @param weights weights of the stages
+     * @param stages number of stages to combine
+     * @param yDotK stages derivatives
+     * @param sum placeholder for the linear combination
+     */
+    private static void combine(final double[] weights, final int stages,
+                                final double[][] yDotK, final double[] sum) {
+        final double w0 = weights[0];
+        final double[] yDot0 = yDotK[0];
+        for (int j = 0; j < sum.length; ++j) {
+            sum[j] = w0 * yDot0[j];
+        }
+        for (int l = 1; l < stages; ++l) {
+            final double wl = weights[l];
+            final double[] yDotL = yDotK[l];
+            for (int j = 0; j < sum.length; ++j) {
+                sum[j] += wl * yDotL[j];
+            }
+        }
+    }
+}
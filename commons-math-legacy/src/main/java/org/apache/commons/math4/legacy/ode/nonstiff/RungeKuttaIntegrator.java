@@ -21,8 +21,11 @@ package org.apache.commons.math4.legacy.ode.nonstiff;
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
 import org.apache.commons.math4.legacy.exception.NoBracketingException;
+import org.apache.commons.math4.legacy.exception.NotFiniteNumberException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
 import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
 import org.apache.commons.math4.legacy.ode.AbstractIntegrator;
+import org.apache.commons.math4.legacy.ode.BatchFirstOrderDifferentialEquations;
 import org.apache.commons.math4.legacy.ode.ExpandableStatefulODE;
 import org.apache.commons.math4.legacy.ode.FirstOrderDifferentialEquations;
 import org.apache.commons.math4.core.jdkmath.JdkMath;
@@ -259,4 +262,36 @@ public abstract class RungeKuttaIntegrator extends AbstractIntegrator {
 
       return y;
   }
+
+  /** Fixed step integration of a batch of independent systems.
+   * <p>This method is intended for ensembles of small systems, for which
+   * the per-step overhead of {@link #integrate(ExpandableStatefulODE, double)}
+   * dominates. All the systems are advanced in lock-step with the step set at
+   * construction time, over arrays storing the states component by component
+   * (see {@link BatchFirstOrderDifferentialEquations}). As {@link
+   * #singleStep(FirstOrderDifferentialEquations, double, double[], double)
+   * singleStep}, it does not use step handlers, events handlers, additional
+   * states, interpolators or evaluations count, and it is thread-safe
+   * <em>if and only if</em> the provided differential equations are
+   * themselves thread-safe.</p>
+   * <p>For each system, the result is the same as the one computed by
+   * {@link #integrate(FirstOrderDifferentialEquations, double, double[], double, double[])
+   * integrate} without events handlers.</p>
+   * @param equations differential equations of the systems
+   * @param t0 initial time
+   * @param y initial states of the systems, component by component;
+   * it is overwritten with the states at {@code t}
+   * @param t target time for the integration
+   * (can be set to a value smaller than {@code t0} for backward integration)
+   * @throws DimensionMismatchException if the length of {@code y} is not
+   * a multiple of the dimension of the equations
+   * @throws NotFiniteNumberException if the step set at construction is infinite or NaN
+   * @throws NotStrictlyPositiveException if the step set at construction is zero
+   * @since 4.0
+   */
+  public void integrateBatch(final BatchFirstOrderDifferentialEquations equations,
+                             final double t0, final double[] y, final double t)
+      throws DimensionMismatchException, NotFiniteNumberException, NotStrictlyPositiveException {
+      RungeKuttaBatch.integrate(c, a, b, step, equations, t0, y, t);
+  }
 }
@@ -137,10 +137,44 @@ abstract class RungeKuttaStepInterpolator
   /** {@inheritDoc} */
   @Override
   public void shift() {
-    previousState = currentState.clone();
+    if (previousState == null || previousState.length != currentState.length) {
+      previousState = currentState.clone();
+    } else {
+      // reuse the array, copies of the instance own their own arrays
+      System.arraycopy(currentState, 0, previousState, 0, currentState.length);
+    }
     super.shift();
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected int getPackedDataSize() {
+    if (previousState == null || yDotK == null) {
+      return -1;
+    }
+    return (1 + yDotK.length) * previousState.length;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void doPack(final double[] data, final int offset) {
+    final int n = previousState.length;
+    System.arraycopy(previousState, 0, data, offset, n);
+    for (int k = 0; k < yDotK.length; ++k) {
+      System.arraycopy(yDotK[k], 0, data, offset + (k + 1) * n, n);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void doUnpack(final double[] data, final int offset) {
+    final int n = previousState.length;
+    System.arraycopy(data, offset, previousState, 0, n);
+    for (int k = 0; k < yDotK.length; ++k) {
+      System.arraycopy(data, offset + (k + 1) * n, yDotK[k], 0, n);
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public void writeExternal(final ObjectOutput out)
@@ -43,6 +43,19 @@ import org.apache.commons.math4.legacy.ode.EquationsMapper;
 public abstract class AbstractStepInterpolator
   implements StepInterpolator {
 
+  /** Index of the soft previous time in the values of a {@link #pack(double[], int) packed} step.
+   * @since 4.0
+   */
+  public static final int PACKED_PREVIOUS_TIME = 2;
+
+  /** Index of the soft current time in the values of a {@link #pack(double[], int) packed} step.
+   * @since 4.0
+   */
+  public static final int PACKED_CURRENT_TIME = 3;
+
+  /** Number of packed values common to all interpolators, besides the current state. */
+  private static final int PACKED_BASE_SIZE = 6;
+
   /** current time step. */
   protected double h;
 
@@ -504,6 +517,101 @@ public double getCurrentTime() {
   protected void doFinalize() throws MaxCountExceededException {
   }
 
+  /** Get the number of values needed to {@link #pack(double[], int) pack}
+   * the data of the current step.
+   * @return number of values needed to pack a step, or -1 if the
+   * interpolator does not support packing
+   * @since 4.0
+   */
+  public int getPackedSize() {
+      final int dataSize = getPackedDataSize();
+      return (dataSize < 0 || currentState == null) ?
+             -1 : PACKED_BASE_SIZE + currentState.length + dataSize;
+  }
+
+  /** Pack the data of the current step into an array.
+   * <p>This is a compact alternative to {@link #copy()} for storing many
+   * steps: the data of each step are written as a slice of a large array,
+   * and a single copy of the interpolator can later {@link
+   * #unpack(double[], int) unpack} any of them. Only the data specific to
+   * the step are packed: the equations mappers and the integration direction
+   * of the interpolator that unpacks them are used.</p>
+   * <p>This method performs step finalization if it has not been done
+   * before.</p>
+   * @param data array where to pack the data
+   * @param offset index of the first value of the step in {@code data}
+   * (the following {@link #getPackedSize()} values are overwritten)
+   * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+   * during step finalization
+   * @since 4.0
+   */
+  public void pack(final double[] data, final int offset)
+      throws MaxCountExceededException {
+      finalizeStep();
+      data[offset]     = globalPreviousTime;
+      data[offset + 1] = globalCurrentTime;
+      data[offset + PACKED_PREVIOUS_TIME] = softPreviousTime;
+      data[offset + PACKED_CURRENT_TIME]  = softCurrentTime;
+      data[offset + 4] = h;
+      data[offset + 5] = interpolatedTime;
+      System.arraycopy(currentState, 0, data, offset + PACKED_BASE_SIZE, currentState.length);
+      doPack(data, offset + PACKED_BASE_SIZE + currentState.length);
+  }
+
+  /** Restore the data of a step packed by {@link #pack(double[], int)}.
+   * <p>The instance must have been created by {@link #copy()} from an
+   * interpolator of the same class and dimension as the one that packed
+   * the data. No array is allocated.</p>
+   * @param data array containing the packed data
+   * @param offset index of the first value of the step in {@code data}
+   * @since 4.0
+   */
+  public void unpack(final double[] data, final int offset) {
+      globalPreviousTime = data[offset];
+      globalCurrentTime  = data[offset + 1];
+      softPreviousTime   = data[offset + PACKED_PREVIOUS_TIME];
+      softCurrentTime    = data[offset + PACKED_CURRENT_TIME];
+      h                  = data[offset + 4];
+      interpolatedTime   = data[offset + 5];
+      System.arraycopy(data, offset + PACKED_BASE_SIZE, currentState, 0, currentState.length);
+      doUnpack(data, offset + PACKED_BASE_SIZE + currentState.length);
+      finalized  = true;
+      dirtyState = true;
+  }
+
+  /** Get the number of values needed to pack the data specific to the
+   * derived class.
+   * <p>The default implementation returns -1, meaning that packing is
+   * not supported. Derived classes supporting it must also override
+   * {@link #doPack(double[], int)} and {@link #doUnpack(double[], int)}.</p>
+   * @return number of values needed to pack the data specific to the
+   * derived class, or -1 if packing is not supported
+   * @since 4.0
+   */
+  protected int getPackedDataSize() {
+      return -1;
+  }
+
+  /** Pack the data specific to the derived class.
+   * This method is called by {@link #pack(double[], int)} once the step
+   * has been finalized. The default implementation does nothing.
+   * @param data array where to pack the data
+   * @param offset index of the first value to write
+   * @since 4.0
+   */
+  protected void doPack(final double[] data, final int offset) {
+  }
+
+  /** Unpack the data specific to the derived class.
+   * This method is called by {@link #unpack(double[], int)}. The default
+   * implementation does nothing.
+   * @param data array containing the packed data
+   * @param offset index of the first value to read
+   * @since 4.0
+   */
+  protected void doUnpack(final double[] data, final int offset) {
+  }
+
   /** {@inheritDoc} */
   @Override
   public abstract void writeExternal(ObjectOutput out)
@@ -214,6 +214,41 @@ public class NordsieckStepInterpolator extends AbstractStepInterpolator {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected int getPackedDataSize() {
+        if (scaled == null || nordsieck == null) {
+            return -1;
+        }
+        return 2 + (1 + nordsieck.getRowDimension()) * scaled.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doPack(final double[] data, final int offset) {
+        data[offset]     = scalingH;
+        data[offset + 1] = referenceTime;
+        final int n = scaled.length;
+        System.arraycopy(scaled, 0, data, offset + 2, n);
+        final double[][] nData = nordsieck.getDataRef();
+        for (int i = 0; i < nData.length; ++i) {
+            System.arraycopy(nData[i], 0, data, offset + 2 + (i + 1) * n, n);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doUnpack(final double[] data, final int offset) {
+        scalingH      = data[offset];
+        referenceTime = data[offset + 1];
+        final int n = scaled.length;
+        System.arraycopy(data, offset + 2, scaled, 0, n);
+        final double[][] nData = nordsieck.getDataRef();
+        for (int i = 0; i < nData.length; ++i) {
+            System.arraycopy(data, offset + 2 + (i + 1) * n, nData[i], 0, n);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void writeExternal(final ObjectOutput out)
@@ -119,6 +119,39 @@ public interface StepInterpolator extends Externalizable {
    */
   double[] getInterpolatedDerivatives() throws MaxCountExceededException;
 
+  /**
+   * Get the state vector of the interpolated point into a caller-provided array.
+   * <p>Unlike the array returned by {@link #getInterpolatedState()}, the
+   * content of {@code state} is preserved across calls to {@link
+   * #setInterpolatedTime(double)}, so it does not need to be copied.</p>
+   * @param state placeholder array where to put the state vector at time
+   * {@link #getInterpolatedTime}
+   * @see #getInterpolatedState()
+   * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+   * @since 4.0
+   */
+  default void getInterpolatedState(double[] state) throws MaxCountExceededException {
+      final double[] interpolated = getInterpolatedState();
+      System.arraycopy(interpolated, 0, state, 0, interpolated.length);
+  }
+
+  /**
+   * Get the derivatives of the state vector of the interpolated point into
+   * a caller-provided array.
+   * <p>Unlike the array returned by {@link #getInterpolatedDerivatives()},
+   * the content of {@code yDot} is preserved across calls to {@link
+   * #setInterpolatedTime(double)}, so it does not need to be copied.</p>
+   * @param yDot placeholder array where to put the derivatives of the state
+   * vector at time {@link #getInterpolatedTime}
+   * @see #getInterpolatedDerivatives()
+   * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+   * @since 4.0
+   */
+  default void getInterpolatedDerivatives(double[] yDot) throws MaxCountExceededException {
+      final double[] interpolated = getInterpolatedDerivatives();
+      System.arraycopy(interpolated, 0, yDot, 0, interpolated.length);
+  }
+
   /** Get the interpolated secondary state corresponding to the secondary equations.
    * <p>The returned vector is a reference to a reused array, so
    * it should not be modified and it should be copied if it needs
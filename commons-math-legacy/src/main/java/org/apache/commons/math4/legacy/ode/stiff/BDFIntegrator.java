@@ -0,0 +1,593 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
+import org.apache.commons.math4.legacy.exception.NoBracketingException;
+import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+import org.apache.commons.math4.legacy.linear.SingularMatrixException;
+import org.apache.commons.math4.legacy.ode.ExpandableStatefulODE;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * This class implements the variable order Backward Differentiation
+ * Formulas (BDF) integrator for stiff Ordinary Differential Equations.
+ *
+ * <p>The BDF of order q computes the state y<sub>n+1</sub> at time
+ * t<sub>n+1</sub> = t<sub>n</sub> + h such that the derivative at
+ * t<sub>n+1</sub> of the polynomial interpolating y<sub>n+1</sub>,
+ * y<sub>n</sub>, &hellip;, y<sub>n+1-q</sub> is f(t<sub>n+1</sub>, y<sub>n+1</sub>).
+ * The coefficients are computed from the actual times of the previous steps,
+ * so the step size can change at any step. The implicit equation is solved
+ * by a modified Newton iteration, starting from the extrapolation of the
+ * previous steps, which also provides the local error estimate.</p>
+ *
+ * <p>The Jacobian and the factorization of the iteration matrix are kept
+ * across steps as long as the Newton iteration converges: the Jacobian is
+ * only recomputed when the iteration fails with a Jacobian from a previous
+ * step, and the iteration matrix is only factorized again when the Jacobian
+ * changes or when the step size has changed by more than 30% since the last
+ * factorization. The step size is not changed when the expected increase is
+ * small, which also avoids factorizations.</p>
+ *
+ * <p>The integration starts with the first order formula (backward Euler)
+ * and the order is raised by one, up to the maximal order, after q + 1
+ * successful steps at order q. It is lowered by one after two consecutive
+ * rejections of a step. The formulas of orders 1 and 2 are A-stable; the
+ * higher orders have smaller stability regions and are better suited to
+ * problems with eigenvalues close to the negative real axis. Dense output
+ * is provided by a cubic Hermite interpolation.</p>
+ *
+ * @see NDFIntegrator
+ * @since 4.0
+ */
+public class BDFIntegrator extends StiffIntegrator {
+
+    /** Integrator method name. */
+    private static final String METHOD_NAME = "BDF";
+
+    /** Largest supported order. */
+    private static final int MAX_ORDER = 5;
+
+    /** Maximal number of Newton iterations. */
+    private static final int MAX_NEWTON_ITERATIONS = 4;
+
+    /** Convergence threshold of the Newton iteration, relative to the tolerance. */
+    private static final double NEWTON_THRESHOLD = 0.03;
+
+    /** Convergence rate above which the Newton iteration is considered to diverge. */
+    private static final double DIVERGENCE_RATE = 0.9;
+
+    /** Relative change of the iteration matrix coefficient triggering a new factorization. */
+    private static final double REFACTOR_THRESHOLD = 0.3;
+
+    /** Safety factor for stepsize control. */
+    private static final double SAFETY = 0.9;
+
+    /** Minimal reduction factor for stepsize control. */
+    private static final double MIN_REDUCTION = 0.2;
+
+    /** Maximal growth factor for stepsize control. */
+    private static final double MAX_GROWTH = 2.0;
+
+    /** Growth factor below which the step size is kept unchanged. */
+    private static final double MIN_GROWTH = 1.2;
+
+    /** Step size reduction factor after a Newton iteration failure. */
+    private static final double NEWTON_REDUCTION = 0.25;
+
+    /** Numerical differentiation coefficients &kappa;<sub>q</sub> for each order. */
+    private final double[] kappa;
+
+    /** Maximal order. */
+    private final int maxOrder;
+
+    /** Indicator for a valid factorization of the iteration matrix. */
+    private boolean factorized;
+
+    /** Coefficient &sigma; of the last factorized iteration matrix. */
+    private double sigmaLU;
+
+    /** Convergence rate estimate of the Newton iteration. */
+    private double rate;
+
+    /** Build a BDF integrator with the given order and step bounds.
+     * @param maxOrder maximal order of the method (between 1 and 5)
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     * @exception OutOfRangeException if {@code maxOrder} is not between 1 and 5
+     */
+    public BDFIntegrator(final int maxOrder,
+                         final double minStep, final double maxStep,
+                         final double scalAbsoluteTolerance,
+                         final double scalRelativeTolerance)
+        throws OutOfRangeException {
+        this(METHOD_NAME, new double[MAX_ORDER], maxOrder, minStep, maxStep,
+             scalAbsoluteTolerance, scalRelativeTolerance);
+    }
+
+    /** Build a BDF integrator with the given order and step bounds.
+     * @param maxOrder maximal order of the method (between 1 and 5)
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     * @exception OutOfRangeException if {@code maxOrder} is not between 1 and 5
+     */
+    public BDFIntegrator(final int maxOrder,
+                         final double minStep, final double maxStep,
+                         final double[] vecAbsoluteTolerance,
+                         final double[] vecRelativeTolerance)
+        throws OutOfRangeException {
+        this(METHOD_NAME, new double[MAX_ORDER], maxOrder, minStep, maxStep,
+             vecAbsoluteTolerance, vecRelativeTolerance);
+    }
+
+    /** Build an integrator from the BDF family with the given order and step bounds.
+     * @param name name of the method
+     * @param kappa numerical differentiation coefficients &kappa;<sub>q</sub>
+     * for orders 1 to 5 (all zero for the BDF)
+     * @param maxOrder maximal order of the method (between 1 and 5)
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     * @exception OutOfRangeException if {@code maxOrder} is not between 1 and 5
+     */
+    protected BDFIntegrator(final String name, final double[] kappa, final int maxOrder,
+                            final double minStep, final double maxStep,
+                            final double scalAbsoluteTolerance,
+                            final double scalRelativeTolerance)
+        throws OutOfRangeException {
+        super(name, minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+        this.kappa    = kappa.clone();
+        this.maxOrder = checkOrder(maxOrder);
+    }
+
+    /** Build an integrator from the BDF family with the given order and step bounds.
+     * @param name name of the method
+     * @param kappa numerical differentiation coefficients &kappa;<sub>q</sub>
+     * for orders 1 to 5 (all zero for the BDF)
+     * @param maxOrder maximal order of the method (between 1 and 5)
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     * @exception OutOfRangeException if {@code maxOrder} is not between 1 and 5
+     */
+    protected BDFIntegrator(final String name, final double[] kappa, final int maxOrder,
+                            final double minStep, final double maxStep,
+                            final double[] vecAbsoluteTolerance,
+                            final double[] vecRelativeTolerance)
+        throws OutOfRangeException {
+        super(name, minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+        this.kappa    = kappa.clone();
+        this.maxOrder = checkOrder(maxOrder);
+    }
+
+    /** Check the maximal order.
+     * @param order maximal order
+     * @return the order
+     * @exception OutOfRangeException if {@code order} is not between 1 and 5
+     */
+    private static int checkOrder(final int order) throws OutOfRangeException {
+        if (order < 1 || order > MAX_ORDER) {
+            throw new OutOfRangeException(order, 1, MAX_ORDER);
+        }
+        return order;
+    }
+
+    /** Get the maximal order of the method.
+     * @return maximal order
+     */
+    public int getMaxOrder() {
+        return maxOrder;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void integrate(final ExpandableStatefulODE equations, final double t)
+        throws NumberIsTooSmallException, DimensionMismatchException,
+               MaxCountExceededException, NoBracketingException {
+
+        sanityChecks(equations, t);
+        setEquations(equations);
+        setUpJacobian(equations);
+        final boolean forward = t > equations.getTime();
+
+        // create some internal working arrays
+        final double[] y0        = equations.getCompleteState();
+        final int n              = y0.length;
+        final double[] y         = new double[n];
+        final double[] yDot0     = new double[n];
+        final double[] yDot1     = new double[n];
+        final double[] yPred     = new double[n];
+        final double[] psi       = new double[n];
+        final double[] f         = new double[n];
+        final double[] delta     = new double[n];
+        final double[] alpha     = new double[maxOrder + 1];
+
+        // history of the previous steps, most recent first
+        final double[] historyT   = new double[maxOrder + 1];
+        final double[][] historyY = new double[maxOrder + 1][n];
+        int historySize = 1;
+        historyT[0] = equations.getTime();
+        System.arraycopy(y0, 0, historyY[0], 0, n);
+
+        // set up an interpolator sharing the integrator end of step array
+        final HermiteStepInterpolator interpolator = new HermiteStepInterpolator();
+        interpolator.reinitialize(y, forward,
+                                  equations.getPrimaryMapper(), equations.getSecondaryMappers());
+        interpolator.storeTime(equations.getTime());
+
+        // set up integration control objects
+        stepStart = equations.getTime();
+        initIntegration(stepStart, y0, t);
+        computeDerivatives(stepStart, y0, yDot0);
+        double hNew = initialStep(forward, 1, stepStart, y0, yDot0, f, delta);
+
+        computeJacobian(stepStart, y0, yDot0);
+        boolean jacobianCurrent = true;
+        factorized              = false;
+        rate                    = 1;
+        int     orderCap        = 1;
+        int     stepsAtOrder    = 0;
+
+        // main integration loop
+        isLastStep = false;
+        do {
+
+            interpolator.shift();
+            final double[] yN = historyY[0];
+
+            double err = 10;
+            int order = 1;
+            int errorFailures = 0;
+            while (err > 1.0) {
+
+                stepSize = clip(hNew, stepStart, t, forward);
+                order    = JdkMath.min(orderCap, JdkMath.max(1, historySize - 1));
+                final double tNew = stepStart + stepSize;
+
+                // predict the state from the previous steps
+                predict(tNew, order, historySize, historyT, historyY, yDot0, yPred);
+
+                // differentiation coefficients at the end of the step
+                differentiationCoefficients(tNew, order, historyT, historyY, alpha, psi);
+                final double kGamma = kappa[order - 1] * harmonic(order) / stepSize;
+                final double sigma  = alpha[0] - kGamma;
+
+                // solve the implicit equation by a modified Newton iteration
+                final boolean converged =
+                    solveCorrector(tNew, sigma, kGamma, alpha[0], psi, yPred, yN, y, f, delta);
+
+                if (!converged) {
+                    if (jacobianCurrent) {
+                        hNew = filterStep(stepSize * NEWTON_REDUCTION, forward, false);
+                    } else {
+                        // the Jacobian may be out of date, update it and retry
+                        computeDerivatives(stepStart, yN, f);
+                        computeJacobian(stepStart, yN, f);
+                        jacobianCurrent = true;
+                    }
+                    factorized = false;
+                    rate       = 1;
+                    continue;
+                }
+
+                // estimate the local error from the difference with the prediction
+                err = estimateError(order, yN, yPred, y, delta);
+
+                if (err > 1.0) {
+                    // reject the step and attempt to reduce error by stepsize control
+                    if (++errorFailures >= 2 && order > 1) {
+                        orderCap     = order - 1;
+                        stepsAtOrder = 0;
+                    }
+                    final double factor =
+                        JdkMath.max(MIN_REDUCTION, SAFETY * JdkMath.pow(err, -1.0 / (order + 1)));
+                    hNew = filterStep(stepSize * factor, forward, false);
+                }
+            }
+
+            // derivative of the interpolating polynomial at the end of the step
+            for (int k = 0; k < n; ++k) {
+                yDot1[k] = alpha[0] * y[k] + psi[k];
+            }
+
+            // local error is small enough: accept the step, trigger events and step handlers
+            interpolator.storeStep(yN, yDot0, yDot1);
+            interpolator.storeTime(stepStart + stepSize);
+            final double hAccepted = stepSize;
+            // the flag is only updated by acceptStep when an event occurs
+            resetOccurred = false;
+            stepStart = acceptStep(interpolator, y, yDot1, t);
+            System.arraycopy(yDot1, 0, yDot0, 0, n);
+            jacobianCurrent = false;
+
+            if (resetOccurred) {
+                // the state has changed, the previous steps cannot be used anymore
+                historySize  = 1;
+                orderCap     = 1;
+                stepsAtOrder = 0;
+            } else {
+                shiftHistory(historyT, historyY);
+                historySize = JdkMath.min(historySize + 1, maxOrder + 1);
+                if (order == orderCap && ++stepsAtOrder > order && orderCap < maxOrder) {
+                    ++orderCap;
+                    stepsAtOrder = 0;
+                }
+            }
+            historyT[0] = stepStart;
+            System.arraycopy(y, 0, historyY[0], 0, n);
+
+            if (!isLastStep) {
+
+                // prepare next step
+                interpolator.storeTime(stepStart);
+
+                // stepsize control for next step
+                hNew = nextStepSize(hAccepted, err, order, forward, t);
+            }
+
+        } while (!isLastStep);
+
+        // dispatch results
+        equations.setTime(stepStart);
+        equations.setCompleteState(y);
+
+        resetInternalState();
+    }
+
+    /** Estimate the normalized local error of a step.
+     * @param order order of the step
+     * @param yN state at the beginning of the step
+     * @param yPred predicted state
+     * @param y corrected state
+     * @param delta work array
+     * @return normalized local error
+     */
+    private double estimateError(final int order, final double[] yN,
+                                 final double[] yPred, final double[] y, final double[] delta) {
+        for (int k = 0; k < y.length; ++k) {
+            delta[k] = y[k] - yPred[k];
+        }
+        return (1.0 / (order + 1) + kappa[order - 1] * harmonic(order)) * scaledNorm(delta, yN, y);
+    }
+
+    /** Shift the history of the previous steps, recycling the oldest state array as the first one.
+     * @param historyT times of the previous steps, most recent first
+     * @param historyY states of the previous steps, most recent first
+     */
+    private static void shiftHistory(final double[] historyT, final double[][] historyY) {
+        final int last = historyT.length - 1;
+        final double[] oldest = historyY[last];
+        System.arraycopy(historyT, 0, historyT, 1, last);
+        System.arraycopy(historyY, 0, historyY, 1, last);
+        historyY[0] = oldest;
+    }
+
+    /** Compute the step size for the next step.
+     * <p>The step size is kept unchanged when the expected increase is
+     * small, so that the factorization of the iteration matrix can be reused.</p>
+     * @param hAccepted size of the accepted step
+     * @param err normalized error of the accepted step
+     * @param order order of the accepted step
+     * @param forward forward integration indicator
+     * @param t target time
+     * @return size of the next step
+     * @exception NumberIsTooSmallException if the step is too small
+     */
+    private double nextStepSize(final double hAccepted, final double err, final int order,
+                                final boolean forward, final double t)
+        throws NumberIsTooSmallException {
+        final double factor = SAFETY * JdkMath.pow(err, -1.0 / (order + 1));
+        double scaledH = hAccepted;
+        if (factor >= MIN_GROWTH) {
+            scaledH = hAccepted * JdkMath.min(MAX_GROWTH, factor);
+        } else if (factor < 1.0) {
+            scaledH = hAccepted * JdkMath.max(MIN_REDUCTION, factor);
+        }
+        final double  nextT      = stepStart + scaledH;
+        final boolean nextIsLast = forward ? (nextT >= t) : (nextT <= t);
+        final double  hNew       = filterStep(scaledH, forward, nextIsLast);
+
+        final double  filteredNextT      = stepStart + hNew;
+        final boolean filteredNextIsLast = forward ? (filteredNextT >= t) : (filteredNextT <= t);
+        return filteredNextIsLast ? t - stepStart : hNew;
+    }
+
+    /** Predict the state at the end of the step.
+     * <p>The prediction extrapolates the previous steps, or uses the
+     * derivatives at the beginning of the step if there is only one.</p>
+     * @param tNew time at the end of the step
+     * @param order order of the step
+     * @param historySize number of available previous steps
+     * @param historyT times of the previous steps, most recent first
+     * @param historyY states of the previous steps, most recent first
+     * @param yDot0 derivatives at the beginning of the step
+     * @param yPred placeholder array where to put the predicted state
+     */
+    private static void predict(final double tNew, final int order, final int historySize,
+                                final double[] historyT, final double[][] historyY,
+                                final double[] yDot0, final double[] yPred) {
+        if (historySize == 1) {
+            final double h = tNew - historyT[0];
+            for (int k = 0; k < yPred.length; ++k) {
+                yPred[k] = historyY[0][k] + h * yDot0[k];
+            }
+        } else {
+            extrapolate(tNew, order + 1, historyT, historyY, yPred);
+        }
+    }
+
+    /** Compute the coefficients of the differentiation formula.
+     * @param tNew time at the end of the step
+     * @param order order of the formula
+     * @param historyT times of the previous steps, most recent first
+     * @param historyY states of the previous steps, most recent first
+     * @param alpha placeholder array where to put the coefficients
+     * @param psi placeholder array where to put the contribution of the previous steps
+     */
+    private static void differentiationCoefficients(final double tNew, final int order,
+                                                    final double[] historyT, final double[][] historyY,
+                                                    final double[] alpha, final double[] psi) {
+        alpha[0] = 0;
+        for (int j = 1; j <= order; ++j) {
+            alpha[0] += 1.0 / (tNew - historyT[j - 1]);
+            double p = 1.0 / (historyT[j - 1] - tNew);
+            for (int k = 1; k <= order; ++k) {
+                if (k != j) {
+                    p *= (tNew - historyT[k - 1]) / (historyT[j - 1] - historyT[k - 1]);
+                }
+            }
+            alpha[j] = p;
+        }
+        for (int k = 0; k < psi.length; ++k) {
+            double sum = 0;
+            for (int j = 1; j <= order; ++j) {
+                sum += alpha[j] * historyY[j - 1][k];
+            }
+            psi[k] = sum;
+        }
+    }
+
+    /** Solve the implicit equation of the step by a modified Newton iteration.
+     * <p>The last factorization of the iteration matrix is reused unless its
+     * coefficient differs too much from {@code sigma}, the corrections are then
+     * scaled to compensate for the difference.</p>
+     * @param tNew time at the end of the step
+     * @param sigma coefficient of the iteration matrix
+     * @param kGamma numerical differentiation term coefficient
+     * @param alpha0 coefficient of the new state in the differentiation formula
+     * @param psi contribution of the previous steps to the differentiation formula
+     * @param yPred predicted state
+     * @param yN state at the beginning of the step
+     * @param y placeholder array where to put the state at the end of the step
+     * @param f work array for the derivatives
+     * @param delta work array for the corrections
+     * @return true if the iteration converged
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @exception DimensionMismatchException if arrays dimensions do not match equations settings
+     */
+    private boolean solveCorrector(final double tNew, final double sigma, final double kGamma,
+                                   final double alpha0, final double[] psi,
+                                   final double[] yPred, final double[] yN, final double[] y,
+                                   final double[] f, final double[] delta)
+        throws MaxCountExceededException, DimensionMismatchException {
+        try {
+            if (!factorized || JdkMath.abs(sigma / sigmaLU - 1) > REFACTOR_THRESHOLD) {
+                factorized = false;
+                factorize(sigma);
+                factorized = true;
+                sigmaLU    = sigma;
+            }
+        } catch (SingularMatrixException sme) {
+            return false;
+        }
+
+        final int n = y.length;
+        System.arraycopy(yPred, 0, y, 0, n);
+        final double correction = 2 * sigmaLU / (sigmaLU + sigma);
+        double previousNorm = 0;
+        double eta = JdkMath.pow(JdkMath.max(rate, 1.0e-16), 0.8);
+        for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS; ++iteration) {
+            computeDerivatives(tNew, y, f);
+            for (int k = 0; k < n; ++k) {
+                delta[k] = f[k] - alpha0 * y[k] - psi[k] + kGamma * (y[k] - yPred[k]);
+            }
+            solve(delta);
+            for (int k = 0; k < n; ++k) {
+                y[k] += correction * delta[k];
+            }
+            final double norm = scaledNorm(delta, yN, y);
+            if (iteration > 0) {
+                final double theta = norm / previousNorm;
+                if (theta >= DIVERGENCE_RATE) {
+                    return false;
+                }
+                eta = theta / (1 - theta);
+            }
+            if (norm == 0 || eta * norm <= NEWTON_THRESHOLD) {
+                rate = eta;
+                return true;
+            }
+            previousNorm = norm;
+        }
+        return false;
+    }
+
+    /** Extrapolate the previous steps by polynomial interpolation.
+     * @param time extrapolation time
+     * @param points number of previous steps to use
+     * @param historyT times of the previous steps, most recent first
+     * @param historyY states of the previous steps, most recent first
+     * @param y placeholder array where to put the extrapolated state
+     */
+    private static void extrapolate(final double time, final int points,
+                                    final double[] historyT, final double[][] historyY,
+                                    final double[] y) {
+        Arrays.fill(y, 0);
+        for (int j = 0; j < points; ++j) {
+            double l = 1;
+            for (int k = 0; k < points; ++k) {
+                if (k != j) {
+                    l *= (time - historyT[k]) / (historyT[j] - historyT[k]);
+                }
+            }
+            final double[] yj = historyY[j];
+            for (int i = 0; i < y.length; ++i) {
+                y[i] += l * yj[i];
+            }
+        }
+    }
+
+    /** Compute a harmonic number.
+     * @param q order
+     * @return 1 + 1/2 + ... + 1/q
+     */
+    private static double harmonic(final int q) {
+        double sum = 0;
+        for (int j = 1; j <= q; ++j) {
+            sum += 1.0 / j;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.linear.SingularMatrixException;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Banded iteration matrix, factorized by Gaussian elimination with
+ * partial pivoting.
+ * <p>
+ * The entries are stored by column, as in LAPACK band storage: the
+ * factorization needs {@code lower} additional super-diagonals to
+ * hold the fill-in caused by row interchanges. The cost of the
+ * factorization is O(n l (l + u)) and the cost of a solve is
+ * O(n (2 l + u)), where l and u are the numbers of sub- and
+ * super-diagonals.
+ * </p>
+ *
+ * @since 4.0
+ */
+final class BandedIterationMatrix extends IterationMatrix {
+    /** Number of sub-diagonals. */
+    private final int lower;
+    /** Number of super-diagonals. */
+    private final int upper;
+    /** Number of super-diagonals of the U factor. */
+    private final int upperLU;
+    /** Jacobian band: entry (i, j) is {@code jacobian[j][i - j + upper]}. */
+    private final double[][] jacobian;
+    /** LU factors: entry (i, j) is {@code lu[j][i - j + upperLU]}. */
+    private final double[][] lu;
+    /** Row interchanges. */
+    private final int[] pivot;
+
+    /**
+     * @param dimension Dimension of the matrix.
+     * @param lower Number of sub-diagonals.
+     * @param upper Number of super-diagonals.
+     */
+    BandedIterationMatrix(int dimension,
+                          int lower,
+                          int upper) {
+        super(dimension);
+        this.lower = JdkMath.min(lower, dimension - 1);
+        this.upper = JdkMath.min(upper, dimension - 1);
+        upperLU = this.lower + this.upper;
+        jacobian = new double[dimension][this.lower + this.upper + 1];
+        lu = new double[dimension][this.lower + upperLU + 1];
+        pivot = new int[dimension];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    int[][] getColumnGroups() {
+        // Columns that are "width" apart never share a row.
+        final int n = getDimension();
+        final int width = lower + upper + 1;
+        final int count = JdkMath.min(width, n);
+        final int[][] groups = new int[count][];
+        for (int g = 0; g < count; g++) {
+            groups[g] = new int[(n - g + width - 1) / width];
+            for (int k = 0; k < groups[g].length; k++) {
+                groups[g][k] = g + k * width;
+            }
+        }
+        return groups;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setColumn(int column, double[] perturbed, double[] reference, double delta) {
+        final double[] band = jacobian[column];
+        final int last = JdkMath.min(getDimension() - 1, column + lower);
+        for (int i = JdkMath.max(0, column - upper); i <= last; i++) {
+            band[i - column + upper] = (perturbed[i] - reference[i]) / delta;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setJacobian(double[][] matrix) {
+        final int n = getDimension();
+        for (int j = 0; j < n; j++) {
+            final double[] band = jacobian[j];
+            final int last = JdkMath.min(n - 1, j + lower);
+            for (int i = JdkMath.max(0, j - upper); i <= last; i++) {
+                band[i - j + upper] = matrix[i][j];
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void clearJacobian() {
+        for (final double[] band : jacobian) {
+            Arrays.fill(band, 0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setJacobianEntry(int row, int column, double value) {
+        final int k = row - column + upper;
+        if (row >= 0 && row < jacobian.length &&
+            column >= 0 && column < jacobian.length &&
+            k >= 0 && k <= lower + upper) {
+            jacobian[column][k] = value;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void factor(double sigma) {
+        final int n = getDimension();
+
+        // Copy -J in the band, clear the fill-in rows and add sigma on the diagonal.
+        for (int j = 0; j < n; j++) {
+            final double[] luJ = lu[j];
+            final double[] band = jacobian[j];
+            for (int r = 0; r < lower; r++) {
+                luJ[r] = 0;
+            }
+            for (int r = 0; r < band.length; r++) {
+                luJ[r + lower] = -band[r];
+            }
+            luJ[upperLU] += sigma;
+        }
+
+        for (int k = 0; k < n; k++) {
+            final int lastRow = JdkMath.min(n - 1, k + lower);
+            final int lastColumn = JdkMath.min(n - 1, k + upperLU);
+
+            // Find the pivot in column k.
+            final double[] luK = lu[k];
+            int p = k;
+            double max = JdkMath.abs(luK[upperLU]);
+            for (int i = k + 1; i <= lastRow; i++) {
+                final double abs = JdkMath.abs(luK[i - k + upperLU]);
+                if (abs > max) {
+                    max = abs;
+                    p = i;
+                }
+            }
+            if (!(max > 0)) {
+                throw new SingularMatrixException();
+            }
+            pivot[k] = p;
+            if (p != k) {
+                for (int j = k; j <= lastColumn; j++) {
+                    final double[] luJ = lu[j];
+                    final double tmp = luJ[p - j + upperLU];
+                    luJ[p - j + upperLU] = luJ[k - j + upperLU];
+                    luJ[k - j + upperLU] = tmp;
+                }
+            }
+
+            // Compute the multipliers and update the trailing band.
+            final double diagonal = luK[upperLU];
+            for (int i = k + 1; i <= lastRow; i++) {
+                luK[i - k + upperLU] /= diagonal;
+            }
+            for (int j = k + 1; j <= lastColumn; j++) {
+                final double[] luJ = lu[j];
+                final double ukj = luJ[k - j + upperLU];
+                if (ukj != 0) {
+                    for (int i = k + 1; i <= lastRow; i++) {
+                        luJ[i - j + upperLU] -= luK[i - k + upperLU] * ukj;
+                    }
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void solve(double[] b) {
+        final int n = getDimension();
+
+        // Forward substitution, applying the interchanges as in the factorization.
+        for (int k = 0; k < n; k++) {
+            final int p = pivot[k];
+            final double bK = b[p];
+            b[p] = b[k];
+            b[k] = bK;
+            if (bK != 0) {
+                final double[] luK = lu[k];
+                final int lastRow = JdkMath.min(n - 1, k + lower);
+                for (int i = k + 1; i <= lastRow; i++) {
+                    b[i] -= luK[i - k + upperLU] * bK;
+                }
+            }
+        }
+
+        // Backward substitution, column by column.
+        for (int j = n - 1; j >= 0; j--) {
+            final double[] luJ = lu[j];
+            final double bJ = b[j] / luJ[upperLU];
+            b[j] = bJ;
+            if (bJ != 0) {
+                final int firstRow = JdkMath.max(0, j - upperLU);
+                for (int i = firstRow; i < j; i++) {
+                    b[i] -= luJ[i - j + upperLU] * bJ;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.linear.SingularMatrixException;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Dense iteration matrix, factorized by Gaussian elimination with
+ * partial pivoting.
+ *
+ * @since 4.0
+ */
+final class DenseIterationMatrix extends IterationMatrix {
+    /** Jacobian. */
+    private final double[][] jacobian;
+    /** LU factors. */
+    private final double[][] lu;
+    /** Row permutation. */
+    private final int[] pivot;
+
+    /**
+     * @param dimension Dimension of the matrix.
+     */
+    DenseIterationMatrix(int dimension) {
+        super(dimension);
+        jacobian = new double[dimension][dimension];
+        lu = new double[dimension][dimension];
+        pivot = new int[dimension];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    int[][] getColumnGroups() {
+        final int[][] groups = new int[getDimension()][];
+        for (int j = 0; j < groups.length; j++) {
+            groups[j] = new int[] {j};
+        }
+        return groups;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setColumn(int column, double[] perturbed, double[] reference, double delta) {
+        for (int i = 0; i < jacobian.length; i++) {
+            jacobian[i][column] = (perturbed[i] - reference[i]) / delta;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setJacobian(double[][] matrix) {
+        for (int i = 0; i < jacobian.length; i++) {
+            System.arraycopy(matrix[i], 0, jacobian[i], 0, jacobian.length);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void clearJacobian() {
+        for (final double[] row : jacobian) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setJacobianEntry(int row, int column, double value) {
+        jacobian[row][column] = value;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void factor(double sigma) {
+        final int n = getDimension();
+        for (int i = 0; i < n; i++) {
+            final double[] jacobianI = jacobian[i];
+            final double[] luI = lu[i];
+            for (int j = 0; j < n; j++) {
+                luI[j] = -jacobianI[j];
+            }
+            luI[i] += sigma;
+        }
+
+        for (int k = 0; k < n; k++) {
+            // Find the pivot.
+            int p = k;
+            double max = JdkMath.abs(lu[k][k]);
+            for (int i = k + 1; i < n; i++) {
+                final double abs = JdkMath.abs(lu[i][k]);
+                if (abs > max) {
+                    max = abs;
+                    p = i;
+                }
+            }
+            if (!(max > 0)) {
+                throw new SingularMatrixException();
+            }
+            pivot[k] = p;
+            if (p != k) {
+                final double[] tmp = lu[p];
+                lu[p] = lu[k];
+                lu[k] = tmp;
+            }
+
+            // Eliminate.
+            final double[] luK = lu[k];
+            final double diagonal = luK[k];
+            for (int i = k + 1; i < n; i++) {
+                final double[] luI = lu[i];
+                final double l = luI[k] / diagonal;
+                luI[k] = l;
+                if (l != 0) {
+                    for (int j = k + 1; j < n; j++) {
+                        luI[j] -= l * luK[j];
+                    }
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void solve(double[] b) {
+        final int n = getDimension();
+        // Whole rows have been swapped during factorization.
+        for (int k = 0; k < n; k++) {
+            final int p = pivot[k];
+            final double bP = b[p];
+            b[p] = b[k];
+            b[k] = bP;
+        }
+        for (int i = 1; i < n; i++) {
+            final double[] luI = lu[i];
+            double sum = b[i];
+            for (int j = 0; j < i; j++) {
+                sum -= luI[j] * b[j];
+            }
+            b[i] = sum;
+        }
+        for (int k = n - 1; k >= 0; k--) {
+            final double[] luK = lu[k];
+            double sum = b[k];
+            for (int j = k + 1; j < n; j++) {
+                sum -= luK[j] * b[j];
+            }
+            b[k] = sum / luK[k];
+        }
+    }
+}
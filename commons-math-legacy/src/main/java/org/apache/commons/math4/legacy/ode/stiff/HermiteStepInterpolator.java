@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import org.apache.commons.math4.legacy.ode.EquationsMapper;
+import org.apache.commons.math4.legacy.ode.sampling.AbstractStepInterpolator;
+import org.apache.commons.math4.legacy.ode.sampling.StepInterpolator;
+
+/**
+ * Cubic Hermite interpolator over the last step of the stiff integrators,
+ * built from the states and derivatives at both ends of the step.
+ *
+ * @since 4.0
+ */
+class HermiteStepInterpolator extends AbstractStepInterpolator {
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20261017L;
+
+    /** State at the beginning of the step. */
+    private double[] previousState;
+
+    /** Derivatives at the beginning of the step. */
+    private double[] previousDerivatives;
+
+    /** Derivatives at the end of the step. */
+    private double[] currentDerivatives;
+
+    /** Simple constructor.
+     * This constructor builds an instance that is not usable yet, the
+     * {@link #reinitialize(double[], boolean, EquationsMapper, EquationsMapper[])}
+     * method should be called before using the instance in order to
+     * initialize the internal arrays. It is needed for externalization.
+     */
+    // CHECKSTYLE: stop RedundantModifier
+    // the public modifier here is needed for serialization
+    public HermiteStepInterpolator() {
+        previousState       = null;
+        previousDerivatives = null;
+        currentDerivatives  = null;
+    }
+    // CHECKSTYLE: resume RedundantModifier
+
+    /** Copy constructor.
+     * @param interpolator interpolator to copy from. The copy is a deep
+     * copy: its arrays are separated from the original arrays of the
+     * instance
+     */
+    HermiteStepInterpolator(final HermiteStepInterpolator interpolator) {
+        super(interpolator);
+        if (interpolator.previousState != null) {
+            previousState       = interpolator.previousState.clone();
+            previousDerivatives = interpolator.previousDerivatives.clone();
+            currentDerivatives  = interpolator.currentDerivatives.clone();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected StepInterpolator doCopy() {
+        return new HermiteStepInterpolator(this);
+    }
+
+    /** Reinitialize the instance.
+     * @param y reference to the integrator array holding the state at
+     * the end of the step
+     * @param forward integration direction indicator
+     * @param primaryMapper equations mapper for the primary equations set
+     * @param secondaryMappers equations mappers for the secondary equations sets
+     */
+    @Override
+    public void reinitialize(final double[] y, final boolean forward,
+                             final EquationsMapper primaryMapper,
+                             final EquationsMapper[] secondaryMappers) {
+        super.reinitialize(y, forward, primaryMapper, secondaryMappers);
+        previousState       = new double[y.length];
+        previousDerivatives = new double[y.length];
+        currentDerivatives  = new double[y.length];
+    }
+
+    /** Store the data of the step.
+     * The state at the end of the step is the array shared with the
+     * integrator, it is not copied.
+     * @param y0 state at the beginning of the step
+     * @param yDot0 derivatives at the beginning of the step
+     * @param yDot1 derivatives at the end of the step
+     */
+    void storeStep(final double[] y0, final double[] yDot0, final double[] yDot1) {
+        System.arraycopy(y0,    0, previousState,       0, y0.length);
+        System.arraycopy(yDot0, 0, previousDerivatives, 0, yDot0.length);
+        System.arraycopy(yDot1, 0, currentDerivatives,  0, yDot1.length);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void computeInterpolatedStateAndDerivatives(final double theta,
+                                                          final double oneMinusThetaH) {
+        final double theta2 = theta * theta;
+        final double h00 = (2 * theta - 3) * theta2 + 1;
+        final double h10 = ((theta - 2) * theta + 1) * theta * h;
+        final double h01 = (3 - 2 * theta) * theta2;
+        final double h11 = (theta - 1) * theta2 * h;
+        final double d00 = 6 * (theta - 1) * theta / h;
+        final double d10 = (3 * theta - 4) * theta + 1;
+        final double d11 = (3 * theta - 2) * theta;
+        for (int i = 0; i < interpolatedState.length; ++i) {
+            final double y0    = previousState[i];
+            final double y1    = currentState[i];
+            final double yDot0 = previousDerivatives[i];
+            final double yDot1 = currentDerivatives[i];
+            interpolatedState[i]       = h00 * y0 + h10 * yDot0 + h01 * y1 + h11 * yDot1;
+            interpolatedDerivatives[i] = d00 * (y0 - y1) + d10 * yDot0 + d11 * yDot1;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int getPackedDataSize() {
+        return previousState == null ? -1 : 3 * previousState.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doPack(final double[] data, final int offset) {
+        final int n = previousState.length;
+        System.arraycopy(previousState,       0, data, offset,         n);
+        System.arraycopy(previousDerivatives, 0, data, offset + n,     n);
+        System.arraycopy(currentDerivatives,  0, data, offset + 2 * n, n);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doUnpack(final double[] data, final int offset) {
+        final int n = previousState.length;
+        System.arraycopy(data, offset,         previousState,       0, n);
+        System.arraycopy(data, offset + n,     previousDerivatives, 0, n);
+        System.arraycopy(data, offset + 2 * n, currentDerivatives,  0, n);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void writeExternal(final ObjectOutput out)
+        throws IOException {
+
+        // save the state of the base class
+        writeBaseExternal(out);
+
+        // save the local attributes
+        final int n = (currentState == null) ? -1 : currentState.length;
+        for (int i = 0; i < n; ++i) {
+            out.writeDouble(previousState[i]);
+            out.writeDouble(previousDerivatives[i]);
+            out.writeDouble(currentDerivatives[i]);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void readExternal(final ObjectInput in)
+        throws IOException, ClassNotFoundException {
+
+        // read the base class
+        final double t = readBaseExternal(in);
+
+        // read the local attributes
+        final int n = (currentState == null) ? -1 : currentState.length;
+        if (n < 0) {
+            previousState       = null;
+            previousDerivatives = null;
+            currentDerivatives  = null;
+            interpolatedTime    = t;
+        } else {
+            previousState       = new double[n];
+            previousDerivatives = new double[n];
+            currentDerivatives  = new double[n];
+            for (int i = 0; i < n; ++i) {
+                previousState[i]       = in.readDouble();
+                previousDerivatives[i] = in.readDouble();
+                currentDerivatives[i]  = in.readDouble();
+            }
+            // we can now set the interpolated time and state
+            setInterpolatedTime(t);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+/**
+ * Jacobian matrix J of the differential equations, and LU factorization
+ * of the iteration matrix &sigma; I - J used by the stiff integrators.
+ * <p>
+ * Implementations store only the entries allowed by a {@link JacobianStructure},
+ * and allocate all their arrays at construction, so that computing the
+ * Jacobian, factorizing and solving do not allocate memory.
+ * </p>
+ *
+ * @since 4.0
+ */
+abstract class IterationMatrix {
+    /** Dimension of the matrix. */
+    private final int dimension;
+
+    /**
+     * @param dimension Dimension of the matrix.
+     */
+    IterationMatrix(int dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * @return the dimension of the matrix.
+     */
+    int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Gets groups of structurally orthogonal columns: no row has
+     * non-zero entries in two columns of the same group, hence all
+     * the columns of a group can be estimated by finite differences
+     * with a single evaluation of the equations.
+     *
+     * @return the indices of the columns of each group.
+     */
+    abstract int[][] getColumnGroups();
+
+    /**
+     * Sets a column of the Jacobian from a finite differences evaluation.
+     * Only the rows of the column allowed by the structure are read.
+     *
+     * @param column Index of the column.
+     * @param perturbed Derivatives with the perturbed state.
+     * @param reference Derivatives with the reference state.
+     * @param delta Perturbation of the state component.
+     */
+    abstract void setColumn(int column, double[] perturbed, double[] reference, double delta);
+
+    /**
+     * Sets the Jacobian from a full matrix.
+     * Only the entries allowed by the structure are read.
+     *
+     * @param jacobian Jacobian matrix.
+     */
+    abstract void setJacobian(double[][] jacobian);
+
+    /**
+     * Sets all the entries of the Jacobian to zero.
+     */
+    abstract void clearJacobian();
+
+    /**
+     * Sets an entry of the Jacobian.
+     * Entries not allowed by the structure are ignored.
+     *
+     * @param row Row index.
+     * @param column Column index.
+     * @param value Value of the entry.
+     */
+    abstract void setJacobianEntry(int row, int column, double value);
+
+    /**
+     * Computes the LU factorization of &sigma; I - J.
+     *
+     * @param sigma Coefficient of the identity matrix.
+     * @throws org.apache.commons.math4.legacy.linear.SingularMatrixException if the matrix is singular.
+     */
+    abstract void factor(double sigma);
+
+    /**
+     * Solves (&sigma; I - J) x = b, using the last factorization.
+     *
+     * @param b Right-hand side, overwritten with the solution.
+     */
+    abstract void solve(double[] b);
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.NotPositiveException;
+import org.apache.commons.math4.legacy.exception.NullArgumentException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+
+/**
+ * Structure of the Jacobian matrix of the differential equations.
+ * <p>
+ * The {@link StiffIntegrator stiff integrators} solve linear systems
+ * with the iteration matrix &sigma; I - J, where J is the Jacobian of
+ * the equations with respect to the complete state. Knowing which entries
+ * of J may be non-zero reduces both the cost of the finite differences
+ * approximation of J (the columns that do not share a row are estimated
+ * with a single evaluation of the equations) and the cost of the
+ * factorization:
+ * </p>
+ * <ul>
+ *  <li>{@link #dense()}: no structure, Gaussian elimination with partial
+ *   pivoting, O(n<sup>3</sup>) per factorization,</li>
+ *  <li>{@link #banded(int,int) banded}: entries within a band around the
+ *   diagonal, banded Gaussian elimination with partial pivoting,
+ *   O(n l (l + u)) per factorization,</li>
+ *  <li>{@link #sparse(int[][]) sparse}: arbitrary pattern, sparse Gaussian
+ *   elimination on the diagonal, with the fill-in pattern computed once.</li>
+ * </ul>
+ * <p>
+ * Instances are immutable.
+ * </p>
+ *
+ * @since 4.0
+ */
+public final class JacobianStructure {
+    /** Dense structure. */
+    private static final JacobianStructure DENSE =
+        new JacobianStructure(-1, DenseIterationMatrix::new);
+
+    /** Required dimension (negative if any dimension is allowed). */
+    private final int dimension;
+    /** Factory for the iteration matrices. */
+    private final IntFunction<IterationMatrix> factory;
+
+    /**
+     * @param dimension Required dimension (negative if any dimension is allowed).
+     * @param factory Factory for the iteration matrices.
+     */
+    private JacobianStructure(int dimension,
+                              IntFunction<IterationMatrix> factory) {
+        this.dimension = dimension;
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a structure with no known zero entries.
+     *
+     * @return a dense structure.
+     */
+    public static JacobianStructure dense() {
+        return DENSE;
+    }
+
+    /**
+     * Creates a banded structure: entry (i, j) may be non-zero only if
+     * {@code -upper <= i - j <= lower}.
+     *
+     * @param lower Number of sub-diagonals.
+     * @param upper Number of super-diagonals.
+     * @return a banded structure.
+     * @throws NotPositiveException if {@code lower} or {@code upper}
+     * is negative.
+     */
+    public static JacobianStructure banded(final int lower,
+                                           final int upper) {
+        if (lower < 0) {
+            throw new NotPositiveException(lower);
+        }
+        if (upper < 0) {
+            throw new NotPositiveException(upper);
+        }
+        return new JacobianStructure(-1, n -> new BandedIterationMatrix(n, lower, upper));
+    }
+
+    /**
+     * Creates a sparse structure.
+     * The diagonal entries are always part of the structure of the
+     * iteration matrix, they need not be listed.
+     *
+     * @param pattern Columns of the entries of each row of the Jacobian
+     * that may be non-zero; its length is the dimension of the complete
+     * state. The array is copied.
+     * @return a sparse structure.
+     * @throws NullArgumentException if a row is {@code null}.
+     * @throws OutOfRangeException if a column index is out of range.
+     */
+    public static JacobianStructure sparse(int[][] pattern) {
+        final int n = pattern.length;
+        final int[][] rows = new int[n][];
+        for (int i = 0; i < n; i++) {
+            if (pattern[i] == null) {
+                throw new NullArgumentException();
+            }
+            final int[] row = pattern[i].clone();
+            Arrays.sort(row);
+            int size = 0;
+            for (final int j : row) {
+                if (j < 0 || j >= n) {
+                    throw new OutOfRangeException(j, 0, n - 1);
+                }
+                if (size == 0 || row[size - 1] != j) {
+                    row[size++] = j;
+                }
+            }
+            rows[i] = Arrays.copyOf(row, size);
+        }
+        return new JacobianStructure(n, m -> new SparseIterationMatrix(rows));
+    }
+
+    /**
+     * Creates an iteration matrix with this structure.
+     *
+     * @param n Dimension of the complete state.
+     * @return a new iteration matrix.
+     * @throws DimensionMismatchException if the structure was created
+     * for another dimension.
+     */
+    IterationMatrix createMatrix(int n) {
+        if (dimension >= 0 && dimension != n) {
+            throw new DimensionMismatchException(n, dimension);
+        }
+        return factory.apply(n);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+
+/**
+ * This class implements the variable order Numerical Differentiation
+ * Formulas (NDF) integrator for stiff Ordinary Differential Equations.
+ *
+ * <p>The NDF of Klopfenstein and Shampine add to the BDF of order q the
+ * term -&kappa;<sub>q</sub> &gamma;<sub>q</sub> (y<sub>n+1</sub> - y<sup>(0)</sup><sub>n+1</sub>) / h,
+ * where y<sup>(0)</sup><sub>n+1</sub> is the predicted state and
+ * &gamma;<sub>q</sub> = 1 + 1/2 + &hellip; + 1/q. With the coefficients
+ * &kappa;<sub>q</sub> = -0.1850, -1/9, -0.0823, -0.0415 and 0 for orders 1 to 5,
+ * the formulas are more accurate than the BDF of the same order while
+ * keeping nearly the same stability, which allows larger steps. The fifth
+ * order formula is the BDF. See L. F. Shampine and M. W. Reichelt,
+ * <i>The MATLAB ODE Suite</i>, SIAM Journal on Scientific Computing 18 (1997).</p>
+ *
+ * <p>Everything else, including the reuse of the Jacobian and of the
+ * factorizations, is shared with the {@link BDFIntegrator}.</p>
+ *
+ * @since 4.0
+ */
+public class NDFIntegrator extends BDFIntegrator {
+
+    /** Integrator method name. */
+    private static final String METHOD_NAME = "NDF";
+
+    /** Numerical differentiation coefficients. */
+    private static final double[] KAPPA = {
+        -0.1850, -1.0 / 9.0, -0.0823, -0.0415, 0.0
+    };
+
+    /** Build a NDF integrator with the given order and step bounds.
+     * @param maxOrder maximal order of the method (between 1 and 5)
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     * @exception OutOfRangeException if {@code maxOrder} is not between 1 and 5
+     */
+    public NDFIntegrator(final int maxOrder,
+                         final double minStep, final double maxStep,
+                         final double scalAbsoluteTolerance,
+                         final double scalRelativeTolerance)
+        throws OutOfRangeException {
+        super(METHOD_NAME, KAPPA, maxOrder, minStep, maxStep,
+              scalAbsoluteTolerance, scalRelativeTolerance);
+    }
+
+    /** Build a NDF integrator with the given order and step bounds.
+     * @param maxOrder maximal order of the method (between 1 and 5)
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     * @exception OutOfRangeException if {@code maxOrder} is not between 1 and 5
+     */
+    public NDFIntegrator(final int maxOrder,
+                         final double minStep, final double maxStep,
+                         final double[] vecAbsoluteTolerance,
+                         final double[] vecRelativeTolerance)
+        throws OutOfRangeException {
+        super(METHOD_NAME, KAPPA, maxOrder, minStep, maxStep,
+              vecAbsoluteTolerance, vecRelativeTolerance);
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
+import org.apache.commons.math4.legacy.exception.NoBracketingException;
+import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.linear.SingularMatrixException;
+import org.apache.commons.math4.legacy.ode.ExpandableStatefulODE;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * This class implements the common part of all embedded Rosenbrock
+ * integrators for stiff Ordinary Differential Equations.
+ *
+ * <p>Rosenbrock methods are linearly implicit Runge-Kutta methods: each
+ * stage solves a linear system with the iteration matrix
+ * (1 / (&gamma; h)) I - J, where J is the Jacobian of the equations at the
+ * beginning of the step, so there is no Newton iteration. In the transformed
+ * variables U<sub>i</sub> used by Hairer and Wanner, the stages are:</p>
+ * <pre>
+ *  ((1 / (&gamma; h)) I - J) U<sub>i</sub> = f(t<sub>n</sub> + &alpha;<sub>i</sub> h, y<sub>n</sub> + &sum;<sub>j&lt;i</sub> a<sub>ij</sub> U<sub>j</sub>)
+ *                                 + &sum;<sub>j&lt;i</sub> (c<sub>ij</sub> / h) U<sub>j</sub> + &gamma;<sub>i</sub> h &part;f/&part;t
+ *  y<sub>n+1</sub> = y<sub>n</sub> + &sum; m<sub>i</sub> U<sub>i</sub>
+ *  err = &sum; e<sub>i</sub> U<sub>i</sub>
+ * </pre>
+ * <p>The Jacobian is evaluated once per step (it is reused when a step is
+ * rejected) and the iteration matrix is factorized once per attempted step.
+ * The time derivative &part;f/&part;t is approximated by finite differences,
+ * with one additional evaluation per step. Dense output is provided by a
+ * cubic Hermite interpolation using the derivatives at both ends of the
+ * step, which are needed anyway for the following step.</p>
+ *
+ * @see Shampine43Integrator
+ * @since 4.0
+ */
+public abstract class RosenbrockIntegrator extends StiffIntegrator {
+
+    /** Square root of the machine epsilon, scale of the time derivative finite differences. */
+    private static final double SQRT_EPSILON = JdkMath.sqrt(JdkMath.ulp(1.0));
+
+    /** Diagonal coefficient &gamma;. */
+    private final double gamma;
+
+    /** Time steps &alpha;<sub>i</sub> of the stages. */
+    private final double[] alpha;
+
+    /** Coefficients a<sub>ij</sub> of the stage arguments (row i-1 for stage i). */
+    private final double[][] a;
+
+    /** Coefficients c<sub>ij</sub> of the stage right-hand sides (row i-1 for stage i). */
+    private final double[][] c;
+
+    /** Coefficients &gamma;<sub>i</sub> of the time derivative. */
+    private final double[] gammaT;
+
+    /** Propagation weights m<sub>i</sub>. */
+    private final double[] m;
+
+    /** Error estimation weights e<sub>i</sub>. */
+    private final double[] e;
+
+    /** Indicators for stages evaluating the equations at the same point as the previous stage. */
+    private final boolean[] sameArgument;
+
+    /** Order of the method. */
+    private final int order;
+
+    /** Stepsize control exponent. */
+    private final double exp;
+
+    /** Safety factor for stepsize control. */
+    private double safety;
+
+    /** Minimal reduction factor for stepsize control. */
+    private double minReduction;
+
+    /** Maximal growth factor for stepsize control. */
+    private double maxGrowth;
+
+    /** Build a Rosenbrock integrator with the given coefficients.
+     * @param name name of the method
+     * @param order order of the method (used for stepsize control)
+     * @param gamma diagonal coefficient &gamma;
+     * @param alpha time steps &alpha;<sub>i</sub> of the stages
+     * @param a coefficients a<sub>ij</sub> of the stage arguments (row i-1 for stage i)
+     * @param c coefficients c<sub>ij</sub> of the stage right-hand sides (row i-1 for stage i)
+     * @param gammaT coefficients &gamma;<sub>i</sub> of the time derivative
+     * @param m propagation weights
+     * @param e error estimation weights
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     */
+    protected RosenbrockIntegrator(final String name, final int order, final double gamma,
+                                   final double[] alpha, final double[][] a, final double[][] c,
+                                   final double[] gammaT, final double[] m, final double[] e,
+                                   final double minStep, final double maxStep,
+                                   final double scalAbsoluteTolerance,
+                                   final double scalRelativeTolerance) {
+        super(name, minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+        this.order        = order;
+        this.gamma        = gamma;
+        this.alpha        = alpha;
+        this.a            = a;
+        this.c            = c;
+        this.gammaT       = gammaT;
+        this.m            = m;
+        this.e            = e;
+        this.sameArgument = sameArguments(alpha, a);
+        this.exp          = -1.0 / order;
+        setSafety(0.9);
+        setMinReduction(0.2);
+        setMaxGrowth(5.0);
+    }
+
+    /** Build a Rosenbrock integrator with the given coefficients.
+     * @param name name of the method
+     * @param order order of the method (used for stepsize control)
+     * @param gamma diagonal coefficient &gamma;
+     * @param alpha time steps &alpha;<sub>i</sub> of the stages
+     * @param a coefficients a<sub>ij</sub> of the stage arguments (row i-1 for stage i)
+     * @param c coefficients c<sub>ij</sub> of the stage right-hand sides (row i-1 for stage i)
+     * @param gammaT coefficients &gamma;<sub>i</sub> of the time derivative
+     * @param m propagation weights
+     * @param e error estimation weights
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     */
+    protected RosenbrockIntegrator(final String name, final int order, final double gamma,
+                                   final double[] alpha, final double[][] a, final double[][] c,
+                                   final double[] gammaT, final double[] m, final double[] e,
+                                   final double minStep, final double maxStep,
+                                   final double[] vecAbsoluteTolerance,
+                                   final double[] vecRelativeTolerance) {
+        super(name, minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+        this.order        = order;
+        this.gamma        = gamma;
+        this.alpha        = alpha;
+        this.a            = a;
+        this.c            = c;
+        this.gammaT       = gammaT;
+        this.m            = m;
+        this.e            = e;
+        this.sameArgument = sameArguments(alpha, a);
+        this.exp          = -1.0 / order;
+        setSafety(0.9);
+        setMinReduction(0.2);
+        setMaxGrowth(5.0);
+    }
+
+    /** Identify the stages evaluating the equations at the same point as the previous one.
+     * @param alpha time steps of the stages
+     * @param a coefficients of the stage arguments
+     * @return indicators for the stages that can reuse the previous evaluation
+     */
+    private static boolean[] sameArguments(final double[] alpha, final double[][] a) {
+        final boolean[] same = new boolean[alpha.length];
+        // the first stage uses the derivatives at the beginning of the step
+        for (int i = 2; i < alpha.length; ++i) {
+            final double[] previous = Arrays.copyOf(a[i - 2], i);
+            same[i] = alpha[i] == alpha[i - 1] && Arrays.equals(previous, a[i - 1]);
+        }
+        return same;
+    }
+
+    /** Get the order of the method.
+     * @return order of the method
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /** Get the safety factor for stepsize control.
+     * @return safety factor
+     */
+    public double getSafety() {
+        return safety;
+    }
+
+    /** Set the safety factor for stepsize control.
+     * @param safety safety factor
+     */
+    public void setSafety(final double safety) {
+        this.safety = safety;
+    }
+
+    /** Get the minimal reduction factor for stepsize control.
+     * @return minimal reduction factor
+     */
+    public double getMinReduction() {
+        return minReduction;
+    }
+
+    /** Set the minimal reduction factor for stepsize control.
+     * @param minReduction minimal reduction factor
+     */
+    public void setMinReduction(final double minReduction) {
+        this.minReduction = minReduction;
+    }
+
+    /** Get the maximal growth factor for stepsize control.
+     * @return maximal growth factor
+     */
+    public double getMaxGrowth() {
+        return maxGrowth;
+    }
+
+    /** Set the maximal growth factor for stepsize control.
+     * @param maxGrowth maximal growth factor
+     */
+    public void setMaxGrowth(final double maxGrowth) {
+        this.maxGrowth = maxGrowth;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void integrate(final ExpandableStatefulODE equations, final double t)
+        throws NumberIsTooSmallException, DimensionMismatchException,
+               MaxCountExceededException, NoBracketingException {
+
+        sanityChecks(equations, t);
+        setEquations(equations);
+        setUpJacobian(equations);
+        final boolean forward = t > equations.getTime();
+
+        // create some internal working arrays
+        final double[] y0      = equations.getCompleteState();
+        final int n            = y0.length;
+        final double[] y       = y0.clone();
+        final double[] y1      = new double[n];
+        final double[] yDot0   = new double[n];
+        final double[] yDot1   = new double[n];
+        final double[] dFdT    = new double[n];
+        final double[] yTmp    = new double[n];
+        final double[] yDotTmp = new double[n];
+        final double[] error   = new double[n];
+        final double[][] u     = new double[m.length][n];
+
+        // set up an interpolator sharing the integrator end of step array
+        final HermiteStepInterpolator interpolator = new HermiteStepInterpolator();
+        interpolator.reinitialize(y1, forward,
+                                  equations.getPrimaryMapper(), equations.getSecondaryMappers());
+        interpolator.storeTime(equations.getTime());
+
+        // set up integration control objects
+        stepStart = equations.getTime();
+        initIntegration(stepStart, y0, t);
+        computeDerivatives(stepStart, y, yDot0);
+        double hNew = initialStep(forward, order, stepStart, y, yDot0, yTmp, yDotTmp);
+
+        // main integration loop
+        isLastStep = false;
+        do {
+
+            interpolator.shift();
+
+            // the Jacobian is reused when the step is rejected
+            computeJacobian(stepStart, y, yDot0);
+            computeTimeDerivative(stepStart, hNew, y, yDot0, dFdT, yDotTmp);
+
+            // iterate over step size, ensuring local normalized error is smaller than 1
+            double err = 10;
+            while (err >= 1.0) {
+
+                stepSize = clip(hNew, stepStart, t, forward);
+                try {
+                    factorize(1.0 / (gamma * stepSize));
+                } catch (SingularMatrixException sme) {
+                    hNew = filterStep(0.5 * stepSize, forward, false);
+                    continue;
+                }
+
+                for (int i = 0; i < m.length; ++i) {
+                    final double[] ui = u[i];
+                    if (i == 0) {
+                        System.arraycopy(yDot0, 0, ui, 0, n);
+                    } else {
+                        final double[] ai = a[i - 1];
+                        final double[] ci = c[i - 1];
+                        if (!sameArgument[i]) {
+                            for (int k = 0; k < n; ++k) {
+                                double sum = y[k];
+                                for (int j = 0; j < i; ++j) {
+                                    sum += ai[j] * u[j][k];
+                                }
+                                yTmp[k] = sum;
+                            }
+                            computeDerivatives(stepStart + alpha[i] * stepSize, yTmp, yDotTmp);
+                        }
+                        for (int k = 0; k < n; ++k) {
+                            double sum = 0;
+                            for (int j = 0; j < i; ++j) {
+                                sum += ci[j] * u[j][k];
+                            }
+                            ui[k] = yDotTmp[k] + sum / stepSize;
+                        }
+                    }
+                    final double hGammaT = gammaT[i] * stepSize;
+                    for (int k = 0; k < n; ++k) {
+                        ui[k] += hGammaT * dFdT[k];
+                    }
+                    solve(ui);
+                }
+
+                // estimate the state and the error at the end of the step
+                for (int k = 0; k < n; ++k) {
+                    double sum    = y[k];
+                    double errSum = 0;
+                    for (int i = 0; i < m.length; ++i) {
+                        sum    += m[i] * u[i][k];
+                        errSum += e[i] * u[i][k];
+                    }
+                    y1[k]    = sum;
+                    error[k] = errSum;
+                }
+                err = scaledNorm(error, y, y1);
+
+                if (err >= 1.0) {
+                    // reject the step and attempt to reduce error by stepsize control
+                    final double factor =
+                        JdkMath.min(maxGrowth, JdkMath.max(minReduction, safety * JdkMath.pow(err, exp)));
+                    hNew = filterStep(stepSize * factor, forward, false);
+                }
+            }
+
+            // local error is small enough: accept the step, trigger events and step handlers
+            computeDerivatives(stepStart + stepSize, y1, yDot1);
+            interpolator.storeStep(y, yDot0, yDot1);
+            interpolator.storeTime(stepStart + stepSize);
+            stepStart = acceptStep(interpolator, y1, yDot1, t);
+            System.arraycopy(y1,    0, y,     0, n);
+            System.arraycopy(yDot1, 0, yDot0, 0, n);
+
+            if (!isLastStep) {
+
+                // prepare next step
+                interpolator.storeTime(stepStart);
+
+                // stepsize control for next step
+                final double factor =
+                    JdkMath.min(maxGrowth, JdkMath.max(minReduction, safety * JdkMath.pow(err, exp)));
+                final double  scaledH    = stepSize * factor;
+                final double  nextT      = stepStart + scaledH;
+                final boolean nextIsLast = forward ? (nextT >= t) : (nextT <= t);
+                hNew = filterStep(scaledH, forward, nextIsLast);
+
+                final double  filteredNextT      = stepStart + hNew;
+                final boolean filteredNextIsLast = forward ? (filteredNextT >= t) : (filteredNextT <= t);
+                if (filteredNextIsLast) {
+                    hNew = t - stepStart;
+                }
+            }
+
+        } while (!isLastStep);
+
+        // dispatch results
+        equations.setTime(stepStart);
+        equations.setCompleteState(y);
+
+        resetInternalState();
+    }
+
+    /** Approximate the partial derivative of the equations with respect to time.
+     * @param t0 current time
+     * @param h expected step size
+     * @param y current state
+     * @param yDot derivatives at (t0, y)
+     * @param dFdT placeholder array where to put the time derivative
+     * @param yDotTmp work array
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @exception DimensionMismatchException if arrays dimensions do not match equations settings
+     */
+    private void computeTimeDerivative(final double t0, final double h,
+                                       final double[] y, final double[] yDot,
+                                       final double[] dFdT, final double[] yDotTmp)
+        throws MaxCountExceededException, DimensionMismatchException {
+        final double t1 = t0 + SQRT_EPSILON * JdkMath.max(JdkMath.abs(t0), JdkMath.abs(h));
+        final double delta = t1 - t0;
+        computeDerivatives(t1, y, yDotTmp);
+        for (int k = 0; k < y.length; ++k) {
+            dFdT[k] = (yDotTmp[k] - yDot[k]) / delta;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+/**
+ * This class implements the 4(3) Rosenbrock integrator of Shampine for
+ * stiff Ordinary Differential Equations.
+ *
+ * <p>This method has four stages, three of them evaluating the equations
+ * (the last two stages share the same argument), and an embedded third
+ * order method for error estimation. It is A-stable and suited to
+ * moderate accuracy requirements on stiff problems of small to medium
+ * dimension. See L. F. Shampine, <i>Implementation of Rosenbrock
+ * Methods</i>, ACM Transactions on Mathematical Software 8 (1982).</p>
+ *
+ * @see BDFIntegrator
+ * @since 4.0
+ */
+public class Shampine43Integrator extends RosenbrockIntegrator {
+
+    /** Integrator method name. */
+    private static final String METHOD_NAME = "Shampine 4(3)";
+
+    /** Diagonal coefficient. */
+    private static final double GAMMA = 1.0 / 2.0;
+
+    /** Time steps of the stages. */
+    private static final double[] STATIC_ALPHA = {
+        0.0, 1.0, 3.0 / 5.0, 3.0 / 5.0
+    };
+
+    /** Coefficients of the stage arguments. */
+    private static final double[][] STATIC_A = {
+        { 2.0 },
+        { 48.0 / 25.0, 6.0 / 25.0 },
+        { 48.0 / 25.0, 6.0 / 25.0, 0.0 }
+    };
+
+    /** Coefficients of the stage right-hand sides. */
+    private static final double[][] STATIC_C = {
+        { -8.0 },
+        { 372.0 / 25.0, 12.0 / 5.0 },
+        { -112.0 / 125.0, -54.0 / 125.0, -2.0 / 5.0 }
+    };
+
+    /** Coefficients of the time derivative. */
+    private static final double[] STATIC_GAMMA = {
+        1.0 / 2.0, -3.0 / 2.0, 121.0 / 50.0, 29.0 / 250.0
+    };
+
+    /** Propagation weights. */
+    private static final double[] STATIC_M = {
+        19.0 / 9.0, 1.0 / 2.0, 25.0 / 108.0, 125.0 / 108.0
+    };
+
+    /** Error estimation weights. */
+    private static final double[] STATIC_E = {
+        17.0 / 54.0, 7.0 / 36.0, 0.0, 125.0 / 108.0
+    };
+
+    /** Simple constructor.
+     * Build a Shampine 4(3) integrator with the given step bounds
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     */
+    public Shampine43Integrator(final double minStep, final double maxStep,
+                                final double scalAbsoluteTolerance,
+                                final double scalRelativeTolerance) {
+        super(METHOD_NAME, 4, GAMMA, STATIC_ALPHA, STATIC_A, STATIC_C, STATIC_GAMMA,
+              STATIC_M, STATIC_E, minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+    }
+
+    /** Simple constructor.
+     * Build a Shampine 4(3) integrator with the given step bounds
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     */
+    public Shampine43Integrator(final double minStep, final double maxStep,
+                                final double[] vecAbsoluteTolerance,
+                                final double[] vecRelativeTolerance) {
+        super(METHOD_NAME, 4, GAMMA, STATIC_ALPHA, STATIC_A, STATIC_C, STATIC_GAMMA,
+              STATIC_M, STATIC_E, minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.apache.commons.math4.legacy.linear.SingularMatrixException;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Sparse iteration matrix, factorized by Gaussian elimination without
+ * pivoting.
+ * <p>
+ * The pattern of the LU factors (including fill-in) is computed once, at
+ * construction, from the pattern of the Jacobian; each factorization then
+ * only performs the numerical elimination on that pattern, stored in
+ * compressed rows. The diagonal is used as pivot, which is appropriate
+ * for the iteration matrices of stiff integrators (their diagonal is
+ * dominant for small steps); a {@link SingularMatrixException} is thrown
+ * when a pivot vanishes, so that the integrator reduces the step. The
+ * amount of fill-in depends on the ordering of the components.
+ * </p>
+ *
+ * @since 4.0
+ */
+final class SparseIterationMatrix extends IterationMatrix {
+    /** Relative threshold below which a pivot is considered to be zero. */
+    private static final double PIVOT_THRESHOLD = 1e-14;
+    /** Start of each column in {@link #jacobianRows} (Jacobian pattern by column). */
+    private final int[] jacobianStart;
+    /** Rows of the Jacobian entries. */
+    private final int[] jacobianRows;
+    /** Values of the Jacobian entries. */
+    private final double[] jacobian;
+    /** Position of each Jacobian entry in {@link #lu}. */
+    private final int[] jacobianToLU;
+    /** Start of each row in {@link #luColumns}. */
+    private final int[] luStart;
+    /** Columns of the LU entries, sorted within each row. */
+    private final int[] luColumns;
+    /** Position of the diagonal entry of each row in {@link #lu}. */
+    private final int[] diagonal;
+    /** Values of the LU factors (L has a unit diagonal, which is not stored). */
+    private final double[] lu;
+    /** Work array for the elimination. */
+    private final double[] work;
+    /** Column groups for finite differences. */
+    private final int[][] groups;
+
+    /**
+     * @param pattern Columns of the non-zero entries of each row of the Jacobian.
+     */
+    SparseIterationMatrix(int[][] pattern) {
+        super(pattern.length);
+        final int n = pattern.length;
+
+        // Jacobian pattern, by column.
+        jacobianStart = new int[n + 1];
+        for (final int[] row : pattern) {
+            for (final int j : row) {
+                ++jacobianStart[j + 1];
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            jacobianStart[j + 1] += jacobianStart[j];
+        }
+        jacobianRows = new int[jacobianStart[n]];
+        final int[] next = Arrays.copyOf(jacobianStart, n);
+        for (int i = 0; i < n; i++) {
+            for (final int j : pattern[i]) {
+                jacobianRows[next[j]++] = i;
+            }
+        }
+        jacobian = new double[jacobianRows.length];
+
+        // Symbolic factorization: row i of LU gets the upper part of
+        // every row k < i that it eliminates.
+        final List<int[]> rows = new ArrayList<>(n);
+        final int[] diagonalInRow = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            final TreeSet<Integer> columns = new TreeSet<>();
+            columns.add(i);
+            for (final int j : pattern[i]) {
+                columns.add(j);
+            }
+            Integer k = columns.first();
+            while (k < i) {
+                final int[] rowK = rows.get(k);
+                for (int q = diagonalInRow[k] + 1; q < rowK.length; q++) {
+                    columns.add(rowK[q]);
+                }
+                k = columns.higher(k);
+            }
+            final int[] row = new int[columns.size()];
+            int q = 0;
+            for (final int j : columns) {
+                if (j == i) {
+                    diagonalInRow[i] = q;
+                }
+                row[q++] = j;
+            }
+            rows.add(row);
+            size += row.length;
+        }
+        luStart = new int[n + 1];
+        luColumns = new int[size];
+        diagonal = new int[n];
+        for (int i = 0; i < n; i++) {
+            final int[] row = rows.get(i);
+            System.arraycopy(row, 0, luColumns, luStart[i], row.length);
+            diagonal[i] = luStart[i] + diagonalInRow[i];
+            luStart[i + 1] = luStart[i] + row.length;
+        }
+        lu = new double[size];
+        work = new double[n];
+
+        // Map the Jacobian entries to their position in the factors.
+        jacobianToLU = new int[jacobianRows.length];
+        for (int j = 0; j < n; j++) {
+            for (int p = jacobianStart[j]; p < jacobianStart[j + 1]; p++) {
+                final int i = jacobianRows[p];
+                jacobianToLU[p] = Arrays.binarySearch(luColumns, luStart[i], luStart[i + 1], j);
+            }
+        }
+
+        groups = color(pattern);
+    }
+
+    /**
+     * Greedy coloring of the columns: two columns sharing a row get
+     * different colors.
+     *
+     * @param pattern Columns of the non-zero entries of each row.
+     * @return the columns of each color.
+     */
+    private int[][] color(int[][] pattern) {
+        final int n = pattern.length;
+        final int[] colors = new int[n];
+        final int[] mark = new int[n];
+        Arrays.fill(mark, -1);
+        int count = 0;
+        for (int j = 0; j < n; j++) {
+            // Mark the colors of the columns sharing a row with column j.
+            for (int p = jacobianStart[j]; p < jacobianStart[j + 1]; p++) {
+                for (final int other : pattern[jacobianRows[p]]) {
+                    if (other < j) {
+                        mark[colors[other]] = j;
+                    }
+                }
+            }
+            int c = 0;
+            while (mark[c] == j) {
+                ++c;
+            }
+            colors[j] = c;
+            count = JdkMath.max(count, c + 1);
+        }
+
+        final int[] sizes = new int[count];
+        for (final int c : colors) {
+            ++sizes[c];
+        }
+        final int[][] result = new int[count][];
+        for (int c = 0; c < count; c++) {
+            result[c] = new int[sizes[c]];
+            sizes[c] = 0;
+        }
+        for (int j = 0; j < n; j++) {
+            result[colors[j]][sizes[colors[j]]++] = j;
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    int[][] getColumnGroups() {
+        return groups;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setColumn(int column, double[] perturbed, double[] reference, double delta) {
+        for (int p = jacobianStart[column]; p < jacobianStart[column + 1]; p++) {
+            final int i = jacobianRows[p];
+            jacobian[p] = (perturbed[i] - reference[i]) / delta;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setJacobian(double[][] matrix) {
+        final int n = getDimension();
+        for (int j = 0; j < n; j++) {
+            for (int p = jacobianStart[j]; p < jacobianStart[j + 1]; p++) {
+                jacobian[p] = matrix[jacobianRows[p]][j];
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void clearJacobian() {
+        Arrays.fill(jacobian, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setJacobianEntry(int row, int column, double value) {
+        if (column >= 0 && column < getDimension()) {
+            // The rows of each column are sorted.
+            final int p = Arrays.binarySearch(jacobianRows, jacobianStart[column], jacobianStart[column + 1], row);
+            if (p >= 0) {
+                jacobian[p] = value;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void factor(double sigma) {
+        final int n = getDimension();
+
+        Arrays.fill(lu, 0);
+        for (int i = 0; i < n; i++) {
+            lu[diagonal[i]] = sigma;
+        }
+        for (int p = 0; p < jacobian.length; p++) {
+            lu[jacobianToLU[p]] -= jacobian[p];
+        }
+
+        for (int i = 0; i < n; i++) {
+            final int start = luStart[i];
+            final int end = luStart[i + 1];
+            double max = 0;
+            for (int p = start; p < end; p++) {
+                work[luColumns[p]] = lu[p];
+                max = JdkMath.max(max, JdkMath.abs(lu[p]));
+            }
+
+            // Eliminate the entries left of the diagonal, in increasing column order.
+            for (int p = start; p < diagonal[i]; p++) {
+                final int k = luColumns[p];
+                final double l = work[k] / lu[diagonal[k]];
+                work[k] = l;
+                if (l != 0) {
+                    for (int q = diagonal[k] + 1; q < luStart[k + 1]; q++) {
+                        work[luColumns[q]] -= l * lu[q];
+                    }
+                }
+            }
+
+            for (int p = start; p < end; p++) {
+                final int j = luColumns[p];
+                lu[p] = work[j];
+                work[j] = 0;
+            }
+
+            final double pivot = lu[diagonal[i]];
+            if (!(JdkMath.abs(pivot) > PIVOT_THRESHOLD * max)) {
+                throw new SingularMatrixException();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void solve(double[] b) {
+        final int n = getDimension();
+        for (int i = 0; i < n; i++) {
+            double sum = b[i];
+            for (int p = luStart[i]; p < diagonal[i]; p++) {
+                sum -= lu[p] * b[luColumns[p]];
+            }
+            b[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = b[i];
+            for (int p = diagonal[i] + 1; p < luStart[i + 1]; p++) {
+                sum -= lu[p] * b[luColumns[p]];
+            }
+            b[i] = sum / lu[diagonal[i]];
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
+import org.apache.commons.math4.legacy.exception.NullArgumentException;
+import org.apache.commons.math4.legacy.linear.SingularMatrixException;
+import org.apache.commons.math4.legacy.ode.ExpandableStatefulODE;
+import org.apache.commons.math4.legacy.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math4.legacy.ode.MainStateJacobianProvider;
+import org.apache.commons.math4.legacy.ode.nonstiff.AdaptiveStepsizeIntegrator;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * This abstract class holds the common part of the integrators for stiff
+ * Ordinary Differential Equations, which solve linear systems involving
+ * the Jacobian matrix J of the equations.
+ *
+ * <p>The Jacobian is computed with respect to the complete state vector:</p>
+ * <ul>
+ *   <li>if the problem has no secondary equations and its primary equations
+ *   implement {@link StructuredJacobianProvider}, the entries of the Jacobian
+ *   allowed by the {@link #setJacobianStructure(JacobianStructure) Jacobian
+ *   structure} are computed by the equations and stored directly in the
+ *   banded or sparse iteration matrix,</li>
+ *   <li>if the problem has no secondary equations and its primary equations
+ *   implement {@link MainStateJacobianProvider}, the Jacobian is computed by
+ *   the equations in a dense n &times; n array, from which only the entries
+ *   allowed by the structure are copied; for large banded or sparse problems,
+ *   {@link StructuredJacobianProvider} avoids this dense array,</li>
+ *   <li>otherwise it is approximated by forward finite differences. The
+ *   columns that do not share a row according to the {@link
+ *   #setJacobianStructure(JacobianStructure) Jacobian structure} are
+ *   perturbed together, so a banded or sparse structure requires far fewer
+ *   evaluations of the equations than the dimension of the state.</li>
+ * </ul>
+ *
+ * <p>The iteration matrices &sigma; I - J are factorized according to the
+ * same structure. The numbers of Jacobian evaluations and factorizations of
+ * the last integration are available for tuning.</p>
+ *
+ * <p>Step size control, events and step handlers are the same as for the
+ * {@link AdaptiveStepsizeIntegrator adaptive step size integrators}
+ * of the {@code nonstiff} package.</p>
+ *
+ * @since 4.0
+ */
+public abstract class StiffIntegrator extends AdaptiveStepsizeIntegrator {
+
+    /** Square root of the machine epsilon, scale of the finite differences. */
+    private static final double SQRT_EPSILON = JdkMath.sqrt(JdkMath.ulp(1.0));
+
+    /** Structure of the Jacobian. */
+    private JacobianStructure structure;
+
+    /** Iteration matrix of the current integration. */
+    private IterationMatrix matrix;
+
+    /** Structured Jacobian provider ({@code null} if not used). */
+    private StructuredJacobianProvider structuredProvider;
+
+    /** Receiver of the entries computed by the structured provider. */
+    private StructuredJacobianProvider.Entries entries;
+
+    /** Jacobian provider ({@code null} if not used). */
+    private MainStateJacobianProvider provider;
+
+    /** Placeholder for the Jacobian computed by the provider. */
+    private double[][] dFdY;
+
+    /** Column groups for finite differences. */
+    private int[][] groups;
+
+    /** Work array for finite differences. */
+    private double[] perturbedState;
+
+    /** Work array for finite differences. */
+    private double[] perturbedDerivatives;
+
+    /** Number of Jacobian evaluations. */
+    private int jacobianEvaluations;
+
+    /** Number of factorizations. */
+    private int factorizations;
+
+    /** Build a stiff integrator with the given stepsize bounds.
+     * @param name name of the method
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     */
+    protected StiffIntegrator(final String name,
+                              final double minStep, final double maxStep,
+                              final double scalAbsoluteTolerance,
+                              final double scalRelativeTolerance) {
+        super(name, minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+        structure = JacobianStructure.dense();
+    }
+
+    /** Build a stiff integrator with the given stepsize bounds.
+     * @param name name of the method
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     */
+    protected StiffIntegrator(final String name,
+                              final double minStep, final double maxStep,
+                              final double[] vecAbsoluteTolerance,
+                              final double[] vecRelativeTolerance) {
+        super(name, minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+        structure = JacobianStructure.dense();
+    }
+
+    /** Set the structure of the Jacobian matrix.
+     * <p>The structure applies to the complete state vector. The default
+     * structure is {@link JacobianStructure#dense() dense}.</p>
+     * @param structure structure of the Jacobian
+     * @exception NullArgumentException if {@code structure} is null
+     */
+    public void setJacobianStructure(final JacobianStructure structure) {
+        if (structure == null) {
+            throw new NullArgumentException();
+        }
+        this.structure = structure;
+    }
+
+    /** Get the structure of the Jacobian matrix.
+     * @return structure of the Jacobian
+     */
+    public JacobianStructure getJacobianStructure() {
+        return structure;
+    }
+
+    /** Get the number of Jacobian evaluations of the last integration.
+     * @return number of Jacobian evaluations
+     */
+    public int getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    /** Get the number of factorizations of the iteration matrix during
+     * the last integration.
+     * @return number of factorizations
+     */
+    public int getFactorizations() {
+        return factorizations;
+    }
+
+    /** Set up the linear algebra for an integration.
+     * @param equations complete set of differential equations to integrate
+     * @exception DimensionMismatchException if the Jacobian structure
+     * does not match the dimension of the complete state
+     */
+    protected void setUpJacobian(final ExpandableStatefulODE equations)
+        throws DimensionMismatchException {
+
+        final int n = equations.getTotalDimension();
+        matrix = structure.createMatrix(n);
+
+        final FirstOrderDifferentialEquations primary = equations.getPrimary();
+        final boolean exact = equations.getSecondaryMappers().length == 0;
+        structuredProvider = null;
+        entries            = null;
+        provider           = null;
+        dFdY               = null;
+        groups             = null;
+        if (exact && primary instanceof StructuredJacobianProvider) {
+            structuredProvider = (StructuredJacobianProvider) primary;
+            entries            = matrix::setJacobianEntry;
+        } else if (exact && primary instanceof MainStateJacobianProvider) {
+            provider           = (MainStateJacobianProvider) primary;
+            dFdY               = new double[n][n];
+        } else {
+            groups             = matrix.getColumnGroups();
+        }
+        perturbedState       = new double[n];
+        perturbedDerivatives = new double[n];
+        jacobianEvaluations  = 0;
+        factorizations       = 0;
+    }
+
+    /** Compute the Jacobian matrix.
+     * @param t current time
+     * @param y current complete state
+     * @param yDot time derivative of the complete state at (t, y)
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @exception DimensionMismatchException if arrays dimensions do not match equations settings
+     */
+    protected void computeJacobian(final double t, final double[] y, final double[] yDot)
+        throws MaxCountExceededException, DimensionMismatchException {
+
+        ++jacobianEvaluations;
+        if (structuredProvider != null) {
+            matrix.clearJacobian();
+            structuredProvider.computeJacobian(t, y, yDot, entries);
+            return;
+        }
+        if (provider != null) {
+            provider.computeMainStateJacobian(t, y, yDot, dFdY);
+            matrix.setJacobian(dFdY);
+            return;
+        }
+
+        System.arraycopy(y, 0, perturbedState, 0, y.length);
+        for (final int[] group : groups) {
+            for (final int j : group) {
+                perturbedState[j] = y[j] + perturbation(j, y[j]);
+            }
+            computeDerivatives(t, perturbedState, perturbedDerivatives);
+            for (final int j : group) {
+                matrix.setColumn(j, perturbedDerivatives, yDot, perturbedState[j] - y[j]);
+                perturbedState[j] = y[j];
+            }
+        }
+    }
+
+    /** Get the finite differences perturbation of a state component.
+     * @param j index of the component
+     * @param yj value of the component
+     * @return perturbation
+     */
+    private double perturbation(final int j, final double yj) {
+        // components smaller than the tolerance threshold are perturbed
+        // as if they had the threshold value
+        double threshold = 1;
+        if (j < mainSetDimension) {
+            final double absTol = vecAbsoluteTolerance == null ? scalAbsoluteTolerance : vecAbsoluteTolerance[j];
+            final double relTol = vecRelativeTolerance == null ? scalRelativeTolerance : vecRelativeTolerance[j];
+            if (relTol > 0) {
+                threshold = absTol / relTol;
+            }
+        }
+        final double delta = SQRT_EPSILON * JdkMath.max(JdkMath.abs(yj), threshold);
+        return yj < 0 ? -delta : delta;
+    }
+
+    /** Factorize the iteration matrix &sigma; I - J.
+     * @param sigma coefficient of the identity matrix
+     * @exception SingularMatrixException if the iteration matrix is singular
+     */
+    protected void factorize(final double sigma) throws SingularMatrixException {
+        ++factorizations;
+        matrix.factor(sigma);
+    }
+
+    /** Solve a linear system with the last factorized iteration matrix.
+     * @param b right-hand side, overwritten with the solution
+     */
+    protected void solve(final double[] b) {
+        matrix.solve(b);
+    }
+
+    /** Compute the tolerance-scaled root mean square norm of a vector.
+     * <p>Only the main set of the state is used, as for step size control.</p>
+     * @param v vector
+     * @param y0 state at the beginning of the step
+     * @param y1 state at the end of the step
+     * @return scaled norm of {@code v}
+     */
+    protected double scaledNorm(final double[] v, final double[] y0, final double[] y1) {
+        double sum = 0;
+        for (int i = 0; i < mainSetDimension; ++i) {
+            final double yScale = JdkMath.max(JdkMath.abs(y0[i]), JdkMath.abs(y1[i]));
+            final double tol = (vecAbsoluteTolerance == null) ?
+                               (scalAbsoluteTolerance + scalRelativeTolerance * yScale) :
+                               (vecAbsoluteTolerance[i] + vecRelativeTolerance[i] * yScale);
+            final double ratio = v[i] / tol;
+            sum += ratio * ratio;
+        }
+        return JdkMath.sqrt(sum / mainSetDimension);
+    }
+
+    /** Compute the initial step size.
+     * @param forward forward integration indicator
+     * @param order order of the method
+     * @param t0 start time
+     * @param y0 state vector at t0
+     * @param yDot0 first time derivative of y0
+     * @param y1 work array for a state vector
+     * @param yDot1 work array for the first time derivative of y1
+     * @return first integration step
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @exception DimensionMismatchException if arrays dimensions do not match equations settings
+     */
+    protected double initialStep(final boolean forward, final int order, final double t0,
+                                 final double[] y0, final double[] yDot0,
+                                 final double[] y1, final double[] yDot1)
+        throws MaxCountExceededException, DimensionMismatchException {
+        final double[] scale = new double[mainSetDimension];
+        for (int i = 0; i < scale.length; ++i) {
+            scale[i] = (vecAbsoluteTolerance == null) ?
+                       (scalAbsoluteTolerance + scalRelativeTolerance * JdkMath.abs(y0[i])) :
+                       (vecAbsoluteTolerance[i] + vecRelativeTolerance[i] * JdkMath.abs(y0[i]));
+        }
+        return initializeStep(forward, order, scale, t0, y0, yDot0, y1, yDot1);
+    }
+
+    /** Clip a step size so that the step does not go beyond the target time.
+     * @param h step size
+     * @param t0 start of the step
+     * @param t target time
+     * @param forward forward integration indicator
+     * @return clipped step size
+     */
+    protected static double clip(final double h, final double t0, final double t,
+                                 final boolean forward) {
+        final double t1 = t0 + h;
+        if (forward ? t1 >= t : t1 <= t) {
+            return t - t0;
+        }
+        return h;
+    }
+}
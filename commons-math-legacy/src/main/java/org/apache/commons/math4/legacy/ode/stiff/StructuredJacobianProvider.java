@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
+import org.apache.commons.math4.legacy.ode.FirstOrderDifferentialEquations;
+
+/** Interface expanding {@link FirstOrderDifferentialEquations first order
+ *  differential equations} in order to compute exactly the entries of the
+ *  Jacobian matrix allowed by a {@link JacobianStructure}.
+ *
+ * <p>Unlike {@link org.apache.commons.math4.legacy.ode.MainStateJacobianProvider
+ * MainStateJacobianProvider}, which fills a dense n &times; n array, the
+ * entries are stored directly in the banded or sparse storage of the
+ * {@link StiffIntegrator stiff integrators}, so large problems with a
+ * {@link JacobianStructure#banded(int, int) banded} or {@link
+ * JacobianStructure#sparse(int[][]) sparse} Jacobian never allocate a
+ * dense matrix.</p>
+ *
+ * @since 4.0
+ */
+public interface StructuredJacobianProvider extends FirstOrderDifferentialEquations {
+
+    /** Receiver of the entries of the Jacobian matrix. */
+    @FunctionalInterface
+    interface Entries {
+        /** Set an entry of the Jacobian matrix.
+         * <p>Entries outside of the structure are ignored.</p>
+         * @param row index of the component of the derivative
+         * @param column index of the component of the state
+         * @param value partial derivative of {@code yDot[row]} with respect to {@code y[column]}
+         */
+        void set(int row, int column, double value);
+    }
+
+    /** Compute the Jacobian matrix of ODE with respect to the state.
+     * <p>All the entries are zero when this method is called: only the
+     * non-zero ones need to be set.</p>
+     * @param t current value of the independent <I>time</I> variable
+     * @param y array containing the current value of the state vector
+     * @param yDot array containing the current value of the time derivative of the state vector
+     * @param dFdY receiver of the entries of the Jacobian matrix of the ODE w.r.t. the state vector
+     * @exception MaxCountExceededException if the number of functions evaluations is exceeded
+     * @exception DimensionMismatchException if arrays dimensions do not match equations settings
+     */
+    void computeJacobian(double t, double[] y, double[] yDot, Entries dFdY)
+        throws MaxCountExceededException, DimensionMismatchException;
+}
@@ -16,10 +16,17 @@
  */
 package org.apache.commons.math4.legacy.optim;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 import org.apache.commons.math4.legacy.exception.MathIllegalStateException;
 import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
 import org.apache.commons.math4.legacy.exception.TooManyEvaluationsException;
+import org.apache.commons.math4.legacy.util.ConcurrentTasks;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
 
 /**
  * Base class multi-start optimizer for a multivariate function.
@@ -28,6 +35,10 @@ import org.apache.commons.math4.legacy.exception.TooManyEvaluationsException;
  * turn with different starting points (trying to avoid being trapped
  * in a local extremum when looking for a global one).
  * <em>It is not a "user" class.</em>
+ * <br>
+ * The starts can also be run concurrently, each with its own instance
+ * of the underlying optimizer (see
+ * {@link #BaseMultiStartMultivariateOptimizer(Supplier,int,Supplier,ExecutorService)}).
  *
  * @param <PAIR> Type of the point/value pair returned by the optimization
  * algorithm.
@@ -38,6 +49,10 @@ public abstract class BaseMultiStartMultivariateOptimizer<PAIR>
     extends BaseMultivariateOptimizer<PAIR> {
     /** Underlying classical optimizer. */
     private final BaseMultivariateOptimizer<PAIR> optimizer;
+    /** Factory of underlying optimizers (one per start), or {@code null}. */
+    private final Supplier<? extends BaseMultivariateOptimizer<PAIR>> factory;
+    /** Executor for running the starts, or {@code null}. */
+    private final ExecutorService executor;
     /** Number of evaluations already performed for all starts. */
     private int totalEvaluations;
     /** Number of starts to go. */
@@ -78,6 +93,62 @@ public abstract class BaseMultiStartMultivariateOptimizer<PAIR>
     public BaseMultiStartMultivariateOptimizer(final BaseMultivariateOptimizer<PAIR> optimizer,
                                                final int starts,
                                                final Supplier<double[]> generator) {
+        this(optimizer, null, starts, generator, null);
+    }
+
+    /**
+     * Create a multi-start optimizer that runs each start with a new
+     * instance of the single-start optimizer.
+     * <p>
+     * When an {@code executor} is given, the starts are run concurrently:
+     * <ul>
+     *  <li>the start points are generated beforehand, in the calling thread,
+     *   in the same order as for the sequential runs;</li>
+     *  <li>the maximal number of evaluations (see {@link MaxEval}) is divided
+     *   equally between the starts (instead of each start being allowed the
+     *   evaluations left over by the previous ones); if there are fewer
+     *   evaluations than starts, only the first {@code maxEval} starts are
+     *   run, with one evaluation each;</li>
+     *  <li>the objective function must be thread-safe.</li>
+     * </ul>
+     * The results do not depend on the executor: the optima are collected
+     * in the order of the starts and, if the search stops early (see
+     * {@link #isTargetReached(Object)}), the results of the starts that
+     * follow the one that reached the target are discarded (those not yet
+     * running are cancelled).
+     * </p>
+     *
+     * @param factory Factory of single-start optimizers (a new instance must
+     * be returned at each call).
+     * @param starts Number of starts to perform.
+     * @param generator Generator to use for restarts.
+     * @param executor Executor on which the starts are run, or {@code null}
+     * to run them in turn in the calling thread.
+     * @throws NotStrictlyPositiveException if {@code starts < 1}.
+     *
+     * @since 4.0
+     */
+    public BaseMultiStartMultivariateOptimizer(final Supplier<? extends BaseMultivariateOptimizer<PAIR>> factory,
+                                               final int starts,
+                                               final Supplier<double[]> generator,
+                                               final ExecutorService executor) {
+        this(factory.get(), factory, starts, generator, executor);
+    }
+
+    /**
+     * @param optimizer Single-start optimizer used when the starts are
+     * run in the calling thread.
+     * @param factory Factory of single-start optimizers, or {@code null}.
+     * @param starts Number of starts to perform.
+     * @param generator Generator to use for restarts.
+     * @param executor Executor on which the starts are run, or {@code null}.
+     * @throws NotStrictlyPositiveException if {@code starts < 1}.
+     */
+    private BaseMultiStartMultivariateOptimizer(final BaseMultivariateOptimizer<PAIR> optimizer,
+                                                final Supplier<? extends BaseMultivariateOptimizer<PAIR>> factory,
+                                                final int starts,
+                                                final Supplier<double[]> generator,
+                                                final ExecutorService executor) {
         super(optimizer.getConvergenceChecker());
 
         if (starts < 1) {
@@ -85,8 +156,10 @@ public abstract class BaseMultiStartMultivariateOptimizer<PAIR>
         }
 
         this.optimizer = optimizer;
+        this.factory = factory;
         this.starts = starts;
         this.generator = generator;
+        this.executor = executor;
     }
 
     /** {@inheritDoc} */
@@ -164,49 +237,144 @@ public abstract class BaseMultiStartMultivariateOptimizer<PAIR>
         totalEvaluations = 0;
         clear();
 
+        if (executor != null) {
+            return doOptimizeConcurrently();
+        }
+
         final int maxEval = getMaxEvaluations();
-        final double[] min = getLowerBound();
-        final double[] max = getUpperBound();
         final double[] startPoint = getStartPoint();
 
         // Multi-start loop.
         for (int i = 0; i < starts; i++) {
+            boolean targetReached = false;
             // CHECKSTYLE: stop IllegalCatch
             try {
                 // Decrease number of allowed evaluations.
                 optimData[maxEvalIndex] = new MaxEval(maxEval - totalEvaluations);
                 // New start value.
-                double[] s = null;
-                if (i == 0) {
-                    s = startPoint;
-                } else {
-                    int attempts = 0;
-                    while (s == null) {
-                        if (attempts++ >= getMaxEvaluations()) {
-                            throw new TooManyEvaluationsException(getMaxEvaluations());
-                        }
-                        s = generator.get();
-                        for (int k = 0; s != null && k < s.length; ++k) {
-                            if ((min != null && s[k] < min[k]) || (max != null && s[k] > max[k])) {
-                                // reject the vector
-                                s = null;
-                                break;
-                            }
-                        }
-                    }
-                }
+                final double[] s = i == 0 ? startPoint : nextStartPoint();
                 optimData[initialGuessIndex] = new InitialGuess(s);
                 // Optimize.
                 final PAIR result = optimizer.optimize(optimData);
                 store(result);
+                targetReached = isTargetReached(result);
             } catch (RuntimeException mue) {
                 lastException = mue;
             }
             // CHECKSTYLE: resume IllegalCatch
 
             totalEvaluations += optimizer.getEvaluations();
+
+            if (targetReached) {
+                break;
+            }
         }
 
+        return getBest(lastException);
+    }
+
+    /**
+     * Runs the starts on the {@link #executor}.
+     *
+     * @return the best optimum.
+     */
+    private PAIR doOptimizeConcurrently() {
+        RuntimeException lastException = null;
+
+        final int maxEval = getMaxEvaluations();
+        final double[] startPoint = getStartPoint();
+
+        // The evaluations budget is split among the starts; starts that
+        // would not get any evaluation are not run at all.
+        final int runs = JdkMath.min(starts, maxEval);
+
+        // The start points are generated in the same order as for the
+        // sequential runs.
+        final List<Callable<Start<PAIR>>> tasks = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            final OptimizationData[] data = optimData.clone();
+            data[maxEvalIndex] = new MaxEval(maxEval / runs + (i < maxEval % runs ? 1 : 0));
+            // CHECKSTYLE: stop IllegalCatch
+            try {
+                data[initialGuessIndex] = new InitialGuess(i == 0 ? startPoint : nextStartPoint());
+            } catch (RuntimeException e) {
+                tasks.add(() -> new Start<>(null, e, 0));
+                continue;
+            }
+            tasks.add(() -> {
+                final BaseMultivariateOptimizer<PAIR> opt = factory.get();
+                try {
+                    return new Start<>(opt.optimize(data), null, opt.getEvaluations());
+                } catch (RuntimeException e) {
+                    return new Start<>(null, e, opt.getEvaluations());
+                }
+            });
+            // CHECKSTYLE: resume IllegalCatch
+        }
+
+        final List<Future<Start<PAIR>>> futures = ConcurrentTasks.submitAll(executor, tasks);
+        int next = 0;
+        try {
+            while (next < runs) {
+                final Start<PAIR> start = ConcurrentTasks.get(futures.get(next++));
+                totalEvaluations += start.evaluations;
+                if (start.exception != null) {
+                    lastException = start.exception;
+                    continue;
+                }
+
+                store(start.optimum);
+                if (isTargetReached(start.optimum)) {
+                    break;
+                }
+            }
+        } finally {
+            // Remaining starts are not needed once the target is reached
+            // or a start failed with an error that cannot be recorded.
+            for (int j = next; j < runs; j++) {
+                futures.get(j).cancel(false);
+            }
+        }
+
+        return getBest(lastException);
+    }
+
+    /**
+     * Generates a start point within the bounds.
+     *
+     * @return a new start point.
+     * @throws TooManyEvaluationsException if no point within the bounds
+     * could be generated.
+     */
+    private double[] nextStartPoint() {
+        final double[] min = getLowerBound();
+        final double[] max = getUpperBound();
+
+        double[] s = null;
+        int attempts = 0;
+        while (s == null) {
+            if (attempts++ >= getMaxEvaluations()) {
+                throw new TooManyEvaluationsException(getMaxEvaluations());
+            }
+            s = generator.get();
+            for (int k = 0; s != null && k < s.length; ++k) {
+                if (min != null && s[k] < min[k] || max != null && s[k] > max[k]) {
+                    // reject the vector
+                    s = null;
+                    break;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * @param lastException Exception thrown by the last failed start.
+     * @return the best optimum.
+     * @throws RuntimeException {@code lastException} if all the starts
+     * failed.
+     */
+    private PAIR getBest(RuntimeException lastException) {
         final PAIR[] optima = getOptima();
         if (optima.length == 0) {
             // All runs failed.
@@ -217,6 +385,20 @@ public abstract class BaseMultiStartMultivariateOptimizer<PAIR>
         return optima[0];
     }
 
+    /**
+     * Indicates whether the search can stop after an optimum has been found.
+     * No further start is performed once this method returns {@code true}.
+     * This implementation returns {@code false}.
+     *
+     * @param optimum Result of an optimization run.
+     * @return {@code true} if no further start is needed.
+     *
+     * @since 4.0
+     */
+    protected boolean isTargetReached(PAIR optimum) {
+        return false;
+    }
+
     /**
      * Method that will be called in order to store each found optimum.
      *
@@ -227,4 +409,31 @@ public abstract class BaseMultiStartMultivariateOptimizer<PAIR>
      * Method that will called in order to clear all stored optima.
      */
     protected abstract void clear();
+
+    /**
+     * Outcome of a start run concurrently.
+     *
+     * @param <PAIR> Type of the point/value pair.
+     */
+    private static final class Start<PAIR> {
+        /** Optimum (or {@code null} if the run failed). */
+        private final PAIR optimum;
+        /** Exception thrown by the run (or {@code null}). */
+        private final RuntimeException exception;
+        /** Number of evaluations performed by the run. */
+        private final int evaluations;
+
+        /**
+         * @param optimum Optimum.
+         * @param exception Exception thrown by the run.
+         * @param evaluations Number of evaluations.
+         */
+        Start(PAIR optimum,
+              RuntimeException exception,
+              int evaluations) {
+            this.optimum = optimum;
+            this.exception = exception;
+            this.evaluations = evaluations;
+        }
+    }
 }
@@ -0,0 +1,796 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.optim.linear;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MathIllegalStateException;
+import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
+import org.apache.commons.math4.legacy.linear.RealVector;
+import org.apache.commons.math4.legacy.optim.PointValuePair;
+import org.apache.commons.math4.legacy.optim.nonlinear.scalar.GoalType;
+import org.apache.commons.numbers.core.Precision;
+
+/**
+ * State of the revised Simplex method for a linear problem.
+ * <p>
+ * The problem is put in the same standard form as in {@link SimplexTableau}:
+ * the constraints are normalized to have non-negative right-hand sides, and
+ * slack, surplus and artificial variables are added, together with an extra
+ * variable "x-" when the decision variables are not restricted to
+ * non-negative values. All the variables are then non-negative.
+ * </p>
+ * <p>
+ * The columns of the constraint matrix are stored in compressed sparse
+ * column format, and are never modified. The inverse of the basis matrix
+ * B is kept in product form, B<sup>-1</sup> = E<sub>k</sub> &hellip;
+ * E<sub>1</sub>, where each "eta" matrix E<sub>i</sub> differs from the
+ * identity in a single column, stored in sparse form. Each pivot appends
+ * one eta matrix; the basis is periodically refactorized from scratch in
+ * order to limit the growth of the eta file and the accumulation of rounding
+ * errors. Solving with B (FTRAN) and B<sup>T</sup> (BTRAN) therefore costs
+ * a number of operations proportional to the number of non-zero entries of
+ * the eta file.
+ * </p>
+ * <p>
+ * The solver can be restarted from the basis of a previous solve (see
+ * {@link #warmStart(SimplexBasis)}): the dual Simplex method (see
+ * {@link #getDualPivotRow(PivotSelectionRule)}) then restores the
+ * feasibility of a basis which is still optimal, but whose right-hand sides
+ * have changed.
+ * </p>
+ * <p>
+ * Unlike {@link SimplexTableau}, no scaling of the coefficients is performed.
+ * </p>
+ * <p>
+ * The class is package private. It is not meant for public usage; instances
+ * are confined to the thread that runs the {@link SimplexSolver}.
+ * </p>
+ *
+ * @since 4.0
+ */
+class RevisedSimplex implements SimplexState {
+    /** Maximum number of pivots between two refactorizations of the basis. */
+    private static final int REFACTORIZATION_INTERVAL = 100;
+    /** Initial capacity of the eta file. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Objective function. */
+    private final LinearObjectiveFunction f;
+    /** Whether the decision variables are restricted to non-negative values. */
+    private final boolean restrictToNonNegative;
+    /** Amount of error to accept when checking for optimality. */
+    private final double epsilon;
+    /** Values smaller than the cut-off are not selected as pivot. */
+    private final double cutOff;
+    /** Number of decision variables of the original problem. */
+    private final int numOriginalVariables;
+    /** Index of the first slack variable. */
+    private final int slackOffset;
+    /** Index of the first artificial variable. */
+    private final int artificialOffset;
+    /** Number of constraints. */
+    private final int numConstraints;
+    /** Relationship of each constraint, after normalization of the right-hand side sign. */
+    private final Relationship[] relationships;
+    /** Total number of variables. */
+    private final int numVariables;
+    /** The entries of column {@code j} are stored at {@code columnPointers[j]} to {@code columnPointers[j + 1] - 1}. */
+    private final int[] columnPointers;
+    /** Row index of each entry of the constraint matrix. */
+    private final int[] rowIndices;
+    /** Value of each entry of the constraint matrix. */
+    private final double[] entries;
+    /** Right-hand side of the constraints. */
+    private final double[] rhs;
+    /** Cost of each variable in the phase 2 objective (to be minimized). */
+    private final double[] cost;
+    /** Basic variable of each row. */
+    private int[] basicVariables;
+    /** Row of each basic variable, -1 for the non-basic ones. */
+    private final int[] basicRows;
+    /** Value of the basic variable of each row. */
+    private final double[] basicValues;
+    /** Whether the phase 1 objective is being minimized. */
+    private boolean phase1;
+    /** Number of eta matrices. */
+    private int etaCount;
+    /** Number of eta matrices after the last refactorization. */
+    private int etaBase;
+    /** Pivot row of each eta matrix. */
+    private int[] etaRows;
+    /** Pivot value of each eta matrix. */
+    private double[] etaPivots;
+    /** The off-pivot entries of eta matrix {@code k} are stored at {@code etaStarts[k]} to {@code etaStarts[k + 1] - 1}. */
+    private int[] etaStarts;
+    /** Row index of the off-pivot entries of the eta matrices. */
+    private int[] etaIndices;
+    /** Value of the off-pivot entries of the eta matrices. */
+    private double[] etaValues;
+
+    /**
+     * Builds the initial state for a linear problem: the basic variables are
+     * the slack variables of the "less than or equal" constraints and the
+     * artificial variables of the other constraints.
+     *
+     * @param f Linear objective function.
+     * @param constraints Linear constraints.
+     * @param goalType Type of optimization goal.
+     * @param restrictToNonNegative Whether to restrict the variables to
+     * non-negative values.
+     * @param epsilon Amount of error to accept when checking for optimality.
+     * @param cutOff Values smaller than the cut-off are not selected as pivot.
+     * @throws DimensionMismatchException if the dimension of the constraints
+     * does not match the dimension of the objective function.
+     */
+    RevisedSimplex(final LinearObjectiveFunction f,
+                   final Collection<LinearConstraint> constraints,
+                   final GoalType goalType,
+                   final boolean restrictToNonNegative,
+                   final double epsilon,
+                   final double cutOff) {
+        this.f = f;
+        this.restrictToNonNegative = restrictToNonNegative;
+        this.epsilon = epsilon;
+        this.cutOff = cutOff;
+
+        final RealVector objective = f.getCoefficients();
+        numOriginalVariables = objective.getDimension();
+        numConstraints = constraints.size();
+        final LinearConstraint[] normalized = new LinearConstraint[numConstraints];
+        int numSlack = 0;
+        int numArtificial = 0;
+        int count = 0;
+        for (final LinearConstraint constraint : constraints) {
+            final int dimension = constraint.getCoefficients().getDimension();
+            if (dimension != numOriginalVariables) {
+                throw new DimensionMismatchException(dimension, numOriginalVariables);
+            }
+            final LinearConstraint c = constraint.getValue() < 0 ?
+                new LinearConstraint(constraint.getCoefficients().mapMultiply(-1),
+                                     constraint.getRelationship().oppositeRelationship(),
+                                     -constraint.getValue()) :
+                constraint;
+            if (c.getRelationship() != Relationship.EQ) {
+                ++numSlack;
+            }
+            if (c.getRelationship() != Relationship.LEQ) {
+                ++numArtificial;
+            }
+            normalized[count++] = c;
+        }
+        relationships = new Relationship[numConstraints];
+        for (int i = 0; i < numConstraints; i++) {
+            relationships[i] = normalized[i].getRelationship();
+        }
+        slackOffset = numOriginalVariables + (restrictToNonNegative ? 0 : 1);
+        artificialOffset = slackOffset + numSlack;
+        numVariables = artificialOffset + numArtificial;
+
+        // Costs.
+        final double sign = goalType == GoalType.MAXIMIZE ? -1 : 1;
+        cost = new double[numVariables];
+        double negativeCost = 0;
+        for (int j = 0; j < numOriginalVariables; j++) {
+            cost[j] = sign * objective.getEntry(j);
+            negativeCost -= cost[j];
+        }
+        if (!restrictToNonNegative) {
+            cost[numOriginalVariables] = negativeCost;
+        }
+
+        // Constraint matrix, and initial basis.
+        rhs = new double[numConstraints];
+        basicVariables = new int[numConstraints];
+        basicRows = new int[numVariables];
+        Arrays.fill(basicRows, -1);
+        final int[] counts = new int[numVariables + 1];
+        final double[] negativeColumn = new double[numConstraints];
+        final double[][] coefficients = new double[numConstraints][];
+        for (int i = 0; i < numConstraints; i++) {
+            final double[] a = normalized[i].getCoefficients().toArray();
+            coefficients[i] = a;
+            for (int j = 0; j < numOriginalVariables; j++) {
+                if (a[j] != 0) {
+                    ++counts[j + 1];
+                    negativeColumn[i] -= a[j];
+                }
+            }
+            if (!restrictToNonNegative && negativeColumn[i] != 0) {
+                ++counts[numOriginalVariables + 1];
+            }
+        }
+        for (int j = slackOffset; j < numVariables; j++) {
+            counts[j + 1] = 1;
+        }
+        columnPointers = new int[numVariables + 1];
+        for (int j = 0; j < numVariables; j++) {
+            columnPointers[j + 1] = columnPointers[j] + counts[j + 1];
+        }
+        rowIndices = new int[columnPointers[numVariables]];
+        entries = new double[columnPointers[numVariables]];
+        final int[] next = Arrays.copyOf(columnPointers, numVariables);
+        int slack = slackOffset;
+        int artificial = artificialOffset;
+        for (int i = 0; i < numConstraints; i++) {
+            final LinearConstraint c = normalized[i];
+            final double[] a = coefficients[i];
+            for (int j = 0; j < numOriginalVariables; j++) {
+                if (a[j] != 0) {
+                    final int k = next[j]++;
+                    rowIndices[k] = i;
+                    entries[k] = a[j];
+                }
+            }
+            if (!restrictToNonNegative && negativeColumn[i] != 0) {
+                final int k = next[numOriginalVariables]++;
+                rowIndices[k] = i;
+                entries[k] = negativeColumn[i];
+            }
+            rhs[i] = c.getValue();
+            if (c.getRelationship() != Relationship.EQ) {
+                final int k = next[slack]++;
+                rowIndices[k] = i;
+                entries[k] = c.getRelationship() == Relationship.LEQ ? 1 : -1;
+                if (c.getRelationship() == Relationship.LEQ) {
+                    setBasic(i, slack);
+                }
+                ++slack;
+            }
+            if (c.getRelationship() != Relationship.LEQ) {
+                final int k = next[artificial]++;
+                rowIndices[k] = i;
+                entries[k] = 1;
+                setBasic(i, artificial);
+                ++artificial;
+            }
+        }
+        basicValues = rhs.clone();
+
+        etaRows = new int[INITIAL_CAPACITY];
+        etaPivots = new double[INITIAL_CAPACITY];
+        etaStarts = new int[INITIAL_CAPACITY + 1];
+        etaIndices = new int[INITIAL_CAPACITY];
+        etaValues = new double[INITIAL_CAPACITY];
+
+        phase1 = numArtificial > 0;
+    }
+
+    /**
+     * @return the number of artificial variables.
+     */
+    int getNumArtificialVariables() {
+        return numVariables - artificialOffset;
+    }
+
+    /**
+     * @return whether the phase 1 objective is being minimized.
+     */
+    boolean isPhase1() {
+        return phase1;
+    }
+
+    /**
+     * Checks whether the phase 1 objective (the sum of the artificial
+     * variables) is zero, i.e. whether the current basic solution is
+     * feasible for the original problem.
+     *
+     * @return {@code true} if the current solution is feasible.
+     */
+    boolean isFeasible() {
+        double w = 0;
+        for (int i = 0; i < numConstraints; i++) {
+            if (isArtificial(basicVariables[i])) {
+                w += basicValues[i];
+            }
+        }
+        return Precision.equals(w, 0d, epsilon);
+    }
+
+    /**
+     * Switches to the minimization of the original objective. The artificial
+     * variables which are still basic (at zero level) are driven out of the
+     * basis by the ratio test, as soon as possible; the other ones are
+     * never selected again.
+     */
+    void startPhase2() {
+        phase1 = false;
+    }
+
+    /**
+     * Restarts from the given basis, skipping phase 1. The basis is used if
+     * the standard form of the problem has the same layout (a change of sign
+     * of a right-hand side flips the relationship of its constraint, hence
+     * changes the slack and artificial variables), if it is not singular,
+     * and if the corresponding basic solution is either feasible, or optimal
+     * for the phase 2 objective (in which case the dual Simplex method must
+     * be run until the solution is feasible).
+     *
+     * @param basis Basis of a previous solve.
+     * @return {@code true} if the basis is used, {@code false} if the state
+     * is left unchanged.
+     * @throws DimensionMismatchException if the basis does not match the
+     * dimensions of the problem.
+     */
+    boolean warmStart(final SimplexBasis basis) {
+        if (basis.getNumConstraints() != numConstraints) {
+            throw new DimensionMismatchException(basis.getNumConstraints(), numConstraints);
+        }
+        if (!basis.hasRelationships(relationships)) {
+            // The slack and artificial variables do not match.
+            return false;
+        }
+        if (basis.getNumVariables() != numVariables) {
+            throw new DimensionMismatchException(basis.getNumVariables(), numVariables);
+        }
+
+        final int[] initialBasicVariables = basicVariables.clone();
+        final boolean initialPhase1 = phase1;
+        setBasis(basis.getBasicVariables());
+        phase1 = false;
+        try {
+            refactorize();
+            if (isPrimalFeasible() ||
+                getPivotColumn(PivotSelectionRule.DANTZIG) == null) {
+                return true;
+            }
+        } catch (MathIllegalStateException e) {
+            // The basis is singular for the current coefficients.
+        }
+
+        // The initial basis only contains unit columns: no eta matrix is needed.
+        setBasis(initialBasicVariables);
+        refactorize();
+        phase1 = initialPhase1;
+        return false;
+    }
+
+    /**
+     * Selects the row of the variable leaving the basis in the dual Simplex
+     * method, i.e. a row whose basic variable is negative, or an artificial
+     * variable which is not zero.
+     *
+     * @param rule Pivot selection rule.
+     * @return the pivot row, or {@code null} if the current solution is
+     * feasible.
+     */
+    Integer getDualPivotRow(final PivotSelectionRule rule) {
+        double maxInfeasibility = 0;
+        Integer maxRow = null;
+        for (int i = 0; i < numConstraints; i++) {
+            final double value = basicValues[i];
+            final double infeasibility = isArtificial(basicVariables[i]) ?
+                JdkMath.abs(value) :
+                -value;
+            if (Precision.compareTo(infeasibility, 0d, epsilon) > 0) {
+                if (rule == PivotSelectionRule.BLAND) {
+                    // Bland's rule: chose the leaving variable with the lowest index.
+                    if (maxRow == null ||
+                        basicVariables[i] < basicVariables[maxRow]) {
+                        maxRow = i;
+                    }
+                } else if (infeasibility > maxInfeasibility) {
+                    maxInfeasibility = infeasibility;
+                    maxRow = i;
+                }
+            }
+        }
+        return maxRow;
+    }
+
+    /**
+     * Selects the variable entering the basis in the dual Simplex method,
+     * with the ratio test on the reduced costs that keeps the current
+     * solution optimal. Ties are broken by choosing the variable with the
+     * lowest index.
+     *
+     * @param row Pivot row, as returned by
+     * {@link #getDualPivotRow(PivotSelectionRule)}.
+     * @return the entering variable, or {@code null} if the problem has no
+     * feasible solution.
+     */
+    Integer getDualPivotColumn(final int row) {
+        final double[] y = getMultipliers();
+        // Row of B^-1 A: rho^T A, with rho = e_row^T B^-1.
+        final double[] rho = new double[numConstraints];
+        rho[row] = 1;
+        btran(rho);
+        final double sign = basicValues[row] < 0 ? -1 : 1;
+
+        double minRatio = Double.POSITIVE_INFINITY;
+        Integer minPos = null;
+        for (int j = 0; j < artificialOffset; j++) {
+            if (basicRows[j] >= 0) {
+                continue;
+            }
+            double alpha = 0;
+            double reducedCost = getCost(j);
+            for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++) {
+                alpha += rho[rowIndices[k]] * entries[k];
+                reducedCost -= y[rowIndices[k]] * entries[k];
+            }
+            alpha *= sign;
+            if (Precision.compareTo(alpha, 0d, cutOff) > 0) {
+                final double ratio = JdkMath.max(reducedCost, 0d) / alpha;
+                if (ratio < minRatio) {
+                    minRatio = ratio;
+                    minPos = j;
+                }
+            }
+        }
+        return minPos;
+    }
+
+    /**
+     * Selects the variable entering the basis.
+     *
+     * @param rule Pivot selection rule.
+     * @return the entering variable, or {@code null} if the current solution
+     * is optimal for the current objective.
+     */
+    Integer getPivotColumn(final PivotSelectionRule rule) {
+        final double[] y = getMultipliers();
+
+        double minValue = 0;
+        Integer minPos = null;
+        final int end = phase1 ? numVariables : artificialOffset;
+        for (int j = 0; j < end; j++) {
+            if (basicRows[j] >= 0) {
+                continue;
+            }
+            double reducedCost = getCost(j);
+            for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++) {
+                reducedCost -= y[rowIndices[k]] * entries[k];
+            }
+            if (reducedCost < minValue &&
+                Precision.compareTo(reducedCost, 0d, epsilon) < 0) {
+                minValue = reducedCost;
+                minPos = j;
+                // Bland's rule: chose the entering column with the lowest index.
+                if (rule == PivotSelectionRule.BLAND) {
+                    break;
+                }
+            }
+        }
+        return minPos;
+    }
+
+    /**
+     * Expresses a column of the constraint matrix in terms of the current
+     * basis.
+     *
+     * @param col Column index.
+     * @return B<sup>-1</sup> a<sub>col</sub>.
+     */
+    double[] getColumn(final int col) {
+        final double[] d = new double[numConstraints];
+        for (int k = columnPointers[col]; k < columnPointers[col + 1]; k++) {
+            d[rowIndices[k]] = entries[k];
+        }
+        ftran(d);
+        return d;
+    }
+
+    /**
+     * Selects the row of the variable leaving the basis, with the minimum
+     * ratio test. Ties are broken as in {@link SimplexSolver}: artificial
+     * variables are preferred, then the variable with the lowest index.
+     *
+     * @param column Entering column, as returned by {@link #getColumn(int)}.
+     * @return the pivot row, or {@code null} if the problem is unbounded.
+     */
+    Integer getPivotRow(final double[] column) {
+        int minRow = -1;
+        double minRatio = Double.MAX_VALUE;
+        for (int i = 0; i < numConstraints; i++) {
+            final double entry = column[i];
+            final int variable = basicVariables[i];
+            final double ratio;
+            if (!phase1 &&
+                isArtificial(variable) &&
+                Precision.compareTo(JdkMath.abs(entry), 0d, cutOff) > 0) {
+                // Artificial variable at zero level: it must leave the basis
+                // before it can become non-zero.
+                ratio = 0;
+            } else if (Precision.compareTo(entry, 0d, cutOff) > 0) {
+                ratio = JdkMath.abs(basicValues[i] / entry);
+            } else {
+                continue;
+            }
+            final int cmp = Double.compare(ratio, minRatio);
+            if (cmp < 0 ||
+                cmp == 0 && minRow >= 0 && isPreferred(variable, basicVariables[minRow])) {
+                minRatio = ratio;
+                minRow = i;
+            }
+        }
+        return minRow < 0 ? null : minRow;
+    }
+
+    /**
+     * Tie-breaking rule for the leaving variable.
+     *
+     * @param candidate Candidate variable.
+     * @param current Currently selected variable.
+     * @return {@code true} if {@code candidate} should be selected instead of
+     * {@code current}.
+     */
+    private boolean isPreferred(final int candidate,
+                                final int current) {
+        final boolean a = isArtificial(candidate);
+        final boolean b = isArtificial(current);
+        if (a != b) {
+            return a;
+        }
+        return candidate < current;
+    }
+
+    /**
+     * Performs a pivot: the variable {@code col} enters the basis, and the
+     * basic variable of row {@code row} leaves it.
+     *
+     * @param col Entering variable.
+     * @param row Pivot row.
+     * @param column Entering column, as returned by {@link #getColumn(int)}.
+     */
+    void pivot(final int col,
+               final int row,
+               final double[] column) {
+        final double theta = basicValues[row] / column[row];
+        for (int i = 0; i < numConstraints; i++) {
+            basicValues[i] -= theta * column[i];
+        }
+        basicValues[row] = theta;
+        addEta(row, column);
+        basicRows[basicVariables[row]] = -1;
+        setBasic(row, col);
+
+        if (etaCount - etaBase >= REFACTORIZATION_INTERVAL) {
+            refactorize();
+        }
+    }
+
+    /**
+     * Recomputes the product form of the inverse of the current basis from
+     * scratch, and the values of the basic variables. The unit columns are
+     * placed first, so that they do not require any eta matrix; each other
+     * basic column is then pivoted on the row, among those still available,
+     * with the largest entry (in absolute value).
+     *
+     * @throws MathIllegalStateException if the basis is numerically singular.
+     */
+    void refactorize() {
+        etaCount = 0;
+        final int[] variables = basicVariables;
+        final int[] newBasicVariables = new int[numConstraints];
+        final boolean[] assigned = new boolean[numConstraints];
+        final boolean[] done = new boolean[numConstraints];
+        for (int i = 0; i < numConstraints; i++) {
+            final int j = variables[i];
+            final int k = columnPointers[j];
+            if (columnPointers[j + 1] - k == 1 &&
+                entries[k] == 1 &&
+                !assigned[rowIndices[k]]) {
+                assigned[rowIndices[k]] = true;
+                newBasicVariables[rowIndices[k]] = j;
+                done[i] = true;
+            }
+        }
+        for (int i = 0; i < numConstraints; i++) {
+            if (done[i]) {
+                continue;
+            }
+            final int j = variables[i];
+            final double[] d = getColumn(j);
+            int row = -1;
+            double max = 0;
+            for (int r = 0; r < numConstraints; r++) {
+                if (!assigned[r] && JdkMath.abs(d[r]) > max) {
+                    max = JdkMath.abs(d[r]);
+                    row = r;
+                }
+            }
+            if (row < 0 || Precision.compareTo(max, 0d, cutOff) <= 0) {
+                throw new MathIllegalStateException(LocalizedFormats.SINGULAR_MATRIX);
+            }
+            addEta(row, d);
+            assigned[row] = true;
+            newBasicVariables[row] = j;
+        }
+        basicVariables = newBasicVariables;
+        for (int i = 0; i < numConstraints; i++) {
+            basicRows[basicVariables[i]] = i;
+        }
+        etaBase = etaCount;
+
+        System.arraycopy(rhs, 0, basicValues, 0, numConstraints);
+        ftran(basicValues);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PointValuePair getSolution() {
+        final double mostNegative = restrictToNonNegative ? 0 : getValue(numOriginalVariables);
+        final double[] coefficients = new double[numOriginalVariables];
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = getValue(i) - mostNegative;
+        }
+        return new PointValuePair(coefficients, f.value(coefficients));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isOptimal() {
+        return !phase1 &&
+            isPrimalFeasible() &&
+            getPivotColumn(PivotSelectionRule.DANTZIG) == null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SimplexBasis getBasis() {
+        return new SimplexBasis(numVariables, relationships, basicVariables);
+    }
+
+    /**
+     * @return whether the current basic solution is feasible.
+     */
+    private boolean isPrimalFeasible() {
+        for (int i = 0; i < numConstraints; i++) {
+            final double value = basicValues[i];
+            if (Precision.compareTo(value, 0d, epsilon) < 0 ||
+                isArtificial(basicVariables[i]) &&
+                Precision.compareTo(value, 0d, epsilon) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the Simplex multipliers y<sup>T</sup> =
+     * c<sub>B</sub><sup>T</sup> B<sup>-1</sup>.
+     *
+     * @return the multipliers.
+     */
+    private double[] getMultipliers() {
+        final double[] y = new double[numConstraints];
+        for (int i = 0; i < numConstraints; i++) {
+            y[i] = getCost(basicVariables[i]);
+        }
+        btran(y);
+        return y;
+    }
+
+    /**
+     * @param j Variable index.
+     * @return the value of the variable in the current basic solution.
+     */
+    private double getValue(final int j) {
+        final int row = basicRows[j];
+        return row < 0 ? 0 : basicValues[row];
+    }
+
+    /**
+     * @param j Variable index.
+     * @return the cost of the variable in the current objective.
+     */
+    private double getCost(final int j) {
+        if (phase1) {
+            return isArtificial(j) ? 1 : 0;
+        }
+        return cost[j];
+    }
+
+    /**
+     * @param j Variable index.
+     * @return whether the variable is artificial.
+     */
+    private boolean isArtificial(final int j) {
+        return j >= artificialOffset;
+    }
+
+    /**
+     * @param variables Basic variable of each row.
+     */
+    private void setBasis(final int[] variables) {
+        Arrays.fill(basicRows, -1);
+        for (int i = 0; i < numConstraints; i++) {
+            setBasic(i, variables[i]);
+        }
+    }
+
+    /**
+     * @param row Row index.
+     * @param j Variable to be made basic in that row.
+     */
+    private void setBasic(final int row,
+                          final int j) {
+        basicVariables[row] = j;
+        basicRows[j] = row;
+    }
+
+    /**
+     * Solves B.x = a in place (forward transformation).
+     *
+     * @param x On input, the vector a; on output, the solution x.
+     */
+    private void ftran(final double[] x) {
+        for (int e = 0; e < etaCount; e++) {
+            final int r = etaRows[e];
+            final double xr = x[r] / etaPivots[e];
+            x[r] = xr;
+            if (xr != 0) {
+                for (int k = etaStarts[e]; k < etaStarts[e + 1]; k++) {
+                    x[etaIndices[k]] -= etaValues[k] * xr;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves y<sup>T</sup>.B = c<sup>T</sup> in place (backward
+     * transformation).
+     *
+     * @param y On input, the vector c; on output, the solution y.
+     */
+    private void btran(final double[] y) {
+        for (int e = etaCount - 1; e >= 0; e--) {
+            final int r = etaRows[e];
+            double s = y[r];
+            for (int k = etaStarts[e]; k < etaStarts[e + 1]; k++) {
+                s -= etaValues[k] * y[etaIndices[k]];
+            }
+            y[r] = s / etaPivots[e];
+        }
+    }
+
+    /**
+     * Appends an eta matrix to the product form of the inverse of the basis.
+     *
+     * @param row Pivot row.
+     * @param column Entering column, expressed in terms of the previous basis.
+     */
+    private void addEta(final int row,
+                        final double[] column) {
+        if (etaCount == etaRows.length) {
+            final int capacity = 2 * etaCount;
+            etaRows = Arrays.copyOf(etaRows, capacity);
+            etaPivots = Arrays.copyOf(etaPivots, capacity);
+            etaStarts = Arrays.copyOf(etaStarts, capacity + 1);
+        }
+        int size = etaStarts[etaCount];
+        for (int i = 0; i < numConstraints; i++) {
+            if (i != row && column[i] != 0) {
+                if (size == etaIndices.length) {
+                    etaIndices = Arrays.copyOf(etaIndices, 2 * size);
+                    etaValues = Arrays.copyOf(etaValues, 2 * size);
+                }
+                etaIndices[size] = i;
+                etaValues[size] = column[i];
+                ++size;
+            }
+        }
+        etaRows[etaCount] = row;
+        etaPivots[etaCount] = column[row];
+        ++etaCount;
+        etaStarts[etaCount] = size;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.optim.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.optim.OptimizationData;
+
+/**
+ * Basis of a linear problem, i.e. the set of basic variables of a Simplex
+ * solution, as retrieved by a {@link SolutionCallback}.
+ * <p>
+ * Passing the basis of a previous solve to the {@link SimplexSolver}, with
+ * the {@link SimplexMethod#REVISED revised Simplex method}, makes it start
+ * from that basis instead of running phase 1 from scratch. This is useful
+ * when solving a sequence of problems which only differ by the coefficients
+ * of the objective function or by the right-hand sides of the constraints:
+ * <ul>
+ *  <li>if the basis is still feasible (e.g. after a change of the objective
+ *   function), the primal Simplex method is resumed from it;</li>
+ *  <li>if it is still optimal for the objective function, but no longer
+ *   feasible (e.g. after a change of the right-hand sides), the dual Simplex
+ *   method is used to restore feasibility;</li>
+ *  <li>otherwise, the basis is discarded.</li>
+ * </ul>
+ * The problem must have the same number of variables and the same
+ * constraints, up to the coefficient values, as the problem from which the
+ * basis was retrieved. The basis is also discarded if the sign of a
+ * right-hand side has changed, since the constraint is then flipped in the
+ * standard form, with different slack and artificial variables.
+ * <p>
+ * Instances of this class are immutable.
+ *
+ * @since 4.0
+ */
+public final class SimplexBasis implements OptimizationData {
+    /** Number of variables of the problem in standard form. */
+    private final int numVariables;
+    /** Relationship of each constraint in standard form. */
+    private final Relationship[] relationships;
+    /** Basic variable of each constraint. */
+    private final int[] basicVariables;
+
+    /**
+     * @param numVariables Number of variables of the problem in standard form.
+     * @param relationships Relationship of each constraint in standard form,
+     * i.e. with a non-negative right-hand side (the array is copied).
+     * @param basicVariables Basic variable of each constraint (the array is
+     * copied).
+     */
+    SimplexBasis(int numVariables,
+                 Relationship[] relationships,
+                 int[] basicVariables) {
+        this.numVariables = numVariables;
+        this.relationships = relationships.clone();
+        this.basicVariables = basicVariables.clone();
+    }
+
+    /**
+     * @return the number of variables of the problem in standard form.
+     */
+    int getNumVariables() {
+        return numVariables;
+    }
+
+    /**
+     * @return the number of constraints.
+     */
+    int getNumConstraints() {
+        return basicVariables.length;
+    }
+
+    /**
+     * @param standardRelationships Relationship of each constraint of a
+     * problem in standard form.
+     * @return {@code true} if the constraints of the problem in standard form
+     * have the same relationships as the ones of this basis.
+     */
+    boolean hasRelationships(Relationship[] standardRelationships) {
+        return Arrays.equals(relationships, standardRelationships);
+    }
+
+    /**
+     * @return a copy of the basic variable of each constraint.
+     */
+    int[] getBasicVariables() {
+        return basicVariables.clone();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.optim.linear;
+
+import org.apache.commons.math4.legacy.optim.OptimizationData;
+
+/**
+ * Representation of the linear problem used by a Simplex solver.
+ *
+ * @since 4.0
+ */
+public enum SimplexMethod implements OptimizationData {
+    /**
+     * The whole problem is stored in a dense tableau, which is updated at
+     * each pivot. This is well suited to small problems.
+     */
+    TABLEAU,
+    /**
+     * The revised Simplex method: the constraint matrix is stored in sparse
+     * form and is never modified; only a factorization of the current basis
+     * is updated at each pivot. The memory requirements are proportional to
+     * the number of non-zero coefficients of the constraints (plus a few
+     * vectors whose size is the number of constraints), which makes it
+     * suitable for large sparse problems.
+     */
+    REVISED
+}
@@ -37,6 +37,8 @@ import org.apache.commons.numbers.core.Precision;
  *    - optional, default: {@link org.apache.commons.math4.legacy.optim.nonlinear.scalar.GoalType#MINIMIZE MINIMIZE}</li>
  *   <li>whether to allow negative values as solution: {@link NonNegativeConstraint} - optional, default: true</li>
  *   <li>pivot selection rule: {@link PivotSelectionRule} - optional, default {@link PivotSelectionRule#DANTZIG}</li>
+ *   <li>representation of the problem: {@link SimplexMethod} - optional, default {@link SimplexMethod#TABLEAU}</li>
+ *   <li>starting basis: {@link SimplexBasis} - optional, only used by {@link SimplexMethod#REVISED}</li>
  *   <li>callback for the best solution: {@link SolutionCallback} - optional</li>
  *   <li>maximum number of iterations: {@link org.apache.commons.math4.legacy.optim.MaxIter} - optional, default: {@link Integer#MAX_VALUE}</li>
  * </ul>
@@ -59,6 +61,17 @@ import org.apache.commons.numbers.core.Precision;
  * and are thus not considered by the pivot selection mechanism. The default value is safe
  * for many problems, but may need to be adjusted in case of very small coefficients
  * used in either the {@link LinearConstraint} or {@link LinearObjectiveFunction}.
+ * <p>
+ * By default, the whole problem is stored in a dense tableau. Large sparse
+ * problems should rather be solved with the {@link SimplexMethod#REVISED
+ * revised Simplex method}, which keeps the constraints in sparse form; in
+ * that case, the coefficients are not rescaled, and the pivot selection rules
+ * apply to the reduced costs computed from the factorized basis.
+ * <p>
+ * When solving a sequence of similar problems with the revised Simplex method,
+ * the final basis of a solve can be retrieved with a {@link SolutionCallback},
+ * and passed to the next solve in order to skip phase 1 (see
+ * {@link SimplexBasis}).
  *
  * @since 2.0
  */
@@ -87,6 +100,12 @@ public class SimplexSolver extends LinearOptimizer {
     /** The pivot selection method to use. */
     private PivotSelectionRule pivotSelection;
 
+    /** The representation of the problem. */
+    private SimplexMethod method;
+
+    /** The basis to start from, if any. */
+    private SimplexBasis startBasis;
+
     /**
      * The solution callback to access the best solution found so far in case
      * the optimizer fails to find an optimal solution within the iteration limits.
@@ -131,6 +150,7 @@ public class SimplexSolver extends LinearOptimizer {
         this.maxUlps = maxUlps;
         this.cutOff = cutOff;
         this.pivotSelection = PivotSelectionRule.DANTZIG;
+        this.method = SimplexMethod.TABLEAU;
     }
 
     /**
@@ -142,6 +162,8 @@ public class SimplexSolver extends LinearOptimizer {
      * <ul>
      *  <li>{@link SolutionCallback}</li>
      *  <li>{@link PivotSelectionRule}</li>
+     *  <li>{@link SimplexMethod}</li>
+     *  <li>{@link SimplexBasis}</li>
      * </ul>
      *
      * @return {@inheritDoc}
@@ -166,6 +188,8 @@ public class SimplexSolver extends LinearOptimizer {
      * <ul>
      *  <li>{@link SolutionCallback}</li>
      *  <li>{@link PivotSelectionRule}</li>
+     *  <li>{@link SimplexMethod}</li>
+     *  <li>{@link SimplexBasis}</li>
      * </ul>
      */
     @Override
@@ -173,8 +197,9 @@ public class SimplexSolver extends LinearOptimizer {
         // Allow base class to register its own data.
         super.parseOptimizationData(optData);
 
-        // reset the callback before parsing
+        // reset the callback and the starting basis before parsing
         solutionCallback = null;
+        startBasis = null;
 
         for (OptimizationData data : optData) {
             if (data instanceof SolutionCallback) {
@@ -185,6 +210,14 @@ public class SimplexSolver extends LinearOptimizer {
                 pivotSelection = (PivotSelectionRule) data;
                 continue;
             }
+            if (data instanceof SimplexMethod) {
+                method = (SimplexMethod) data;
+                continue;
+            }
+            if (data instanceof SimplexBasis) {
+                startBasis = (SimplexBasis) data;
+                continue;
+            }
         }
     }
 
@@ -358,6 +391,116 @@ public class SimplexSolver extends LinearOptimizer {
         }
     }
 
+    /**
+     * Runs one iteration of the revised Simplex method.
+     *
+     * @param simplex State of the revised Simplex method.
+     * @return {@code false} if the current solution is optimal (in which case
+     * no iteration is performed).
+     * @throws TooManyIterationsException if the allowed number of iterations has been exhausted.
+     * @throws UnboundedSolutionException if the model is found not to have a bounded solution.
+     */
+    private boolean doIteration(final RevisedSimplex simplex)
+        throws TooManyIterationsException,
+               UnboundedSolutionException {
+        final Integer pivotCol = simplex.getPivotColumn(pivotSelection);
+        if (pivotCol == null) {
+            return false;
+        }
+
+        incrementIterationCount();
+
+        final double[] column = simplex.getColumn(pivotCol);
+        final Integer pivotRow = simplex.getPivotRow(column);
+        if (pivotRow == null) {
+            throw new UnboundedSolutionException();
+        }
+
+        simplex.pivot(pivotCol, pivotRow, column);
+        return true;
+    }
+
+    /**
+     * Runs one iteration of the dual Simplex method.
+     *
+     * @param simplex State of the revised Simplex method.
+     * @return {@code false} if the current solution is feasible (in which case
+     * no iteration is performed).
+     * @throws TooManyIterationsException if the allowed number of iterations has been exhausted.
+     * @throws NoFeasibleSolutionException if there is no feasible solution.
+     */
+    private boolean doDualIteration(final RevisedSimplex simplex)
+        throws TooManyIterationsException,
+               NoFeasibleSolutionException {
+        final Integer pivotRow = simplex.getDualPivotRow(pivotSelection);
+        if (pivotRow == null) {
+            return false;
+        }
+
+        incrementIterationCount();
+
+        final Integer pivotCol = simplex.getDualPivotColumn(pivotRow);
+        if (pivotCol == null) {
+            throw new NoFeasibleSolutionException();
+        }
+
+        simplex.pivot(pivotCol, pivotRow, simplex.getColumn(pivotCol));
+        return true;
+    }
+
+    /**
+     * Solves the problem with the revised Simplex method.
+     *
+     * @return the solution.
+     * @throws TooManyIterationsException if the allowed number of iterations has been exhausted.
+     * @throws UnboundedSolutionException if the model is found not to have a bounded solution.
+     * @throws NoFeasibleSolutionException if there is no feasible solution.
+     */
+    private PointValuePair doOptimizeRevised()
+        throws TooManyIterationsException,
+               UnboundedSolutionException,
+               NoFeasibleSolutionException {
+        final RevisedSimplex simplex =
+            new RevisedSimplex(getFunction(),
+                               getConstraints(),
+                               getGoalType(),
+                               isRestrictedToNonNegative(),
+                               epsilon,
+                               cutOff);
+
+        if (startBasis != null && simplex.warmStart(startBasis)) {
+            // Keep pivoting until the solution is feasible.
+            boolean pivoting = true;
+            while (pivoting) {
+                pivoting = doDualIteration(simplex);
+            }
+        } else if (simplex.isPhase1()) {
+            // Phase 1: keep pivoting until the sum of the artificial variables
+            // is minimal.
+            boolean pivoting = true;
+            while (pivoting) {
+                pivoting = doIteration(simplex);
+            }
+            if (!simplex.isFeasible()) {
+                throw new NoFeasibleSolutionException();
+            }
+            simplex.startPhase2();
+        }
+
+        // after phase 1, we are sure to have a feasible solution
+        if (solutionCallback != null) {
+            solutionCallback.setTableau(simplex);
+        }
+
+        // Keep pivoting until the solution is optimal.
+        boolean pivoting = true;
+        while (pivoting) {
+            pivoting = doIteration(simplex);
+        }
+
+        return simplex.getSolution();
+    }
+
     /** {@inheritDoc} */
     @Override
     public PointValuePair doOptimize()
@@ -371,6 +514,38 @@ public class SimplexSolver extends LinearOptimizer {
             solutionCallback.setTableau(null);
         }
 
+        final PointValuePair solution = method == SimplexMethod.REVISED ?
+            doOptimizeRevised() :
+            doOptimizeTableau();
+
+        // check that the solution respects the nonNegative restriction in case
+        // the epsilon/cutOff values are too large for the actual linear problem
+        // (e.g. with very small constraint coefficients), the solver might actually
+        // find a non-valid solution (with negative coefficients).
+        if (isRestrictedToNonNegative()) {
+            final double[] coeff = solution.getPoint();
+            for (int i = 0; i < coeff.length; i++) {
+                if (Precision.compareTo(coeff[i], 0, epsilon) < 0) {
+                    throw new NoFeasibleSolutionException();
+                }
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * Solves the problem with the dense tableau.
+     *
+     * @return the solution.
+     * @throws TooManyIterationsException if the allowed number of iterations has been exhausted.
+     * @throws UnboundedSolutionException if the model is found not to have a bounded solution.
+     * @throws NoFeasibleSolutionException if there is no feasible solution.
+     */
+    private PointValuePair doOptimizeTableau()
+        throws TooManyIterationsException,
+               UnboundedSolutionException,
+               NoFeasibleSolutionException {
+
         final SimplexTableau tableau =
             new SimplexTableau(getFunction(),
                                getConstraints(),
@@ -391,19 +566,6 @@ public class SimplexSolver extends LinearOptimizer {
             doIteration(tableau);
         }
 
-        // check that the solution respects the nonNegative restriction in case
-        // the epsilon/cutOff values are too large for the actual linear problem
-        // (e.g. with very small constraint coefficients), the solver might actually
-        // find a non-valid solution (with negative coefficients).
-        final PointValuePair solution = tableau.getSolution();
-        if (isRestrictedToNonNegative()) {
-            final double[] coeff = solution.getPoint();
-            for (int i = 0; i < coeff.length; i++) {
-                if (Precision.compareTo(coeff[i], 0, epsilon) < 0) {
-                    throw new NoFeasibleSolutionException();
-                }
-            }
-        }
-        return solution;
+        return tableau.getSolution();
     }
 }
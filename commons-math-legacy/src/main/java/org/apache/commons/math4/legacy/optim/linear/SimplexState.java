@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.optim.linear;
+
+import org.apache.commons.math4.legacy.optim.PointValuePair;
+
+/**
+ * State of a Simplex solver, as seen by a {@link SolutionCallback}.
+ *
+ * @since 4.0
+ */
+interface SimplexState { // Not in public API.
+    /**
+     * Gets the current solution.
+     *
+     * @return the current solution.
+     */
+    PointValuePair getSolution();
+
+    /**
+     * Returns whether the problem is at an optimal state.
+     *
+     * @return whether the model has been solved.
+     */
+    boolean isOptimal();
+
+    /**
+     * Gets the current basis.
+     *
+     * @return the current basis, or {@code null} if the solver does not
+     * support starting from a given basis.
+     */
+    SimplexBasis getBasis();
+}
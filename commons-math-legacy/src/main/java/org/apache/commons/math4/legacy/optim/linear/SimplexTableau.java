@@ -64,7 +64,7 @@ import org.apache.commons.numbers.core.Precision;
  *
  * @since 2.0
  */
-class SimplexTableau {
+class SimplexTableau implements SimplexState {
 
     /** Column label for negative vars. */
     private static final String NEGATIVE_VAR_COLUMN_LABEL = "x-";
@@ -617,7 +617,8 @@ class SimplexTableau {
      * Returns whether the problem is at an optimal state.
      * @return whether the model has been solved
      */
-    boolean isOptimal() {
+    @Override
+    public boolean isOptimal() {
         final double[] objectiveFunctionRow = getRow(0);
         final int end = getRhsOffset();
         for (int i = getNumObjectiveFunctions(); i < end; i++) {
@@ -629,11 +630,21 @@ class SimplexTableau {
         return true;
     }
 
+    /**
+     * The tableau cannot be restarted from a given basis.
+     * @return {@code null}
+     */
+    @Override
+    public SimplexBasis getBasis() {
+        return null;
+    }
+
     /**
      * Get the current solution.
      * @return current solution
      */
-    protected PointValuePair getSolution() {
+    @Override
+    public PointValuePair getSolution() {
         int negativeVarColumn = columnLabels.indexOf(NEGATIVE_VAR_COLUMN_LABEL);
         Integer negativeVarBasicRow = negativeVarColumn > 0 ? getBasicRow(negativeVarColumn) : null;
         double mostNegative = negativeVarBasicRow == null ? 0 : getEntry(negativeVarBasicRow, getRhsOffset());
@@ -26,8 +26,8 @@ import org.apache.commons.math4.legacy.optim.PointValuePair;
  * @since 3.3
  */
 public class SolutionCallback implements OptimizationData {
-    /** The SimplexTableau used by the SimplexSolver. */
-    private SimplexTableau tableau;
+    /** The state of the SimplexSolver. */
+    private SimplexState tableau;
 
     /**
      * Set the simplex tableau used during the optimization once a feasible
@@ -35,7 +35,7 @@ public class SolutionCallback implements OptimizationData {
      *
      * @param tableau the simplex tableau containing a feasible solution
      */
-    void setTableau(final SimplexTableau tableau) {
+    void setTableau(final SimplexState tableau) {
         this.tableau = tableau;
     }
 
@@ -59,4 +59,20 @@ public class SolutionCallback implements OptimizationData {
     public boolean isSolutionOptimal() {
         return tableau != null && tableau.isOptimal();
     }
+
+    /**
+     * Retrieve the basis of the best solution found so far, which can be used
+     * as a starting point for solving a similar problem.
+     * <p>
+     * <b>Note:</b> the basis is only available with the
+     * {@link SimplexMethod#REVISED revised Simplex method}.
+     *
+     * @return the basis of the best solution found so far by the optimizer, or
+     * {@code null} if no feasible solution could be found or if the basis is
+     * not available
+     * @since 4.0
+     */
+    public SimplexBasis getBasis() {
+        return tableau != null ? tableau.getBasis() : null;
+    }
 }
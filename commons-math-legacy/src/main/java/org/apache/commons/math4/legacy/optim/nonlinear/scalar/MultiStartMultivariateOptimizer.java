@@ -20,9 +20,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 
 import org.apache.commons.math4.legacy.optim.BaseMultiStartMultivariateOptimizer;
+import org.apache.commons.math4.legacy.optim.OptimizationData;
 import org.apache.commons.math4.legacy.optim.PointValuePair;
 
 /**
@@ -31,15 +33,18 @@ import org.apache.commons.math4.legacy.optim.PointValuePair;
  * This class wraps an optimizer in order to use it several times in
  * turn with different starting points (trying to avoid being trapped
  * in a local extremum when looking for a global one).
+ * The search stops early when a {@link TargetValue} is reached.
  *
  * @since 3.0
  */
 public class MultiStartMultivariateOptimizer
     extends BaseMultiStartMultivariateOptimizer<PointValuePair> {
-    /** Underlying optimizer. */
-    private final MultivariateOptimizer optimizer;
     /** Found optima. */
     private final List<PointValuePair> optima = new ArrayList<>();
+    /** Type of optimization. */
+    private GoalType goal;
+    /** Target value (or {@code null}). */
+    private TargetValue target;
 
     /**
      * Create a multi-start optimizer from a single-start optimizer.
@@ -57,7 +62,59 @@ public class MultiStartMultivariateOptimizer
                                            final int starts,
                                            final Supplier<double[]> generator) {
         super(optimizer, starts, generator);
-        this.optimizer = optimizer;
+    }
+
+    /**
+     * Create a multi-start optimizer that runs each start with a new
+     * instance of the single-start optimizer, possibly concurrently.
+     *
+     * @param factory Factory of single-start optimizers (a new instance must
+     * be returned at each call).
+     * @param starts Number of starts to perform.
+     * @param generator Generator to use for restarts.
+     * @param executor Executor on which the starts are run, or {@code null}
+     * to run them in turn in the calling thread.
+     * @throws org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException NotStrictlyPositiveException if {@code starts < 1}.
+     *
+     * @see BaseMultiStartMultivariateOptimizer#BaseMultiStartMultivariateOptimizer(Supplier,int,Supplier,ExecutorService)
+     * @since 4.0
+     */
+    public MultiStartMultivariateOptimizer(final Supplier<? extends MultivariateOptimizer> factory,
+                                           final int starts,
+                                           final Supplier<double[]> generator,
+                                           final ExecutorService executor) {
+        super(factory, starts, generator, executor);
+    }
+
+    /**
+     * Scans the list of (required and optional) optimization data that
+     * characterize the problem.
+     *
+     * @param optData Optimization data. In addition to those documented in
+     * {@link org.apache.commons.math4.legacy.optim.BaseMultivariateOptimizer#parseOptimizationData(OptimizationData[])
+     * BaseMultivariateOptimizer}, this method will register the following
+     * data:
+     * <ul>
+     *  <li>{@link GoalType}</li>
+     *  <li>{@link TargetValue}</li>
+     * </ul>
+     */
+    @Override
+    protected void parseOptimizationData(OptimizationData... optData) {
+        // Allow base class to register its own data.
+        super.parseOptimizationData(optData);
+
+        target = null;
+        for (OptimizationData data : optData) {
+            if (data instanceof GoalType) {
+                goal = (GoalType) data;
+                continue;
+            }
+            if (data instanceof TargetValue) {
+                target = (TargetValue) data;
+                continue;
+            }
+        }
     }
 
     /**
@@ -85,6 +142,18 @@ public class MultiStartMultivariateOptimizer
         optima.clear();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true} if a {@link TargetValue} was specified and the
+     * value of {@code optimum} is at least as good.
+     */
+    @Override
+    protected boolean isTargetReached(PointValuePair optimum) {
+        return target != null &&
+            target.isReached(goal, optimum.getValue());
+    }
+
     /**
      * @return a comparator for sorting the optima.
      */
@@ -101,7 +170,7 @@ public class MultiStartMultivariateOptimizer
                 }
                 final double v1 = o1.getValue();
                 final double v2 = o2.getValue();
-                return (optimizer.getGoalType() == GoalType.MINIMIZE) ?
+                return (goal == GoalType.MINIMIZE) ?
                     Double.compare(v1, v2) : Double.compare(v2, v1);
             }
         };
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.optim.nonlinear.scalar;
+
+import org.apache.commons.math4.legacy.optim.OptimizationData;
+
+/**
+ * Target value of the objective function.
+ *
+ * Input data for multi-start optimizers: no further start is performed
+ * once an optimum at least as good as the target (i.e. lower or equal when
+ * minimizing, greater or equal when maximizing) has been found.
+ *
+ * @since 4.0
+ */
+public class TargetValue implements OptimizationData {
+    /** Target value. */
+    private final double value;
+
+    /**
+     * @param value Target value of the objective function.
+     */
+    public TargetValue(double value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the target value.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @param goal Goal type.
+     * @param optimum Value of the objective function at an optimum.
+     * @return {@code true} if {@code optimum} is at least as good as the
+     * target.
+     */
+    public boolean isReached(GoalType goal,
+                             double optimum) {
+        return goal == GoalType.MINIMIZE ?
+            optimum <= value :
+            optimum >= value;
+    }
+}
@@ -20,6 +20,8 @@ package org.apache.commons.math4.legacy.optim.nonlinear.scalar.noderiv;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.math4.legacy.analysis.MultivariateFunction;
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
@@ -34,9 +36,11 @@ import org.apache.commons.math4.legacy.optim.ConvergenceChecker;
 import org.apache.commons.math4.legacy.optim.OptimizationData;
 import org.apache.commons.math4.legacy.optim.PointValuePair;
 import org.apache.commons.math4.legacy.optim.nonlinear.scalar.GoalType;
+import org.apache.commons.math4.legacy.optim.nonlinear.scalar.ObjectiveFunction;
 import org.apache.commons.math4.legacy.optim.nonlinear.scalar.PopulationSize;
 import org.apache.commons.math4.legacy.optim.nonlinear.scalar.Sigma;
 import org.apache.commons.math4.legacy.optim.nonlinear.scalar.MultivariateOptimizer;
+import org.apache.commons.math4.legacy.util.ConcurrentTasks;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.statistics.distribution.ContinuousDistribution;
 import org.apache.commons.statistics.distribution.NormalDistribution;
@@ -72,6 +76,14 @@ import org.apache.commons.math4.core.jdkmath.JdkMath;
  * This implementation is translated and adapted from the Matlab version
  * of the CMA-ES algorithm as implemented in module {@code cmaes.m} version 3.51.
  * <p>
+ * The offspring of a generation can be evaluated concurrently, on an
+ * executor passed to the {@link #CMAESOptimizer(int, double, boolean, int,
+ * int, UniformRandomProvider, boolean, ConvergenceChecker, ExecutorService)
+ * constructor}; the objective function must then be thread-safe.
+ * The offspring are still generated in the calling thread, and the
+ * evaluations are counted as if they were performed sequentially, so that
+ * the result does not depend on the executor.
+ * <p>
  * For more information, please refer to the following links:
  * <ul>
  *  <li><a href="http://www.lri.fr/~hansen/cmaes.m">Matlab code</a></li>
@@ -145,7 +157,7 @@ public class CMAESOptimizer
     /** log(mu + 0.5), stored for efficiency. */
     private double logMu2;
     /** Array for weighted recombination. */
-    private RealMatrix weights;
+    private double[] weights;
     /** Variance-effectiveness of sum w_i x_i. */
     private double mueff; //
 
@@ -171,28 +183,64 @@ public class CMAESOptimizer
 
     // CMA internal values - updated each generation
     /** Objective variables. */
-    private RealMatrix xmean;
+    private double[] xmean;
+    /** Objective variables of the previous generation. */
+    private double[] xold;
     /** Evolution path. */
-    private RealMatrix pc;
+    private double[] pc;
     /** Evolution path for sigma. */
-    private RealMatrix ps;
+    private double[] ps;
     /** Norm of ps, stored for efficiency. */
     private double normps;
     /** Coordinate system. */
-    private RealMatrix B;
-    /** Scaling. */
-    private RealMatrix D;
+    private double[][] B;
     /** B*D, stored for efficiency. */
-    private RealMatrix BD;
+    private double[][] BD;
     /** Diagonal of sqrt(D), stored for efficiency. */
-    private RealMatrix diagD;
-    /** Covariance matrix. */
-    private RealMatrix C;
+    private double[] diagD;
+    /**
+     * Covariance matrix.
+     * It is kept symmetric by the updates (only the upper triangle is
+     * computed).
+     */
+    private double[][] C;
     /** Diagonal of C, used for diagonalOnly. */
-    private RealMatrix diagC;
+    private double[] diagC;
     /** Number of iterations already performed. */
     private int iterations;
 
+    // Work arrays, allocated once per optimization.
+    /** Gaussian random values of the offspring (one row per offspring). */
+    private double[][] arz;
+    /** Objective variables of the offspring (one row per offspring). */
+    private double[][] arx;
+    /** Fitness of the offspring. */
+    private double[] fitness;
+    /** Indices of the offspring, sorted by fitness. */
+    private int[] arindex;
+    /** Merge buffer of {@link #sortedIndices(double[],int[],int[])}. */
+    private int[] sortBuffer;
+    /** Weighted mean of the selected Gaussian random values. */
+    private double[] zmean;
+    /** Work array of length {@code dimension}. */
+    private double[] work;
+    /** Difference vectors of the selected offspring (one column per parent). */
+    private double[][] arpos;
+    /** Weighted difference vectors (one column per parent). */
+    private double[][] arposWeighted;
+    /** Gaussian random values of the worst offspring (one row per offspring). */
+    private double[][] arzneg;
+    /** BD times arzneg (one column per offspring). */
+    private double[][] artmp;
+    /** Weighted artmp (one column per offspring). */
+    private double[][] artmpWeighted;
+    /** Norms of the rows of arzneg. */
+    private double[] arnorms;
+    /** Indices of arnorms, in increasing order of norm. */
+    private int[] idxnorms;
+    /** Scaling factors of the rows of arzneg. */
+    private double[] arnormsInv;
+
     /** History queue of best values. */
     private double[] fitnessHistory;
     /** Size of history queue of best values. */
@@ -200,6 +248,10 @@ public class CMAESOptimizer
 
     /** Gaussian sampler. */
     private final ContinuousDistribution.Sampler random;
+    /** Executor for the evaluation of the offspring (may be {@code null}). */
+    private final ExecutorService executor;
+    /** User-supplied objective function (evaluations are not counted). */
+    private MultivariateFunction objective;
 
     /** History of sigma values. */
     private final List<Double> statisticsSigmaHistory = new ArrayList<>();
@@ -233,6 +285,37 @@ public class CMAESOptimizer
                           UniformRandomProvider rng,
                           boolean generateStatistics,
                           ConvergenceChecker<PointValuePair> checker) {
+        this(maxIterations, stopFitness, isActiveCMA, diagonalOnly,
+             checkFeasableCount, rng, generateStatistics, checker, null);
+    }
+
+    /**
+     * @param maxIterations Maximal number of iterations.
+     * @param stopFitness Whether to stop if objective function value is smaller than
+     * {@code stopFitness}.
+     * @param isActiveCMA Chooses the covariance matrix update method.
+     * @param diagonalOnly Number of initial iterations, where the covariance matrix
+     * remains diagonal.
+     * @param checkFeasableCount Determines how often new random objective variables are
+     * generated in case they are out of bounds.
+     * @param rng Random generator.
+     * @param generateStatistics Whether statistic data is collected.
+     * @param checker Convergence checker.
+     * @param executor Executor for the evaluation of the offspring of each
+     * generation, or {@code null} to evaluate them in the calling thread.
+     * When not {@code null}, the objective function must be thread-safe.
+     *
+     * @since 4.0
+     */
+    public CMAESOptimizer(int maxIterations,
+                          double stopFitness,
+                          boolean isActiveCMA,
+                          int diagonalOnly,
+                          int checkFeasableCount,
+                          UniformRandomProvider rng,
+                          boolean generateStatistics,
+                          ConvergenceChecker<PointValuePair> checker,
+                          ExecutorService executor) {
         super(checker);
         this.maxIterations = maxIterations;
         this.stopFitness = stopFitness;
@@ -241,6 +324,7 @@ public class CMAESOptimizer
         this.checkFeasableCount = Math.max(0, checkFeasableCount);
         this.random = NormalDistribution.of(0, 1).createSampler(rng);
         this.generateStatistics = generateStatistics;
+        this.executor = executor;
     }
 
     /**
@@ -329,6 +413,7 @@ public class CMAESOptimizer
             = new PointValuePair(getStartPoint(),
                                  isMinimize ? bestValue : -bestValue);
         PointValuePair lastResult = null;
+        final ValuePenaltyPair[] valuePenaltyPairs = new ValuePenaltyPair[lambda];
 
         // -------------------- Generation Loop --------------------------------
         generationLoop:
@@ -336,53 +421,64 @@ public class CMAESOptimizer
             incrementIterationCount();
 
             // Generate and evaluate lambda offspring
-            final RealMatrix arz = randn1(dimension, lambda);
-            final RealMatrix arx = zeros(dimension, lambda);
-            final double[] fitness = new double[lambda];
-            final ValuePenaltyPair[] valuePenaltyPairs = new ValuePenaltyPair[lambda];
+            randn1(arz);
             // generate random offspring
             for (int k = 0; k < lambda; k++) {
-                RealMatrix arxk = null;
+                final double[] arzk = arz[k];
+                final double[] arxk = arx[k];
                 for (int i = 0; i <= checkFeasableCount; i++) {
                     if (diagonalOnly <= 0) {
-                        arxk = xmean.add(BD.multiply(arz.getColumnMatrix(k))
-                                         .scalarMultiply(sigma)); // m + sig * Normal(0,C)
+                        // m + sig * Normal(0,C)
+                        for (int r = 0; r < dimension; r++) {
+                            final double[] bdRow = BD[r];
+                            double sum = 0;
+                            for (int c = 0; c < dimension; c++) {
+                                sum += bdRow[c] * arzk[c];
+                            }
+                            arxk[r] = xmean[r] + sum * sigma;
+                        }
                     } else {
-                        arxk = xmean.add(times(diagD,arz.getColumnMatrix(k))
-                                         .scalarMultiply(sigma));
+                        for (int r = 0; r < dimension; r++) {
+                            arxk[r] = xmean[r] + diagD[r] * arzk[r] * sigma;
+                        }
                     }
                     if (i >= checkFeasableCount ||
-                        fitfun.isFeasible(arxk.getColumn(0))) {
+                        fitfun.isFeasible(arxk)) {
                         break;
                     }
                     // regenerate random arguments for row
-                    arz.setColumn(k, randn(dimension));
+                    randn(arzk);
                 }
-                copyColumn(arxk, 0, arx, k);
-                try {
-                    valuePenaltyPairs[k] = fitfun.value(arx.getColumn(k)); // compute fitness
-                } catch (TooManyEvaluationsException e) {
-                    break generationLoop;
+                if (executor == null) {
+                    try {
+                        valuePenaltyPairs[k] = fitfun.value(arxk); // compute fitness
+                    } catch (TooManyEvaluationsException e) {
+                        break generationLoop;
+                    }
                 }
             }
+            if (executor != null &&
+                !fitfun.values(arx, valuePenaltyPairs)) {
+                break generationLoop;
+            }
             // Compute fitnesses by adding value and penalty after scaling by value range.
             double valueRange = valueRange(valuePenaltyPairs);
             for (int iValue=0;iValue<valuePenaltyPairs.length;iValue++) {
                  fitness[iValue] = valuePenaltyPairs[iValue].value + valuePenaltyPairs[iValue].penalty*valueRange;
             }
             // Sort by fitness and compute weighted mean into xmean
-            final int[] arindex = sortedIndices(fitness);
+            sortedIndices(fitness, arindex, sortBuffer);
             // Calculate new xmean, this is selection and recombination
-            final RealMatrix xold = xmean; // for speed up of Eq. (2) and (3)
-            final RealMatrix bestArx = selectColumns(arx, Arrays.copyOf(arindex, mu));
-            xmean = bestArx.multiply(weights);
-            final RealMatrix bestArz = selectColumns(arz, Arrays.copyOf(arindex, mu));
-            final RealMatrix zmean = bestArz.multiply(weights);
-            final boolean hsig = updateEvolutionPaths(zmean, xold);
+            final double[] tmp = xold; // for speed up of Eq. (2) and (3)
+            xold = xmean;
+            xmean = tmp;
+            weightedMean(arx, xmean);
+            weightedMean(arz, zmean);
+            final boolean hsig = updateEvolutionPaths();
             if (diagonalOnly <= 0) {
-                updateCovariance(hsig, bestArx, arz, arindex, xold);
+                updateCovariance(hsig);
             } else {
-                updateCovarianceDiagonalOnly(hsig, bestArz);
+                updateCovarianceDiagonalOnly(hsig);
             }
             // Adapt step size sigma - Eq. (5)
             sigma *= JdkMath.exp(JdkMath.min(1, (normps/chiN - 1) * cs / damps));
@@ -391,7 +487,7 @@ public class CMAESOptimizer
             if (bestValue > bestFitness) {
                 bestValue = bestFitness;
                 lastResult = optimum;
-                optimum = new PointValuePair(fitfun.repair(bestArx.getColumn(0)),
+                optimum = new PointValuePair(fitfun.repair(arx[arindex[0]]),
                                              isMinimize ? bestFitness : -bestFitness);
                 if (getConvergenceChecker() != null && lastResult != null &&
                     getConvergenceChecker().converged(iterations, optimum, lastResult)) {
@@ -403,20 +499,8 @@ public class CMAESOptimizer
             if (stopFitness != 0 && bestFitness < (isMinimize ? stopFitness : -stopFitness)) {
                 break generationLoop;
             }
-            final double[] sqrtDiagC = sqrt(diagC).getColumn(0);
-            final double[] pcCol = pc.getColumn(0);
-            for (int i = 0; i < dimension; i++) {
-                if (sigma * JdkMath.max(JdkMath.abs(pcCol[i]), sqrtDiagC[i]) > stopTolX) {
-                    break;
-                }
-                if (i >= dimension - 1) {
-                    break generationLoop;
-                }
-            }
-            for (int i = 0; i < dimension; i++) {
-                if (sigma * sqrtDiagC[i] > stopTolUpX) {
-                    break generationLoop;
-                }
+            if (isStepSizeOutOfRange()) {
+                break generationLoop;
             }
             final double historyBest = min(fitnessHistory);
             final double historyWorst = max(fitnessHistory);
@@ -436,7 +520,7 @@ public class CMAESOptimizer
             // user-defined termination
             if (getConvergenceChecker() != null) {
                 final PointValuePair current
-                    = new PointValuePair(bestArx.getColumn(0),
+                    = new PointValuePair(arx[arindex[0]],
                                          isMinimize ? bestFitness : -bestFitness);
                 if (lastResult != null &&
                     getConvergenceChecker().converged(iterations, current, lastResult)) {
@@ -455,15 +539,47 @@ public class CMAESOptimizer
             // store best in history
             push(fitnessHistory,bestFitness);
             if (generateStatistics) {
-                statisticsSigmaHistory.add(sigma);
-                statisticsFitnessHistory.add(bestFitness);
-                statisticsMeanHistory.add(xmean.transpose());
-                statisticsDHistory.add(diagD.transpose().scalarMultiply(1E5));
+                storeStatistics(bestFitness);
             }
         }
         return optimum;
     }
 
+    /**
+     * Checks the step size termination criteria.
+     *
+     * @return {@code true} if all the coordinate steps are below
+     * {@code stopTolX}, or if one of them exceeds {@code stopTolUpX}.
+     */
+    private boolean isStepSizeOutOfRange() {
+        boolean belowTolX = true;
+        for (int i = 0; i < dimension; i++) {
+            final double sd = sigma * JdkMath.sqrt(diagC[i]);
+            if (sd > stopTolUpX) {
+                return true;
+            }
+            if (JdkMath.max(sigma * JdkMath.abs(pc[i]), sd) > stopTolX) {
+                belowTolX = false;
+            }
+        }
+        return belowTolX;
+    }
+
+    /**
+     * Stores the statistics of the current generation.
+     *
+     * @param bestFitness Best fitness of the current generation.
+     */
+    private void storeStatistics(double bestFitness) {
+        statisticsSigmaHistory.add(sigma);
+        statisticsFitnessHistory.add(bestFitness);
+        statisticsMeanHistory.add(MatrixUtils.createRowRealMatrix(xmean));
+        for (int i = 0; i < dimension; i++) {
+            work[i] = diagD[i] * 1E5;
+        }
+        statisticsDHistory.add(MatrixUtils.createRowRealMatrix(work));
+    }
+
     /**
      * Scans the list of (required and optional) optimization data that
      * characterize the problem.
@@ -472,6 +588,7 @@ public class CMAESOptimizer
      * <ul>
      *  <li>{@link Sigma}</li>
      *  <li>{@link PopulationSize}</li>
+     *  <li>{@link ObjectiveFunction}</li>
      * </ul>
      */
     @Override
@@ -490,6 +607,10 @@ public class CMAESOptimizer
                 lambda = ((PopulationSize) data).getPopulationSize();
                 continue;
             }
+            if (data instanceof ObjectiveFunction) {
+                objective = ((ObjectiveFunction) data).getObjectiveFunction();
+                continue;
+            }
         }
 
         checkParameters();
@@ -527,31 +648,30 @@ public class CMAESOptimizer
             throw new NotStrictlyPositiveException(lambda);
         }
         // initialize sigma
-        final double[][] sigmaArray = new double[guess.length][1];
-        for (int i = 0; i < guess.length; i++) {
-            sigmaArray[i][0] = inputSigma[i];
-        }
-        final RealMatrix insigma = new Array2DRowRealMatrix(sigmaArray, false);
-        sigma = max(insigma); // overall standard deviation
+        sigma = max(inputSigma); // overall standard deviation
 
         // initialize termination criteria
-        stopTolUpX = 1e3 * max(insigma);
-        stopTolX = 1e-11 * max(insigma);
+        stopTolUpX = 1e3 * sigma;
+        stopTolX = 1e-11 * sigma;
         stopTolFun = 1e-12;
         stopTolHistFun = 1e-13;
 
         // initialize selection strategy parameters
         mu = lambda / 2; // number of parents/points for recombination
         logMu2 = JdkMath.log(mu + 0.5);
-        weights = log(sequence(1, mu, 1)).scalarMultiply(-1).scalarAdd(logMu2);
+        weights = new double[mu];
         double sumw = 0;
         double sumwq = 0;
         for (int i = 0; i < mu; i++) {
-            double w = weights.getEntry(i, 0);
+            final double w = logMu2 - JdkMath.log(i + 1);
+            weights[i] = w;
             sumw += w;
             sumwq += w * w;
         }
-        weights = weights.scalarMultiply(1 / sumw);
+        final double invSumw = 1 / sumw;
+        for (int i = 0; i < mu; i++) {
+            weights[i] *= invSumw;
+        }
         mueff = sumw * sumw / sumwq; // variance-effectiveness of sum w_i x_i
 
         // initialize dynamic strategy parameters and constants
@@ -570,43 +690,103 @@ public class CMAESOptimizer
         chiN = JdkMath.sqrt(dimension) *
                 (1 - 1 / ((double) 4 * dimension) + 1 / ((double) 21 * dimension * dimension));
         // initialize CMA internal values - updated each generation
-        xmean = MatrixUtils.createColumnRealMatrix(guess); // objective variables
-        diagD = insigma.scalarMultiply(1 / sigma);
-        diagC = square(diagD);
-        pc = zeros(dimension, 1); // evolution paths for C and sigma
-        ps = zeros(dimension, 1); // B defines the coordinate system
-        normps = ps.getFrobeniusNorm();
-
-        B = eye(dimension, dimension);
-        D = ones(dimension, 1); // diagonal D defines the scaling
-        BD = times(B, repmat(diagD.transpose(), dimension, 1));
-        C = B.multiply(diag(square(D)).multiply(B.transpose())); // covariance
+        xmean = guess.clone(); // objective variables
+        xold = new double[dimension];
+        diagD = new double[dimension];
+        diagC = new double[dimension];
+        final double invSigma = 1 / sigma;
+        for (int i = 0; i < dimension; i++) {
+            diagD[i] = inputSigma[i] * invSigma;
+            diagC[i] = diagD[i] * diagD[i];
+        }
+        pc = new double[dimension]; // evolution paths for C and sigma
+        ps = new double[dimension];
+        normps = 0;
+
+        // B defines the coordinate system, and the covariance is initially
+        // diagonal (D == 1).
+        B = new double[dimension][dimension];
+        BD = new double[dimension][dimension];
+        C = new double[dimension][dimension];
+        for (int i = 0; i < dimension; i++) {
+            B[i][i] = 1;
+            BD[i][i] = diagD[i];
+            C[i][i] = 1;
+        }
         historySize = 10 + (int) (3 * 10 * dimension / (double) lambda);
         fitnessHistory = new double[historySize]; // history of fitness values
         for (int i = 0; i < historySize; i++) {
             fitnessHistory[i] = Double.MAX_VALUE;
         }
+
+        // work arrays
+        arz = new double[lambda][dimension];
+        arx = new double[lambda][dimension];
+        fitness = new double[lambda];
+        arindex = new int[lambda];
+        sortBuffer = new int[lambda];
+        zmean = new double[dimension];
+        work = new double[dimension];
+        arpos = new double[dimension][mu];
+        arposWeighted = new double[dimension][mu];
+        if (isActiveCMA) {
+            arzneg = new double[mu][dimension];
+            artmp = new double[dimension][mu];
+            artmpWeighted = new double[dimension][mu];
+            arnorms = new double[mu];
+            idxnorms = new int[mu];
+            arnormsInv = new double[mu];
+        }
+    }
+
+    /**
+     * Computes the weighted mean of the {@code mu} best offspring.
+     *
+     * @param values Values associated with the offspring (one row per
+     * offspring).
+     * @param mean On output, the mean of the values of the best offspring,
+     * weighted according to their rank.
+     */
+    private void weightedMean(double[][] values,
+                              double[] mean) {
+        for (int i = 0; i < dimension; i++) {
+            double sum = 0;
+            for (int j = 0; j < mu; j++) {
+                sum += values[arindex[j]][i] * weights[j];
+            }
+            mean[i] = sum;
+        }
     }
 
     /**
-     * Update of the evolution paths ps and pc.
+     * Update of the evolution paths ps and pc, from the weighted mean
+     * of the Gaussian random numbers generating the current offspring
+     * and the xmean of the previous generation.
      *
-     * @param zmean Weighted row matrix of the gaussian random numbers generating
-     * the current offspring.
-     * @param xold xmean matrix of the previous generation.
      * @return hsig flag indicating a small correction.
      */
-    private boolean updateEvolutionPaths(RealMatrix zmean, RealMatrix xold) {
-        ps = ps.scalarMultiply(1 - cs).add(
-                B.multiply(zmean).scalarMultiply(
-                        JdkMath.sqrt(cs * (2 - cs) * mueff)));
-        normps = ps.getFrobeniusNorm();
+    private boolean updateEvolutionPaths() {
+        final double psFactor = JdkMath.sqrt(cs * (2 - cs) * mueff);
+        double sumSq = 0;
+        for (int i = 0; i < dimension; i++) {
+            final double[] bRow = B[i];
+            double sum = 0;
+            for (int j = 0; j < dimension; j++) {
+                sum += bRow[j] * zmean[j];
+            }
+            ps[i] = ps[i] * (1 - cs) + sum * psFactor;
+            sumSq += ps[i] * ps[i];
+        }
+        normps = JdkMath.sqrt(sumSq);
         final boolean hsig = normps /
             JdkMath.sqrt(1 - JdkMath.pow(1 - cs, 2 * iterations)) /
             chiN < 1.4 + 2 / ((double) dimension + 1);
-        pc = pc.scalarMultiply(1 - cc);
-        if (hsig) {
-            pc = pc.add(xmean.subtract(xold).scalarMultiply(JdkMath.sqrt(cc * (2 - cc) * mueff) / sigma));
+        final double pcFactor = JdkMath.sqrt(cc * (2 - cc) * mueff) / sigma;
+        for (int i = 0; i < dimension; i++) {
+            pc[i] *= 1 - cc;
+            if (hsig) {
+                pc[i] += (xmean[i] - xold[i]) * pcFactor;
+            }
         }
         return hsig;
     }
@@ -615,52 +795,60 @@ public class CMAESOptimizer
      * Update of the covariance matrix C for diagonalOnly > 0.
      *
      * @param hsig Flag indicating a small correction.
-     * @param bestArz Fitness-sorted matrix of the gaussian random values of the
-     * current offspring.
      */
-    private void updateCovarianceDiagonalOnly(boolean hsig,
-                                              final RealMatrix bestArz) {
+    private void updateCovarianceDiagonalOnly(boolean hsig) {
         // minor correction if hsig==false
         double oldFac = hsig ? 0 : ccov1Sep * cc * (2 - cc);
         oldFac += 1 - ccov1Sep - ccovmuSep;
-        diagC = diagC.scalarMultiply(oldFac) // regard old matrix
-            .add(square(pc).scalarMultiply(ccov1Sep)) // plus rank one update
-            .add((times(diagC, square(bestArz).multiply(weights))) // plus rank mu update
-                 .scalarMultiply(ccovmuSep));
-        diagD = sqrt(diagC); // replaces eig(C)
+        for (int i = 0; i < dimension; i++) {
+            double rankMu = 0;
+            for (int j = 0; j < mu; j++) {
+                final double z = arz[arindex[j]][i];
+                rankMu += z * z * weights[j];
+            }
+            diagC[i] = diagC[i] * oldFac // regard old matrix
+                + pc[i] * pc[i] * ccov1Sep // plus rank one update
+                + diagC[i] * rankMu * ccovmuSep; // plus rank mu update
+            diagD[i] = JdkMath.sqrt(diagC[i]); // replaces eig(C)
+        }
         if (diagonalOnly > 1 &&
             iterations > diagonalOnly) {
             // full covariance matrix from now on
             diagonalOnly = 0;
-            B = eye(dimension, dimension);
-            BD = diag(diagD);
-            C = diag(diagC);
+            for (int i = 0; i < dimension; i++) {
+                Arrays.fill(B[i], 0);
+                Arrays.fill(BD[i], 0);
+                Arrays.fill(C[i], 0);
+                B[i][i] = 1;
+                BD[i][i] = diagD[i];
+                C[i][i] = diagC[i];
+            }
         }
     }
 
     /**
      * Update of the covariance matrix C.
+     * Only the upper triangle is computed; it is then copied into the lower
+     * triangle.
      *
      * @param hsig Flag indicating a small correction.
-     * @param bestArx Fitness-sorted matrix of the argument vectors producing the
-     * current offspring.
-     * @param arz Unsorted matrix containing the gaussian random values of the
-     * current offspring.
-     * @param arindex Indices indicating the fitness-order of the current offspring.
-     * @param xold xmean matrix of the previous generation.
      */
-    private void updateCovariance(boolean hsig, final RealMatrix bestArx,
-                                  final RealMatrix arz, final int[] arindex,
-                                  final RealMatrix xold) {
+    private void updateCovariance(boolean hsig) {
         double negccov = 0;
         if (ccov1 + ccovmu > 0) {
-            final RealMatrix arpos = bestArx.subtract(repmat(xold, 1, mu))
-                .scalarMultiply(1 / sigma); // mu difference vectors
-            final RealMatrix roneu = pc.multiply(pc.transpose())
-                .scalarMultiply(ccov1); // rank one update
+            // mu difference vectors
+            final double invSigma = 1 / sigma;
+            for (int j = 0; j < mu; j++) {
+                final double[] x = arx[arindex[j]];
+                for (int i = 0; i < dimension; i++) {
+                    arpos[i][j] = (x[i] - xold[i]) * invSigma;
+                }
+            }
             // minor correction if hsig==false
             double oldFac = hsig ? 0 : ccov1 * cc * (2 - cc);
             oldFac += 1 - ccov1 - ccovmu;
+            // learning rate of the rank mu update
+            double rankMuFac = ccovmu;
             if (isActiveCMA) {
                 // Adapt covariance matrix C active CMA
                 negccov = (1 - ccovmu) * 0.25 * mueff /
@@ -671,40 +859,82 @@ public class CMAESOptimizer
                 // where to make up for the variance loss
                 final double negalphaold = 0.5;
                 // prepare vectors, compute negative updating matrix Cneg
-                final int[] arReverseIndex = reverse(arindex);
-                RealMatrix arzneg = selectColumns(arz, Arrays.copyOf(arReverseIndex, mu));
-                RealMatrix arnorms = sqrt(sumRows(square(arzneg)));
-                final int[] idxnorms = sortedIndices(arnorms.getRow(0));
-                final RealMatrix arnormsSorted = selectColumns(arnorms, idxnorms);
-                final int[] idxReverse = reverse(idxnorms);
-                final RealMatrix arnormsReverse = selectColumns(arnorms, idxReverse);
-                arnorms = divide(arnormsReverse, arnormsSorted);
-                final int[] idxInv = inverse(idxnorms);
-                final RealMatrix arnormsInv = selectColumns(arnorms, idxInv);
+                // from the mu worst offspring
+                for (int j = 0; j < mu; j++) {
+                    final double[] z = arz[arindex[lambda - 1 - j]];
+                    double sum = 0;
+                    for (int i = 0; i < dimension; i++) {
+                        sum += z[i] * z[i];
+                    }
+                    arnorms[j] = JdkMath.sqrt(sum);
+                }
+                // the j-th largest norm is rescaled to the j-th smallest one
+                sortedIndices(arnorms, idxnorms, sortBuffer);
+                for (int j = 0; j < mu; j++) {
+                    arnormsInv[idxnorms[j]] = arnorms[idxnorms[mu - 1 - j]] / arnorms[idxnorms[j]];
+                }
                 // check and set learning rate negccov
-                final double negcovMax = (1 - negminresidualvariance) /
-                    square(arnormsInv).multiply(weights).getEntry(0, 0);
+                double sum = 0;
+                for (int j = 0; j < mu; j++) {
+                    sum += arnormsInv[j] * arnormsInv[j] * weights[j];
+                }
+                final double negcovMax = (1 - negminresidualvariance) / sum;
                 if (negccov > negcovMax) {
                     negccov = negcovMax;
                 }
-                arzneg = times(arzneg, repmat(arnormsInv, dimension, 1));
-                final RealMatrix artmp = BD.multiply(arzneg);
-                final RealMatrix cNeg = artmp.multiply(diag(weights)).multiply(artmp.transpose());
+                for (int j = 0; j < mu; j++) {
+                    final double[] z = arz[arindex[lambda - 1 - j]];
+                    final double[] zneg = arzneg[j];
+                    for (int i = 0; i < dimension; i++) {
+                        zneg[i] = z[i] * arnormsInv[j];
+                    }
+                }
+                for (int i = 0; i < dimension; i++) {
+                    final double[] bdRow = BD[i];
+                    for (int j = 0; j < mu; j++) {
+                        final double[] zneg = arzneg[j];
+                        double s = 0;
+                        for (int k = 0; k < dimension; k++) {
+                            s += bdRow[k] * zneg[k];
+                        }
+                        artmp[i][j] = s;
+                        artmpWeighted[i][j] = s * weights[j];
+                    }
+                }
                 oldFac += negalphaold * negccov;
-                C = C.scalarMultiply(oldFac)
-                    .add(roneu) // regard old matrix
-                    .add(arpos.scalarMultiply( // plus rank one update
-                                              ccovmu + (1 - negalphaold) * negccov) // plus rank mu update
-                         .multiply(times(repmat(weights, 1, dimension),
-                                         arpos.transpose())))
-                    .subtract(cNeg.scalarMultiply(negccov));
-            } else {
-                // Adapt covariance matrix C - nonactive
-                C = C.scalarMultiply(oldFac) // regard old matrix
-                    .add(roneu) // plus rank one update
-                    .add(arpos.scalarMultiply(ccovmu) // plus rank mu update
-                         .multiply(times(repmat(weights, 1, dimension),
-                                         arpos.transpose())));
+                rankMuFac += (1 - negalphaold) * negccov;
+            }
+            for (int i = 0; i < dimension; i++) {
+                final double[] a = arpos[i];
+                final double[] aw = arposWeighted[i];
+                for (int j = 0; j < mu; j++) {
+                    aw[j] = weights[j] * a[j];
+                    a[j] *= rankMuFac;
+                }
+            }
+            for (int i = 0; i < dimension; i++) {
+                final double[] a = arpos[i];
+                for (int l = i; l < dimension; l++) {
+                    final double[] aw = arposWeighted[l];
+                    double rankMu = 0;
+                    for (int j = 0; j < mu; j++) {
+                        rankMu += a[j] * aw[j];
+                    }
+                    double c = C[i][l] * oldFac // regard old matrix
+                        + pc[i] * pc[l] * ccov1 // plus rank one update
+                        + rankMu; // plus rank mu update
+                    if (isActiveCMA) {
+                        final double[] tw = artmpWeighted[i];
+                        final double[] t = artmp[l];
+                        double neg = 0;
+                        for (int j = 0; j < mu; j++) {
+                            neg += tw[j] * t[j];
+                        }
+                        c -= neg * negccov;
+                    }
+                    C[i][l] = c;
+                    C[l][i] = c;
+                }
             }
         }
         updateBD(negccov);
@@ -712,37 +942,62 @@ public class CMAESOptimizer
 
     /**
      * Update B and D from C.
+     * The eigendecomposition is only performed every
+     * {@code 1 / (ccov1 + ccovmu + negccov) / dimension / 10} generations
+     * (to achieve O(N^2) per generation); in between, the offspring are
+     * sampled with the previous B and D, while the rank-one and rank-mu
+     * updates keep accumulating into C. The diagonal of C is refreshed
+     * at every generation.
      *
      * @param negccov Negative covariance factor.
      */
     private void updateBD(double negccov) {
         if (ccov1 + ccovmu + negccov > 0 &&
-            (iterations % 1. / (ccov1 + ccovmu + negccov) / dimension / 10.) < 1) {
-            // to achieve O(N^2)
-            C = triu(C, 0).add(triu(C, 1).transpose());
-            // enforce symmetry to prevent complex numbers
-            final EigenDecomposition eig = new EigenDecomposition(C);
-            B = eig.getV(); // eigen decomposition, B==normalized eigenvectors
-            D = eig.getD();
-            diagD = diag(D);
+            iterations % (1. / (ccov1 + ccovmu + negccov) / dimension / 10.) < 1) {
+            // C is symmetric (by construction), so that there are no
+            // complex eigenvalues
+            final EigenDecomposition eig = new EigenDecomposition(new Array2DRowRealMatrix(C, false));
+            final RealMatrix v = eig.getV(); // B==normalized eigenvectors
+            for (int i = 0; i < dimension; i++) {
+                for (int j = 0; j < dimension; j++) {
+                    B[i][j] = v.getEntry(i, j);
+                }
+                diagD[i] = eig.getRealEigenvalue(i);
+            }
             if (min(diagD) <= 0) {
                 for (int i = 0; i < dimension; i++) {
-                    if (diagD.getEntry(i, 0) < 0) {
-                        diagD.setEntry(i, 0, 0);
+                    if (diagD[i] < 0) {
+                        diagD[i] = 0;
                     }
                 }
                 final double tfac = max(diagD) / 1e14;
-                C = C.add(eye(dimension, dimension).scalarMultiply(tfac));
-                diagD = diagD.add(ones(dimension, 1).scalarMultiply(tfac));
+                for (int i = 0; i < dimension; i++) {
+                    C[i][i] += tfac;
+                    diagD[i] += tfac;
+                }
             }
             if (max(diagD) > 1e14 * min(diagD)) {
                 final double tfac = max(diagD) / 1e14 - min(diagD);
-                C = C.add(eye(dimension, dimension).scalarMultiply(tfac));
-                diagD = diagD.add(ones(dimension, 1).scalarMultiply(tfac));
+                for (int i = 0; i < dimension; i++) {
+                    C[i][i] += tfac;
+                    diagD[i] += tfac;
+                }
             }
-            diagC = diag(C);
-            diagD = sqrt(diagD); // D contains standard deviations now
-            BD = times(B, repmat(diagD.transpose(), dimension, 1)); // O(n^2)
+            for (int i = 0; i < dimension; i++) {
+                diagD[i] = JdkMath.sqrt(diagD[i]); // D contains standard deviations now
+            }
+            for (int i = 0; i < dimension; i++) {
+                final double[] bRow = B[i];
+                final double[] bdRow = BD[i];
+                for (int j = 0; j < dimension; j++) {
+                    bdRow[j] = bRow[j] * diagD[j]; // O(n^2)
+                }
+            }
+        }
+        // C changes at every generation: the termination criteria must not
+        // see the variances of the last decomposition
+        for (int i = 0; i < dimension; i++) {
+            diagC[i] = C[i][i];
         }
     }
 
@@ -760,22 +1015,47 @@ public class CMAESOptimizer
     }
 
     /**
-     * Sorts fitness values.
+     * Sorts values (lower value first).
+     * The sort is a stable bottom-up merge sort, in O(n log n) without
+     * any allocation.
      *
-     * @param doubles Array of values to be sorted.
-     * @return a sorted array of indices pointing into doubles.
+     * @param values Array of values to be sorted.
+     * @param indices On output, the indices pointing into values, in
+     * increasing order of the values.
+     * @param buffer Work array, at least as long as {@code values}.
      */
-    private int[] sortedIndices(final double[] doubles) {
-        final DoubleIndex[] dis = new DoubleIndex[doubles.length];
-        for (int i = 0; i < doubles.length; i++) {
-            dis[i] = new DoubleIndex(doubles[i], i);
+    private static void sortedIndices(final double[] values,
+                                      final int[] indices,
+                                      final int[] buffer) {
+        final int n = values.length;
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        int[] src = indices;
+        int[] dst = buffer;
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                final int mid = JdkMath.min(lo + width, n);
+                final int hi = JdkMath.min(lo + 2 * width, n);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    // ties are taken from the left run, to keep the sort stable
+                    if (j >= hi ||
+                        i < mid && Double.compare(values[src[i]], values[src[j]]) <= 0) {
+                        dst[k] = src[i++];
+                    } else {
+                        dst[k] = src[j++];
+                    }
+                }
+            }
+            final int[] tmp = src;
+            src = dst;
+            dst = tmp;
         }
-        Arrays.sort(dis);
-        final int[] indices = new int[doubles.length];
-        for (int i = 0; i < doubles.length; i++) {
-            indices[i] = dis[i].index;
+        if (src != indices) {
+            System.arraycopy(src, 0, indices, 0, n);
         }
-        return indices;
     }
    /**
      * Get range of values.
@@ -797,53 +1077,6 @@ public class CMAESOptimizer
         return max-min;
     }
 
-    /**
-     * Used to sort fitness values. Sorting is always in lower value first
-     * order.
-     */
-    private static class DoubleIndex implements Comparable<DoubleIndex> {
-        /** Value to compare. */
-        private final double value;
-        /** Index into sorted array. */
-        private final int index;
-
-        /**
-         * @param value Value to compare.
-         * @param index Index into sorted array.
-         */
-        DoubleIndex(double value, int index) {
-            this.value = value;
-            this.index = index;
-        }
-
-        /** {@inheritDoc} */
-        @Override
-        public int compareTo(DoubleIndex o) {
-            return Double.compare(value, o.value);
-        }
-
-        /** {@inheritDoc} */
-        @Override
-        public boolean equals(Object other) {
-
-            if (this == other) {
-                return true;
-            }
-
-            if (other instanceof DoubleIndex) {
-                return Double.compare(value, ((DoubleIndex) other).value) == 0;
-            }
-
-            return false;
-        }
-
-        /** {@inheritDoc} */
-        @Override
-        public int hashCode() {
-            long bits = Double.doubleToLongBits(value);
-            return (int) (1438542 ^ (bits >>> 32) ^ bits);
-        }
-    }
     /**
      * Stores the value and penalty (for repair of out of bounds point).
      */
@@ -886,7 +1119,56 @@ public class CMAESOptimizer
          * @return the objective value + penalty for violated bounds.
          */
         public ValuePenaltyPair value(final double[] point) {
-            final MultivariateFunction func = CMAESOptimizer.this.getObjectiveFunction();
+            return value(point, CMAESOptimizer.this.getObjectiveFunction());
+        }
+
+        /**
+         * Evaluates the offspring concurrently.
+         * The evaluations are counted in the calling thread, in the order of
+         * the offspring, as if they were performed sequentially.
+         *
+         * @param arx Offspring (one per row).
+         * @param result On output, the objective value + penalty of each
+         * offspring.
+         * @return {@code false} if the maximal number of evaluations was
+         * reached before all the offspring could be evaluated.
+         */
+        boolean values(final double[][] arx,
+                       final ValuePenaltyPair[] result) {
+            // The counter fails when it reaches the maximal count.
+            final int n = Math.min(result.length,
+                                   getMaxEvaluations() - getEvaluations() - 1);
+            final List<Callable<ValuePenaltyPair>> tasks = new ArrayList<>(n);
+            for (int k = 0; k < n; k++) {
+                incrementEvaluationCount();
+                final double[] point = arx[k];
+                tasks.add(() -> value(point, objective));
+            }
+            final List<ValuePenaltyPair> values = ConcurrentTasks.invokeAll(executor, tasks);
+            for (int k = 0; k < n; k++) {
+                result[k] = values.get(k);
+            }
+            if (n == result.length) {
+                return true;
+            }
+
+            // Count the evaluation that exceeds the limit, as the sequential
+            // evaluation does.
+            try {
+                incrementEvaluationCount();
+            } catch (TooManyEvaluationsException e) {
+                // Expected.
+            }
+            return false;
+        }
+
+        /**
+         * @param point Normalized objective variables.
+         * @param func Objective function.
+         * @return the objective value + penalty for violated bounds.
+         */
+        private ValuePenaltyPair value(final double[] point,
+                                       final MultivariateFunction func) {
             double value;
             double penalty = 0;
             if (isRepairMode) {
@@ -956,269 +1238,7 @@ public class CMAESOptimizer
         }
     }
 
-    // -----Matrix utility functions similar to the Matlab build in functions------
-
-    /**
-     * @param m Input matrix
-     * @return Matrix representing the element-wise logarithm of m.
-     */
-    private static RealMatrix log(final RealMatrix m) {
-        final double[][] d = new double[m.getRowDimension()][m.getColumnDimension()];
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < m.getColumnDimension(); c++) {
-                d[r][c] = JdkMath.log(m.getEntry(r, c));
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix.
-     * @return Matrix representing the element-wise square root of m.
-     */
-    private static RealMatrix sqrt(final RealMatrix m) {
-        final double[][] d = new double[m.getRowDimension()][m.getColumnDimension()];
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < m.getColumnDimension(); c++) {
-                d[r][c] = JdkMath.sqrt(m.getEntry(r, c));
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix.
-     * @return Matrix representing the element-wise square of m.
-     */
-    private static RealMatrix square(final RealMatrix m) {
-        final double[][] d = new double[m.getRowDimension()][m.getColumnDimension()];
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < m.getColumnDimension(); c++) {
-                double e = m.getEntry(r, c);
-                d[r][c] = e * e;
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix 1.
-     * @param n Input matrix 2.
-     * @return the matrix where the elements of m and n are element-wise multiplied.
-     */
-    private static RealMatrix times(final RealMatrix m, final RealMatrix n) {
-        final double[][] d = new double[m.getRowDimension()][m.getColumnDimension()];
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < m.getColumnDimension(); c++) {
-                d[r][c] = m.getEntry(r, c) * n.getEntry(r, c);
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix 1.
-     * @param n Input matrix 2.
-     * @return Matrix where the elements of m and n are element-wise divided.
-     */
-    private static RealMatrix divide(final RealMatrix m, final RealMatrix n) {
-        final double[][] d = new double[m.getRowDimension()][m.getColumnDimension()];
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < m.getColumnDimension(); c++) {
-                d[r][c] = m.getEntry(r, c) / n.getEntry(r, c);
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix.
-     * @param cols Columns to select.
-     * @return Matrix representing the selected columns.
-     */
-    private static RealMatrix selectColumns(final RealMatrix m, final int[] cols) {
-        final double[][] d = new double[m.getRowDimension()][cols.length];
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < cols.length; c++) {
-                d[r][c] = m.getEntry(r, cols[c]);
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix.
-     * @param k Diagonal position.
-     * @return Upper triangular part of matrix.
-     */
-    private static RealMatrix triu(final RealMatrix m, int k) {
-        final double[][] d = new double[m.getRowDimension()][m.getColumnDimension()];
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < m.getColumnDimension(); c++) {
-                d[r][c] = r <= c - k ? m.getEntry(r, c) : 0;
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix.
-     * @return Row matrix representing the sums of the rows.
-     */
-    private static RealMatrix sumRows(final RealMatrix m) {
-        final double[][] d = new double[1][m.getColumnDimension()];
-        for (int c = 0; c < m.getColumnDimension(); c++) {
-            double sum = 0;
-            for (int r = 0; r < m.getRowDimension(); r++) {
-                sum += m.getEntry(r, c);
-            }
-            d[0][c] = sum;
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix.
-     * @return the diagonal n-by-n matrix if m is a column matrix or the column
-     * matrix representing the diagonal if m is a n-by-n matrix.
-     */
-    private static RealMatrix diag(final RealMatrix m) {
-        if (m.getColumnDimension() == 1) {
-            final double[][] d = new double[m.getRowDimension()][m.getRowDimension()];
-            for (int i = 0; i < m.getRowDimension(); i++) {
-                d[i][i] = m.getEntry(i, 0);
-            }
-            return new Array2DRowRealMatrix(d, false);
-        } else {
-            final double[][] d = new double[m.getRowDimension()][1];
-            for (int i = 0; i < m.getColumnDimension(); i++) {
-                d[i][0] = m.getEntry(i, i);
-            }
-            return new Array2DRowRealMatrix(d, false);
-        }
-    }
-
-    /**
-     * Copies a column from m1 to m2.
-     *
-     * @param m1 Source matrix.
-     * @param col1 Source column.
-     * @param m2 Target matrix.
-     * @param col2 Target column.
-     */
-    private static void copyColumn(final RealMatrix m1, int col1,
-                                   RealMatrix m2, int col2) {
-        for (int i = 0; i < m1.getRowDimension(); i++) {
-            m2.setEntry(i, col2, m1.getEntry(i, col1));
-        }
-    }
-
-    /**
-     * @param n Number of rows.
-     * @param m Number of columns.
-     * @return n-by-m matrix filled with 1.
-     */
-    private static RealMatrix ones(int n, int m) {
-        final double[][] d = new double[n][m];
-        for (int r = 0; r < n; r++) {
-            Arrays.fill(d[r], 1);
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param n Number of rows.
-     * @param m Number of columns.
-     * @return n-by-m matrix of 0 values out of diagonal, and 1 values on
-     * the diagonal.
-     */
-    private static RealMatrix eye(int n, int m) {
-        final double[][] d = new double[n][m];
-        for (int r = 0; r < n; r++) {
-            if (r < m) {
-                d[r][r] = 1;
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param n Number of rows.
-     * @param m Number of columns.
-     * @return n-by-m matrix of zero values.
-     */
-    private static RealMatrix zeros(int n, int m) {
-        return new Array2DRowRealMatrix(n, m);
-    }
-
-    /**
-     * @param mat Input matrix.
-     * @param n Number of row replicates.
-     * @param m Number of column replicates.
-     * @return a matrix which replicates the input matrix in both directions.
-     */
-    private static RealMatrix repmat(final RealMatrix mat, int n, int m) {
-        final int rd = mat.getRowDimension();
-        final int cd = mat.getColumnDimension();
-        final double[][] d = new double[n * rd][m * cd];
-        for (int r = 0; r < n * rd; r++) {
-            for (int c = 0; c < m * cd; c++) {
-                d[r][c] = mat.getEntry(r % rd, c % cd);
-            }
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param start Start value.
-     * @param end End value.
-     * @param step Step size.
-     * @return a sequence as column matrix.
-     */
-    private static RealMatrix sequence(double start, double end, double step) {
-        final int size = (int) ((end - start) / step + 1);
-        final double[][] d = new double[size][1];
-        double value = start;
-        for (int r = 0; r < size; r++) {
-            d[r][0] = value;
-            value += step;
-        }
-        return new Array2DRowRealMatrix(d, false);
-    }
-
-    /**
-     * @param m Input matrix.
-     * @return the maximum of the matrix element values.
-     */
-    private static double max(final RealMatrix m) {
-        double max = -Double.MAX_VALUE;
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < m.getColumnDimension(); c++) {
-                double e = m.getEntry(r, c);
-                if (max < e) {
-                    max = e;
-                }
-            }
-        }
-        return max;
-    }
-
-    /**
-     * @param m Input matrix.
-     * @return the minimum of the matrix element values.
-     */
-    private static double min(final RealMatrix m) {
-        double min = Double.MAX_VALUE;
-        for (int r = 0; r < m.getRowDimension(); r++) {
-            for (int c = 0; c < m.getColumnDimension(); c++) {
-                double e = m.getEntry(r, c);
-                if (min > e) {
-                    min = e;
-                }
-            }
-        }
-        return min;
-    }
+    // -----Array utility functions similar to the Matlab build in functions------
 
     /**
      * @param m Input array.
@@ -1249,53 +1269,28 @@ public class CMAESOptimizer
     }
 
     /**
-     * @param indices Input index array.
-     * @return the inverse of the mapping defined by indices.
-     */
-    private static int[] inverse(final int[] indices) {
-        final int[] inverse = new int[indices.length];
-        for (int i = 0; i < indices.length; i++) {
-            inverse[indices[i]] = i;
-        }
-        return inverse;
-    }
-
-    /**
-     * @param indices Input index array.
-     * @return the indices in inverse order (last is first).
-     */
-    private static int[] reverse(final int[] indices) {
-        final int[] reverse = new int[indices.length];
-        for (int i = 0; i < indices.length; i++) {
-            reverse[i] = indices[indices.length - i - 1];
-        }
-        return reverse;
-    }
-
-    /**
-     * @param size Length of random array.
-     * @return an array of Gaussian random numbers.
+     * Fills an array with Gaussian random numbers.
+     *
+     * @param randn Array to fill.
      */
-    private double[] randn(int size) {
-        final double[] randn = new double[size];
-        for (int i = 0; i < size; i++) {
+    private void randn(double[] randn) {
+        for (int i = 0; i < randn.length; i++) {
             randn[i] = random.sample();
         }
-        return randn;
     }
 
     /**
-     * @param size Number of rows.
-     * @param popSize Population size.
-     * @return a 2-dimensional matrix of Gaussian random numbers.
+     * Fills a 2-dimensional array with Gaussian random numbers.
+     * The numbers are drawn coordinate by coordinate, i.e. column by column.
+     *
+     * @param randn Array to fill (one row per offspring).
      */
-    private RealMatrix randn1(int size, int popSize) {
-        final double[][] d = new double[size][popSize];
+    private void randn1(double[][] randn) {
+        final int size = randn[0].length;
         for (int r = 0; r < size; r++) {
-            for (int c = 0; c < popSize; c++) {
-                d[r][c] = random.sample();
+            for (int c = 0; c < randn.length; c++) {
+                randn[c][r] = random.sample();
             }
         }
-        return new Array2DRowRealMatrix(d, false);
     }
 }
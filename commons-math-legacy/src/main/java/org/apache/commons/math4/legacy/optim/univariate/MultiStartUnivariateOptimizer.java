@@ -17,8 +17,14 @@
 
 package org.apache.commons.math4.legacy.optim.univariate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import org.apache.commons.math4.legacy.exception.MathIllegalStateException;
 import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
@@ -26,7 +32,10 @@ import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
 import org.apache.commons.math4.legacy.optim.MaxEval;
 import org.apache.commons.math4.legacy.optim.OptimizationData;
 import org.apache.commons.math4.legacy.optim.nonlinear.scalar.GoalType;
+import org.apache.commons.math4.legacy.optim.nonlinear.scalar.TargetValue;
+import org.apache.commons.math4.legacy.util.ConcurrentTasks;
 import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
 
 /**
  * Special implementation of the {@link UnivariateOptimizer} interface
@@ -35,6 +44,11 @@ import org.apache.commons.rng.UniformRandomProvider;
  * This class wraps an optimizer in order to use it several times in
  * turn with different starting points (trying to avoid being trapped
  * in a local extremum when looking for a global one).
+ * The search stops early when a {@link TargetValue} is reached.
+ * <br>
+ * The starts can also be run concurrently, each with its own instance
+ * of the underlying optimizer (see
+ * {@link #MultiStartUnivariateOptimizer(Supplier,int,UniformRandomProvider,ExecutorService)}).
  *
  * @since 3.0
  */
@@ -42,6 +56,12 @@ public class MultiStartUnivariateOptimizer
     extends UnivariateOptimizer {
     /** Underlying classical optimizer. */
     private final UnivariateOptimizer optimizer;
+    /** Factory of underlying optimizers (one per start), or {@code null}. */
+    private final Supplier<? extends UnivariateOptimizer> factory;
+    /** Executor for running the starts, or {@code null}. */
+    private final ExecutorService executor;
+    /** Target value (or {@code null}). */
+    private TargetValue target;
     /** Number of evaluations already performed for all starts. */
     private int totalEvaluations;
     /** Number of starts to go. */
@@ -76,6 +96,61 @@ public class MultiStartUnivariateOptimizer
     public MultiStartUnivariateOptimizer(final UnivariateOptimizer optimizer,
                                          final int starts,
                                          final UniformRandomProvider generator) {
+        this(optimizer, null, starts, generator, null);
+    }
+
+    /**
+     * Create a multi-start optimizer that runs each start with a new
+     * instance of the single-start optimizer.
+     * <p>
+     * When an {@code executor} is given, the starts are run concurrently:
+     * <ul>
+     *  <li>the start values are generated beforehand, in the calling thread,
+     *   in the same order as for the sequential runs;</li>
+     *  <li>the maximal number of evaluations (see {@link MaxEval}) is divided
+     *   equally between the starts (instead of each start being allowed the
+     *   evaluations left over by the previous ones); if there are fewer
+     *   evaluations than starts, only the first {@code maxEval} starts are
+     *   run, with one evaluation each;</li>
+     *  <li>the objective function must be thread-safe.</li>
+     * </ul>
+     * The results do not depend on the executor: the optima are collected
+     * in the order of the starts and, if a {@link TargetValue} is reached,
+     * the results of the starts that follow the one that reached it are
+     * discarded (those not yet running are cancelled).
+     * </p>
+     *
+     * @param factory Factory of single-start optimizers (a new instance must
+     * be returned at each call).
+     * @param starts Number of starts to perform.
+     * @param generator Random generator to use for restarts.
+     * @param executor Executor on which the starts are run, or {@code null}
+     * to run them in turn in the calling thread.
+     * @throws NotStrictlyPositiveException if {@code starts < 1}.
+     *
+     * @since 4.0
+     */
+    public MultiStartUnivariateOptimizer(final Supplier<? extends UnivariateOptimizer> factory,
+                                         final int starts,
+                                         final UniformRandomProvider generator,
+                                         final ExecutorService executor) {
+        this(factory.get(), factory, starts, generator, executor);
+    }
+
+    /**
+     * @param optimizer Single-start optimizer used when the starts are
+     * run in the calling thread.
+     * @param factory Factory of single-start optimizers, or {@code null}.
+     * @param starts Number of starts to perform.
+     * @param generator Random generator to use for restarts.
+     * @param executor Executor on which the starts are run, or {@code null}.
+     * @throws NotStrictlyPositiveException if {@code starts < 1}.
+     */
+    private MultiStartUnivariateOptimizer(final UnivariateOptimizer optimizer,
+                                          final Supplier<? extends UnivariateOptimizer> factory,
+                                          final int starts,
+                                          final UniformRandomProvider generator,
+                                          final ExecutorService executor) {
         super(optimizer.getConvergenceChecker());
 
         if (starts < 1) {
@@ -83,8 +158,10 @@ public class MultiStartUnivariateOptimizer
         }
 
         this.optimizer = optimizer;
+        this.factory = factory;
         this.starts = starts;
         this.generator = generator;
+        this.executor = executor;
     }
 
     /** {@inheritDoc} */
@@ -136,6 +213,31 @@ public class MultiStartUnivariateOptimizer
         return super.optimize(optData);
     }
 
+    /**
+     * Scans the list of (required and optional) optimization data that
+     * characterize the problem.
+     *
+     * @param optData Optimization data. In addition to those documented in
+     * {@link UnivariateOptimizer#parseOptimizationData(OptimizationData[])
+     * UnivariateOptimizer}, this method will register the following data:
+     * <ul>
+     *  <li>{@link TargetValue}</li>
+     * </ul>
+     */
+    @Override
+    protected void parseOptimizationData(OptimizationData... optData) {
+        // Allow base class to register its own data.
+        super.parseOptimizationData(optData);
+
+        target = null;
+        for (OptimizationData data : optData) {
+            if (data instanceof TargetValue) {
+                target = (TargetValue) data;
+                continue;
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     protected UnivariatePointValuePair doOptimize() {
@@ -172,26 +274,74 @@ public class MultiStartUnivariateOptimizer
         final double max = getMax();
         final double startValue = getStartValue();
 
-        // Multi-start loop.
-        for (int i = 0; i < starts; i++) {
-            // CHECKSTYLE: stop IllegalCatch
-            try {
-                // Decrease number of allowed evaluations.
-                optimData[maxEvalIndex] = new MaxEval(maxEval - totalEvaluations);
-                // New start value.
+        if (executor != null) {
+            // The evaluations budget is split among the starts; starts that
+            // would not get any evaluation are not run at all.
+            final int runs = JdkMath.min(starts, maxEval);
+
+            // The start values are generated in the same order as for the
+            // sequential runs.
+            final List<Callable<Start>> tasks = new ArrayList<>(runs);
+            for (int i = 0; i < runs; i++) {
+                final OptimizationData[] data = optimData.clone();
+                data[maxEvalIndex] = new MaxEval(maxEval / runs + (i < maxEval % runs ? 1 : 0));
                 final double s = (i == 0) ?
                     startValue :
                     min + generator.nextDouble() * (max - min);
-                optimData[searchIntervalIndex] = new SearchInterval(min, max, s);
-                // Optimize.
-                optima[i] = optimizer.optimize(optimData);
-            } catch (RuntimeException mue) {
-                lastException = mue;
-                optima[i] = null;
+                data[searchIntervalIndex] = new SearchInterval(min, max, s);
+                tasks.add(() -> {
+                    final UnivariateOptimizer opt = factory.get();
+                    // CHECKSTYLE: stop IllegalCatch
+                    try {
+                        return new Start(opt.optimize(data), null, opt.getEvaluations());
+                    } catch (RuntimeException e) {
+                        return new Start(null, e, opt.getEvaluations());
+                    }
+                    // CHECKSTYLE: resume IllegalCatch
+                });
+            }
+
+            final List<Future<Start>> futures = ConcurrentTasks.submitAll(executor, tasks);
+            for (int i = 0; i < runs; i++) {
+                final Start start = ConcurrentTasks.get(futures.get(i));
+                optima[i] = start.optimum;
+                totalEvaluations += start.evaluations;
+                if (start.exception != null) {
+                    lastException = start.exception;
+                } else if (isTargetReached(start.optimum)) {
+                    for (int j = i + 1; j < runs; j++) {
+                        futures.get(j).cancel(false);
+                    }
+                    break;
+                }
             }
-            // CHECKSTYLE: resume IllegalCatch
+        } else {
+            // Multi-start loop.
+            for (int i = 0; i < starts; i++) {
+                // CHECKSTYLE: stop IllegalCatch
+                try {
+                    // Decrease number of allowed evaluations.
+                    optimData[maxEvalIndex] = new MaxEval(maxEval - totalEvaluations);
+                    // New start value.
+                    final double s = (i == 0) ?
+                        startValue :
+                        min + generator.nextDouble() * (max - min);
+                    optimData[searchIntervalIndex] = new SearchInterval(min, max, s);
+                    // Optimize.
+                    optima[i] = optimizer.optimize(optimData);
+                } catch (RuntimeException mue) {
+                    lastException = mue;
+                    optima[i] = null;
+                }
+                // CHECKSTYLE: resume IllegalCatch
+
+                totalEvaluations += optimizer.getEvaluations();
 
-            totalEvaluations += optimizer.getEvaluations();
+                if (optima[i] != null &&
+                    isTargetReached(optima[i])) {
+                    break;
+                }
+            }
         }
 
         sortPairs(getGoalType());
@@ -204,6 +354,16 @@ public class MultiStartUnivariateOptimizer
         return optima[0];
     }
 
+    /**
+     * @param optimum Result of an optimization run.
+     * @return {@code true} if a {@link TargetValue} was specified and the
+     * value of {@code optimum} is at least as good.
+     */
+    private boolean isTargetReached(UnivariatePointValuePair optimum) {
+        return target != null &&
+            target.isReached(getGoalType(), optimum.getValue());
+    }
+
     /**
      * Sort the optima from best to worst, followed by {@code null} elements.
      *
@@ -227,4 +387,29 @@ public class MultiStartUnivariateOptimizer
                 }
             });
     }
+
+    /**
+     * Outcome of a start run concurrently.
+     */
+    private static final class Start {
+        /** Optimum (or {@code null} if the run failed). */
+        private final UnivariatePointValuePair optimum;
+        /** Exception thrown by the run (or {@code null}). */
+        private final RuntimeException exception;
+        /** Number of evaluations performed by the run. */
+        private final int evaluations;
+
+        /**
+         * @param optimum Optimum.
+         * @param exception Exception thrown by the run.
+         * @param evaluations Number of evaluations.
+         */
+        Start(UnivariatePointValuePair optimum,
+              RuntimeException exception,
+              int evaluations) {
+            this.optimum = optimum;
+            this.exception = exception;
+            this.evaluations = evaluations;
+        }
+    }
 }
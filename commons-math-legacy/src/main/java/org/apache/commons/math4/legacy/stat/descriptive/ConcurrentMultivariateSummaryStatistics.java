@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.stat.descriptive;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.linear.MatrixUtils;
+import org.apache.commons.math4.legacy.linear.RealMatrix;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Multivariate summary statistics that can be updated concurrently by many
+ * threads without contention.
+ * <p>
+ * This is the multivariate counterpart of {@link ConcurrentSummaryStatistics}:
+ * unlike {@link SynchronizedMultivariateSummaryStatistics},
+ * {@link #addValue(double[])} does not acquire a lock shared by all the
+ * threads. Each thread updates its own accumulators (number of values,
+ * means and co-moments by Welford's method, minima, maxima, sums, sums of
+ * squares and sums of logs), which are only combined when a statistic is
+ * requested. Computing a statistic costs O(k<sup>2</sup>) per thread that has
+ * added values, so that {@link #getSummary()} should be called once when
+ * several statistics are needed.
+ * </p>
+ * <p>
+ * The values added by a thread are taken into account by the statistics
+ * computed after {@link #addValue(double[])} has returned; the statistics
+ * computed while values are being added reflect the values added by each
+ * thread up to some point in time.
+ * </p>
+ *
+ * @since 4.0
+ */
+public class ConcurrentMultivariateSummaryStatistics implements StatisticalMultivariateSummary {
+    /** Dimension of the data. */
+    private final int k;
+    /** Whether the covariance is bias-corrected. */
+    private final boolean isCovarianceBiasCorrected;
+    /** Accumulators. */
+    private volatile Accumulators accumulators;
+
+    /**
+     * @param k Dimension of the data.
+     * @param isCovarianceBiasCorrected If {@code true}, the unbiased sample
+     * covariance is computed, otherwise the biased population covariance
+     * is computed.
+     */
+    public ConcurrentMultivariateSummaryStatistics(int k, boolean isCovarianceBiasCorrected) {
+        this.k = k;
+        this.isCovarianceBiasCorrected = isCovarianceBiasCorrected;
+        accumulators = new Accumulators(k, isCovarianceBiasCorrected);
+    }
+
+    /**
+     * Adds an n-tuple.
+     *
+     * @param value N-tuple.
+     * @throws DimensionMismatchException if the length of the array
+     * does not match the one used at construction.
+     */
+    public void addValue(final double[] value) {
+        if (value.length != k) {
+            throw new DimensionMismatchException(value.length, k);
+        }
+        accumulators.local.get().add(value);
+    }
+
+    /**
+     * Returns the statistics of all the values added so far.
+     *
+     * @return the current statistics.
+     */
+    public StatisticalMultivariateSummary getSummary() {
+        final Cell summary = new Cell(k, isCovarianceBiasCorrected);
+        for (final Cell cell : accumulators.all) {
+            summary.merge(cell.snapshot());
+        }
+        return summary;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getDimension() {
+        return k;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getN() {
+        return getSummary().getN();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getMean() {
+        return getSummary().getMean();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix getCovariance() {
+        return getSummary().getCovariance();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getStandardDeviation() {
+        return getSummary().getStandardDeviation();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getMax() {
+        return getSummary().getMax();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getMin() {
+        return getSummary().getMin();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getGeometricMean() {
+        return getSummary().getGeometricMean();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getSum() {
+        return getSummary().getSum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getSumSq() {
+        return getSummary().getSumSq();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getSumLog() {
+        return getSummary().getSumLog();
+    }
+
+    /**
+     * Resets all statistics.
+     * Values added concurrently with this method may be lost.
+     */
+    public void clear() {
+        accumulators = new Accumulators(k, isCovarianceBiasCorrected);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        final StatisticalMultivariateSummary summary = getSummary();
+        final StringBuilder outBuffer = new StringBuilder();
+        final String endl = "\n";
+        outBuffer.append("ConcurrentMultivariateSummaryStatistics:").append(endl);
+        outBuffer.append("n: ").append(summary.getN()).append(endl);
+        outBuffer.append("min: ").append(Arrays.toString(summary.getMin())).append(endl);
+        outBuffer.append("max: ").append(Arrays.toString(summary.getMax())).append(endl);
+        outBuffer.append("mean: ").append(Arrays.toString(summary.getMean())).append(endl);
+        outBuffer.append("standard deviation: ").append(Arrays.toString(summary.getStandardDeviation())).append(endl);
+        outBuffer.append("covariance: ").append(summary.getCovariance()).append(endl);
+        return outBuffer.toString();
+    }
+
+    /**
+     * Per-thread accumulators.
+     */
+    private static final class Accumulators {
+        /** All the accumulators. */
+        private final Queue<Cell> all = new ConcurrentLinkedQueue<>();
+        /**
+         * Accumulator of the current thread.
+         * Since it is created by the thread that uses it, it is allocated in
+         * a memory area local to that thread, so that false sharing between
+         * accumulators is unlikely.
+         */
+        private final ThreadLocal<Cell> local;
+
+        /**
+         * @param k Dimension of the data.
+         * @param isCovarianceBiasCorrected Whether the covariance is
+         * bias-corrected.
+         */
+        Accumulators(final int k,
+                     final boolean isCovarianceBiasCorrected) {
+            local = ThreadLocal.withInitial(() -> {
+                    final Cell cell = new Cell(k, isCovarianceBiasCorrected);
+                    all.add(cell);
+                    return cell;
+                });
+        }
+    }
+
+    /**
+     * Accumulators updated by a single thread.
+     * Readers obtain a consistent copy by retrying until no update occurred
+     * while they were copying (sequence lock).
+     */
+    private static final class Cell implements StatisticalMultivariateSummary {
+        /** Sequence number: odd while an update is in progress. */
+        private final AtomicLong sequence = new AtomicLong();
+        /** Whether the covariance is bias-corrected. */
+        private final boolean isCovarianceBiasCorrected;
+        /** Number of values. */
+        private long n;
+        /** Means. */
+        private final double[] mean;
+        /**
+         * Sums of the products of the deviations from the means (lower
+         * triangle, packed by rows).
+         */
+        private final double[] m2;
+        /** Minima. */
+        private final double[] min;
+        /** Maxima. */
+        private final double[] max;
+        /** Sums. */
+        private final double[] sum;
+        /** Sums of squares. */
+        private final double[] sumSq;
+        /** Sums of logs. */
+        private final double[] sumLog;
+        /** Deviations from the means (work array). */
+        private final double[] dev;
+
+        /**
+         * @param k Dimension of the data.
+         * @param isCovarianceBiasCorrected Whether the covariance is
+         * bias-corrected.
+         */
+        Cell(final int k,
+             final boolean isCovarianceBiasCorrected) {
+            this.isCovarianceBiasCorrected = isCovarianceBiasCorrected;
+            mean = new double[k];
+            m2 = new double[k * (k + 1) / 2];
+            min = new double[k];
+            max = new double[k];
+            sum = new double[k];
+            sumSq = new double[k];
+            sumLog = new double[k];
+            dev = new double[k];
+            Arrays.fill(min, Double.NaN);
+            Arrays.fill(max, Double.NaN);
+        }
+
+        /**
+         * Adds an n-tuple (must be called by the owner thread only).
+         *
+         * @param value N-tuple.
+         */
+        void add(final double[] value) {
+            // Atomic update (full fence): the writes below cannot be
+            // reordered before it.
+            final long s = sequence.incrementAndGet();
+
+            ++n;
+            for (int i = 0; i < mean.length; i++) {
+                final double v = value[i];
+                dev[i] = v - mean[i];
+                mean[i] += dev[i] / n;
+                if (v < min[i] || Double.isNaN(min[i])) {
+                    min[i] = v;
+                }
+                if (v > max[i] || Double.isNaN(max[i])) {
+                    max[i] = v;
+                }
+                sum[i] += v;
+                sumSq[i] += v * v;
+                sumLog[i] += JdkMath.log(v);
+            }
+            int index = 0;
+            for (int i = 0; i < mean.length; i++) {
+                final double d = value[i] - mean[i];
+                for (int j = 0; j <= i; j++) {
+                    m2[index++] += dev[j] * d;
+                }
+            }
+
+            // Ordered write: the writes above cannot be reordered after it.
+            sequence.lazySet(s + 1);
+        }
+
+        /**
+         * @return a consistent copy of this instance.
+         */
+        Cell snapshot() {
+            final Cell copy = new Cell(mean.length, isCovarianceBiasCorrected);
+            while (true) {
+                final long s = sequence.get();
+                if ((s & 1) == 0) {
+                    copy.n = n;
+                    System.arraycopy(mean, 0, copy.mean, 0, mean.length);
+                    System.arraycopy(m2, 0, copy.m2, 0, m2.length);
+                    System.arraycopy(min, 0, copy.min, 0, min.length);
+                    System.arraycopy(max, 0, copy.max, 0, max.length);
+                    System.arraycopy(sum, 0, copy.sum, 0, sum.length);
+                    System.arraycopy(sumSq, 0, copy.sumSq, 0, sumSq.length);
+                    System.arraycopy(sumLog, 0, copy.sumLog, 0, sumLog.length);
+                    // Atomic update (full fence): the reads above cannot be
+                    // reordered after it, and it fails if an update started.
+                    if (sequence.compareAndSet(s, s)) {
+                        return copy;
+                    }
+                }
+                Thread.yield();
+            }
+        }
+
+        /**
+         * Adds the values accumulated by another instance, using the
+         * pairwise update of the means and co-moments of Chan et al.
+         *
+         * @param other Accumulators to add (not modified).
+         */
+        void merge(final Cell other) {
+            if (other.n == 0) {
+                return;
+            }
+            final long total = n + other.n;
+            final double f = (double) n * other.n / total;
+            final double g = (double) other.n / total;
+            for (int i = 0; i < mean.length; i++) {
+                dev[i] = other.mean[i] - mean[i];
+            }
+            int index = 0;
+            for (int i = 0; i < mean.length; i++) {
+                for (int j = 0; j <= i; j++) {
+                    m2[index] += other.m2[index] + dev[i] * dev[j] * f;
+                    ++index;
+                }
+            }
+            for (int i = 0; i < mean.length; i++) {
+                mean[i] += dev[i] * g;
+                if (other.min[i] < min[i] || Double.isNaN(min[i])) {
+                    min[i] = other.min[i];
+                }
+                if (other.max[i] > max[i] || Double.isNaN(max[i])) {
+                    max[i] = other.max[i];
+                }
+                sum[i] += other.sum[i];
+                sumSq[i] += other.sumSq[i];
+                sumLog[i] += other.sumLog[i];
+            }
+            n = total;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getDimension() {
+            return mean.length;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getN() {
+            return n;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getMean() {
+            if (n == 0) {
+                final double[] nan = new double[mean.length];
+                Arrays.fill(nan, Double.NaN);
+                return nan;
+            }
+            return mean.clone();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealMatrix getCovariance() {
+            final int k = mean.length;
+            final RealMatrix result = MatrixUtils.createRealMatrix(k, k);
+            if (n > 1) {
+                final double c = 1.0 / (isCovarianceBiasCorrected ? n - 1 : n);
+                int index = 0;
+                for (int i = 0; i < k; i++) {
+                    for (int j = 0; j <= i; j++) {
+                        final double e = c * m2[index++];
+                        result.setEntry(i, j, e);
+                        result.setEntry(j, i, e);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getStandardDeviation() {
+            final double[] stdDev = new double[mean.length];
+            if (n < 1) {
+                Arrays.fill(stdDev, Double.NaN);
+            } else if (n > 1) {
+                final double c = 1.0 / (isCovarianceBiasCorrected ? n - 1 : n);
+                for (int i = 0; i < mean.length; i++) {
+                    // diagonal of the packed lower triangle
+                    stdDev[i] = JdkMath.sqrt(c * m2[i * (i + 3) / 2]);
+                }
+            }
+            return stdDev;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getMax() {
+            return max.clone();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getMin() {
+            return min.clone();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getGeometricMean() {
+            final double[] geoMean = new double[mean.length];
+            for (int i = 0; i < mean.length; i++) {
+                geoMean[i] = n == 0 ? Double.NaN : JdkMath.exp(sumLog[i] / n);
+            }
+            return geoMean;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getSum() {
+            return sum.clone();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getSumSq() {
+            return sumSq.clone();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] getSumLog() {
+            return sumLog.clone();
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.stat.descriptive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Summary statistics that can be updated concurrently by many threads
+ * without contention.
+ * <p>
+ * Unlike {@link SynchronizedSummaryStatistics}, {@link #addValue(double)}
+ * does not acquire a lock shared by all the threads: each thread updates
+ * its own accumulators (for the number of values, mean, variance, minimum,
+ * maximum, sum and sum of logs), which are only combined when a statistic is
+ * requested, using {@link AggregateSummaryStatistics#aggregate(java.util.Collection)}.
+ * Adding a value is thus wait-free, and its cost does not depend on the
+ * number of threads; computing a statistic is comparatively costly, since
+ * its cost is proportional to the number of threads that have added values.
+ * When several statistics are needed, {@link #getSummary()} should be called
+ * once.
+ * </p>
+ * <p>
+ * The values added by a thread are taken into account by the statistics
+ * computed after {@link #addValue(double)} has returned; the statistics
+ * computed while values are being added reflect the values added by each
+ * thread up to some point in time.
+ * </p>
+ *
+ * @since 4.0
+ */
+public class ConcurrentSummaryStatistics implements StatisticalSummary {
+    /** Accumulators. */
+    private volatile Accumulators accumulators = new Accumulators();
+
+    /**
+     * Adds a value.
+     *
+     * @param value Value.
+     */
+    public void addValue(final double value) {
+        accumulators.local.get().add(value);
+    }
+
+    /**
+     * Returns the statistics of all the values added so far.
+     *
+     * @return the current statistics.
+     */
+    public StatisticalSummary getSummary() {
+        final StatisticalSummary summary = AggregateSummaryStatistics.aggregate(snapshots());
+        return summary == null ?
+            new StatisticalSummaryValues(Double.NaN, Double.NaN, 0, Double.NaN, Double.NaN, 0) :
+            summary;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getN() {
+        return getSummary().getN();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMean() {
+        return getSummary().getMean();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getVariance() {
+        return getSummary().getVariance();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getStandardDeviation() {
+        return getSummary().getStandardDeviation();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMax() {
+        return getSummary().getMax();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMin() {
+        return getSummary().getMin();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getSum() {
+        return getSummary().getSum();
+    }
+
+    /**
+     * Returns the sum of the logs of the values that have been added.
+     *
+     * @return the sum of logs.
+     */
+    public double getSumOfLogs() {
+        double sumOfLogs = 0;
+        for (final Cell cell : snapshots()) {
+            sumOfLogs += cell.sumOfLogs;
+        }
+        return sumOfLogs;
+    }
+
+    /**
+     * Returns the geometric mean of the values that have been added.
+     *
+     * @return the geometric mean, or {@code NaN} if no values have been added.
+     */
+    public double getGeometricMean() {
+        long n = 0;
+        double sumOfLogs = 0;
+        for (final Cell cell : snapshots()) {
+            n += cell.n;
+            sumOfLogs += cell.sumOfLogs;
+        }
+        return n == 0 ? Double.NaN : JdkMath.exp(sumOfLogs / n);
+    }
+
+    /**
+     * Resets all statistics.
+     * Values added concurrently with this method may be lost.
+     */
+    public void clear() {
+        accumulators = new Accumulators();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        final StatisticalSummary summary = getSummary();
+        final StringBuilder outBuffer = new StringBuilder();
+        final String endl = "\n";
+        outBuffer.append("ConcurrentSummaryStatistics:").append(endl);
+        outBuffer.append("n: ").append(summary.getN()).append(endl);
+        outBuffer.append("min: ").append(summary.getMin()).append(endl);
+        outBuffer.append("max: ").append(summary.getMax()).append(endl);
+        outBuffer.append("sum: ").append(summary.getSum()).append(endl);
+        outBuffer.append("mean: ").append(summary.getMean()).append(endl);
+        outBuffer.append("variance: ").append(summary.getVariance()).append(endl);
+        outBuffer.append("standard deviation: ").append(summary.getStandardDeviation()).append(endl);
+        return outBuffer.toString();
+    }
+
+    /**
+     * @return consistent copies of the non-empty accumulators.
+     */
+    private List<Cell> snapshots() {
+        final List<Cell> result = new ArrayList<>();
+        for (final Cell cell : accumulators.all) {
+            final Cell copy = cell.snapshot();
+            if (copy.n > 0) {
+                result.add(copy);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Per-thread accumulators.
+     */
+    private static final class Accumulators {
+        /** All the accumulators. */
+        private final Queue<Cell> all = new ConcurrentLinkedQueue<>();
+        /**
+         * Accumulator of the current thread.
+         * Since it is created by the thread that uses it, it is allocated in
+         * a memory area local to that thread, so that false sharing between
+         * accumulators is unlikely.
+         */
+        private final ThreadLocal<Cell> local = ThreadLocal.withInitial(() -> {
+                final Cell cell = new Cell();
+                all.add(cell);
+                return cell;
+            });
+    }
+
+    /**
+     * Accumulators updated by a single thread.
+     * Readers obtain a consistent copy by retrying until no update occurred
+     * while they were copying (sequence lock).
+     */
+    private static final class Cell implements StatisticalSummary {
+        /** Sequence number: odd while an update is in progress. */
+        private final AtomicLong sequence = new AtomicLong();
+        /** Number of values. */
+        private long n;
+        /** Mean. */
+        private double mean;
+        /** Sum of the squared deviations from the mean. */
+        private double m2;
+        /** Minimum. */
+        private double min = Double.NaN;
+        /** Maximum. */
+        private double max = Double.NaN;
+        /** Sum. */
+        private double sum;
+        /** Sum of logs. */
+        private double sumOfLogs;
+
+        /**
+         * Adds a value (must be called by the owner thread only).
+         *
+         * @param value Value.
+         */
+        void add(final double value) {
+            // Atomic update (full fence): the writes below cannot be
+            // reordered before it.
+            final long s = sequence.incrementAndGet();
+
+            ++n;
+            final double dev = value - mean;
+            mean += dev / n;
+            m2 += dev * (value - mean);
+            if (value < min || Double.isNaN(min)) {
+                min = value;
+            }
+            if (value > max || Double.isNaN(max)) {
+                max = value;
+            }
+            sum += value;
+            sumOfLogs += JdkMath.log(value);
+
+            // Ordered write: the writes above cannot be reordered after it.
+            sequence.lazySet(s + 1);
+        }
+
+        /**
+         * @return a consistent copy of this instance.
+         */
+        Cell snapshot() {
+            final Cell copy = new Cell();
+            while (true) {
+                final long s = sequence.get();
+                if ((s & 1) == 0) {
+                    copy.n = n;
+                    copy.mean = mean;
+                    copy.m2 = m2;
+                    copy.min = min;
+                    copy.max = max;
+                    copy.sum = sum;
+                    copy.sumOfLogs = sumOfLogs;
+                    // Atomic update (full fence): the reads above cannot be
+                    // reordered after it, and it fails if an update started.
+                    if (sequence.compareAndSet(s, s)) {
+                        return copy;
+                    }
+                }
+                Thread.yield();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getN() {
+            return n;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMean() {
+            return mean;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getVariance() {
+            return n > 1 ? m2 / (n - 1) : 0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getStandardDeviation() {
+            return JdkMath.sqrt(getVariance());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMax() {
+            return max;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMin() {
+            return min;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getSum() {
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,557 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.stat.descriptive.rank;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.commons.numbers.arrays.SortInPlace;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.apache.commons.math4.legacy.exception.MathIllegalArgumentException;
+import org.apache.commons.math4.legacy.exception.NotANumberException;
+import org.apache.commons.math4.legacy.exception.NullArgumentException;
+import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
+import org.apache.commons.math4.legacy.stat.descriptive.AbstractStorelessUnivariateStatistic;
+import org.apache.commons.math4.legacy.stat.descriptive.StorelessUnivariateStatistic;
+
+/**
+ * A {@link StorelessUnivariateStatistic} estimating percentiles using a
+ * <a href="https://arxiv.org/abs/1902.04023">t-digest</a>, as described by
+ * Ted Dunning and Otmar Ertl in <em>Computing Extremely Accurate Quantiles
+ * Using t-Digests</em>.
+ * <p>
+ * The observations are summarized by a bounded number of centroids (a mean
+ * and a count), whose size is kept small near the extremes of the
+ * distribution, so that tail percentiles (e.g. the 99.9th percentile) are
+ * estimated accurately. The memory used does not depend on the number of
+ * observations; it is controlled by the {@code compression} parameter (the
+ * number of centroids is at most about twice its value).
+ * </p>
+ * <p>
+ * Unlike {@link PSquarePercentile}, a single instance can estimate
+ * {@link #getPercentile(double) any percentile}, instances built from
+ * different parts of a data set (e.g. by different threads or on different
+ * nodes) can be {@link #merge(TDigestPercentile) merged}, and the state can
+ * be {@link #toByteArray() serialized} in a compact binary form.
+ * The minimum and maximum are tracked exactly, and the estimates are exact
+ * as long as no centroid holds more than one observation.
+ * </p>
+ * <p>
+ * Note: This implementation is not synchronized and produces an approximate
+ * result. For small samples, where data can be stored and processed in memory,
+ * {@link Percentile} should be used.</p>
+ *
+ * @since 4.0
+ */
+public class TDigestPercentile extends AbstractStorelessUnivariateStatistic
+    implements StorelessUnivariateStatistic {
+    /** Default compression. */
+    public static final double DEFAULT_COMPRESSION = 100;
+    /** Default percentile. */
+    private static final double DEFAULT_QUANTILE = 50;
+    /** Size of the buffer of unmerged observations (relative to the compression). */
+    private static final int BUFFER_FACTOR = 5;
+    /** Version of the serialized form. */
+    private static final byte SERIAL_VERSION = 1;
+    /** Size of the fixed part of the serialized form. */
+    private static final int SERIAL_HEADER_BYTES = 1 + 4 * Double.BYTES + Integer.BYTES;
+    /** Size of a centroid in the serialized form. */
+    private static final int SERIAL_CENTROID_BYTES = Double.BYTES + Long.BYTES;
+
+    /** Percentile returned by {@link #getResult()}. */
+    private final double quantile;
+    /** Compression. */
+    private final double compression;
+    /**
+     * Means of the centroids (first {@link #merged} elements, in increasing
+     * order), followed by the observations not yet merged.
+     */
+    private double[] mean;
+    /** Weights associated with {@link #mean}. */
+    private double[] weight;
+    /** Workspace for merging (means). */
+    private double[] workMean;
+    /** Workspace for merging (weights). */
+    private double[] workWeight;
+    /** Number of centroids. */
+    private int merged;
+    /** Number of centroids and unmerged observations. */
+    private int size;
+    /** Number of observations. */
+    private long n;
+    /** Smallest observation. */
+    private double min = Double.NaN;
+    /** Largest observation. */
+    private double max = Double.NaN;
+
+    /**
+     * Creates an instance that estimates the median.
+     */
+    public TDigestPercentile() {
+        this(DEFAULT_QUANTILE);
+    }
+
+    /**
+     * @param p Percentile returned by {@link #getResult()}.
+     * @throws OutOfRangeException if {@code p} is not in the interval
+     * {@code [0, 100]}.
+     */
+    public TDigestPercentile(final double p) {
+        this(p, DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param p Percentile returned by {@link #getResult()}.
+     * @param compression Compression: larger values improve the accuracy
+     * and increase the memory footprint.
+     * @throws OutOfRangeException if {@code p} is not in the interval
+     * {@code [0, 100]}.
+     * @throws NumberIsTooSmallException if {@code compression < 1}.
+     */
+    public TDigestPercentile(final double p,
+                             final double compression) {
+        this(p, compression, 0);
+    }
+
+    /**
+     * @param p Percentile returned by {@link #getResult()}.
+     * @param compression Compression.
+     * @param centroids Number of centroids to be stored: the capacity leaves
+     * room for buffering observations on top of them.
+     * @throws OutOfRangeException if {@code p} is not in the interval
+     * {@code [0, 100]}.
+     * @throws NumberIsTooSmallException if {@code compression < 1}.
+     */
+    private TDigestPercentile(final double p,
+                              final double compression,
+                              final int centroids) {
+        checkPercentile(p);
+        if (!(compression >= 1)) {
+            throw new NumberIsTooSmallException(compression, 1, true);
+        }
+        this.quantile = p;
+        this.compression = compression;
+        final int c = (int) JdkMath.ceil(compression);
+        final int capacity = JdkMath.max(2 * c, centroids) + BUFFER_FACTOR * c;
+        mean = new double[capacity];
+        weight = new double[capacity];
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param original Instance to copy.
+     */
+    private TDigestPercentile(final TDigestPercentile original) {
+        quantile = original.quantile;
+        compression = original.compression;
+        mean = original.mean.clone();
+        weight = original.weight.clone();
+        merged = original.merged;
+        size = original.size;
+        n = original.n;
+        min = original.min;
+        max = original.max;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NotANumberException if {@code d} is NaN.
+     */
+    @Override
+    public void increment(final double d) {
+        if (Double.isNaN(d)) {
+            throw new NotANumberException();
+        }
+        if (size == mean.length) {
+            compress();
+            if (size == mean.length) {
+                // The centroids alone fill the buffer.
+                grow(2 * size);
+            }
+        }
+        mean[size] = d;
+        weight[size] = 1;
+        ++size;
+        if (n++ == 0) {
+            min = d;
+            max = d;
+        } else {
+            min = JdkMath.min(min, d);
+            max = JdkMath.max(max, d);
+        }
+    }
+
+    /**
+     * Estimates the percentile set at construction.
+     *
+     * @return the estimate, or {@code NaN} if no value has been added.
+     */
+    @Override
+    public double getResult() {
+        return getPercentile(quantile);
+    }
+
+    /**
+     * Estimates a percentile.
+     *
+     * @param p Percentile.
+     * @return the estimate, or {@code NaN} if no value has been added.
+     * @throws OutOfRangeException if {@code p} is not in the interval
+     * {@code [0, 100]}.
+     */
+    public double getPercentile(final double p) {
+        checkPercentile(p);
+        if (n == 0) {
+            return Double.NaN;
+        }
+        compress();
+
+        // Piecewise linear interpolation through the points (0, min),
+        // (r_i, mean_i) where r_i is the rank of the center of centroid i,
+        // and (n, max).
+        final double rank = p / 100 * n;
+        double previousRank = 0;
+        double previousValue = min;
+        double cumulated = 0;
+        for (int i = 0; i < merged; i++) {
+            final double r = cumulated + 0.5 * weight[i];
+            if (rank < r) {
+                return interpolate(previousRank, previousValue, r, mean[i], rank);
+            }
+            previousRank = r;
+            previousValue = mean[i];
+            cumulated += weight[i];
+        }
+        return interpolate(previousRank, previousValue, n, max, rank);
+    }
+
+    /**
+     * Returns the percentile estimated by {@link #getResult()}.
+     *
+     * @return the percentile, in the interval {@code [0, 100]}.
+     */
+    public double getQuantile() {
+        return quantile;
+    }
+
+    /**
+     * Returns the compression.
+     *
+     * @return the compression.
+     */
+    public double getCompression() {
+        return compression;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getN() {
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        merged = 0;
+        size = 0;
+        n = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TDigestPercentile copy() {
+        return new TDigestPercentile(this);
+    }
+
+    /**
+     * Merges the observations summarized by another instance into this
+     * instance.
+     * The other instance is not modified; its compression and percentile
+     * need not be the same as this instance's.
+     *
+     * @param other Instance to be merged.
+     * @throws NullArgumentException if {@code other} is null.
+     */
+    public void merge(final TDigestPercentile other) {
+        NullArgumentException.check(other, LocalizedFormats.NULL_NOT_ALLOWED);
+        if (other.n == 0) {
+            return;
+        }
+
+        final int count = size + other.size;
+        final double[] m = new double[count];
+        final double[] w = new double[count];
+        System.arraycopy(mean, 0, m, 0, size);
+        System.arraycopy(weight, 0, w, 0, size);
+        System.arraycopy(other.mean, 0, m, size, other.size);
+        System.arraycopy(other.weight, 0, w, size, other.size);
+        SortInPlace.ASCENDING.apply(m, w);
+
+        if (n == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = JdkMath.min(min, other.min);
+            max = JdkMath.max(max, other.max);
+        }
+        n += other.n;
+        cluster(m, w, count);
+    }
+
+    /**
+     * Merges the observations summarized by other instances into this
+     * instance.
+     *
+     * @param others Instances to be merged.
+     * @throws NullArgumentException if {@code others} (or one of its
+     * elements) is null.
+     */
+    public void merge(final Collection<TDigestPercentile> others) {
+        NullArgumentException.check(others, LocalizedFormats.NULL_NOT_ALLOWED);
+        for (final TDigestPercentile other : others) {
+            merge(other);
+        }
+    }
+
+    /**
+     * Serializes the state of this instance.
+     * The size of the result is proportional to the number of centroids:
+     * it does not depend on the number of observations.
+     *
+     * @return the serialized state.
+     * @see #fromByteArray(byte[])
+     */
+    public byte[] toByteArray() {
+        compress();
+        final ByteBuffer buffer = ByteBuffer.allocate(SERIAL_HEADER_BYTES + merged * SERIAL_CENTROID_BYTES);
+        buffer.put(SERIAL_VERSION)
+            .putDouble(quantile)
+            .putDouble(compression)
+            .putDouble(min)
+            .putDouble(max)
+            .putInt(merged);
+        for (int i = 0; i < merged; i++) {
+            buffer.putDouble(mean[i]).putLong((long) weight[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Creates an instance from its serialized state.
+     *
+     * @param bytes Serialized state.
+     * @return a new instance.
+     * @throws MathIllegalArgumentException if {@code bytes} is not the
+     * serialized state of an instance.
+     * @see #toByteArray()
+     */
+    public static TDigestPercentile fromByteArray(final byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            final byte version = buffer.get();
+            final double p = buffer.getDouble();
+            final double compression = buffer.getDouble();
+            final double min = buffer.getDouble();
+            final double max = buffer.getDouble();
+            final int centroids = buffer.getInt();
+            if (version != SERIAL_VERSION ||
+                centroids < 0 ||
+                bytes.length != SERIAL_HEADER_BYTES + (long) centroids * SERIAL_CENTROID_BYTES) {
+                throw new MathIllegalArgumentException(LocalizedFormats.INVALID_SERIALIZED_DATA,
+                                                       TDigestPercentile.class.getSimpleName());
+            }
+
+            final TDigestPercentile digest = new TDigestPercentile(p, compression, centroids);
+            double previous = min;
+            for (int i = 0; i < centroids; i++) {
+                final double m = buffer.getDouble();
+                final long w = buffer.getLong();
+                if (!(m >= previous && m <= max) ||
+                    w <= 0) {
+                    throw new MathIllegalArgumentException(LocalizedFormats.INVALID_SERIALIZED_DATA,
+                                                           TDigestPercentile.class.getSimpleName());
+                }
+                digest.mean[i] = m;
+                digest.weight[i] = w;
+                digest.n += w;
+                previous = m;
+            }
+            digest.merged = centroids;
+            digest.size = centroids;
+            if (centroids > 0) {
+                digest.min = min;
+                digest.max = max;
+            }
+            return digest;
+        } catch (BufferUnderflowException e) {
+            throw new MathIllegalArgumentException(LocalizedFormats.INVALID_SERIALIZED_DATA,
+                                                   TDigestPercentile.class.getSimpleName());
+        }
+    }
+
+    /**
+     * Merges the unmerged observations into the centroids.
+     */
+    private void compress() {
+        if (size == merged) {
+            return;
+        }
+
+        // Unmerged observations all have unit weight.
+        Arrays.sort(mean, merged, size);
+
+        if (workMean == null) {
+            workMean = new double[mean.length];
+            workWeight = new double[mean.length];
+        }
+        int i = 0;
+        int j = merged;
+        for (int k = 0; k < size; k++) {
+            if (j == size ||
+                i < merged && mean[i] <= mean[j]) {
+                workMean[k] = mean[i];
+                workWeight[k] = weight[i];
+                ++i;
+            } else {
+                workMean[k] = mean[j];
+                workWeight[k] = 1;
+                ++j;
+            }
+        }
+
+        cluster(workMean, workWeight, size);
+    }
+
+    /**
+     * Groups sorted weighted values into centroids, so that the size of each
+     * centroid is bounded by the scale function.
+     *
+     * @param m Values, in increasing order.
+     * @param w Weights (the sum must be equal to {@link #n}).
+     * @param count Number of values.
+     */
+    private void cluster(final double[] m,
+                         final double[] w,
+                         final int count) {
+        final double total = n;
+        int last = 0;
+        double lastMean = m[0];
+        double lastWeight = w[0];
+        double weightSoFar = 0;
+        double weightLimit = total * integratedQ(1);
+        for (int i = 1; i < count; i++) {
+            final double proposed = lastWeight + w[i];
+            if (weightSoFar + proposed <= weightLimit) {
+                lastMean += (m[i] - lastMean) * w[i] / proposed;
+                lastWeight = proposed;
+            } else {
+                mean[last] = lastMean;
+                weight[last] = lastWeight;
+                ++last;
+                weightSoFar += lastWeight;
+                weightLimit = total * integratedQ(integratedLocation(weightSoFar / total) + 1);
+                lastMean = m[i];
+                lastWeight = w[i];
+                if (last == mean.length) {
+                    // Cannot happen unless the capacity is too small for the scale function.
+                    grow(2 * last);
+                }
+            }
+        }
+        mean[last] = lastMean;
+        weight[last] = lastWeight;
+        merged = last + 1;
+        size = merged;
+    }
+
+    /**
+     * Resizes the centroids and the work buffers, which must always have
+     * the same length.
+     *
+     * @param capacity New capacity.
+     */
+    private void grow(final int capacity) {
+        mean = Arrays.copyOf(mean, capacity);
+        weight = Arrays.copyOf(weight, capacity);
+        if (workMean != null) {
+            workMean = Arrays.copyOf(workMean, capacity);
+            workWeight = Arrays.copyOf(workWeight, capacity);
+        }
+    }
+
+    /**
+     * Scale function: maps a quantile to the index of the centroid.
+     *
+     * @param q Quantile.
+     * @return the (fractional) index, in {@code [0, compression]}.
+     */
+    private double integratedLocation(final double q) {
+        final double x = JdkMath.min(1, JdkMath.max(-1, 2 * q - 1));
+        return compression * (JdkMath.asin(x) + 0.5 * JdkMath.PI) / JdkMath.PI;
+    }
+
+    /**
+     * Inverse of the {@link #integratedLocation(double) scale function}.
+     *
+     * @param k Index.
+     * @return the quantile.
+     */
+    private double integratedQ(final double k) {
+        return 0.5 * (JdkMath.sin(JdkMath.min(k, compression) * JdkMath.PI / compression - 0.5 * JdkMath.PI) + 1);
+    }
+
+    /**
+     * @param x0 First abscissa.
+     * @param y0 First ordinate.
+     * @param x1 Second abscissa.
+     * @param y1 Second ordinate.
+     * @param x Abscissa, in {@code [x0, x1]}.
+     * @return the linear interpolation at {@code x}.
+     */
+    private static double interpolate(final double x0,
+                                      final double y0,
+                                      final double x1,
+                                      final double y1,
+                                      final double x) {
+        if (x1 <= x0) {
+            return y1;
+        }
+        final double y = y0 + (y1 - y0) * ((x - x0) / (x1 - x0));
+        // Guard against round-off.
+        return JdkMath.max(JdkMath.min(y0, y1), JdkMath.min(JdkMath.max(y0, y1), y));
+    }
+
+    /**
+     * @param p Percentile.
+     * @throws OutOfRangeException if {@code p} is not in the interval
+     * {@code [0, 100]}.
+     */
+    private static void checkPercentile(final double p) {
+        if (!(p >= 0 && p <= 100)) {
+            throw new OutOfRangeException(LocalizedFormats.OUT_OF_RANGE, p, 0, 100);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math4.legacy.exception.MathIllegalStateException;
+import org.apache.commons.math4.legacy.exception.util.LocalizedFormats;
+
+/**
+ * Utilities for running independent computations on an
+ * {@link ExecutorService}.
+ * <p>
+ * Results are always returned in the order of the submitted tasks, so that
+ * algorithms which combine them sequentially produce the same output
+ * whatever the number of threads of the executor.
+ * </p>
+ *
+ * @since 4.0
+ */
+public final class ConcurrentTasks {
+    /** Utility class. */
+    private ConcurrentTasks() {}
+
+    /**
+     * Executes the given tasks and waits for their completion.
+     * <p>
+     * If a task throws an unchecked exception (or an error), it is rethrown
+     * in the calling thread.
+     * </p>
+     *
+     * @param <T> Type of the results.
+     * @param executor Executor, or {@code null} to run the tasks in
+     * sequence in the calling thread.
+     * @param tasks Tasks.
+     * @return the results of the tasks, in the same order as {@code tasks}.
+     * @throws MathIllegalStateException if the calling thread is interrupted
+     * while waiting, or if a task throws a checked exception.
+     */
+    public static <T> List<T> invokeAll(ExecutorService executor,
+                                        List<? extends Callable<T>> tasks) {
+        if (executor == null) {
+            return callAll(tasks);
+        }
+        final List<Future<T>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MathIllegalStateException(e, LocalizedFormats.INTERRUPTED_COMPUTATION);
+        }
+        final List<T> results = new ArrayList<>(futures.size());
+        for (final Future<T> f : futures) {
+            results.add(get(f));
+        }
+        return results;
+    }
+
+    /**
+     * Executes the given tasks in the calling thread.
+     *
+     * @param <T> Type of the results.
+     * @param tasks Tasks.
+     * @return the results of the tasks, in the same order as {@code tasks}.
+     * @throws MathIllegalStateException if a task throws a checked exception.
+     */
+    private static <T> List<T> callAll(List<? extends Callable<T>> tasks) {
+        final List<T> results = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            // CHECKSTYLE: stop IllegalCatch
+            try {
+                results.add(task.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new MathIllegalStateException(e, LocalizedFormats.SIMPLE_MESSAGE, e);
+            }
+            // CHECKSTYLE: resume IllegalCatch
+        }
+        return results;
+    }
+
+    /**
+     * Submits the given tasks, without waiting for their completion.
+     * <p>
+     * The results should be retrieved with {@link #get(Future)}; tasks whose
+     * results are not needed anymore can be cancelled.
+     * </p>
+     *
+     * @param <T> Type of the results.
+     * @param executor Executor.
+     * @param tasks Tasks.
+     * @return the futures of the tasks, in the same order as {@code tasks}.
+     */
+    public static <T> List<Future<T>> submitAll(ExecutorService executor,
+                                                List<? extends Callable<T>> tasks) {
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        return futures;
+    }
+
+    /**
+     * Waits for the completion of a task.
+     * <p>
+     * If the task throws an unchecked exception (or an error), it is rethrown
+     * in the calling thread.
+     * </p>
+     *
+     * @param <T> Type of the result.
+     * @param future Future of the task.
+     * @return the result of the task.
+     * @throws MathIllegalStateException if the calling thread is interrupted
+     * while waiting, or if the task throws a checked exception.
+     */
+    public static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MathIllegalStateException(e, LocalizedFormats.INTERRUPTED_COMPUTATION);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MathIllegalStateException(cause, LocalizedFormats.SIMPLE_MESSAGE, cause);
+        }
+    }
+}
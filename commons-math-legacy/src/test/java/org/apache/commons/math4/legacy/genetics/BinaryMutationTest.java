@@ -41,4 +41,23 @@ public class BinaryMutationTest {
             Assert.assertEquals(1, numDifferent);
         }
     }
+
+    @Test
+    public void testMutateBitset() {
+        BinaryMutation mutation = new BinaryMutation();
+
+        for (int i=0; i<20; i++) {
+            BitsetChromosome original =
+                new DummyBitsetChromosome(BitsetChromosome.randomBitsetRepresentation(130), 130);
+            BitsetChromosome mutated = (BitsetChromosome) mutation.mutate(original);
+
+            // one gene should be different
+            int numDifferent = 0;
+            for (int j=0; j<original.getNumberOfWords(); j++) {
+                numDifferent += Long.bitCount(original.getWord(j) ^ mutated.getWord(j));
+            }
+            Assert.assertEquals(1, numDifferent);
+            Assert.assertEquals(130, mutated.getLength());
+        }
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.genetics;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BitsetChromosomeTest {
+
+    @Test(expected = NotStrictlyPositiveException.class)
+    public void testInvalidLength() {
+        new DummyBitsetChromosome(new long[0], 0);
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testInvalidNumberOfWords() {
+        new DummyBitsetChromosome(new long[2], 64);
+    }
+
+    @Test
+    public void testBits() {
+        final BitsetChromosome c = new DummyBitsetChromosome(new long[] {-1L, -1L}, 70);
+        Assert.assertEquals(70, c.getLength());
+        Assert.assertEquals(2, c.getNumberOfWords());
+        // bits beyond the length are cleared
+        Assert.assertEquals(-1L, c.getWord(0));
+        Assert.assertEquals(0x3fL, c.getWord(1));
+        Assert.assertEquals(70, c.cardinality());
+        Assert.assertEquals(70, c.getFitness(), 0);
+
+        final BitsetChromosome d = new DummyBitsetChromosome(0, 1, 1, 0, 1);
+        Assert.assertFalse(d.getBit(0));
+        Assert.assertTrue(d.getBit(1));
+        Assert.assertTrue(d.getBit(4));
+        Assert.assertEquals(3, d.cardinality());
+        Assert.assertEquals("(f=3.0 01101)", d.toString());
+    }
+
+    @Test
+    public void testRandomConstructor() {
+        for (int i = 1; i < 200; i += 7) {
+            final long[] words = BitsetChromosome.randomBitsetRepresentation(i);
+            final BitsetChromosome c = new DummyBitsetChromosome(words, i);
+            Assert.assertArrayEquals(words, c.getWords());
+            Assert.assertTrue(c.cardinality() <= i);
+        }
+    }
+
+    @Test
+    public void testIsSame() {
+        Chromosome c1 = new DummyBitsetChromosome(0, 1, 0, 1, 0, 1);
+        Chromosome c2 = new DummyBitsetChromosome(0, 1, 1, 0, 1);
+        Chromosome c3 = new DummyBitsetChromosome(0, 1, 0, 1, 0, 1, 0);
+        Chromosome c4 = new DummyBitsetChromosome(1, 1, 0, 1, 0, 1);
+        Chromosome c5 = new DummyBitsetChromosome(0, 1, 0, 1, 0, 0);
+        Chromosome c6 = new DummyBitsetChromosome(0, 1, 0, 1, 0, 1);
+        Chromosome c7 = new DummyBinaryChromosome(new Integer[] {0, 1, 0, 1, 0, 1});
+
+        Assert.assertFalse(c1.isSame(c2));
+        Assert.assertFalse(c1.isSame(c3));
+        Assert.assertFalse(c1.isSame(c4));
+        Assert.assertFalse(c1.isSame(c5));
+        Assert.assertTrue(c1.isSame(c6));
+        Assert.assertFalse(c1.isSame(c7));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.genetics;
+
+/**
+ * Implementation of BitsetChromosome for testing purposes
+ */
+public class DummyBitsetChromosome extends BitsetChromosome {
+
+    public DummyBitsetChromosome(long[] representation, int length) {
+        super(representation, length);
+    }
+
+    public DummyBitsetChromosome(int... bits) {
+        super(toWords(bits), bits.length);
+    }
+
+    private DummyBitsetChromosome(long[] representation, int length, boolean copyArray) {
+        super(representation, length, copyArray);
+    }
+
+    @Override
+    public BitsetChromosome newBitsetChromosome(long[] chromosomeRepresentation) {
+        return new DummyBitsetChromosome(chromosomeRepresentation, getLength(), false);
+    }
+
+    @Override
+    public double fitness() {
+        return cardinality();
+    }
+
+    private static long[] toWords(int[] bits) {
+        final long[] words = new long[(bits.length + 63) / 64];
+        for (int i = 0; i < bits.length; i++) {
+            if (bits[i] != 0) {
+                words[i / 64] |= 1L << i;
+            }
+        }
+        return words;
+    }
+}
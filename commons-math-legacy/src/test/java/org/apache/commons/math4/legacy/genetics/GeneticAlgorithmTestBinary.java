@@ -17,9 +17,13 @@
 package org.apache.commons.math4.legacy.genetics;
 
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.commons.rng.simple.RandomSource;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -73,6 +77,61 @@ public class GeneticAlgorithmTestBinary {
         Assert.assertEquals(NUM_GENERATIONS, ga.getGenerationsEvolved());
     }
 
+    @Test
+    public void testConcurrent() {
+        final List<Chromosome> popList = new ArrayList<>();
+        for (int i = 0; i < 4 * POPULATION_SIZE; i++) {
+            popList.add(new FindOnes(BinaryChromosome.randomBinaryRepresentation(DIMENSION)));
+        }
+
+        final List<Chromosome> sequential = evolve(popList, null);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Chromosome> concurrent = evolve(popList, executor);
+            Assert.assertEquals(sequential.size(), concurrent.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                Assert.assertEquals(((BinaryChromosome) sequential.get(i)).getRepresentation(),
+                                    ((BinaryChromosome) concurrent.get(i)).getRepresentation());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Chromosome bestInitial = new ElitisticListPopulation(popList, popList.size(), ELITISM_RATE)
+            .getFittestChromosome();
+        Assert.assertTrue(sequential.get(0).compareTo(bestInitial) > 0);
+    }
+
+    /**
+     * Evolves a population with a parallel genetic algorithm.
+     *
+     * @param popList Initial population.
+     * @param executor Executor.
+     * @return the final population, fittest chromosome first.
+     */
+    private static List<Chromosome> evolve(List<Chromosome> popList,
+                                           ExecutorService executor) {
+        final GeneticAlgorithm ga = new GeneticAlgorithm(
+                new OnePointCrossover<>(),
+                CROSSOVER_RATE,
+                new BinaryMutation(),
+                MUTATION_RATE,
+                new TournamentSelection(TOURNAMENT_ARITY),
+                RandomSource.SPLIT_MIX_64.create(42L),
+                executor
+        );
+        final Population initial = new ElitisticListPopulation(popList, popList.size(), ELITISM_RATE);
+        final Population last = ga.evolve(initial, new FixedGenerationCount(NUM_GENERATIONS));
+        Assert.assertEquals(NUM_GENERATIONS, ga.getGenerationsEvolved());
+
+        final List<Chromosome> result = new ArrayList<>();
+        for (final Chromosome c : last) {
+            result.add(c);
+        }
+        result.sort((a, b) -> b.compareTo(a));
+        return result;
+    }
+
 
 
 
@@ -57,4 +57,32 @@ public class OnePointCrossoverTest {
             Assert.assertEquals(p2[7], c2[7]);
         }
     }
+
+    @Test
+    public void testCrossoverBitset() {
+        final int length = 150;
+        BitsetChromosome p1c = new DummyBitsetChromosome(BitsetChromosome.randomBitsetRepresentation(length), length);
+        BitsetChromosome p2c = new DummyBitsetChromosome(BitsetChromosome.randomBitsetRepresentation(length), length);
+
+        OnePointCrossover<Integer> opc = new OnePointCrossover<>();
+
+        for (int i=0; i<20; i++) {
+            ChromosomePair pair = opc.crossover(p1c,p2c);
+            BitsetChromosome c1 = (BitsetChromosome) pair.getFirst();
+            BitsetChromosome c2 = (BitsetChromosome) pair.getSecond();
+
+            // the genes are taken from the first parent up to the crossover
+            // point, and from the second parent afterwards
+            boolean switched = false;
+            for (int j = 0; j < length; j++) {
+                if (c1.getBit(j) != p1c.getBit(j)) {
+                    switched = true;
+                }
+                Assert.assertEquals(switched ? p2c.getBit(j) : p1c.getBit(j), c1.getBit(j));
+                Assert.assertEquals(switched ? p1c.getBit(j) : p2c.getBit(j), c2.getBit(j));
+            }
+            Assert.assertEquals(p1c.getBit(0), c1.getBit(0));
+            Assert.assertEquals(p1c.getBit(length - 1), c2.getBit(length - 1));
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package org.apache.commons.math4.legacy.genetics;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
@@ -103,6 +104,38 @@ public class UniformCrossoverTest {
         }
     }
 
+    @Test
+    public void testCrossoverBitset() {
+        performBitsetCrossover(0.5);
+        performBitsetCrossover(0.7);
+        performBitsetCrossover(0.2);
+    }
+
+    private void performBitsetCrossover(double ratio) {
+        // first parent has all genes 0, second parent all genes 1
+        final long[] ones = new long[(LEN + 63) / 64];
+        Arrays.fill(ones, -1L);
+        final BitsetChromosome p1c = new DummyBitsetChromosome(new long[ones.length], LEN);
+        final BitsetChromosome p2c = new DummyBitsetChromosome(ones, LEN);
+
+        final CrossoverPolicy cp = new UniformCrossover<>(ratio);
+
+        for (int i = 0; i < 20; i++) {
+            final ChromosomePair pair = cp.crossover(p1c, p2c);
+
+            final BitsetChromosome c1 = (BitsetChromosome) pair.getFirst();
+            final BitsetChromosome c2 = (BitsetChromosome) pair.getSecond();
+
+            // the genes taken from the second parent are the 1s
+            Assert.assertEquals(ratio, (double) c1.cardinality() / LEN, 0.1);
+            Assert.assertEquals(1.0 - ratio, (double) c2.cardinality() / LEN, 0.1);
+            // each gene comes from exactly one parent
+            for (int w = 0; w < c1.getNumberOfWords(); w++) {
+                Assert.assertEquals(p2c.getWord(w), c1.getWord(w) ^ c2.getWord(w));
+            }
+        }
+    }
+
     @Test(expected = DimensionMismatchException.class)
     public void testCrossoverDimensionMismatchException(){
         @SuppressWarnings("boxing")
@@ -18,6 +18,7 @@ package org.apache.commons.math4.legacy.linear;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 import org.junit.Assert;
@@ -335,6 +336,56 @@ public final class BlockRealMatrixTest {
         }
     }
 
+    @Test
+    public void testParallelMultiply() {
+        int p = (7 * BlockRealMatrix.BLOCK_SIZE) / 2;
+        int q = (5 * BlockRealMatrix.BLOCK_SIZE) / 2;
+        int r =  3 * BlockRealMatrix.BLOCK_SIZE + 7;
+        Random random = new Random(2026101701L);
+        BlockRealMatrix m1 = createRandomMatrix(random, p, q);
+        BlockRealMatrix m2 = createRandomMatrix(random, q, r);
+        BlockRealMatrix serial = m1.multiply(m2);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int threshold : new int[] {1, 4, 1000}) {
+                BlockRealMatrix parallel = m1.multiply(m2, pool, threshold);
+                for (int i = 0; i < p; ++i) {
+                    for (int j = 0; j < r; ++j) {
+                        // results must be bit-for-bit identical
+                        Assert.assertEquals(Double.doubleToRawLongBits(serial.getEntry(i, j)),
+                                            Double.doubleToRawLongBits(parallel.getEntry(i, j)));
+                    }
+                }
+            }
+            Assert.assertEquals(serial, m1.multiply(m2, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelMultiplyErrors() {
+        BlockRealMatrix m = new BlockRealMatrix(testData);
+        try {
+            m.multiply(new BlockRealMatrix(bigSingular), ForkJoinPool.commonPool());
+            Assert.fail("Expecting MathIllegalArgumentException");
+        } catch (MathIllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            m.multiply(m, null);
+            Assert.fail("Expecting NullArgumentException");
+        } catch (NullArgumentException ex) {
+            // expected
+        }
+        try {
+            m.multiply(m, ForkJoinPool.commonPool(), 0);
+            Assert.fail("Expecting MathIllegalArgumentException");
+        } catch (MathIllegalArgumentException ex) {
+            // expected
+        }
+    }
+
     @Test
     public void testOperateLarge() {
         int p = (7 * BlockRealMatrix.BLOCK_SIZE) / 2;
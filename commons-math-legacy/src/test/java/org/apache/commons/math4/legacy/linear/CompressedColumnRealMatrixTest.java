@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.linear;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MathUnsupportedOperationException;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link CompressedColumnRealMatrix}.
+ */
+public class CompressedColumnRealMatrixTest {
+
+    @Test
+    public void testBuilder() {
+        final CompressedColumnRealMatrix m = new SparseRealMatrixBuilder(3, 4)
+            .add(2, 3, 1.5)
+            .add(0, 1, 2)
+            .add(2, 3, 2.5)
+            .add(1, 2, 0)
+            .buildCompressedColumn();
+        Assert.assertEquals(2, m.getNonZeroCount());
+        Assert.assertEquals(4, m.getEntry(2, 3), 0);
+        Assert.assertEquals(2, m.getEntry(0, 1), 0);
+        Assert.assertEquals(0, m.getEntry(1, 2), 0);
+        Assert.assertEquals(3, m.getRowDimension());
+        Assert.assertEquals(4, m.getColumnDimension());
+    }
+
+    @Test
+    public void testEntries() {
+        final RealMatrix dense = CompressedRowRealMatrixTest.createRandomMatrix(20, 35, 0.2, 4321L);
+        final CompressedColumnRealMatrix m = new CompressedColumnRealMatrix(dense);
+        Assert.assertEquals(dense, m);
+        Assert.assertEquals(m, m.copy());
+        Assert.assertEquals(dense.transpose(), m.transpose());
+        Assert.assertEquals(new CompressedRowRealMatrix(dense), m);
+    }
+
+    @Test
+    public void testOperate() {
+        final RealMatrix dense = CompressedRowRealMatrixTest.createRandomMatrix(40, 60, 0.1, 8765L);
+        final CompressedColumnRealMatrix m = new CompressedColumnRealMatrix(dense);
+        final UniformRandomProvider rng = RandomSource.WELL_19937_C.create(21L);
+        final double[] x = new double[60];
+        final double[] y = new double[40];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = rng.nextDouble();
+        }
+        for (int i = 0; i < y.length; i++) {
+            y[i] = rng.nextDouble();
+        }
+        Assert.assertArrayEquals(dense.operate(x), m.operate(x), 1e-14);
+        Assert.assertArrayEquals(dense.preMultiply(y), m.preMultiply(y), 1e-14);
+        Assert.assertArrayEquals(dense.preMultiply(y),
+                                 m.operateTranspose(new ArrayRealVector(y)).toArray(), 1e-14);
+        Assert.assertTrue(m.isTransposable());
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testOperateDimensionMismatch() {
+        new SparseRealMatrixBuilder(3, 4).buildCompressedColumn().operate(new double[3]);
+    }
+
+    @Test(expected = MathUnsupportedOperationException.class)
+    public void testImmutable() {
+        new SparseRealMatrixBuilder(3, 4).buildCompressedColumn().addToEntry(0, 0, 1);
+    }
+}
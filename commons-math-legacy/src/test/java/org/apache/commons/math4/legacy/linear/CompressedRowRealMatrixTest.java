@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.linear;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.MathUnsupportedOperationException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link CompressedRowRealMatrix} and {@link SparseRealMatrixBuilder}.
+ */
+public class CompressedRowRealMatrixTest {
+
+    @Test(expected = NotStrictlyPositiveException.class)
+    public void testBuilderZeroRows() {
+        new SparseRealMatrixBuilder(0, 3);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testBuilderRowOutOfRange() {
+        new SparseRealMatrixBuilder(2, 3).add(2, 0, 1);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testBuilderColumnOutOfRange() {
+        new SparseRealMatrixBuilder(2, 3).add(0, -1, 1);
+    }
+
+    @Test
+    public void testBuilderDuplicatesAndZeros() {
+        final CompressedRowRealMatrix m = new SparseRealMatrixBuilder(3, 4)
+            .add(2, 3, 1.5)
+            .add(0, 1, 2)
+            .add(2, 3, 2.5)
+            .add(1, 2, 0)
+            .add(0, 0, 3)
+            .add(0, 0, -3)
+            .buildCompressedRow();
+        Assert.assertEquals(2, m.getNonZeroCount());
+        Assert.assertEquals(4, m.getEntry(2, 3), 0);
+        Assert.assertEquals(2, m.getEntry(0, 1), 0);
+        Assert.assertEquals(0, m.getEntry(0, 0), 0);
+        Assert.assertEquals(0, m.getEntry(1, 2), 0);
+        Assert.assertEquals(3, m.getRowDimension());
+        Assert.assertEquals(4, m.getColumnDimension());
+    }
+
+    @Test
+    public void testEntries() {
+        final RealMatrix dense = createRandomMatrix(30, 20, 0.2, 1234L);
+        final CompressedRowRealMatrix m = new CompressedRowRealMatrix(dense);
+        Assert.assertEquals(dense, m);
+        Assert.assertEquals(m, m.copy());
+        Assert.assertEquals(dense.transpose(), m.transpose());
+        Assert.assertEquals(m, m.transpose().transpose());
+    }
+
+    @Test
+    public void testConversionFromOpenMap() {
+        final RealMatrix dense = createRandomMatrix(25, 40, 0.1, 5678L);
+        final OpenMapRealMatrix open = new OpenMapRealMatrix(25, 40);
+        for (int i = 0; i < 25; i++) {
+            for (int j = 0; j < 40; j++) {
+                open.setEntry(i, j, dense.getEntry(i, j));
+            }
+        }
+        final CompressedRowRealMatrix m = new CompressedRowRealMatrix(open);
+        Assert.assertEquals(dense, m);
+        Assert.assertEquals(dense, new CompressedColumnRealMatrix(open));
+    }
+
+    @Test
+    public void testOperate() {
+        final RealMatrix dense = createRandomMatrix(50, 30, 0.1, 91011L);
+        final CompressedRowRealMatrix m = new CompressedRowRealMatrix(dense);
+        final UniformRandomProvider rng = RandomSource.WELL_19937_C.create(12L);
+        final double[] x = new double[30];
+        final double[] y = new double[50];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = rng.nextDouble();
+        }
+        for (int i = 0; i < y.length; i++) {
+            y[i] = rng.nextDouble();
+        }
+        Assert.assertArrayEquals(dense.operate(x), m.operate(x), 1e-14);
+        Assert.assertArrayEquals(dense.preMultiply(y), m.preMultiply(y), 1e-14);
+        Assert.assertArrayEquals(dense.operate(x),
+                                 m.operate(new OpenMapRealVector(x)).toArray(), 1e-14);
+        Assert.assertArrayEquals(dense.preMultiply(y),
+                                 m.operateTranspose(new ArrayRealVector(y)).toArray(), 1e-14);
+        Assert.assertTrue(m.isTransposable());
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testOperateDimensionMismatch() {
+        new SparseRealMatrixBuilder(3, 4).buildCompressedRow().operate(new double[3]);
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testPreMultiplyDimensionMismatch() {
+        new SparseRealMatrixBuilder(3, 4).buildCompressedRow().preMultiply(new double[4]);
+    }
+
+    @Test(expected = MathUnsupportedOperationException.class)
+    public void testImmutable() {
+        new SparseRealMatrixBuilder(3, 4).buildCompressedRow().setEntry(0, 0, 1);
+    }
+
+    @Test
+    public void testArithmetic() {
+        final RealMatrix a = createRandomMatrix(10, 8, 0.3, 1L);
+        final RealMatrix b = createRandomMatrix(10, 8, 0.3, 2L);
+        final RealMatrix sum = new CompressedRowRealMatrix(a).add(new CompressedRowRealMatrix(b));
+        Assert.assertEquals(a.add(b), sum);
+        Assert.assertTrue(sum instanceof OpenMapRealMatrix);
+    }
+
+    @Test
+    public void testConjugateGradient() {
+        // 2D Poisson problem (5-point stencil).
+        final int n = 30;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n * n, n * n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                final int k = i * n + j;
+                builder.add(k, k, 4);
+                if (i > 0) {
+                    builder.add(k, k - n, -1);
+                }
+                if (i < n - 1) {
+                    builder.add(k, k + n, -1);
+                }
+                if (j > 0) {
+                    builder.add(k, k - 1, -1);
+                }
+                if (j < n - 1) {
+                    builder.add(k, k + 1, -1);
+                }
+            }
+        }
+        final CompressedRowRealMatrix a = builder.buildCompressedRow();
+        Assert.assertEquals(5 * n * n - 4 * n, a.getNonZeroCount());
+
+        final RealVector b = new ArrayRealVector(n * n, 1.0);
+        final ConjugateGradient solver = new ConjugateGradient(1000, 1e-12, true);
+        final RealVector x = solver.solve(a, b);
+        final OpenMapRealMatrix open = (OpenMapRealMatrix) new OpenMapRealMatrix(n * n, n * n).add(a);
+        final RealVector expected = solver.solve(open, b);
+        Assert.assertEquals(0, a.operate(x).subtract(b).getNorm(), 1e-9);
+        Assert.assertEquals(0, x.subtract(expected).getNorm(), 1e-9);
+    }
+
+    /**
+     * @param rows Number of rows.
+     * @param columns Number of columns.
+     * @param density Fraction of non-zero entries.
+     * @param seed Seed.
+     * @return a random matrix.
+     */
+    static RealMatrix createRandomMatrix(int rows,
+                                         int columns,
+                                         double density,
+                                         long seed) {
+        final UniformRandomProvider rng = RandomSource.WELL_19937_C.create(seed);
+        final RealMatrix m = new Array2DRowRealMatrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (rng.nextDouble() < density) {
+                    m.setEntry(i, j, 2 * rng.nextDouble() - 1);
+                }
+            }
+        }
+        return m;
+    }
+}
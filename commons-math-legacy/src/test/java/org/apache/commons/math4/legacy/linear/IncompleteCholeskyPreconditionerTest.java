@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.linear;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link IncompleteCholeskyPreconditioner}.
+ */
+public class IncompleteCholeskyPreconditionerTest {
+
+    @Test
+    public void testTridiagonal() {
+        // No fill-in: the factorization is exact.
+        final int n = 50;
+        final CompressedRowRealMatrix a = ParallelSparseOperatorTest.createTridiagonalMatrix(n, 2);
+        final IncompleteCholeskyPreconditioner m = IncompleteCholeskyPreconditioner.create(a);
+        Assert.assertEquals(n, m.getRowDimension());
+        Assert.assertEquals(n, m.getColumnDimension());
+        Assert.assertEquals(2 * n - 1, m.getNonZeroCount());
+        final RealVector x = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(n, 1234L), false);
+        Assert.assertArrayEquals(x.toArray(), m.operate(a.operate(x)).toArray(), 1e-10);
+    }
+
+    @Test
+    public void testSymmetric() {
+        final CompressedRowRealMatrix a = createPoissonMatrix(8);
+        final IncompleteCholeskyPreconditioner m = IncompleteCholeskyPreconditioner.create(a);
+        final int n = a.getRowDimension();
+        final RealVector x = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(n, 5678L), false);
+        final RealVector y = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(n, 8765L), false);
+        Assert.assertTrue(m.isTransposable());
+        Assert.assertArrayEquals(m.operate(x).toArray(), m.operateTranspose(x).toArray(), 0);
+        Assert.assertEquals(x.dotProduct(m.operate(y)), y.dotProduct(m.operate(x)), 1e-12);
+        Assert.assertTrue(x.dotProduct(m.operate(x)) > 0);
+    }
+
+    @Test
+    public void testFactorOnPattern() {
+        // L.L^T matches A on the sparsity pattern of A.
+        final CompressedRowRealMatrix a = createPoissonMatrix(6);
+        final IncompleteCholeskyPreconditioner m = IncompleteCholeskyPreconditioner.create(a);
+        final int n = a.getRowDimension();
+        final RealMatrix l = new Array2DRowRealMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int k = m.getPointers()[i]; k < m.getPointers()[i + 1]; k++) {
+                l.setEntry(i, m.getIndices()[k], m.getValues()[k]);
+            }
+        }
+        final RealMatrix llt = l.multiply(l.transpose());
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (a.getEntry(i, j) != 0) {
+                    Assert.assertEquals(a.getEntry(i, j), llt.getEntry(i, j), 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIterationCount() {
+        final CompressedRowRealMatrix a = createPoissonMatrix(40);
+        final int n = a.getRowDimension();
+        final RealVector b = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(n, 1357L), false);
+
+        final ConjugateGradient jacobi = new ConjugateGradient(1000, 1e-10, true);
+        final RealVector x1 = jacobi.solve(a, JacobiPreconditioner.create(a), b);
+        final ConjugateGradient ic = new ConjugateGradient(1000, 1e-10, true);
+        final RealVector x2 = ic.solve(a, IncompleteCholeskyPreconditioner.create(a), b);
+
+        Assert.assertEquals(0, b.subtract(a.operate(x1)).getNorm(), 1e-8 * b.getNorm());
+        Assert.assertEquals(0, b.subtract(a.operate(x2)).getNorm(), 1e-8 * b.getNorm());
+        Assert.assertTrue(ic.getIterationManager().getIterations() * 2 <
+                          jacobi.getIterationManager().getIterations());
+    }
+
+    @Test
+    public void testConstructionEvent() {
+        final CompressedRowRealMatrix a = createPoissonMatrix(10);
+        final IterationManager manager = new IterationManager(100);
+        final List<IterationEvent> events = new ArrayList<>();
+        manager.addIterationListener(new IterationListener() {
+            @Override
+            public void initializationPerformed(IterationEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void iterationStarted(IterationEvent e) {}
+
+            @Override
+            public void iterationPerformed(IterationEvent e) {}
+
+            @Override
+            public void terminationPerformed(IterationEvent e) {}
+        });
+        final IncompleteCholeskyPreconditioner m = IncompleteCholeskyPreconditioner.create(a, manager);
+        Assert.assertEquals(1, events.size());
+        final PreconditionerConstructionEvent e = (PreconditionerConstructionEvent) events.get(0);
+        Assert.assertSame(m, e.getSource());
+        Assert.assertEquals(m.getConstructionTime(), e.getConstructionTime());
+        Assert.assertTrue(e.getConstructionTime() > 0);
+        // 100 rows, 280 entries in the lower triangle.
+        Assert.assertEquals(280, m.getNonZeroCount());
+        Assert.assertEquals(4 * (101 + 280 + 100) + 8 * 280, e.getMemoryFootprint());
+    }
+
+    @Test(expected = NonPositiveDefiniteMatrixException.class)
+    public void testNonPositiveDefinite() {
+        IncompleteCholeskyPreconditioner.create(ParallelSparseOperatorTest.createTridiagonalMatrix(10, -2));
+    }
+
+    @Test(expected = NonPositiveDefiniteMatrixException.class)
+    public void testMissingDiagonal() {
+        IncompleteCholeskyPreconditioner.create(new SparseRealMatrixBuilder(2, 2)
+                                                .add(0, 0, 1)
+                                                .add(1, 0, 1)
+                                                .buildCompressedRow());
+    }
+
+    @Test(expected = NonSquareOperatorException.class)
+    public void testNonSquare() {
+        IncompleteCholeskyPreconditioner.create(new SparseRealMatrixBuilder(2, 3).buildCompressedRow());
+    }
+
+    /**
+     * Creates the matrix of the five-point discretization of the Poisson
+     * equation on a square grid.
+     *
+     * @param m Number of points in each direction.
+     * @return the matrix (of size m<sup>2</sup>).
+     */
+    static CompressedRowRealMatrix createPoissonMatrix(int m) {
+        final int n = m * m;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                final int k = i * m + j;
+                builder.add(k, k, 4);
+                if (i > 0) {
+                    builder.add(k, k - m, -1);
+                }
+                if (i < m - 1) {
+                    builder.add(k, k + m, -1);
+                }
+                if (j > 0) {
+                    builder.add(k, k - 1, -1);
+                }
+                if (j < m - 1) {
+                    builder.add(k, k + 1, -1);
+                }
+            }
+        }
+        return builder.buildCompressedRow();
+    }
+}
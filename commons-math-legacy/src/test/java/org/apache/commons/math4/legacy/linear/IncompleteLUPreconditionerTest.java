@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.linear;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link IncompleteLUPreconditioner}.
+ */
+public class IncompleteLUPreconditionerTest {
+
+    @Test
+    public void testTridiagonal() {
+        // No fill-in: the factorization is exact.
+        final int n = 40;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < n; i++) {
+            builder.add(i, i, 3 + 0.1 * i);
+            if (i > 0) {
+                builder.add(i, i - 1, -1.5);
+            }
+            if (i < n - 1) {
+                builder.add(i, i + 1, 0.5);
+            }
+        }
+        final CompressedRowRealMatrix a = builder.buildCompressedRow();
+        final IncompleteLUPreconditioner m = IncompleteLUPreconditioner.create(a);
+        Assert.assertEquals(3 * n - 2, m.getNonZeroCount());
+        final RealVector x = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(n, 2468L), false);
+        Assert.assertArrayEquals(x.toArray(), m.operate(a.operate(x)).toArray(), 1e-12);
+        Assert.assertArrayEquals(x.toArray(), m.operateTranspose(a.operateTranspose(x)).toArray(), 1e-12);
+    }
+
+    @Test
+    public void testSymmetric() {
+        // Same preconditioner as IC(0).
+        final CompressedRowRealMatrix a = IncompleteCholeskyPreconditionerTest.createPoissonMatrix(12);
+        final IncompleteLUPreconditioner ilu = IncompleteLUPreconditioner.create(a);
+        final IncompleteCholeskyPreconditioner ic = IncompleteCholeskyPreconditioner.create(a);
+        final RealVector x = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(a.getRowDimension(), 1357L), false);
+        Assert.assertArrayEquals(ic.operate(x).toArray(), ilu.operate(x).toArray(), 1e-12);
+        Assert.assertArrayEquals(ilu.operate(x).toArray(), ilu.operateTranspose(x).toArray(), 1e-12);
+    }
+
+    @Test
+    public void testIterationCount() {
+        final CompressedRowRealMatrix a = IncompleteCholeskyPreconditionerTest.createPoissonMatrix(40);
+        final int n = a.getRowDimension();
+        final RealVector b = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(n, 9753L), false);
+
+        final SymmLQ jacobi = new SymmLQ(1000, 1e-10, true);
+        final RealVector x1 = jacobi.solve(a, JacobiPreconditioner.create(a), b);
+        final SymmLQ ilu = new SymmLQ(1000, 1e-10, true);
+        final RealVector x2 = ilu.solve(a, IncompleteLUPreconditioner.create(a), b);
+
+        Assert.assertEquals(0, b.subtract(a.operate(x1)).getNorm(), 1e-6 * b.getNorm());
+        Assert.assertEquals(0, b.subtract(a.operate(x2)).getNorm(), 1e-6 * b.getNorm());
+        Assert.assertTrue(ilu.getIterationManager().getIterations() * 2 <
+                          jacobi.getIterationManager().getIterations());
+    }
+
+    @Test
+    public void testConstructionEvent() {
+        final CompressedRowRealMatrix a = IncompleteCholeskyPreconditionerTest.createPoissonMatrix(10);
+        final IterationManager manager = new IterationManager(100);
+        final PreconditionerConstructionEvent[] event = new PreconditionerConstructionEvent[1];
+        manager.addIterationListener(new IterationListener() {
+            @Override
+            public void initializationPerformed(IterationEvent e) {
+                event[0] = (PreconditionerConstructionEvent) e;
+            }
+
+            @Override
+            public void iterationStarted(IterationEvent e) {}
+
+            @Override
+            public void iterationPerformed(IterationEvent e) {}
+
+            @Override
+            public void terminationPerformed(IterationEvent e) {}
+        });
+        final IncompleteLUPreconditioner m = IncompleteLUPreconditioner.create(a, manager);
+        Assert.assertSame(m, event[0].getSource());
+        Assert.assertEquals(0, event[0].getIterations());
+        Assert.assertEquals(m.getConstructionTime(), event[0].getConstructionTime());
+        Assert.assertEquals(m.getMemoryFootprint(), event[0].getMemoryFootprint());
+        Assert.assertEquals(4 * (101 + 460 + 100) + 8 * 460, m.getMemoryFootprint());
+    }
+
+    @Test(expected = SingularMatrixException.class)
+    public void testMissingDiagonal() {
+        IncompleteLUPreconditioner.create(new SparseRealMatrixBuilder(2, 2)
+                                          .add(0, 1, 1)
+                                          .add(1, 0, 1)
+                                          .buildCompressedRow());
+    }
+
+    @Test(expected = SingularMatrixException.class)
+    public void testZeroPivot() {
+        IncompleteLUPreconditioner.create(new SparseRealMatrixBuilder(2, 2)
+                                          .add(0, 0, 1)
+                                          .add(0, 1, 1)
+                                          .add(1, 0, 1)
+                                          .add(1, 1, 1)
+                                          .buildCompressedRow());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.linear;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.exception.NullArgumentException;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ParallelSparseOperator}.
+ */
+public class ParallelSparseOperatorTest {
+    /** Pool shared by the tests. */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testOperate() {
+        final CompressedRowRealMatrix m =
+            new CompressedRowRealMatrix(CompressedRowRealMatrixTest.createRandomMatrix(300, 200, 0.05, 2468L));
+        final ParallelSparseOperator op = new ParallelSparseOperator(m, POOL, 50);
+        Assert.assertTrue(op.getChunkCount() > 1);
+        Assert.assertEquals(300, op.getRowDimension());
+        Assert.assertEquals(200, op.getColumnDimension());
+        Assert.assertSame(m, op.getMatrix());
+
+        final double[] x = randomArray(200, 13579L);
+        // Same operations as the serial product.
+        Assert.assertArrayEquals(m.operate(x), op.operate(x), 0);
+        Assert.assertArrayEquals(m.operate(x), op.operate(new ArrayRealVector(x)).toArray(), 0);
+        Assert.assertArrayEquals(m.operate(x), op.operate(new OpenMapRealVector(x)).toArray(), 0);
+
+        final double[] y = randomArray(300, 97531L);
+        Assert.assertTrue(op.isTransposable());
+        Assert.assertArrayEquals(m.preMultiply(y), op.operateTranspose(new ArrayRealVector(y)).toArray(), 0);
+    }
+
+    @Test
+    public void testSingleChunk() {
+        final CompressedRowRealMatrix m =
+            new CompressedRowRealMatrix(CompressedRowRealMatrixTest.createRandomMatrix(30, 20, 0.2, 1122L));
+        final ParallelSparseOperator op = new ParallelSparseOperator(m, POOL);
+        Assert.assertEquals(1, op.getChunkCount());
+        final double[] x = randomArray(20, 3344L);
+        Assert.assertArrayEquals(m.operate(x), op.operate(x), 0);
+    }
+
+    @Test
+    public void testEmptyRows() {
+        final CompressedRowRealMatrix m = new SparseRealMatrixBuilder(100, 10)
+            .add(3, 2, 1)
+            .add(97, 9, 2)
+            .buildCompressedRow();
+        final ParallelSparseOperator op = new ParallelSparseOperator(m, POOL, 1);
+        final double[] x = randomArray(10, 5566L);
+        final double[] y = op.operate(x);
+        Assert.assertArrayEquals(m.operate(x), y, 0);
+        Assert.assertEquals(x[2], y[3], 0);
+        Assert.assertEquals(2 * x[9], y[97], 0);
+    }
+
+    @Test
+    public void testConversion() {
+        final RealMatrix dense = CompressedRowRealMatrixTest.createRandomMatrix(40, 30, 0.1, 7788L);
+        final OpenMapRealMatrix open = new OpenMapRealMatrix(40, 30);
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 30; j++) {
+                open.setEntry(i, j, dense.getEntry(i, j));
+            }
+        }
+        final ParallelSparseOperator op = new ParallelSparseOperator(open, POOL, 8);
+        Assert.assertEquals(dense, op.getMatrix());
+        final double[] x = randomArray(30, 9900L);
+        Assert.assertArrayEquals(dense.operate(x), op.operate(x), 1e-14);
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testDimensionMismatch() {
+        final ParallelSparseOperator op =
+            new ParallelSparseOperator(new SparseRealMatrixBuilder(3, 4).buildCompressedRow(), POOL);
+        op.operate(new double[3]);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void testNullPool() {
+        new ParallelSparseOperator(new SparseRealMatrixBuilder(3, 4).buildCompressedRow(), null);
+    }
+
+    @Test(expected = NotStrictlyPositiveException.class)
+    public void testInvalidChunkSize() {
+        new ParallelSparseOperator(new SparseRealMatrixBuilder(3, 4).buildCompressedRow(), POOL, 0);
+    }
+
+    /**
+     * Creates a symmetric tridiagonal matrix, with -1 on the sub- and
+     * super-diagonals.
+     *
+     * @param n Size.
+     * @param diagonal Value of the diagonal entries.
+     * @return the matrix.
+     */
+    static CompressedRowRealMatrix createTridiagonalMatrix(int n,
+                                                          double diagonal) {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < n; i++) {
+            builder.add(i, i, diagonal);
+            if (i > 0) {
+                builder.add(i, i - 1, -1);
+            }
+            if (i < n - 1) {
+                builder.add(i, i + 1, -1);
+            }
+        }
+        return builder.buildCompressedRow();
+    }
+
+    /**
+     * @param n Length.
+     * @param seed Seed.
+     * @return an array of uniform random values.
+     */
+    static double[] randomArray(int n, long seed) {
+        final UniformRandomProvider rng = RandomSource.WELL_19937_C.create(seed);
+        final double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = rng.nextDouble();
+        }
+        return x;
+    }
+}
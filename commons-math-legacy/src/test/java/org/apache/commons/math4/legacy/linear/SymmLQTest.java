@@ -17,6 +17,7 @@
 package org.apache.commons.math4.legacy.linear;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.core.jdkmath.JdkMath;
@@ -693,5 +694,48 @@ public class SymmLQTest {
             solver.solve(a, m, b);
         }
     }
-}
 
+    @Test
+    public void testParallelVectorOperations() {
+        final int n = 3 * VectorKernels.CHUNK_SIZE + 17;
+        final CompressedRowRealMatrix a = ParallelSparseOperatorTest.createTridiagonalMatrix(n, 4);
+        final RealVector b = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(n, 1357L), false);
+        final RealVector serial = new SymmLQ(100, 1e-12, true).solve(a, b);
+        final ForkJoinPool pool1 = new ForkJoinPool(1);
+        final ForkJoinPool pool4 = new ForkJoinPool(4);
+        try {
+            final SymmLQ solver1 = new SymmLQ(new IterationManager(100), 1e-12, true, pool1);
+            final SymmLQ solver4 = new SymmLQ(new IterationManager(100), 1e-12, true, pool4);
+            Assert.assertSame(pool4, solver4.getForkJoinPool());
+            final RealVector x1 = solver1.solve(new ParallelSparseOperator(a, pool1), b);
+            final RealVector x4 = solver4.solve(new ParallelSparseOperator(a, pool4), b);
+            // The result does not depend on the number of threads.
+            Assert.assertArrayEquals(x1.toArray(), x4.toArray(), 0);
+            Assert.assertEquals(solver1.getIterationManager().getIterations(),
+                                solver4.getIterationManager().getIterations());
+            // The inner products are summed in the serial order.
+            Assert.assertArrayEquals(serial.toArray(), x4.toArray(), 0);
+            Assert.assertEquals(0, b.subtract(a.operate(x4)).getNorm(), 1e-10 * b.getNorm());
+        } finally {
+            pool1.shutdown();
+            pool4.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelVectorOperationsSmallSystem() {
+        final int n = 500;
+        final CompressedRowRealMatrix a = ParallelSparseOperatorTest.createTridiagonalMatrix(n, 4);
+        final RealVector b = new ArrayRealVector(ParallelSparseOperatorTest.randomArray(n, 2468L), false);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final RealVector serial = new SymmLQ(100, 1e-12, true).solve(a, b);
+            final RealVector parallel = new SymmLQ(new IterationManager(100), 1e-12, true, pool)
+                .solve(new ParallelSparseOperator(a, pool, 16), b);
+            // Identical operations.
+            Assert.assertArrayEquals(serial.toArray(), parallel.toArray(), 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
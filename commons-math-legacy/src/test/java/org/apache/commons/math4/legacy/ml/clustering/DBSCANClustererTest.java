@@ -16,11 +16,18 @@
  */
 package org.apache.commons.math4.legacy.ml.clustering;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.math4.legacy.exception.MathIllegalArgumentException;
 import org.apache.commons.math4.legacy.exception.NullArgumentException;
+import org.apache.commons.math4.legacy.ml.distance.ChebyshevDistance;
+import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
+import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
+import org.apache.commons.math4.legacy.ml.distance.ManhattanDistance;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -185,4 +192,36 @@ public class DBSCANClustererTest {
         DBSCANClusterer<DoublePoint> clusterer = new DBSCANClusterer<>(2.0, 5);
         clusterer.cluster(null);
     }
+
+    @Test(expected = NullArgumentException.class)
+    public void testNullIndexFactory() {
+        new DBSCANClusterer<DoublePoint>(2.0, 5, new EuclideanDistance(), null);
+    }
+
+    @Test
+    public void testIndexDoesNotChangeClusters() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(20261017L);
+        final List<DoublePoint> points = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final double cx = 10 * rng.nextInt(4);
+            final double cy = 10 * rng.nextInt(4);
+            points.add(new DoublePoint(new double[] {cx + 6 * (rng.nextDouble() - 0.5),
+                                                     cy + 6 * (rng.nextDouble() - 0.5)}));
+        }
+
+        for (final DistanceMeasure measure : new DistanceMeasure[] {
+                new EuclideanDistance(), new ChebyshevDistance(), new ManhattanDistance() }) {
+            final List<Cluster<DoublePoint>> expected =
+                new DBSCANClusterer<DoublePoint>(0.8, 5, measure, NeighborhoodIndexType.BRUTE_FORCE).cluster(points);
+            Assert.assertTrue(expected.size() > 1);
+            for (final NeighborhoodIndexType type : NeighborhoodIndexType.values()) {
+                final List<Cluster<DoublePoint>> actual =
+                    new DBSCANClusterer<DoublePoint>(0.8, 5, measure, type).cluster(points);
+                Assert.assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    Assert.assertEquals(expected.get(i).getPoints(), actual.get(i).getPoints());
+                }
+            }
+        }
+    }
 }
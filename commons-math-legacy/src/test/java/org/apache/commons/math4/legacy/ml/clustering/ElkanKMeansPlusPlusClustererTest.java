@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -28,6 +30,7 @@ import org.apache.commons.rng.simple.RandomSource;
 import org.apache.commons.rng.sampling.shape.BoxSampler;
 import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
 import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
 import org.apache.commons.math4.legacy.stat.descriptive.moment.VectorialMean;
 import org.apache.commons.math4.legacy.core.MathArrays;
 
@@ -119,6 +122,34 @@ public class ElkanKMeansPlusPlusClustererTest {
      * @param d dimensionality
      * @return list of n generated random vectors of dimension d.
      */
+    @Test
+    public void concurrentAssignmentIsDeterministic() {
+        final int n = 5 * KMeansPlusPlusClusterer.MIN_CHUNK_SIZE + 3;
+        final int d = 3;
+        final int k = 6;
+        final List<DoublePoint> testPoints = generatePoints(n, d);
+        final List<CentroidCluster<DoublePoint>> expected =
+            new ElkanKMeansPlusPlusClusterer<DoublePoint>(k, 100, new EuclideanDistance(),
+                                                          RandomSource.MT_64.create(3L)).cluster(testPoints);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<CentroidCluster<DoublePoint>> actual =
+                new ElkanKMeansPlusPlusClusterer<DoublePoint>(k, 100, new EuclideanDistance(),
+                                                              RandomSource.MT_64.create(3L),
+                                                              KMeansPlusPlusClusterer.EmptyClusterStrategy.LARGEST_VARIANCE,
+                                                              executor).cluster(testPoints);
+            Assert.assertEquals(k, actual.size());
+            for (int i = 0; i < k; i++) {
+                Assert.assertArrayEquals(expected.get(i).getCenter().getPoint(),
+                                         actual.get(i).getCenter().getPoint(), 0);
+                Assert.assertEquals(expected.get(i).getPoints(), actual.get(i).getPoints());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private static List<DoublePoint> generatePoints(int n, int d) {
         final List<DoublePoint> results = new ArrayList<>();
         final double[] lower = new double[d];
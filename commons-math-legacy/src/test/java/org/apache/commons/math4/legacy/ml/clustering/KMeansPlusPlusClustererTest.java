@@ -21,8 +21,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.commons.math4.legacy.exception.MathIllegalArgumentException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
 import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
 import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
 import org.apache.commons.rng.simple.RandomSource;
 import org.apache.commons.rng.UniformRandomProvider;
@@ -175,4 +180,168 @@ public class KMeansPlusPlusClustererTest {
 
         transformer.cluster(Arrays.asList(points));
     }
+
+    @Test
+    public void testFlatArrayCertainSpace() {
+        KMeansPlusPlusClusterer.EmptyClusterStrategy[] strategies = {
+            KMeansPlusPlusClusterer.EmptyClusterStrategy.LARGEST_VARIANCE,
+            KMeansPlusPlusClusterer.EmptyClusterStrategy.LARGEST_POINTS_NUMBER,
+            KMeansPlusPlusClusterer.EmptyClusterStrategy.FARTHEST_POINT
+        };
+        for (KMeansPlusPlusClusterer.EmptyClusterStrategy strategy : strategies) {
+            final int numberOfVariables = 27;
+            final int dimension = 4;
+            final double[] points = new double[numberOfVariables * dimension];
+            for (int i = 0; i < numberOfVariables; i++) {
+                for (int j = 0; j < dimension; j++) {
+                    points[i * dimension + j] = (1 + i + j * numberOfVariables) * 1000000d;
+                }
+            }
+
+            for (int n = 2; n < 27; ++n) {
+                KMeansPlusPlusClusterer<DoublePoint> transformer =
+                    new KMeansPlusPlusClusterer<>(n, 100, new EuclideanDistance(), random, strategy);
+
+                CentroidPartition partition = transformer.cluster(points, dimension);
+
+                Assert.assertEquals(n, partition.getNumberOfClusters());
+                Assert.assertEquals(dimension, partition.getDimension());
+                Assert.assertEquals(numberOfVariables, partition.getLabels().length);
+                final int[] sizes = new int[n];
+                for (int label : partition.getLabels()) {
+                    ++sizes[label];
+                }
+                for (int size : sizes) {
+                    Assert.assertTrue(size > 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFlatArrayMatchesClusterables() {
+        // Well separated blobs: both code paths must find the same partition.
+        final int dimension = 3;
+        final int k = 5;
+        final int numPoints = 2000;
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(20261017L);
+        final double[] points = new double[numPoints * dimension];
+        final List<DoublePoint> clusterables = new ArrayList<>();
+        for (int i = 0; i < numPoints; i++) {
+            final int blob = i % k;
+            final double[] p = new double[dimension];
+            for (int j = 0; j < dimension; j++) {
+                p[j] = 100 * blob + rng.nextDouble();
+                points[i * dimension + j] = p[j];
+            }
+            clusterables.add(new DoublePoint(p));
+        }
+
+        final CentroidPartition partition =
+            new KMeansPlusPlusClusterer<DoublePoint>(k, 100, new EuclideanDistance(),
+                                                     RandomSource.MT_64.create(43L)).cluster(points, dimension);
+        final List<CentroidCluster<DoublePoint>> clusters =
+            new KMeansPlusPlusClusterer<DoublePoint>(k, 100, new EuclideanDistance(),
+                                                     RandomSource.MT_64.create(43L)).cluster(clusterables);
+
+        final int[] labels = partition.getLabels();
+        for (int c = 0; c < k; c++) {
+            final CentroidCluster<DoublePoint> cluster = clusters.get(c);
+            final double[] expected = cluster.getCenter().getPoint();
+            final double[] actual = partition.getCentroid(c);
+            Assert.assertArrayEquals(expected, actual, 1e-10);
+            for (DoublePoint p : cluster.getPoints()) {
+                Assert.assertEquals(c, labels[clusterables.indexOf(p)]);
+            }
+        }
+    }
+
+    @Test
+    public void testFlatArraySmallDistances() {
+        // Most points are identical, but one is different by a small distance.
+        final int numRepeated = 10000;
+        final double[] points = new double[numRepeated + 1];
+        points[numRepeated] = 1e-3;
+
+        final KMeansPlusPlusClusterer<DoublePoint> clusterer =
+            new KMeansPlusPlusClusterer<>(2, 1, new EuclideanDistance(), random);
+        final CentroidPartition partition = clusterer.cluster(points, 1);
+
+        // Check that one of the chosen centers is the unique point.
+        final double[] centroids = partition.getCentroids();
+        Assert.assertTrue(centroids[0] == 1e-3 || centroids[1] == 1e-3);
+        Assert.assertNotEquals(partition.getLabels()[0], partition.getLabels()[numRepeated]);
+    }
+
+    @Test(expected=NumberIsTooSmallException.class)
+    public void testFlatArrayTooManyClusters() {
+        new KMeansPlusPlusClusterer<DoublePoint>(3, 1, new EuclideanDistance(), random)
+            .cluster(new double[] {1959, 325100, 1960, 373200}, 2);
+    }
+
+    @Test(expected=MathIllegalArgumentException.class)
+    public void testFlatArrayWrongLength() {
+        new KMeansPlusPlusClusterer<DoublePoint>(1).cluster(new double[] {1, 2, 3}, 2);
+    }
+
+    @Test(expected=NotStrictlyPositiveException.class)
+    public void testFlatArrayWrongDimension() {
+        new KMeansPlusPlusClusterer<DoublePoint>(1).cluster(new double[] {1, 2, 3}, 0);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testFlatArrayCentroidOutOfRange() {
+        new KMeansPlusPlusClusterer<DoublePoint>(1).cluster(new double[] {1, 2, 3, 4}, 2).getCentroid(1);
+    }
+
+    @Test
+    public void testConcurrentAssignmentIsDeterministic() {
+        final int dimension = 4;
+        final int numPoints = 10 * KMeansPlusPlusClusterer.MIN_CHUNK_SIZE + 17;
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(98765L);
+        final double[] points = new double[numPoints * dimension];
+        final List<DoublePoint> clusterables = new ArrayList<>();
+        for (int i = 0; i < numPoints; i++) {
+            final double[] p = new double[dimension];
+            for (int j = 0; j < dimension; j++) {
+                p[j] = rng.nextDouble();
+                points[i * dimension + j] = p[j];
+            }
+            clusterables.add(new DoublePoint(p));
+        }
+
+        final KMeansPlusPlusClusterer.EmptyClusterStrategy strategy =
+            KMeansPlusPlusClusterer.EmptyClusterStrategy.LARGEST_VARIANCE;
+        final KMeansPlusPlusClusterer<DoublePoint> serial =
+            new KMeansPlusPlusClusterer<>(7, 30, new EuclideanDistance(), RandomSource.MT_64.create(5L), strategy);
+        final CentroidPartition expectedPartition = serial.cluster(points, dimension);
+        final List<CentroidCluster<DoublePoint>> expectedClusters =
+            new KMeansPlusPlusClusterer<DoublePoint>(7, 30, new EuclideanDistance(),
+                                                     RandomSource.MT_64.create(5L), strategy).cluster(clusterables);
+
+        for (int threads : new int[] {1, 3, 8}) {
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                final CentroidPartition partition =
+                    new KMeansPlusPlusClusterer<DoublePoint>(7, 30, new EuclideanDistance(),
+                                                             RandomSource.MT_64.create(5L), strategy,
+                                                             executor).cluster(points, dimension);
+                Assert.assertArrayEquals(expectedPartition.getLabels(), partition.getLabels());
+                Assert.assertArrayEquals(expectedPartition.getCentroids(), partition.getCentroids(), 0);
+
+                final List<CentroidCluster<DoublePoint>> clusters =
+                    new KMeansPlusPlusClusterer<DoublePoint>(7, 30, new EuclideanDistance(),
+                                                             RandomSource.MT_64.create(5L), strategy,
+                                                             executor).cluster(clusterables);
+                Assert.assertEquals(expectedClusters.size(), clusters.size());
+                for (int c = 0; c < clusters.size(); c++) {
+                    Assert.assertArrayEquals(expectedClusters.get(c).getCenter().getPoint(),
+                                             clusters.get(c).getCenter().getPoint(), 0);
+                    Assert.assertEquals(expectedClusters.get(c).getPoints(), clusters.get(c).getPoints());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
 }
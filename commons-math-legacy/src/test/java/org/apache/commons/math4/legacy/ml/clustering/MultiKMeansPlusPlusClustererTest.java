@@ -18,8 +18,16 @@
 package org.apache.commons.math4.legacy.ml.clustering;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math4.legacy.ml.clustering.evaluation.SumOfClusterVariances;
+import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -92,4 +100,40 @@ public class MultiKMeansPlusPlusClustererTest {
         Assert.assertTrue(cluster2Found);
         Assert.assertTrue(cluster3Found);
     }
+
+    @Test
+    public void testConcurrentTrialsAreDeterministic() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(1234L);
+        final List<DoublePoint> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            points.add(new DoublePoint(new double[] {rng.nextDouble(), rng.nextDouble()}));
+        }
+
+        List<CentroidCluster<DoublePoint>> expected = null;
+        for (int threads : new int[] {1, 2, 5}) {
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                final KMeansPlusPlusClusterer<DoublePoint> clusterer =
+                    new ElkanKMeansPlusPlusClusterer<>(4, 20, new EuclideanDistance(),
+                                                       RandomSource.MT_64.create(77L));
+                final MultiKMeansPlusPlusClusterer<DoublePoint> transformer =
+                    new MultiKMeansPlusPlusClusterer<>(clusterer, 6,
+                                                       ClusterEvaluator.ranking(new SumOfClusterVariances(new EuclideanDistance())),
+                                                       executor);
+                final List<CentroidCluster<DoublePoint>> clusters = transformer.cluster(points);
+                Assert.assertEquals(4, clusters.size());
+                if (expected == null) {
+                    expected = clusters;
+                } else {
+                    for (int c = 0; c < clusters.size(); c++) {
+                        Assert.assertArrayEquals(expected.get(c).getCenter().getPoint(),
+                                                 clusters.get(c).getCenter().getPoint(), 0);
+                        Assert.assertEquals(expected.get(c).getPoints(), clusters.get(c).getPoints());
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
 }
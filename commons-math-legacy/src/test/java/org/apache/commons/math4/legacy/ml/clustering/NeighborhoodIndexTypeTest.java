@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ml.clustering;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.math4.legacy.ml.distance.CanberraDistance;
+import org.apache.commons.math4.legacy.ml.distance.ChebyshevDistance;
+import org.apache.commons.math4.legacy.ml.distance.DistanceMeasure;
+import org.apache.commons.math4.legacy.ml.distance.EuclideanDistance;
+import org.apache.commons.math4.legacy.ml.distance.ManhattanDistance;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link NeighborhoodIndexType}.
+ */
+public class NeighborhoodIndexTypeTest {
+
+    @Test
+    public void testSameNeighborsAsBruteForce() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(20261017L);
+        final DistanceMeasure[] measures = {
+            new EuclideanDistance(), new ChebyshevDistance(), new ManhattanDistance()
+        };
+        for (final int dim : new int[] {1, 2, 3, 5}) {
+            final List<DoublePoint> points = randomPoints(rng, 500, dim);
+            for (final DistanceMeasure measure : measures) {
+                for (final double radius : new double[] {0.05, 1, 3}) {
+                    for (final NeighborhoodIndexType type : NeighborhoodIndexType.values()) {
+                        assertSameNeighbors(points, measure, radius, type);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNeighborsOnBoundary() {
+        // Integer grid: many pairs of points lie at exactly the radius.
+        final List<DoublePoint> points = new ArrayList<>();
+        for (int i = -5; i <= 5; i++) {
+            for (int j = -5; j <= 5; j++) {
+                points.add(new DoublePoint(new double[] {0.1 * i, 0.1 * j}));
+                points.add(new DoublePoint(new double[] {0.1 * i, 0.1 * j}));
+            }
+        }
+        Collections.shuffle(points, new java.util.Random(42));
+        for (final DistanceMeasure measure : new DistanceMeasure[] {
+                new EuclideanDistance(), new ChebyshevDistance(), new ManhattanDistance() }) {
+            for (final NeighborhoodIndexType type : NeighborhoodIndexType.values()) {
+                assertSameNeighbors(points, measure, 0.1, type);
+                assertSameNeighbors(points, measure, 0.2, type);
+            }
+        }
+    }
+
+    @Test
+    public void testFallbackToBruteForce() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(20261018L);
+        final List<DoublePoint> points = randomPoints(rng, 200, 2);
+        for (final NeighborhoodIndexType type : NeighborhoodIndexType.values()) {
+            // Unsupported distance.
+            Assert.assertTrue(type.create(points, new CanberraDistance(), 0.5) instanceof BruteForceNeighborhoodIndex);
+            // Zero radius.
+            Assert.assertTrue(type.create(points, new EuclideanDistance(), 0) instanceof BruteForceNeighborhoodIndex);
+            assertSameNeighbors(points, new CanberraDistance(), 0.5, type);
+            assertSameNeighbors(points, new EuclideanDistance(), 0, type);
+        }
+        final List<DoublePoint> infinite = new ArrayList<>(points);
+        infinite.add(new DoublePoint(new double[] {Double.POSITIVE_INFINITY, 0}));
+        Assert.assertTrue(NeighborhoodIndexType.KD_TREE.create(infinite, new EuclideanDistance(), 0.5)
+                          instanceof BruteForceNeighborhoodIndex);
+    }
+
+    @Test
+    public void testAutomaticSelection() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create(20261019L);
+        Assert.assertTrue(NeighborhoodIndexType.AUTOMATIC.create(randomPoints(rng, 10, 2), new EuclideanDistance(), 1)
+                          instanceof GridNeighborhoodIndex);
+        Assert.assertTrue(NeighborhoodIndexType.AUTOMATIC.create(randomPoints(rng, 10, 4), new EuclideanDistance(), 1)
+                          instanceof KDTreeNeighborhoodIndex);
+        // Cell indices would overflow.
+        Assert.assertTrue(NeighborhoodIndexType.AUTOMATIC.create(randomPoints(rng, 10, 2), new EuclideanDistance(), 1e-300)
+                          instanceof BruteForceNeighborhoodIndex);
+        Assert.assertTrue(NeighborhoodIndexType.GRID.create(randomPoints(rng, 10, 2), new EuclideanDistance(), 1e-140)
+                          instanceof BruteForceNeighborhoodIndex);
+        Assert.assertTrue(NeighborhoodIndexType.KD_TREE.create(randomPoints(rng, 10, 2), new EuclideanDistance(), 1e-140)
+                          instanceof KDTreeNeighborhoodIndex);
+    }
+
+    /**
+     * @param rng Generator.
+     * @param n Number of points.
+     * @param dim Dimension.
+     * @return points with coordinates drawn from a mixture of clusters.
+     */
+    private static List<DoublePoint> randomPoints(UniformRandomProvider rng,
+                                                  int n,
+                                                  int dim) {
+        final List<DoublePoint> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            final double[] p = new double[dim];
+            final double center = 10 * rng.nextInt(3);
+            for (int j = 0; j < dim; j++) {
+                p[j] = center + 4 * (rng.nextDouble() - 0.5);
+            }
+            points.add(new DoublePoint(p));
+        }
+        // Duplicates.
+        points.add(new DoublePoint(points.get(0).getPoint()));
+        points.add(new DoublePoint(points.get(1).getPoint()));
+        return points;
+    }
+
+    /**
+     * Checks that an index finds the same neighbors (in the same order) as a linear scan.
+     *
+     * @param points Points.
+     * @param measure Distance.
+     * @param radius Radius.
+     * @param type Index.
+     */
+    private static void assertSameNeighbors(List<DoublePoint> points,
+                                            DistanceMeasure measure,
+                                            double radius,
+                                            NeighborhoodIndexType type) {
+        final NeighborhoodIndex<DoublePoint> index = type.create(points, measure, radius);
+        for (final DoublePoint q : points) {
+            final List<DoublePoint> expected = new ArrayList<>();
+            for (final DoublePoint p : points) {
+                if (p != q && measure.compute(p.getPoint(), q.getPoint()) <= radius) {
+                    expected.add(p);
+                }
+            }
+            final List<DoublePoint> actual = index.getNeighbors(q);
+            Assert.assertEquals(type + " " + measure.getClass().getSimpleName(), expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Assert.assertSame(expected.get(i), actual.get(i));
+            }
+        }
+    }
+}
@@ -17,6 +17,10 @@
 
 package org.apache.commons.math4.legacy.ode;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Random;
 
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
@@ -139,6 +143,130 @@ public class ContinuousOutputModelTest {
       }
   }
 
+  @Test
+  public void testCallerArrays() throws Exception {
+
+    ContinuousOutputModel cm = new ContinuousOutputModel();
+    integ.addStepHandler(cm);
+    integ.integrate(pb,
+                    pb.getInitialTime(), pb.getInitialState(),
+                    pb.getFinalTime(), new double[pb.getDimension()]);
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ObjectOutputStream    oos = new ObjectOutputStream(bos);
+    oos.writeObject(cm);
+    ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+    ContinuousOutputModel read = (ContinuousOutputModel) ois.readObject();
+
+    double[] y    = new double[pb.getDimension()];
+    double[] yDot = new double[pb.getDimension()];
+    Random random = new Random(347588535632L);
+    for (int i = 0; i < 1000; ++i) {
+      double r = random.nextDouble();
+      double time = r * pb.getInitialTime() + (1.0 - r) * pb.getFinalTime();
+      cm.setInterpolatedTime(time);
+      read.setInterpolatedTime(time);
+      read.getInterpolatedState(y);
+      read.getInterpolatedDerivatives(yDot);
+      Assert.assertArrayEquals(cm.getInterpolatedState(), y, 0.0);
+      Assert.assertArrayEquals(cm.getInterpolatedDerivatives(), yDot, 0.0);
+    }
+  }
+
+  @Test
+  public void testAppendAfterSerialization() throws Exception {
+
+      // theoretical solution: y[0] = cos(t), y[1] = sin(t)
+      FirstOrderDifferentialEquations problem =
+          new FirstOrderDifferentialEquations() {
+              @Override
+            public void computeDerivatives(double t, double[] y, double[] dot) {
+                  dot[0] = -y[1];
+                  dot[1] =  y[0];
+              }
+              @Override
+            public int getDimension() {
+                  return 2;
+              }
+          };
+
+      ContinuousOutputModel cm = new ContinuousOutputModel();
+      FirstOrderIntegrator integ1 =
+          new DormandPrince853Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+      integ1.addStepHandler(cm);
+      integ1.integrate(problem, 0, new double[] { 1.0, 0.0 }, 1.0, new double[2]);
+
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      ObjectOutputStream    oos = new ObjectOutputStream(bos);
+      oos.writeObject(cm);
+      ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+      ContinuousOutputModel read = (ContinuousOutputModel) ois.readObject();
+
+      // serializing must leave the model usable for further steps
+      ContinuousOutputModel other = new ContinuousOutputModel();
+      FirstOrderIntegrator integ2 =
+          new DormandPrince853Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+      integ2.addStepHandler(other);
+      integ2.integrate(problem, 1.0, new double[] { JdkMath.cos(1.0), JdkMath.sin(1.0) },
+                       2.0, new double[2]);
+      cm.append(other);
+
+      Assert.assertEquals(2.0, cm.getFinalTime(), 1.0e-12);
+      Assert.assertEquals(1.0, read.getFinalTime(), 1.0e-12);
+      for (double t = 0.05; t < 2.0; t += 0.1) {
+          cm.setInterpolatedTime(t);
+          double[] y = cm.getInterpolatedState();
+          Assert.assertEquals(JdkMath.cos(t), y[0], 1.0e-7);
+          Assert.assertEquals(JdkMath.sin(t), y[1], 1.0e-7);
+          if (t < 1.0) {
+              read.setInterpolatedTime(t);
+              Assert.assertArrayEquals(y, read.getInterpolatedState(), 0.0);
+          }
+      }
+  }
+
+  @Test
+  public void testMixedSteps() throws MaxCountExceededException, MathIllegalArgumentException {
+
+      // theoretical solution: y[0] = cos(t), y[1] = sin(t)
+      FirstOrderDifferentialEquations problem =
+          new FirstOrderDifferentialEquations() {
+              @Override
+            public void computeDerivatives(double t, double[] y, double[] dot) {
+                  dot[0] = -y[1];
+                  dot[1] =  y[0];
+              }
+              @Override
+            public int getDimension() {
+                  return 2;
+              }
+          };
+
+      // integrate backward from &pi; to 0, the steps are packed
+      ContinuousOutputModel cm = new ContinuousOutputModel();
+      FirstOrderIntegrator integ1 =
+          new DormandPrince853Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+      integ1.addStepHandler(cm);
+      integ1.integrate(problem, JdkMath.PI, new double[] { -1.0, 0.0 },
+                       0, new double[2]);
+
+      // a step that cannot be packed with the previous ones
+      ContinuousOutputModel other = new ContinuousOutputModel();
+      other.handleStep(buildInterpolator(0, new double[] { 1.0, 0.0 }, -0.1), true);
+      cm.append(other);
+
+      Assert.assertEquals(JdkMath.PI, cm.getInitialTime(), 1.0e-12);
+      Assert.assertEquals(-0.1, cm.getFinalTime(), 1.0e-12);
+      for (double t = 0.05; t < JdkMath.PI; t += 0.1) {
+          cm.setInterpolatedTime(t);
+          double[] y = cm.getInterpolatedState();
+          Assert.assertEquals(JdkMath.cos(t), y[0], 1.0e-7);
+          Assert.assertEquals(JdkMath.sin(t), y[1], 1.0e-7);
+      }
+      cm.setInterpolatedTime(-0.05);
+      Assert.assertEquals(1.0, cm.getInterpolatedState()[0], 1.0e-15);
+  }
+
   @Test
   public void testErrorConditions() throws MaxCountExceededException, MathIllegalArgumentException {
 
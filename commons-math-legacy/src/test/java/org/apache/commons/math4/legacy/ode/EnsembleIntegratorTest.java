@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.ode;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.ode.nonstiff.AdamsBashforthIntegrator;
+import org.apache.commons.math4.legacy.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+import org.apache.commons.math4.legacy.ode.nonstiff.DormandPrince853Integrator;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EnsembleIntegratorTest {
+    /** Number of members. */
+    private static final int SIZE = 100;
+
+    @Test
+    public void testRungeKutta() {
+        checkEnsemble(() -> new ClassicalRungeKuttaIntegrator(1e-3), 1e-10);
+    }
+
+    @Test
+    public void testEmbeddedRungeKutta() {
+        checkEnsemble(() -> new DormandPrince853Integrator(1e-8, 1, 1e-10, 1e-10), 1e-8);
+    }
+
+    @Test
+    public void testAdams() {
+        checkEnsemble(() -> new AdamsBashforthIntegrator(4, 1e-8, 1, 1e-10, 1e-10), 1e-7);
+    }
+
+    @Test
+    public void testDenseOutput() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final EnsembleIntegrator ensemble =
+                new EnsembleIntegrator(() -> new DormandPrince853Integrator(1e-8, 1, 1e-10, 1e-10), executor);
+            final ContinuousOutputModel[] models = ensemble.integrateDense(Decay::new, 0, initialStates(), 1);
+            Assert.assertEquals(SIZE, models.length);
+            for (int i = 0; i < SIZE; i++) {
+                Assert.assertEquals(0, models[i].getInitialTime(), 0);
+                Assert.assertEquals(1, models[i].getFinalTime(), 0);
+                for (double t = 0; t <= 1; t += 0.125) {
+                    models[i].setInterpolatedTime(t);
+                    Assert.assertEquals(Decay.solution(i, t),
+                                        models[i].getInterpolatedState()[0],
+                                        1e-8);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testChunkSize() {
+        final Supplier<FirstOrderIntegrator> factory = () -> new DormandPrince853Integrator(1e-8, 1, 1e-10, 1e-10);
+        final double[][] expected = new EnsembleIntegrator(factory, null).integrate(Decay::new, 0, initialStates(), 1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final int chunkSize : new int[] {1, 7, SIZE, 2 * SIZE}) {
+                final EnsembleIntegrator ensemble = new EnsembleIntegrator(factory, executor, chunkSize);
+                final double[][] y = ensemble.integrate(Decay::new, 0, initialStates(), 1);
+                Assert.assertEquals(SIZE, ensemble.getMembers());
+                for (int i = 0; i < SIZE; i++) {
+                    Assert.assertArrayEquals(expected[i], y[i], 0);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = NotStrictlyPositiveException.class)
+    public void testZeroChunkSize() {
+        new EnsembleIntegrator(() -> new ClassicalRungeKuttaIntegrator(1e-3), null, 0);
+    }
+
+    @Test(expected = MaxCountExceededException.class)
+    public void testFailedMember() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            new EnsembleIntegrator(() -> {
+                final FirstOrderIntegrator integrator = new ClassicalRungeKuttaIntegrator(1e-3);
+                integrator.setMaxEvaluations(100);
+                return integrator;
+            }, executor).integrate(Decay::new, 0, initialStates(), 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void checkEnsemble(Supplier<FirstOrderIntegrator> factory,
+                                      double tol) {
+        final EnsembleIntegrator sequential = new EnsembleIntegrator(factory, null);
+        final double[][] expected = sequential.integrate(Decay::new, 0, initialStates(), 1);
+        Assert.assertEquals(SIZE, sequential.getMembers());
+        Assert.assertTrue(sequential.getEvaluations() >= SIZE);
+        Assert.assertTrue(sequential.getEvaluationsPerSecond() > 0);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final EnsembleIntegrator concurrent = new EnsembleIntegrator(factory, executor);
+            final double[][] y = concurrent.integrate(Decay::new, 0, initialStates(), 1);
+            Assert.assertEquals(SIZE, concurrent.getMembers());
+            Assert.assertEquals(sequential.getEvaluations(), concurrent.getEvaluations());
+            Assert.assertTrue(concurrent.getMembersPerSecond() > 0);
+            for (int i = 0; i < SIZE; i++) {
+                // same computations, whatever the thread
+                Assert.assertArrayEquals(expected[i], y[i], 0);
+                Assert.assertEquals(Decay.solution(i, 1), y[i][0], tol);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double[][] initialStates() {
+        final double[][] y0 = new double[SIZE][];
+        for (int i = 0; i < SIZE; i++) {
+            y0[i] = new double[] {Decay.initialState(i)};
+        }
+        return y0;
+    }
+
+    /** Exponential decay, with a rate and an initial state depending on the member. */
+    private static class Decay implements FirstOrderDifferentialEquations {
+        /** Rate. */
+        private final double rate;
+
+        Decay(int member) {
+            rate = rate(member);
+        }
+
+        static double rate(int member) {
+            return 0.1 + 0.02 * member;
+        }
+
+        static double initialState(int member) {
+            return 1 + 0.5 * member;
+        }
+
+        static double solution(int member, double t) {
+            return initialState(member) * JdkMath.exp(-rate(member) * t);
+        }
+
+        @Override
+        public int getDimension() {
+            return 1;
+        }
+
+        @Override
+        public void computeDerivatives(double t, double[] y, double[] yDot) {
+            yDot[0] = -rate * y[0];
+        }
+    }
+}
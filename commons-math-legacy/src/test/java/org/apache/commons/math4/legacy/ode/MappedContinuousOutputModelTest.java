@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.apache.commons.math4.legacy.exception.MathIllegalStateException;
+import org.apache.commons.math4.legacy.exception.MathUnsupportedOperationException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
+import org.apache.commons.math4.legacy.ode.nonstiff.AdamsBashforthIntegrator;
+import org.apache.commons.math4.legacy.ode.nonstiff.DormandPrince54Integrator;
+import org.apache.commons.math4.legacy.ode.nonstiff.GraggBulirschStoerIntegrator;
+import org.apache.commons.math4.legacy.ode.sampling.StepHandler;
+import org.apache.commons.math4.legacy.ode.sampling.StepInterpolator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedContinuousOutputModelTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameAsInMemory() throws IOException {
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final FirstOrderIntegrator integ =
+            new DormandPrince54Integrator(0, pb.getFinalTime() - pb.getInitialTime(), 1.0e-8, 1.0e-8);
+        final Path file = folder.newFile().toPath();
+        // small regions, so that many of them are mapped
+        try (MappedContinuousOutputModel mapped = new MappedContinuousOutputModel(file, 2000)) {
+            final ContinuousOutputModel cm = new ContinuousOutputModel();
+            integ.addStepHandler(cm);
+            integ.addStepHandler(mapped);
+            integ.integrate(pb,
+                            pb.getInitialTime(), pb.getInitialState(),
+                            pb.getFinalTime(), new double[pb.getDimension()]);
+
+            Assert.assertTrue(mapped.getNumberOfSteps() > 20);
+            Assert.assertEquals(cm.getInitialTime(), mapped.getInitialTime(), 0.0);
+            Assert.assertEquals(cm.getFinalTime(), mapped.getFinalTime(), 0.0);
+            Assert.assertEquals(cm.getFinalTime(), mapped.getInterpolatedTime(), 0.0);
+            checkSame(cm, mapped, pb.getInitialTime(), pb.getFinalTime());
+            checkHeader(mapped);
+        }
+    }
+
+    @Test
+    public void testBackwardNordsieck() throws IOException {
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final FirstOrderIntegrator integ =
+            new AdamsBashforthIntegrator(4, 0, 1.0, 1.0e-10, 1.0e-10);
+        final Path file = folder.newFile().toPath();
+        try (MappedContinuousOutputModel mapped = new MappedContinuousOutputModel(file, 1000)) {
+            final ContinuousOutputModel cm = new ContinuousOutputModel();
+            integ.addStepHandler(cm);
+            integ.addStepHandler(mapped);
+            integ.integrate(pb,
+                            pb.getFinalTime(), pb.computeTheoreticalState(pb.getFinalTime()),
+                            pb.getInitialTime(), new double[pb.getDimension()]);
+            checkSame(cm, mapped, pb.getFinalTime(), pb.getInitialTime());
+            checkHeader(mapped);
+        }
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final FirstOrderIntegrator integ =
+            new DormandPrince54Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+        final Path file = folder.newFile().toPath();
+        try (MappedContinuousOutputModel mapped = new MappedContinuousOutputModel(file)) {
+            integ.addStepHandler(mapped);
+            final double middle = 0.5 * (pb.getInitialTime() + pb.getFinalTime());
+            final double[] y = new double[pb.getDimension()];
+            integ.integrate(pb, pb.getInitialTime(), pb.getInitialState(), middle, y);
+            final long first = mapped.getNumberOfSteps();
+            integ.integrate(pb, middle, y, pb.getFinalTime(), y);
+            Assert.assertEquals(middle, mapped.getInitialTime(), 1.0e-15);
+            Assert.assertTrue(mapped.getNumberOfSteps() < 2 * first + 5);
+            checkHeader(mapped);
+        }
+    }
+
+    @Test
+    public void testPendingSteps() throws IOException {
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final FirstOrderIntegrator integ =
+            new DormandPrince54Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+        final Path file = folder.newFile().toPath();
+        try (MappedContinuousOutputModel mapped = new MappedContinuousOutputModel(file)) {
+            final ContinuousOutputModel cm = new ContinuousOutputModel();
+            integ.addStepHandler(cm);
+            // the last step is never signaled, so the steps stay buffered
+            integ.addStepHandler(new StepHandler() {
+                @Override
+                public void init(double t0, double[] y0, double t) {
+                    mapped.init(t0, y0, t);
+                }
+
+                @Override
+                public void handleStep(StepInterpolator interpolator, boolean isLast) {
+                    mapped.handleStep(interpolator, false);
+                }
+            });
+            integ.integrate(pb,
+                            pb.getInitialTime(), pb.getInitialState(),
+                            pb.getFinalTime(), new double[pb.getDimension()]);
+            // the first lookup must already see the buffered (last) steps
+            final double time = pb.getInitialTime() + 0.95 * (pb.getFinalTime() - pb.getInitialTime());
+            cm.setInterpolatedTime(time);
+            mapped.setInterpolatedTime(time);
+            Assert.assertArrayEquals(cm.getInterpolatedState(), mapped.getInterpolatedState(), 0.0);
+            checkSame(cm, mapped, pb.getInitialTime(), pb.getFinalTime());
+        }
+        Assert.assertEquals(MappedContinuousOutputModel.HEADER_SIZE +
+                            8L * packedSize(file) * steps(file),
+                            Files.size(file));
+    }
+
+    @Test
+    public void testUseAfterClose() throws IOException {
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final FirstOrderIntegrator integ =
+            new DormandPrince54Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+        final Path file = folder.newFile().toPath();
+        try (MappedContinuousOutputModel mapped = new MappedContinuousOutputModel(file, 2000)) {
+            integ.addStepHandler(mapped);
+            integ.integrate(pb,
+                            pb.getInitialTime(), pb.getInitialState(),
+                            pb.getFinalTime(), new double[pb.getDimension()]);
+            final double middle = 0.5 * (pb.getInitialTime() + pb.getFinalTime());
+            mapped.setInterpolatedTime(middle);
+            final double[] expected = mapped.getInterpolatedState().clone();
+            mapped.close();
+
+            // the step and region used last must not be reused
+            try {
+                mapped.setInterpolatedTime(middle);
+                Assert.fail("an exception should have been thrown");
+            } catch (MathIllegalStateException e) {
+                // expected
+            }
+            try {
+                mapped.getInterpolatedState();
+                Assert.fail("an exception should have been thrown");
+            } catch (MathIllegalStateException e) {
+                // expected
+            }
+            Assert.assertEquals(pb.getFinalTime(), mapped.getFinalTime(), 0.0);
+            checkHeader(mapped);
+
+            // a new integration opens the file again
+            integ.integrate(pb,
+                            pb.getInitialTime(), pb.getInitialState(),
+                            pb.getFinalTime(), new double[pb.getDimension()]);
+            mapped.setInterpolatedTime(middle);
+            Assert.assertArrayEquals(expected, mapped.getInterpolatedState(), 0.0);
+        }
+    }
+
+    @Test(expected = MathUnsupportedOperationException.class)
+    public void testUnsupportedInterpolator() throws IOException {
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final FirstOrderIntegrator integ =
+            new GraggBulirschStoerIntegrator(0, 1.0, 1.0e-8, 1.0e-8);
+        try (MappedContinuousOutputModel mapped =
+                 new MappedContinuousOutputModel(folder.newFile().toPath())) {
+            integ.addStepHandler(mapped);
+            integ.integrate(pb,
+                            pb.getInitialTime(), pb.getInitialState(),
+                            pb.getFinalTime(), new double[pb.getDimension()]);
+        }
+    }
+
+    @Test(expected = NotStrictlyPositiveException.class)
+    public void testWrongRegionSize() throws IOException {
+        new MappedContinuousOutputModel(folder.newFile().toPath(), 0);
+    }
+
+    private static void checkSame(final ContinuousOutputModel cm,
+                                  final MappedContinuousOutputModel mapped,
+                                  final double t0, final double t1) {
+        final double[] y    = new double[cm.getInterpolatedState().length];
+        final double[] yDot = new double[y.length];
+        final Random random = new Random(0x6ec5b6a12d2dd4c3L);
+        for (int i = 0; i < 1000; ++i) {
+            // include some points outside of the integration interval
+            final double r = 1.2 * random.nextDouble() - 0.1;
+            final double time = (1 - r) * t0 + r * t1;
+            cm.setInterpolatedTime(time);
+            mapped.setInterpolatedTime(time);
+            Assert.assertEquals(time, mapped.getInterpolatedTime(), 0.0);
+            mapped.getInterpolatedState(y);
+            mapped.getInterpolatedDerivatives(yDot);
+            Assert.assertArrayEquals(cm.getInterpolatedState(), y, 0.0);
+            Assert.assertArrayEquals(cm.getInterpolatedDerivatives(), yDot, 0.0);
+        }
+    }
+
+    private static int packedSize(final Path file) throws IOException {
+        try (InputStream is = Files.newInputStream(file);
+             DataInputStream dis = new DataInputStream(is)) {
+            dis.readLong();
+            dis.readInt();
+            return dis.readInt();
+        }
+    }
+
+    private static long steps(final Path file) throws IOException {
+        try (InputStream is = Files.newInputStream(file);
+             DataInputStream dis = new DataInputStream(is)) {
+            dis.readLong();
+            dis.readInt();
+            dis.readInt();
+            return dis.readLong();
+        }
+    }
+
+    private static void checkHeader(final MappedContinuousOutputModel mapped)
+        throws IOException {
+        try (InputStream is = Files.newInputStream(mapped.getFile());
+             DataInputStream dis = new DataInputStream(is)) {
+            Assert.assertEquals(MappedContinuousOutputModel.MAGIC, dis.readLong());
+            Assert.assertEquals(MappedContinuousOutputModel.VERSION, dis.readInt());
+            final int packedSize = dis.readInt();
+            Assert.assertEquals(mapped.getNumberOfSteps(), dis.readLong());
+            Assert.assertEquals(mapped.getInitialTime(), dis.readDouble(), 0.0);
+            Assert.assertEquals(mapped.getFinalTime(), dis.readDouble(), 0.0);
+            Assert.assertEquals(MappedContinuousOutputModel.HEADER_SIZE +
+                                8L * packedSize * mapped.getNumberOfSteps(),
+                                Files.size(mapped.getFile()));
+        }
+    }
+}
@@ -21,7 +21,10 @@ package org.apache.commons.math4.legacy.ode.nonstiff;
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
 import org.apache.commons.math4.legacy.exception.NoBracketingException;
+import org.apache.commons.math4.legacy.exception.NotFiniteNumberException;
+import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
 import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.ode.BatchFirstOrderDifferentialEquations;
 import org.apache.commons.math4.legacy.ode.FirstOrderDifferentialEquations;
 import org.apache.commons.math4.legacy.ode.FirstOrderIntegrator;
 import org.apache.commons.math4.legacy.ode.TestProblem1;
@@ -344,4 +347,82 @@ public class ClassicalRungeKuttaIntegratorTest {
 
       integ.integrate(equations, start, new double[] { 1.0 }, end, new double[1]);
   }
+
+  @Test
+  public void testBatch() {
+      final int n = 50;
+      checkBatch(n, 0.0, 1.234);
+      checkBatch(n, 1.234, 0.0);
+      checkBatch(1, 0.0, 0.01);
+  }
+
+  @Test(expected = DimensionMismatchException.class)
+  public void testBatchDimensionMismatch() {
+      new ClassicalRungeKuttaIntegrator(0.01).integrateBatch(new DampedOscillators(new double[3]),
+                                                             0.0, new double[5], 1.0);
+  }
+
+  @Test(expected = NotStrictlyPositiveException.class)
+  public void testBatchZeroStep() {
+      new ClassicalRungeKuttaIntegrator(0.0).integrateBatch(new DampedOscillators(new double[3]),
+                                                            0.0, new double[6], 1.0);
+  }
+
+  @Test(expected = NotFiniteNumberException.class)
+  public void testBatchNaNStep() {
+      new ClassicalRungeKuttaIntegrator(Double.NaN).integrateBatch(new DampedOscillators(new double[3]),
+                                                                   0.0, new double[6], 1.0);
+  }
+
+  private static void checkBatch(final int n, final double t0, final double t) {
+      final double[] damping = new double[n];
+      final double[] y = new double[2 * n];
+      for (int i = 0; i < n; ++i) {
+          damping[i] = 0.01 * i;
+          y[i]     = 1.0 + 0.1 * i;
+          y[n + i] = -0.5 * i;
+      }
+      final double[] y0 = y.clone();
+
+      final RungeKuttaIntegrator integ = new ClassicalRungeKuttaIntegrator(0.01);
+      integ.integrateBatch(new DampedOscillators(damping), t0, y, t);
+
+      // each system gives the same result as a separate integration
+      for (int i = 0; i < n; ++i) {
+          final double[] yi = new double[2];
+          integ.integrate(new DampedOscillators(new double[] { damping[i] }),
+                          t0, new double[] { y0[i], y0[n + i] }, t, yi);
+          Assert.assertEquals(yi[0], y[i], 0.0);
+          Assert.assertEquals(yi[1], y[n + i], 0.0);
+      }
+  }
+
+  /** Independent damped harmonic oscillators, usable one at a time or as a batch. */
+  private static class DampedOscillators
+      implements FirstOrderDifferentialEquations, BatchFirstOrderDifferentialEquations {
+
+      private final double[] damping;
+
+      DampedOscillators(final double[] damping) {
+          this.damping = damping;
+      }
+
+      @Override
+      public int getDimension() {
+          return 2;
+      }
+
+      @Override
+      public void computeDerivatives(double t, double[] y, double[] yDot) {
+          computeDerivatives(t, 1, y, yDot);
+      }
+
+      @Override
+      public void computeDerivatives(double t, int n, double[] y, double[] yDot) {
+          for (int i = 0; i < n; ++i) {
+              yDot[i]     = y[n + i];
+              yDot[n + i] = -y[i] - damping[i] * y[n + i];
+          }
+      }
+  }
 }
@@ -68,8 +68,8 @@ public class ClassicalRungeKuttaStepInterpolatorTest {
         oos.writeObject(handler);
     }
 
-    Assert.assertTrue(bos.size () > 880000);
-    Assert.assertTrue(bos.size () < 900000);
+    Assert.assertTrue(bos.size () > 790000);
+    Assert.assertTrue(bos.size () < 810000);
 
     ByteArrayInputStream  bis = new ByteArrayInputStream(bos.toByteArray());
     ObjectInputStream     ois = new ObjectInputStream(bis);
@@ -21,6 +21,7 @@ import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.MaxCountExceededException;
 import org.apache.commons.math4.legacy.exception.NoBracketingException;
 import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.ode.BatchFirstOrderDifferentialEquations;
 import org.apache.commons.math4.legacy.ode.FirstOrderIntegrator;
 import org.apache.commons.math4.legacy.ode.TestProblem1;
 import org.apache.commons.math4.legacy.ode.TestProblem3;
@@ -38,6 +39,40 @@ import org.junit.Test;
 
 public class DormandPrince54IntegratorTest {
 
+  @Test
+  public void testBatch() {
+      // harmonic oscillators with different pulsations
+      final int n = 20;
+      final double[] omega = new double[n];
+      final double[] y = new double[2 * n];
+      for (int i = 0; i < n; ++i) {
+          omega[i] = 1.0 + 0.1 * i;
+          y[i]     = 1.0;
+          y[n + i] = 0.0;
+      }
+      final BatchFirstOrderDifferentialEquations equations = new BatchFirstOrderDifferentialEquations() {
+          @Override
+          public int getDimension() {
+              return 2;
+          }
+          @Override
+          public void computeDerivatives(double t, int size, double[] yc, double[] yDot) {
+              for (int i = 0; i < size; ++i) {
+                  yDot[i]        = yc[size + i];
+                  yDot[size + i] = -omega[i] * omega[i] * yc[i];
+              }
+          }
+      };
+
+      final double t = 3.0;
+      new DormandPrince54Integrator(1.0e-8, 1.0, 1.0e-10, 1.0e-10).integrateBatch(equations, 0.0, y, t, 0.01);
+      for (int i = 0; i < n; ++i) {
+          Assert.assertEquals(JdkMath.cos(omega[i] * t), y[i], 1.0e-9);
+          Assert.assertEquals(-omega[i] * JdkMath.sin(omega[i] * t), y[n + i], 1.0e-9);
+      }
+  }
+
+
   @Test(expected=DimensionMismatchException.class)
   public void testDimensionCheck()
       throws DimensionMismatchException, NumberIsTooSmallException,
@@ -68,8 +68,8 @@ public class LutherStepInterpolatorTest {
             oos.writeObject(handler);
         }
 
-        Assert.assertTrue(bos.size() > 1200000);
-        Assert.assertTrue(bos.size() < 1250000);
+        Assert.assertTrue(bos.size() > 1110000);
+        Assert.assertTrue(bos.size() < 1130000);
 
         ByteArrayInputStream  bis = new ByteArrayInputStream(bos.toByteArray());
         ObjectInputStream     ois = new ObjectInputStream(bis);
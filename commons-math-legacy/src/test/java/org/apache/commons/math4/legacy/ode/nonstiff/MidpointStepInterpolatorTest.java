@@ -69,8 +69,8 @@ public class MidpointStepInterpolatorTest {
         oos.writeObject(handler);
     }
 
-    Assert.assertTrue(bos.size () > 135000);
-    Assert.assertTrue(bos.size () < 145000);
+    Assert.assertTrue(bos.size () > 110000);
+    Assert.assertTrue(bos.size () < 120000);
 
     ByteArrayInputStream  bis = new ByteArrayInputStream(bos.toByteArray());
     ObjectInputStream     ois = new ObjectInputStream(bis);
@@ -66,8 +66,8 @@ public class NordsieckStepInterpolatorTest {
             oos.writeObject(handler);
         }
 
-        Assert.assertTrue(bos.size() > 47000);
-        Assert.assertTrue(bos.size() < 48000);
+        Assert.assertTrue(bos.size() > 32000);
+        Assert.assertTrue(bos.size() < 33500);
 
         ByteArrayInputStream  bis = new ByteArrayInputStream(bos.toByteArray());
         ObjectInputStream     ois = new ObjectInputStream(bis);
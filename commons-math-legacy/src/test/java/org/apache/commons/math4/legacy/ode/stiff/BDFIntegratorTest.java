@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+import org.apache.commons.math4.legacy.ode.sampling.StepHandler;
+import org.apache.commons.math4.legacy.ode.sampling.StepInterpolator;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BDFIntegratorTest extends StiffIntegratorAbstractTest {
+
+    @Override
+    protected StiffIntegrator createIntegrator(double minStep, double maxStep,
+                                               double absTol, double relTol) {
+        return new BDFIntegrator(5, minStep, maxStep, absTol, relTol);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testOrderTooLow() {
+        new BDFIntegrator(0, 1e-12, 1e6, 1e-8, 1e-6);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testOrderTooHigh() {
+        new BDFIntegrator(6, 1e-12, 1e6, 1e-8, 1e-6);
+    }
+
+    @Test
+    public void testFactorizationReuse() {
+        final StiffProblems.Robertson pb = new StiffProblems.Robertson();
+        final BDFIntegrator integrator = new BDFIntegrator(5, 1e-12, 1e6, 1e-8, 1e-6);
+        final int[] steps = new int[1];
+        integrator.addStepHandler(new StepHandler() {
+            @Override
+            public void init(double t0, double[] y0, double t) {
+                steps[0] = 0;
+            }
+
+            @Override
+            public void handleStep(StepInterpolator interpolator, boolean isLast) {
+                ++steps[0];
+            }
+        });
+        final double[] y = pb.initialState();
+        integrator.integrate(pb, 0, y, 4.0e5, y);
+        Assert.assertEquals(0.004938, y[0], 1e-5);
+        Assert.assertTrue(integrator.getJacobianEvaluations() < steps[0] / 10);
+        Assert.assertTrue(integrator.getFactorizations() < steps[0] / 2);
+    }
+
+    @Test
+    public void testMaxOrder() {
+        final double[] errors = new double[6];
+        for (int order = 1; order <= 5; ++order) {
+            final StiffProblems.Linear pb = new StiffProblems.Linear();
+            final BDFIntegrator integrator = new BDFIntegrator(order, 1e-12, 1e6, 1e-8, 1e-6);
+            Assert.assertEquals(order, integrator.getMaxOrder());
+            final double[] y = pb.initialState();
+            integrator.integrate(pb, 0, y, 2.0, y);
+            final double[] exact = pb.exact(2.0);
+            errors[order] = JdkMath.max(JdkMath.abs(y[0] - exact[0]), JdkMath.abs(y[1] - exact[1]));
+            Assert.assertEquals(0, errors[order], 1e-3);
+        }
+        // higher orders give smaller global errors for the same tolerance
+        Assert.assertTrue(errors[5] < errors[1] / 100);
+    }
+}
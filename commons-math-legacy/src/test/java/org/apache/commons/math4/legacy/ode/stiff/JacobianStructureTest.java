@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import java.util.Arrays;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.exception.NotPositiveException;
+import org.apache.commons.math4.legacy.exception.NullArgumentException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+import org.apache.commons.math4.legacy.linear.SingularMatrixException;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JacobianStructureTest {
+
+    @Test
+    public void testDense() {
+        final int n = 7;
+        final double[][] jacobian = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                jacobian[i][j] = entry(i, j);
+            }
+        }
+        final IterationMatrix matrix = JacobianStructure.dense().createMatrix(n);
+        Assert.assertEquals(n, matrix.getColumnGroups().length);
+        checkSolve(matrix, jacobian, 0.5);
+        checkGroups(matrix, jacobian);
+        checkEntries(matrix, jacobian, 0.5);
+    }
+
+    @Test
+    public void testBanded() {
+        final int n = 12;
+        final int lower = 2;
+        final int upper = 1;
+        final double[][] jacobian = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = JdkMath.max(0, i - lower); j <= JdkMath.min(n - 1, i + upper); ++j) {
+                jacobian[i][j] = entry(i, j);
+            }
+        }
+        final IterationMatrix matrix = JacobianStructure.banded(lower, upper).createMatrix(n);
+        Assert.assertEquals(lower + upper + 1, matrix.getColumnGroups().length);
+        // small sigma: the factorization needs pivoting
+        checkSolve(matrix, jacobian, 0.5);
+        checkSolve(matrix, jacobian, 20.0);
+        checkGroups(matrix, jacobian);
+        checkEntries(matrix, jacobian, 0.5);
+    }
+
+    @Test
+    public void testWideBand() {
+        // band larger than the matrix
+        final int n = 4;
+        final double[][] jacobian = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                jacobian[i][j] = entry(i, j);
+            }
+        }
+        checkSolve(JacobianStructure.banded(10, 10).createMatrix(n), jacobian, 0.5);
+    }
+
+    @Test
+    public void testSparse() {
+        final int n = 15;
+        final int[][] pattern = new int[n][];
+        final double[][] jacobian = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            // arrowhead with some scattered entries, causing fill-in
+            pattern[i] = i == 0 ?
+                         new int[] {0, 3, 7, 11, 14} :
+                         new int[] {0, i, (5 * i) % n, (i + 1) % n};
+            for (final int j : pattern[i]) {
+                jacobian[i][j] = entry(i, j);
+            }
+        }
+        final IterationMatrix matrix = JacobianStructure.sparse(pattern).createMatrix(n);
+        Assert.assertTrue(matrix.getColumnGroups().length < n);
+        checkSolve(matrix, jacobian, 10.0);
+        checkSolve(matrix, jacobian, 3.0);
+        checkGroups(matrix, jacobian);
+        checkEntries(matrix, jacobian, 3.0);
+    }
+
+    @Test
+    public void testSingular() {
+        final int n = 5;
+        final double[][] identity = new double[n][n];
+        final int[][] pattern = new int[n][];
+        for (int i = 0; i < n; ++i) {
+            identity[i][i] = 1;
+            pattern[i] = new int[] {i};
+        }
+        final IterationMatrix[] matrices = {
+            JacobianStructure.dense().createMatrix(n),
+            JacobianStructure.banded(1, 1).createMatrix(n),
+            JacobianStructure.sparse(pattern).createMatrix(n)
+        };
+        for (final IterationMatrix matrix : matrices) {
+            matrix.setJacobian(identity);
+            try {
+                matrix.factor(1.0);
+                Assert.fail("an exception should have been thrown");
+            } catch (SingularMatrixException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = NotPositiveException.class)
+    public void testNegativeLowerBandwidth() {
+        JacobianStructure.banded(-1, 1);
+    }
+
+    @Test(expected = NotPositiveException.class)
+    public void testNegativeUpperBandwidth() {
+        JacobianStructure.banded(1, -1);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testSparseColumnOutOfRange() {
+        JacobianStructure.sparse(new int[][] {{0, 1}, {2}});
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void testSparseNullRow() {
+        JacobianStructure.sparse(new int[][] {{0, 1}, null});
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testSparseDimensionMismatch() {
+        JacobianStructure.sparse(new int[][] {{0, 1}, {1}}).createMatrix(3);
+    }
+
+    @Test
+    public void testSparsePatternCopied() {
+        final int[][] pattern = {{1, 0, 1}, {1}};
+        final JacobianStructure structure = JacobianStructure.sparse(pattern);
+        pattern[1][0] = 5;
+        final IterationMatrix matrix = structure.createMatrix(2);
+        checkSolve(matrix, new double[][] {{entry(0, 0), entry(0, 1)}, {0, entry(1, 1)}}, 4.0);
+    }
+
+    /** Arbitrary but reproducible matrix entry. */
+    private static double entry(int i, int j) {
+        return JdkMath.sin(1.0 + 3.0 * i + 7.0 * j) * (i == j ? 1.0 : 2.0);
+    }
+
+    /** Check the solution of a linear system against its residual. */
+    private static void checkSolve(IterationMatrix matrix, double[][] jacobian, double sigma) {
+        final int n = jacobian.length;
+        matrix.setJacobian(jacobian);
+        matrix.factor(sigma);
+        final double[] b = new double[n];
+        for (int i = 0; i < n; ++i) {
+            b[i] = JdkMath.cos(2.0 * i);
+        }
+        final double[] x = b.clone();
+        matrix.solve(x);
+        for (int i = 0; i < n; ++i) {
+            double residual = sigma * x[i] - b[i];
+            for (int j = 0; j < n; ++j) {
+                residual -= jacobian[i][j] * x[j];
+            }
+            Assert.assertEquals(0, residual, 1e-12);
+        }
+    }
+
+    /** Check the Jacobian set entry by entry gives the same solution as the full matrix. */
+    private static void checkEntries(IterationMatrix matrix, double[][] jacobian, double sigma) {
+        final int n = jacobian.length;
+        final double[] b = new double[n];
+        for (int i = 0; i < n; ++i) {
+            b[i] = JdkMath.cos(2.0 * i);
+        }
+        matrix.setJacobian(jacobian);
+        matrix.factor(sigma);
+        final double[] expected = b.clone();
+        matrix.solve(expected);
+
+        // stale values must be cleared, entries outside the structure ignored
+        final double[][] noise = new double[n][n];
+        for (final double[] row : noise) {
+            Arrays.fill(row, 1.0e3);
+        }
+        matrix.setJacobian(noise);
+        matrix.clearJacobian();
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                matrix.setJacobianEntry(i, j, jacobian[i][j] == 0 ? 1.0e3 : jacobian[i][j]);
+            }
+        }
+        matrix.factor(sigma);
+        matrix.solve(b);
+        Assert.assertArrayEquals(expected, b, 0);
+    }
+
+    /** Check the finite differences of grouped columns rebuild the Jacobian. */
+    private static void checkGroups(IterationMatrix matrix, double[][] jacobian) {
+        final int n = jacobian.length;
+        final boolean[] seen = new boolean[n];
+        final double[] reference = new double[n];
+        final double delta = 0.5;
+        for (final int[] group : matrix.getColumnGroups()) {
+            // perturbing all columns of the group at once, as the integrators do
+            final double[] perturbed = new double[n];
+            for (final int j : group) {
+                Assert.assertFalse(seen[j]);
+                seen[j] = true;
+                for (int i = 0; i < n; ++i) {
+                    perturbed[i] += delta * jacobian[i][j];
+                }
+            }
+            for (final int j : group) {
+                matrix.setColumn(j, perturbed, reference, delta);
+            }
+        }
+        for (final boolean s : seen) {
+            Assert.assertTrue(s);
+        }
+
+        // the Jacobian set by columns must give the same solution
+        final double[] expected = new double[n];
+        Arrays.fill(expected, 1.0);
+        final double[] b = new double[n];
+        for (int i = 0; i < n; ++i) {
+            b[i] = 100.0;
+            for (int j = 0; j < n; ++j) {
+                b[i] -= jacobian[i][j];
+            }
+        }
+        matrix.factor(100.0);
+        matrix.solve(b);
+        Assert.assertArrayEquals(expected, b, 1e-12);
+    }
+}
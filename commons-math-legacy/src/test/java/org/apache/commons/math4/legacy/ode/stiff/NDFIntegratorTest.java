@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+import org.apache.commons.math4.legacy.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NDFIntegratorTest extends StiffIntegratorAbstractTest {
+
+    /** Non-stiff problem with exact solution cos t + t<sup>3</sup> / 3. */
+    private static final FirstOrderDifferentialEquations CUBIC = new FirstOrderDifferentialEquations() {
+        @Override
+        public int getDimension() {
+            return 1;
+        }
+
+        @Override
+        public void computeDerivatives(double t, double[] y, double[] yDot) {
+            yDot[0] = -(y[0] - JdkMath.cos(t) - t * t * t / 3) - JdkMath.sin(t) + t * t;
+        }
+    };
+
+    @Override
+    protected StiffIntegrator createIntegrator(double minStep, double maxStep,
+                                               double absTol, double relTol) {
+        return new NDFIntegrator(5, minStep, maxStep, absTol, relTol);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testOrderTooLow() {
+        new NDFIntegrator(0, 1e-12, 1e6, 1e-8, 1e-6);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testOrderTooHigh() {
+        new NDFIntegrator(6, 1e-12, 1e6, 1e-8, 1e-6);
+    }
+
+    @Test
+    public void testErrorConstants() {
+        // with fixed steps, the global errors of the formulas of order q are
+        // proportional to their error constants: 1 / (q + 1) for the BDF,
+        // 1 / (q + 1) + kappa_q gamma_q for the NDF
+        for (double h = 0.02; h > 0.005; h *= 0.5) {
+            final double bdf1 = fixedStepError(new BDFIntegrator(1, h, h, 1e10, 1e10));
+            final double ndf1 = fixedStepError(new NDFIntegrator(1, h, h, 1e10, 1e10));
+            Assert.assertEquals((0.5 - 0.1850) / 0.5, ndf1 / bdf1, 0.01);
+
+            // the first step is always of order 1
+            final double bdf2 = fixedStepError(new BDFIntegrator(2, h, h, 1e10, 1e10));
+            final double ndf2 = fixedStepError(new NDFIntegrator(2, h, h, 1e10, 1e10));
+            Assert.assertEquals((1.0 / 3.0 - 1.5 / 9.0) / (1.0 / 3.0), ndf2 / bdf2, 0.05);
+        }
+    }
+
+    @Test
+    public void testLargerSteps() {
+        // for the same tolerance, smaller error constants allow larger steps
+        for (int order = 1; order <= 2; ++order) {
+            final BDFIntegrator bdf = new BDFIntegrator(order, 1e-12, 1e6, 1e-6, 1e-6);
+            final NDFIntegrator ndf = new NDFIntegrator(order, 1e-12, 1e6, 1e-6, 1e-6);
+            final double bdfError = JdkMath.abs(error(bdf));
+            final double ndfError = JdkMath.abs(error(ndf));
+            Assert.assertTrue(ndf.getEvaluations() < 0.9 * bdf.getEvaluations());
+            Assert.assertTrue(ndfError < bdfError);
+        }
+    }
+
+    private static double fixedStepError(StiffIntegrator integrator) {
+        final double error = error(integrator);
+        Assert.assertTrue(JdkMath.abs(error) > 1e-7);
+        return error;
+    }
+
+    private static double error(StiffIntegrator integrator) {
+        final double[] y = {1};
+        integrator.integrate(CUBIC, 0, y, 2.0, y);
+        return y[0] - JdkMath.cos(2.0) - 8.0 / 3.0;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import org.apache.commons.math4.legacy.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Shampine43IntegratorTest extends StiffIntegratorAbstractTest {
+
+    @Override
+    protected StiffIntegrator createIntegrator(double minStep, double maxStep,
+                                               double absTol, double relTol) {
+        return new Shampine43Integrator(minStep, maxStep, absTol, relTol);
+    }
+
+    @Test
+    public void testOrder() {
+        // non-autonomous, non-stiff problem with exact solution cos t + t^3 / 3
+        final FirstOrderDifferentialEquations pb = new FirstOrderDifferentialEquations() {
+            @Override
+            public int getDimension() {
+                return 1;
+            }
+
+            @Override
+            public void computeDerivatives(double t, double[] y, double[] yDot) {
+                yDot[0] = -(y[0] - JdkMath.cos(t) - t * t * t / 3) - JdkMath.sin(t) + t * t;
+            }
+        };
+
+        // huge tolerances force the steps to the maximal step
+        double previousError = Double.NaN;
+        for (double h = 0.2; h > 0.02; h *= 0.5) {
+            final Shampine43Integrator integrator = new Shampine43Integrator(h, h, 1e10, 1e10);
+            Assert.assertEquals(4, integrator.getOrder());
+            final double[] y = {1};
+            integrator.integrate(pb, 0, y, 2.0, y);
+            final double error = JdkMath.abs(y[0] - JdkMath.cos(2.0) - 8.0 / 3.0);
+            if (!Double.isNaN(previousError)) {
+                Assert.assertTrue(previousError / error > 12);
+            }
+            previousError = error;
+        }
+    }
+
+    @Test
+    public void testJacobianPerStep() {
+        final StiffProblems.Robertson pb = new StiffProblems.Robertson();
+        final Shampine43Integrator integrator = new Shampine43Integrator(1e-12, 1e6, 1e-8, 1e-6);
+        final double[] y = pb.initialState();
+        integrator.integrate(pb, 0, y, 40.0, y);
+        // rejected steps reuse the Jacobian but need a new factorization
+        Assert.assertTrue(integrator.getFactorizations() >= integrator.getJacobianEvaluations());
+        Assert.assertTrue(integrator.getFactorizations() < 2 * integrator.getJacobianEvaluations());
+    }
+}
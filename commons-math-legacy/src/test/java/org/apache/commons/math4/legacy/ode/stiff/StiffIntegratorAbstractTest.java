@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.ode.events.EventHandler;
+import org.apache.commons.math4.legacy.ode.sampling.StepHandler;
+import org.apache.commons.math4.legacy.ode.sampling.StepInterpolator;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public abstract class StiffIntegratorAbstractTest {
+
+    /** Reference solution of the Robertson problem at t = 40. */
+    private static final double[] ROBERTSON_40 = {
+        0.7158270687, 9.185534764e-6, 0.2841637457
+    };
+
+    protected abstract StiffIntegrator createIntegrator(double minStep, double maxStep,
+                                                        double absTol, double relTol);
+
+    @Test
+    public void testLinear() {
+        final StiffProblems.Linear pb = new StiffProblems.Linear();
+        final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+        final double[] y = pb.initialState();
+        Assert.assertEquals(2.0, integrator.integrate(pb, 0, y, 2.0, y), 1e-15);
+        final double[] exact = pb.exact(2.0);
+        Assert.assertEquals(exact[0], y[0], 1e-5);
+        Assert.assertEquals(exact[1], y[1], 1e-5);
+    }
+
+    @Test
+    public void testRobertson() {
+        final StiffProblems.Robertson pb = new StiffProblems.Robertson();
+        final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+        final double[] y = pb.initialState();
+        integrator.integrate(pb, 0, y, 40.0, y);
+        Assert.assertEquals(ROBERTSON_40[0], y[0], 1e-4 * ROBERTSON_40[0]);
+        Assert.assertEquals(ROBERTSON_40[1], y[1], 1e-3 * ROBERTSON_40[1]);
+        Assert.assertEquals(ROBERTSON_40[2], y[2], 1e-4 * ROBERTSON_40[2]);
+        Assert.assertEquals(1.0, y[0] + y[1] + y[2], 1e-4);
+        Assert.assertEquals(pb.getEvaluations(), integrator.getEvaluations());
+        Assert.assertTrue(integrator.getJacobianEvaluations() > 0);
+        Assert.assertTrue(integrator.getFactorizations() >= integrator.getJacobianEvaluations());
+    }
+
+    @Test
+    public void testAnalyticJacobian() {
+        final StiffProblems.Robertson fd = new StiffProblems.Robertson();
+        final StiffIntegrator fdIntegrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+        final double[] yFD = fd.initialState();
+        fdIntegrator.integrate(fd, 0, yFD, 40.0, yFD);
+
+        final StiffProblems.RobertsonWithJacobian analytic = new StiffProblems.RobertsonWithJacobian();
+        final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+        final double[] y = analytic.initialState();
+        integrator.integrate(analytic, 0, y, 40.0, y);
+
+        Assert.assertEquals(integrator.getJacobianEvaluations(), analytic.getJacobians());
+        Assert.assertTrue(integrator.getEvaluations() < fdIntegrator.getEvaluations());
+        Assert.assertEquals(ROBERTSON_40[0], y[0], 1e-4 * ROBERTSON_40[0]);
+        Assert.assertEquals(ROBERTSON_40[1], y[1], 1e-3 * ROBERTSON_40[1]);
+        Assert.assertEquals(ROBERTSON_40[2], y[2], 1e-4 * ROBERTSON_40[2]);
+    }
+
+    @Test
+    public void testJacobianStructures() {
+        final int n = 50;
+        final JacobianStructure[] structures = {
+            JacobianStructure.dense(),
+            JacobianStructure.banded(1, 1),
+            JacobianStructure.sparse(new StiffProblems.Diffusion(n).pattern())
+        };
+        final double[][] results = new double[structures.length][];
+        final int[] evaluations = new int[structures.length];
+        for (int s = 0; s < structures.length; ++s) {
+            final StiffProblems.Diffusion pb = new StiffProblems.Diffusion(n);
+            final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+            integrator.setJacobianStructure(structures[s]);
+            Assert.assertSame(structures[s], integrator.getJacobianStructure());
+            results[s] = pb.initialState();
+            integrator.integrate(pb, 0, results[s], 0.1, results[s]);
+            evaluations[s] = integrator.getEvaluations();
+
+            final double[] exact = pb.exact(0.1);
+            for (int i = 0; i < n; ++i) {
+                Assert.assertEquals(exact[i], results[s][i], 1e-5);
+            }
+        }
+
+        for (int s = 1; s < structures.length; ++s) {
+            // same steps, only rounding differs
+            for (int i = 0; i < n; ++i) {
+                Assert.assertEquals(results[0][i], results[s][i], 1e-9);
+            }
+            // tridiagonal Jacobians need only 3 evaluations instead of n
+            Assert.assertTrue(evaluations[s] < evaluations[0]);
+        }
+    }
+
+    @Test
+    public void testStructuredJacobian() {
+        final int n = 50;
+        final JacobianStructure[] structures = {
+            JacobianStructure.dense(),
+            JacobianStructure.banded(1, 1),
+            JacobianStructure.sparse(new StiffProblems.Diffusion(n).pattern())
+        };
+        final double[][] results = new double[structures.length][];
+        for (int s = 0; s < structures.length; ++s) {
+            final JacobianStructure structure = structures[s];
+            final StiffProblems.Diffusion fd = new StiffProblems.Diffusion(n);
+            final StiffIntegrator fdIntegrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+            fdIntegrator.setJacobianStructure(structure);
+            final double[] yFD = fd.initialState();
+            fdIntegrator.integrate(fd, 0, yFD, 0.1, yFD);
+
+            final StiffProblems.DiffusionWithJacobian analytic = new StiffProblems.DiffusionWithJacobian(n);
+            final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+            integrator.setJacobianStructure(structure);
+            final double[] y = analytic.initialState();
+            integrator.integrate(analytic, 0, y, 0.1, y);
+
+            Assert.assertEquals(integrator.getJacobianEvaluations(), analytic.getJacobians());
+            if (s == 0) {
+                // dense finite differences need n evaluations per Jacobian
+                Assert.assertTrue(integrator.getEvaluations() < fdIntegrator.getEvaluations());
+            }
+            final double[] exact = analytic.exact(0.1);
+            for (int i = 0; i < n; ++i) {
+                Assert.assertEquals(exact[i], y[i], 1e-5);
+                Assert.assertEquals(yFD[i], y[i], 1e-6);
+            }
+            results[s] = y;
+        }
+
+        for (int s = 1; s < structures.length; ++s) {
+            // same Jacobian, only the rounding of the factorizations differs
+            Assert.assertArrayEquals(results[0], results[s], 1e-9);
+        }
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testStructureDimensionMismatch() {
+        final StiffProblems.Linear pb = new StiffProblems.Linear();
+        final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+        integrator.setJacobianStructure(JacobianStructure.sparse(new StiffProblems.Diffusion(3).pattern()));
+        final double[] y = pb.initialState();
+        integrator.integrate(pb, 0, y, 1.0, y);
+    }
+
+    @Test
+    public void testEvents() {
+        final StiffProblems.Linear pb = new StiffProblems.Linear();
+        final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-10, 1e-8);
+        integrator.addEventHandler(new EventHandler() {
+            @Override
+            public void init(double t0, double[] y0, double t) {
+            }
+
+            @Override
+            public double g(double t, double[] y) {
+                return y[1] - 0.5;
+            }
+
+            @Override
+            public Action eventOccurred(double t, double[] y, boolean increasing) {
+                return Action.STOP;
+            }
+
+            @Override
+            public void resetState(double t, double[] y) {
+            }
+        }, 1.0, 1e-12, 100);
+        final double[] y = pb.initialState();
+        final double stop = integrator.integrate(pb, 0, y, 2.0, y);
+        Assert.assertEquals(JdkMath.log(2.0), stop, 1e-6);
+        Assert.assertEquals(0.5, y[1], 1e-6);
+    }
+
+    @Test
+    public void testResetState() {
+        final StiffProblems.Linear pb = new StiffProblems.Linear();
+        final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-10, 1e-8);
+        integrator.addEventHandler(new EventHandler() {
+            @Override
+            public void init(double t0, double[] y0, double t) {
+            }
+
+            @Override
+            public double g(double t, double[] y) {
+                return t - 0.5;
+            }
+
+            @Override
+            public Action eventOccurred(double t, double[] y, boolean increasing) {
+                return Action.RESET_STATE;
+            }
+
+            @Override
+            public void resetState(double t, double[] y) {
+                y[1] *= 2.0;
+            }
+        }, 1.0, 1e-12, 100);
+        final double[] y = pb.initialState();
+        integrator.integrate(pb, 0, y, 1.0, y);
+        Assert.assertEquals(JdkMath.cos(1.0), y[0], 1e-6);
+        Assert.assertEquals(2 * JdkMath.exp(-1.0), y[1], 1e-6);
+    }
+
+    @Test
+    public void testDenseOutput() {
+        final StiffProblems.Diffusion pb = new StiffProblems.Diffusion(20);
+        final StiffIntegrator integrator = createIntegrator(1e-12, 1e6, 1e-8, 1e-6);
+        integrator.setJacobianStructure(JacobianStructure.banded(1, 1));
+        final double[] maxError = new double[1];
+        final int[] steps = new int[1];
+        integrator.addStepHandler(new StepHandler() {
+            @Override
+            public void init(double t0, double[] y0, double t) {
+                steps[0] = 0;
+            }
+
+            @Override
+            public void handleStep(StepInterpolator interpolator, boolean isLast) {
+                ++steps[0];
+                final double t0 = interpolator.getPreviousTime();
+                final double t1 = interpolator.getCurrentTime();
+                for (int k = 0; k <= 4; ++k) {
+                    final double t = t0 + 0.25 * k * (t1 - t0);
+                    interpolator.setInterpolatedTime(t);
+                    final double[] interpolated = interpolator.getInterpolatedState();
+                    final double[] exact = pb.exact(t);
+                    for (int i = 0; i < exact.length; ++i) {
+                        maxError[0] = JdkMath.max(maxError[0], JdkMath.abs(interpolated[i] - exact[i]));
+                    }
+                }
+                if (isLast) {
+                    Assert.assertEquals(0.1, t1, 1e-15);
+                }
+            }
+        });
+        final double[] y = pb.initialState();
+        integrator.integrate(pb, 0, y, 0.1, y);
+        Assert.assertTrue(steps[0] > 10);
+        Assert.assertEquals(0, maxError[0], 1e-4);
+    }
+}
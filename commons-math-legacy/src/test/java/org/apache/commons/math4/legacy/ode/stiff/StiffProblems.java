@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.ode.stiff;
+
+import org.apache.commons.math4.legacy.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math4.legacy.ode.MainStateJacobianProvider;
+import org.apache.commons.math4.core.jdkmath.JdkMath;
+
+/**
+ * Stiff test problems shared by the stiff integrators tests.
+ */
+final class StiffProblems {
+
+    /** Utility class. */
+    private StiffProblems() {
+    }
+
+    /**
+     * Non-autonomous linear problem with eigenvalues -1000 and -1:
+     * y<sub>0</sub>' = -1000 (y<sub>0</sub> - cos t) - sin t,
+     * y<sub>1</sub>' = -y<sub>1</sub>, with exact solution (cos t, e<sup>-t</sup>)
+     * for y(0) = (1, 1).
+     */
+    static class Linear implements FirstOrderDifferentialEquations {
+        @Override
+        public int getDimension() {
+            return 2;
+        }
+
+        @Override
+        public void computeDerivatives(double t, double[] y, double[] yDot) {
+            yDot[0] = -1000 * (y[0] - JdkMath.cos(t)) - JdkMath.sin(t);
+            yDot[1] = -y[1];
+        }
+
+        double[] initialState() {
+            return new double[] {1, 1};
+        }
+
+        double[] exact(double t) {
+            return new double[] {JdkMath.cos(t), JdkMath.exp(-t)};
+        }
+    }
+
+    /**
+     * Robertson chemical kinetics problem, with rate constants spanning
+     * nine orders of magnitude.
+     */
+    static class Robertson implements FirstOrderDifferentialEquations {
+        /** Number of evaluations. */
+        private int evaluations;
+
+        @Override
+        public int getDimension() {
+            return 3;
+        }
+
+        @Override
+        public void computeDerivatives(double t, double[] y, double[] yDot) {
+            ++evaluations;
+            final double r1 = 0.04 * y[0];
+            final double r2 = 1.0e4 * y[1] * y[2];
+            final double r3 = 3.0e7 * y[1] * y[1];
+            yDot[0] = -r1 + r2;
+            yDot[1] = r1 - r2 - r3;
+            yDot[2] = r3;
+        }
+
+        double[] initialState() {
+            return new double[] {1, 0, 0};
+        }
+
+        int getEvaluations() {
+            return evaluations;
+        }
+    }
+
+    /** Robertson problem with analytic Jacobian. */
+    static class RobertsonWithJacobian extends Robertson implements MainStateJacobianProvider {
+        /** Number of Jacobian evaluations. */
+        private int jacobians;
+
+        @Override
+        public void computeMainStateJacobian(double t, double[] y, double[] yDot, double[][] dFdY) {
+            ++jacobians;
+            dFdY[0][0] = -0.04;
+            dFdY[0][1] = 1.0e4 * y[2];
+            dFdY[0][2] = 1.0e4 * y[1];
+            dFdY[1][0] = 0.04;
+            dFdY[1][1] = -1.0e4 * y[2] - 6.0e7 * y[1];
+            dFdY[1][2] = -1.0e4 * y[1];
+            dFdY[2][0] = 0;
+            dFdY[2][1] = 6.0e7 * y[1];
+            dFdY[2][2] = 0;
+        }
+
+        int getJacobians() {
+            return jacobians;
+        }
+    }
+
+    /**
+     * Heat equation u<sub>t</sub> = u<sub>xx</sub> on [0, 1] with zero
+     * boundary values, discretized on n interior points by centered
+     * differences, starting from sin(&pi; x). The Jacobian is tridiagonal,
+     * with eigenvalues down to -4 (n + 1)<sup>2</sup>.
+     */
+    static class Diffusion implements FirstOrderDifferentialEquations {
+        /** Number of interior points. */
+        private final int n;
+        /** Number of evaluations. */
+        private int evaluations;
+
+        Diffusion(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public int getDimension() {
+            return n;
+        }
+
+        @Override
+        public void computeDerivatives(double t, double[] y, double[] yDot) {
+            ++evaluations;
+            final double scale = (n + 1) * (n + 1);
+            for (int i = 0; i < n; ++i) {
+                final double left  = i == 0 ? 0 : y[i - 1];
+                final double right = i == n - 1 ? 0 : y[i + 1];
+                yDot[i] = scale * (left - 2 * y[i] + right);
+            }
+        }
+
+        double[] initialState() {
+            final double[] y = new double[n];
+            for (int i = 0; i < n; ++i) {
+                y[i] = JdkMath.sin(JdkMath.PI * (i + 1) / (n + 1));
+            }
+            return y;
+        }
+
+        /** Exact solution of the discretized problem. */
+        double[] exact(double t) {
+            final double s = JdkMath.sin(0.5 * JdkMath.PI / (n + 1));
+            final double lambda = -4 * (n + 1) * (n + 1) * s * s;
+            final double[] y = initialState();
+            for (int i = 0; i < n; ++i) {
+                y[i] *= JdkMath.exp(lambda * t);
+            }
+            return y;
+        }
+
+        /** Tridiagonal pattern. */
+        int[][] pattern() {
+            final int[][] pattern = new int[n][];
+            for (int i = 0; i < n; ++i) {
+                if (i == 0) {
+                    pattern[i] = new int[] {0, 1};
+                } else if (i == n - 1) {
+                    pattern[i] = new int[] {n - 2, n - 1};
+                } else {
+                    pattern[i] = new int[] {i - 1, i, i + 1};
+                }
+            }
+            return pattern;
+        }
+
+        int getEvaluations() {
+            return evaluations;
+        }
+    }
+
+    /** Heat equation with analytic tridiagonal Jacobian. */
+    static class DiffusionWithJacobian extends Diffusion implements StructuredJacobianProvider {
+        /** Number of Jacobian evaluations. */
+        private int jacobians;
+
+        DiffusionWithJacobian(int n) {
+            super(n);
+        }
+
+        @Override
+        public void computeJacobian(double t, double[] y, double[] yDot, Entries dFdY) {
+            ++jacobians;
+            final int n = getDimension();
+            final double scale = (n + 1) * (n + 1);
+            for (int i = 0; i < n; ++i) {
+                if (i > 0) {
+                    dFdY.set(i, i - 1, scale);
+                }
+                dFdY.set(i, i, -2 * scale);
+                if (i < n - 1) {
+                    dFdY.set(i, i + 1, scale);
+                }
+            }
+        }
+
+        int getJacobians() {
+            return jacobians;
+        }
+    }
+}
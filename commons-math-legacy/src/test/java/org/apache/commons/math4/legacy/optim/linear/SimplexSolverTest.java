@@ -17,14 +17,18 @@
 package org.apache.commons.math4.legacy.optim.linear;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import org.junit.Test;
 import org.junit.Assert;
 
 import org.apache.commons.numbers.core.Precision;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.TooManyIterationsException;
+import org.apache.commons.math4.legacy.linear.OpenMapRealVector;
 import org.apache.commons.math4.legacy.optim.MaxIter;
 import org.apache.commons.math4.legacy.optim.PointValuePair;
 import org.apache.commons.math4.legacy.optim.nonlinear.scalar.GoalType;
@@ -808,6 +812,336 @@ public class SimplexSolverTest {
                         PivotSelectionRule.BLAND);
     }
 
+    @Test
+    public void testRevisedMath842Cycle() {
+        LinearObjectiveFunction f = new LinearObjectiveFunction(new double[] { 10, -57, -9, -24}, 0);
+
+        List<LinearConstraint> constraints = new ArrayList<>();
+        constraints.add(new LinearConstraint(new double[] {0.5, -5.5, -2.5, 9}, Relationship.LEQ, 0));
+        constraints.add(new LinearConstraint(new double[] {0.5, -1.5, -0.5, 1}, Relationship.LEQ, 0));
+        constraints.add(new LinearConstraint(new double[] {  1,    0,    0, 0}, Relationship.LEQ, 1));
+
+        double epsilon = 1e-6;
+        SimplexSolver solver = new SimplexSolver();
+        PointValuePair solution = solver.optimize(f, new LinearConstraintSet(constraints),
+                                                  GoalType.MAXIMIZE,
+                                                  new NonNegativeConstraint(true),
+                                                  PivotSelectionRule.BLAND,
+                                                  SimplexMethod.REVISED);
+        Assert.assertEquals(1.0d, solution.getValue(), epsilon);
+        Assert.assertTrue(validSolution(solution, constraints, epsilon));
+    }
+
+    @Test
+    public void testRevisedRestrictVariablesToNonNegative() {
+        LinearObjectiveFunction f = new LinearObjectiveFunction(new double[] { 409, 523, 70, 204, 339 }, 0);
+        Collection<LinearConstraint> constraints = new ArrayList<>();
+        constraints.add(new LinearConstraint(new double[] {    43,   56, 345,  56,    5 }, Relationship.LEQ,  4567456));
+        constraints.add(new LinearConstraint(new double[] {    12,   45,   7,  56,   23 }, Relationship.LEQ,    56454));
+        constraints.add(new LinearConstraint(new double[] {     8,  768,   0,  34, 7456 }, Relationship.LEQ,  1923421));
+        constraints.add(new LinearConstraint(new double[] { 12342, 2342,  34, 678, 2342 }, Relationship.GEQ,     4356));
+        constraints.add(new LinearConstraint(new double[] {    45,  678,  76,  52,   23 }, Relationship.EQ,    456356));
+
+        SimplexSolver solver = new SimplexSolver();
+        PointValuePair solution = solver.optimize(DEFAULT_MAX_ITER, f, new LinearConstraintSet(constraints),
+                                                  GoalType.MAXIMIZE, new NonNegativeConstraint(true),
+                                                  SimplexMethod.REVISED);
+        Assert.assertEquals(2902.92783505155, solution.getPoint()[0], 1e-7);
+        Assert.assertEquals(480.419243986254, solution.getPoint()[1], 1e-7);
+        Assert.assertEquals(0.0, solution.getPoint()[2], 1e-7);
+        Assert.assertEquals(0.0, solution.getPoint()[3], 1e-7);
+        Assert.assertEquals(0.0, solution.getPoint()[4], 1e-7);
+        Assert.assertEquals(1438556.7491409, solution.getValue(), 1e-6);
+    }
+
+    @Test
+    public void testRevisedNegativeVariables() {
+        LinearObjectiveFunction f = new LinearObjectiveFunction(new double[] { 10, 5, 1 }, 0);
+        Collection<LinearConstraint> constraints = new ArrayList<>();
+        constraints.add(new LinearConstraint(new double[] {  9, 8, 0 }, Relationship.EQ,  17));
+        constraints.add(new LinearConstraint(new double[] {  0, 7, 8 }, Relationship.LEQ,  7));
+        constraints.add(new LinearConstraint(new double[] { 10, 0, 2 }, Relationship.LEQ, 10));
+
+        SimplexSolver solver = new SimplexSolver();
+        PointValuePair solution = solver.optimize(DEFAULT_MAX_ITER, f, new LinearConstraintSet(constraints),
+                                                  GoalType.MAXIMIZE, new NonNegativeConstraint(false),
+                                                  SimplexMethod.REVISED);
+        Assert.assertEquals(1.0, solution.getPoint()[0], 1e-10);
+        Assert.assertEquals(1.0, solution.getPoint()[1], 1e-10);
+        Assert.assertEquals(0.0, solution.getPoint()[2], 1e-10);
+        Assert.assertEquals(15.0, solution.getValue(), 1e-10);
+    }
+
+    @Test(expected = NoFeasibleSolutionException.class)
+    public void testRevisedInfeasibleSolution() {
+        LinearObjectiveFunction f = new LinearObjectiveFunction(new double[] { 15 }, 0);
+        Collection<LinearConstraint> constraints = new ArrayList<>();
+        constraints.add(new LinearConstraint(new double[] { 1 }, Relationship.LEQ, 1));
+        constraints.add(new LinearConstraint(new double[] { 1 }, Relationship.GEQ, 3));
+
+        SimplexSolver solver = new SimplexSolver();
+        solver.optimize(DEFAULT_MAX_ITER, f, new LinearConstraintSet(constraints),
+                        GoalType.MAXIMIZE, new NonNegativeConstraint(false),
+                        SimplexMethod.REVISED);
+    }
+
+    @Test(expected = UnboundedSolutionException.class)
+    public void testRevisedUnboundedSolution() {
+        LinearObjectiveFunction f = new LinearObjectiveFunction(new double[] { 15, 10 }, 0);
+        Collection<LinearConstraint> constraints = new ArrayList<>();
+        constraints.add(new LinearConstraint(new double[] { 1, 0 }, Relationship.EQ, 2));
+
+        SimplexSolver solver = new SimplexSolver();
+        solver.optimize(DEFAULT_MAX_ITER, f, new LinearConstraintSet(constraints),
+                        GoalType.MAXIMIZE, new NonNegativeConstraint(false),
+                        SimplexMethod.REVISED);
+    }
+
+    /* Many more pivots than the refactorization interval of the revised method. */
+    @Test
+    public void testRevisedLargeSparseModel() {
+        // Vertex cover of a path.
+        final int n = 1001;
+        final double[] objective = new double[n];
+        Arrays.fill(objective, 1);
+        final List<LinearConstraint> constraints = createPathConstraints(n, -1);
+        final LinearObjectiveFunction f = new LinearObjectiveFunction(objective, 0);
+
+        for (PivotSelectionRule rule : PivotSelectionRule.values()) {
+            final SimplexSolver solver = new SimplexSolver();
+            final PointValuePair solution = solver.optimize(f, new LinearConstraintSet(constraints),
+                                                            GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                                                            rule, SimplexMethod.REVISED);
+            Assert.assertEquals(500, solution.getValue(), 1e-6);
+            Assert.assertTrue(validSolution(solution, constraints, 1e-6));
+            Assert.assertTrue(solver.getIterations() > 100);
+        }
+    }
+
+    @Test
+    public void testRevisedSameAsTableau() {
+        final UniformRandomProvider rng = RandomSource.SPLIT_MIX_64.create(1549L);
+        for (int trial = 0; trial < 200; trial++) {
+            final int n = 2 + rng.nextInt(4);
+            final int m = 1 + rng.nextInt(6);
+            final double[] objective = new double[n];
+            for (int j = 0; j < n; j++) {
+                objective[j] = rng.nextInt(11) - 5;
+            }
+            final List<LinearConstraint> constraints = new ArrayList<>();
+            for (int i = 0; i < m; i++) {
+                final double[] coefficients = new double[n];
+                for (int j = 0; j < n; j++) {
+                    coefficients[j] = rng.nextInt(3) == 0 ? 0 : rng.nextInt(11) - 5;
+                }
+                final Relationship relationship = Relationship.values()[rng.nextInt(3)];
+                constraints.add(new LinearConstraint(coefficients, relationship, rng.nextInt(21) - 10));
+            }
+            // Keep the problem bounded.
+            for (int j = 0; j < n; j++) {
+                final double[] coefficients = new double[n];
+                coefficients[j] = 1;
+                constraints.add(new LinearConstraint(coefficients, Relationship.LEQ, 20));
+                constraints.add(new LinearConstraint(coefficients, Relationship.GEQ, -20));
+            }
+            final LinearObjectiveFunction f = new LinearObjectiveFunction(objective, 0);
+            final GoalType goal = rng.nextBoolean() ? GoalType.MINIMIZE : GoalType.MAXIMIZE;
+            final NonNegativeConstraint nonNegative = new NonNegativeConstraint(rng.nextBoolean());
+
+            PointValuePair expected;
+            try {
+                expected = new SimplexSolver().optimize(f, new LinearConstraintSet(constraints),
+                                                        goal, nonNegative, PivotSelectionRule.BLAND);
+            } catch (NoFeasibleSolutionException e) {
+                expected = null;
+            }
+            PointValuePair actual;
+            try {
+                actual = new SimplexSolver().optimize(f, new LinearConstraintSet(constraints),
+                                                      goal, nonNegative, SimplexMethod.REVISED);
+            } catch (NoFeasibleSolutionException e) {
+                actual = null;
+            }
+
+            if (expected == null) {
+                Assert.assertNull(actual);
+            } else {
+                Assert.assertNotNull(actual);
+                Assert.assertEquals(expected.getValue(), actual.getValue(), 1e-6);
+                Assert.assertTrue(validSolution(actual, constraints, 1e-6));
+            }
+        }
+    }
+
+    @Test
+    public void testWarmStartObjectiveChange() {
+        final int n = 101;
+        final double[] objective = new double[n];
+        Arrays.fill(objective, 1);
+        final LinearConstraintSet constraints = new LinearConstraintSet(createPathConstraints(n, -1));
+
+        final SimplexSolver solver = new SimplexSolver();
+        final SolutionCallback callback = new SolutionCallback();
+        solver.optimize(new LinearObjectiveFunction(objective, 0), constraints,
+                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                        SimplexMethod.REVISED, callback);
+        final SimplexBasis basis = callback.getBasis();
+        Assert.assertNotNull(basis);
+
+        objective[0] = 3;
+        objective[n / 2] = 0.5;
+        objective[n - 1] = 3;
+        final LinearObjectiveFunction f = new LinearObjectiveFunction(objective, 0);
+        final PointValuePair cold = solver.optimize(f, constraints,
+                                                    GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                                                    SimplexMethod.REVISED);
+        final int coldIterations = solver.getIterations();
+        final PointValuePair warm = solver.optimize(f, constraints,
+                                                    GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                                                    SimplexMethod.REVISED, basis);
+        Assert.assertEquals(cold.getValue(), warm.getValue(), 1e-10);
+        Assert.assertTrue(validSolution(warm, createPathConstraints(n, -1), 1e-10));
+        Assert.assertTrue(solver.getIterations() < coldIterations / 2);
+    }
+
+    @Test
+    public void testWarmStartRhsChange() {
+        final int n = 101;
+        final double[] objective = new double[n];
+        Arrays.fill(objective, 1);
+        final LinearObjectiveFunction f = new LinearObjectiveFunction(objective, 0);
+
+        final SimplexSolver solver = new SimplexSolver();
+        final SolutionCallback callback = new SolutionCallback();
+        final PointValuePair solution = solver.optimize(f, new LinearConstraintSet(createPathConstraints(n, -1)),
+                                                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                                                        SimplexMethod.REVISED, callback);
+        Assert.assertEquals(50, solution.getValue(), 1e-10);
+        final SimplexBasis basis = callback.getBasis();
+
+        // Forbid a vertex of the cover: the current basis becomes infeasible.
+        int k = 0;
+        while (solution.getPoint()[k] < 0.5) {
+            ++k;
+        }
+        final List<LinearConstraint> constraints = createPathConstraints(n, k);
+        for (PivotSelectionRule rule : PivotSelectionRule.values()) {
+            final PointValuePair cold = solver.optimize(f, new LinearConstraintSet(constraints),
+                                                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                                                        SimplexMethod.REVISED, rule);
+            final int coldIterations = solver.getIterations();
+            final PointValuePair warm = solver.optimize(f, new LinearConstraintSet(constraints),
+                                                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                                                        SimplexMethod.REVISED, rule, basis);
+            Assert.assertEquals(51, cold.getValue(), 1e-10);
+            Assert.assertEquals(51, warm.getValue(), 1e-10);
+            Assert.assertTrue(validSolution(warm, constraints, 1e-10));
+            Assert.assertTrue(solver.getIterations() < coldIterations / 2);
+        }
+    }
+
+    @Test(expected = NoFeasibleSolutionException.class)
+    public void testWarmStartInfeasibleRhsChange() {
+        final LinearObjectiveFunction f = new LinearObjectiveFunction(new double[] { 1, 1 }, 0);
+        final List<LinearConstraint> constraints = new ArrayList<>();
+        constraints.add(new LinearConstraint(new double[] { 1, 1 }, Relationship.GEQ, 1));
+        constraints.add(new LinearConstraint(new double[] { 1, 0 }, Relationship.LEQ, 2));
+        constraints.add(new LinearConstraint(new double[] { 0, 1 }, Relationship.LEQ, 2));
+
+        final SimplexSolver solver = new SimplexSolver();
+        final SolutionCallback callback = new SolutionCallback();
+        solver.optimize(f, new LinearConstraintSet(constraints),
+                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                        SimplexMethod.REVISED, callback);
+
+        constraints.set(0, new LinearConstraint(new double[] { 1, 1 }, Relationship.GEQ, 5));
+        solver.optimize(f, new LinearConstraintSet(constraints),
+                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                        SimplexMethod.REVISED, callback.getBasis());
+    }
+
+    @Test
+    public void testWarmStartRhsSignChange() {
+        final LinearObjectiveFunction f = new LinearObjectiveFunction(new double[] { 1, 1 }, 0);
+        final List<LinearConstraint> constraints = new ArrayList<>();
+        constraints.add(new LinearConstraint(new double[] { 1, -1 }, Relationship.LEQ, 5));
+        constraints.add(new LinearConstraint(new double[] { 1, 0 }, Relationship.LEQ, 2));
+        constraints.add(new LinearConstraint(new double[] { 0, 1 }, Relationship.LEQ, 3));
+
+        final SimplexSolver solver = new SimplexSolver();
+        final SolutionCallback callback = new SolutionCallback();
+        final PointValuePair solution = solver.optimize(f, new LinearConstraintSet(constraints),
+                                                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                                                        SimplexMethod.REVISED, callback);
+        Assert.assertEquals(0, solution.getValue(), 1e-10);
+
+        // The first constraint becomes "greater than or equal" in standard form,
+        // with an artificial variable: the basis cannot be reused.
+        constraints.set(0, new LinearConstraint(new double[] { 1, -1 }, Relationship.LEQ, -1));
+        final PointValuePair warm = solver.optimize(f, new LinearConstraintSet(constraints),
+                                                    GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                                                    SimplexMethod.REVISED, callback.getBasis());
+        Assert.assertEquals(1, warm.getValue(), 1e-10);
+        Assert.assertTrue(validSolution(warm, constraints, 1e-10));
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testWarmStartDimensionMismatch() {
+        final SimplexSolver solver = new SimplexSolver();
+        final SolutionCallback callback = new SolutionCallback();
+        solver.optimize(new LinearObjectiveFunction(new double[] { 1, 1 }, 0),
+                        new LinearConstraintSet(createPathConstraints(2, -1)),
+                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                        SimplexMethod.REVISED, callback);
+
+        solver.optimize(new LinearObjectiveFunction(new double[] { 1, 1, 1 }, 0),
+                        new LinearConstraintSet(createPathConstraints(3, -1)),
+                        GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                        SimplexMethod.REVISED, callback.getBasis());
+    }
+
+    @Test
+    public void testSolutionCallbackBasis() {
+        final LinearObjectiveFunction f = new LinearObjectiveFunction(new double[] { 1, 1, 1 }, 0);
+        final LinearConstraintSet constraints = new LinearConstraintSet(createPathConstraints(3, -1));
+
+        final SimplexSolver solver = new SimplexSolver();
+        final SolutionCallback callback = new SolutionCallback();
+        Assert.assertNull(callback.getBasis());
+        solver.optimize(f, constraints, GoalType.MINIMIZE, new NonNegativeConstraint(true), callback);
+        // The basis is not available with the tableau.
+        Assert.assertTrue(callback.isSolutionOptimal());
+        Assert.assertNull(callback.getBasis());
+
+        solver.optimize(f, constraints, GoalType.MINIMIZE, new NonNegativeConstraint(true),
+                        SimplexMethod.REVISED, callback);
+        Assert.assertTrue(callback.isSolutionOptimal());
+        Assert.assertNotNull(callback.getBasis());
+    }
+
+    /**
+     * Constraints of the vertex cover of a path: x_i + x_{i+1} >= 1 and x_i <= 1.
+     *
+     * @param n Number of vertices.
+     * @param forbidden Vertex whose upper bound is set to 0 (if non-negative).
+     * @return the constraints.
+     */
+    private static List<LinearConstraint> createPathConstraints(int n, int forbidden) {
+        final List<LinearConstraint> constraints = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            final OpenMapRealVector bound = new OpenMapRealVector(n);
+            bound.setEntry(i, 1);
+            constraints.add(new LinearConstraint(bound, Relationship.LEQ, i == forbidden ? 0 : 1));
+            if (i + 1 < n) {
+                final OpenMapRealVector edge = new OpenMapRealVector(n);
+                edge.setEntry(i, 1);
+                edge.setEntry(i + 1, 1);
+                constraints.add(new LinearConstraint(edge, Relationship.GEQ, 1));
+            }
+        }
+        return constraints;
+    }
+
     /* linear transformation of constants should produce the same result */
     @Test
     public void testMath1549() {
@@ -16,11 +16,18 @@
  */
 package org.apache.commons.math4.legacy.optim.nonlinear.scalar;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import org.apache.commons.geometry.euclidean.twod.Vector2D;
 import org.apache.commons.math4.legacy.analysis.MultivariateFunction;
+import org.apache.commons.math4.legacy.exception.TooManyEvaluationsException;
 import org.apache.commons.math4.legacy.optim.InitialGuess;
 import org.apache.commons.math4.legacy.optim.MaxEval;
+import org.apache.commons.math4.legacy.optim.OptimizationData;
 import org.apache.commons.math4.legacy.optim.PointValuePair;
 import org.apache.commons.math4.legacy.optim.SimpleValueChecker;
 import org.apache.commons.math4.legacy.optim.nonlinear.scalar.gradient.CircleScalar;
@@ -113,6 +120,181 @@ public class MultiStartMultivariateOptimizerTest {
         Assert.assertTrue("optimum=" + optimum.getValue(), optimum.getValue() < 5e-5);
     }
 
+    @Test
+    public void testConcurrentRosenbrock() {
+        final Supplier<SimplexOptimizer> factory
+            = () -> new SimplexOptimizer(new SimpleValueChecker(-1, 1e-3));
+        final MultiStartMultivariateOptimizer sequential
+            = new MultiStartMultivariateOptimizer(factory, 10,
+                                                  gaussianRandom(new double[] { 0, 0 },
+                                                                 new double[] { 1, 1 },
+                                                                 RandomSource.MT_64.create(123L)),
+                                                  null);
+        final PointValuePair expected = optimizeRosenbrock(sequential);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final MultiStartMultivariateOptimizer concurrent
+                = new MultiStartMultivariateOptimizer(factory, 10,
+                                                      gaussianRandom(new double[] { 0, 0 },
+                                                                     new double[] { 1, 1 },
+                                                                     RandomSource.MT_64.create(123L)),
+                                                      executor);
+            final PointValuePair optimum = optimizeRosenbrock(concurrent);
+            Assert.assertArrayEquals(expected.getPoint(), optimum.getPoint(), 0);
+            Assert.assertEquals(sequential.getEvaluations(), concurrent.getEvaluations());
+            final PointValuePair[] expectedOptima = sequential.getOptima();
+            final PointValuePair[] optima = concurrent.getOptima();
+            Assert.assertEquals(10, optima.length);
+            for (int i = 0; i < optima.length; i++) {
+                Assert.assertArrayEquals(expectedOptima[i].getPoint(), optima[i].getPoint(), 0);
+                Assert.assertEquals(expectedOptima[i].getValue(), optima[i].getValue(), 0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTargetValue() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            int expectedStarts = -1;
+            for (ExecutorService e : new ExecutorService[] {null, executor}) {
+                final MultiStartMultivariateOptimizer optimizer
+                    = new MultiStartMultivariateOptimizer(() -> new SimplexOptimizer(new SimpleValueChecker(-1, 1e-3)),
+                                                          10,
+                                                          gaussianRandom(new double[] { 0, 0 },
+                                                                         new double[] { 1, 1 },
+                                                                         RandomSource.MT_64.create(123L)),
+                                                          e);
+                final PointValuePair optimum = optimizeRosenbrock(optimizer, new TargetValue(1e-4));
+                Assert.assertTrue("optimum=" + optimum.getValue(), optimum.getValue() <= 1e-4);
+                final PointValuePair[] optima = optimizer.getOptima();
+                // The search stops at the first start that reached the target.
+                Assert.assertTrue(optima.length < 10);
+                int reached = 0;
+                for (PointValuePair o : optima) {
+                    if (o.getValue() <= 1e-4) {
+                        ++reached;
+                    }
+                }
+                Assert.assertEquals(1, reached);
+                if (expectedStarts < 0) {
+                    expectedStarts = optima.length;
+                } else {
+                    Assert.assertEquals(expectedStarts, optima.length);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentFewerEvaluationsThanStarts() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final MultiStartMultivariateOptimizer optimizer
+                = new MultiStartMultivariateOptimizer(() -> new SimplexOptimizer(new SimpleValueChecker(-1, 1e-3)),
+                                                      200,
+                                                      gaussianRandom(new double[] { 0, 0 },
+                                                                     new double[] { 1, 1 },
+                                                                     RandomSource.MT_64.create(123L)),
+                                                      executor);
+            try {
+                optimizeRosenbrock(optimizer, new MaxEval(100));
+                Assert.fail("an exception should have been thrown");
+            } catch (TooManyEvaluationsException e) {
+                // expected: a single evaluation per start is not enough
+            }
+            Assert.assertEquals(100, optimizer.getEvaluations());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testErrorCancelsRemainingStarts() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final MultivariateFunction failing = x -> {
+            // Only the first start fails at once, a second one waits until
+            // the error has reached the caller.
+            if (calls.incrementAndGet() > 1) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            throw new StartError();
+        };
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final MultiStartMultivariateOptimizer optimizer
+                = new MultiStartMultivariateOptimizer(() -> new SimplexOptimizer(new SimpleValueChecker(-1, 1e-3)),
+                                                      10,
+                                                      gaussianRandom(new double[] { 0, 0 },
+                                                                     new double[] { 1, 1 },
+                                                                     RandomSource.MT_64.create(123L)),
+                                                      executor);
+            try {
+                optimizer.optimize(new MaxEval(100000),
+                                   new ObjectiveFunction(failing),
+                                   GoalType.MINIMIZE,
+                                   Simplex.of(new double[][] {
+                                           { -1.2,  1.0 },
+                                           { 0.9, 1.2 } ,
+                                           {  3.5, -2.3 }
+                                       }),
+                                   new NelderMeadTransform(),
+                                   new InitialGuess(new double[] { -1.2, 1.0 }));
+                Assert.fail("an exception should have been thrown");
+            } catch (StartError e) {
+                // expected
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertTrue("calls=" + calls.get(), calls.get() <= 2);
+    }
+
+    /** Error that the starts do not catch. */
+    private static class StartError extends Error {
+        private static final long serialVersionUID = 20261017L;
+    }
+
+    /**
+     * @param optimizer Optimizer.
+     * @param data Additional optimization data.
+     * @return the optimum of the Rosenbrock function.
+     */
+    private static PointValuePair optimizeRosenbrock(MultiStartMultivariateOptimizer optimizer,
+                                                     OptimizationData... data) {
+        final MultivariateFunction rosenbrock = x -> {
+            final double a = x[1] - x[0] * x[0];
+            final double b = 1 - x[0];
+            return 100 * a * a + b * b;
+        };
+        final OptimizationData[] optData = new OptimizationData[6 + data.length];
+        optData[0] = new MaxEval(100000);
+        optData[1] = new ObjectiveFunction(rosenbrock);
+        optData[2] = GoalType.MINIMIZE;
+        optData[3] = Simplex.of(new double[][] {
+                { -1.2,  1.0 },
+                { 0.9, 1.2 } ,
+                {  3.5, -2.3 }
+            });
+        optData[4] = new NelderMeadTransform();
+        optData[5] = new InitialGuess(new double[] { -1.2, 1.0 });
+        System.arraycopy(data, 0, optData, 6, data.length);
+        return optimizer.optimize(optData);
+    }
+
     private static class Rosenbrock implements MultivariateFunction {
         private int count;
 
@@ -16,6 +16,9 @@
  */
 package org.apache.commons.math4.legacy.optim.nonlinear.scalar.noderiv;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.apache.commons.math4.legacy.analysis.MultivariateFunction;
 import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
 import org.apache.commons.math4.legacy.exception.NotStrictlyPositiveException;
@@ -404,6 +407,148 @@ public class CMAESOptimizerTest {
                           result[0] <= upper[0]);
     }
 
+    @Test
+    public void testConcurrentEvaluation() {
+        final int dim = 10;
+        final MultivariateFunction func = TestFunction.ROSENBROCK.withDimension(dim);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Same result and number of evaluations as the sequential run,
+            // both when the optimizer converges and when it runs out of
+            // evaluations in the middle of a generation.
+            for (int maxEval : new int[] { 100000, 200 }) {
+                final CMAESOptimizer sequential
+                    = new CMAESOptimizer(30000, 0, true, 0, 0,
+                                         RandomSource.MT_64.create(12345L), false, null);
+                final CMAESOptimizer concurrent
+                    = new CMAESOptimizer(30000, 0, true, 0, 0,
+                                         RandomSource.MT_64.create(12345L), false, null,
+                                         executor);
+                final PointValuePair expected = optimizeRosenbrock(sequential, func, dim, maxEval);
+                final PointValuePair actual = optimizeRosenbrock(concurrent, func, dim, maxEval);
+
+                Assert.assertArrayEquals(expected.getPoint(), actual.getPoint(), 0);
+                Assert.assertEquals(expected.getValue(), actual.getValue(), 0);
+                Assert.assertEquals(sequential.getEvaluations(), concurrent.getEvaluations());
+                Assert.assertEquals(sequential.getIterations(), concurrent.getIterations());
+                Assert.assertTrue(concurrent.getEvaluations() <= maxEval);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Results of the implementation prior to the use of preallocated
+     * arrays (4.0-beta1); for N &lt; 100, C is decomposed at every
+     * generation, so they must be reproduced exactly.
+     */
+    @Test
+    public void testReferenceResults() {
+        final double[][] unbounded = null;
+        checkReference(TestFunction.ROSENBROCK.withDimension(12), 12, true, 0, unbounded, 100000,
+                       4654, 423, 0.0);
+        checkReference(TestFunction.ROSENBROCK.withDimension(6), 6, true, 0, unbounded, 500,
+                       500, 56, 0.0);
+        checkReference(TestFunction.ELLI.withDimension(13), 13, false, 0, unbounded, 100000,
+                       5479, 498, 8.150569489379944E-14);
+        checkReference(TestFunction.CIGAR.withDimension(13), 13, true, 0,
+                       boundaries(13, -1e100, Double.POSITIVE_INFINITY), 100000,
+                       4214, 383, 6.95326475328228E-14);
+        checkReference(TestFunction.SPHERE.withDimension(13), 13, false, 10, unbounded, 100000,
+                       2718, 247, 5.4004910980419207E-14);
+        final PointValuePair optimum =
+            checkReference(TestFunction.ELLI.withDimension(2), 2, true, 0, unbounded, 100000,
+                           499, 83, 1.8277481353353733E-15);
+        Assert.assertArrayEquals(new double[] { 2.9208776784600837E-9, 1.3487833810226336E-9 },
+                                 optimum.getPoint(), 0);
+    }
+
+    /**
+     * For N &ge; 100, the eigendecomposition of C is skipped in some
+     * generations.
+     */
+    @Test
+    public void testLargeDimension() {
+        final int dim = 100;
+        final CMAESOptimizer optimizer
+            = new CMAESOptimizer(30000, 1e-13, false, 0, 0,
+                                 RandomSource.MT_64.create(12345L), false, null);
+        final PointValuePair optimum
+            = optimizer.optimize(new MaxEval(100000),
+                                 new ObjectiveFunction(TestFunction.SPHERE.withDimension(dim)),
+                                 GoalType.MINIMIZE,
+                                 SimpleBounds.unbounded(dim),
+                                 new InitialGuess(OptimTestUtils.point(dim, 1.0)),
+                                 new Sigma(OptimTestUtils.point(dim, 0.1)),
+                                 new PopulationSize(4 + (int) (3. * JdkMath.log(dim))));
+        Assert.assertEquals(0, optimum.getValue(), 1e-13);
+        for (final double x : optimum.getPoint()) {
+            Assert.assertEquals(0, x, 1e-6);
+        }
+        Assert.assertTrue(optimizer.getEvaluations() < 20000);
+    }
+
+    /**
+     * @param func Objective function.
+     * @param dim Dimension.
+     * @param isActive Active CMA.
+     * @param diagonalOnly Number of initial iterations with a diagonal C.
+     * @param boundaries Boundaries, or {@code null}.
+     * @param maxEval Maximal number of evaluations.
+     * @param evaluations Expected number of evaluations.
+     * @param iterations Expected number of iterations.
+     * @param value Expected optimum value.
+     * @return the optimum.
+     */
+    private static PointValuePair checkReference(MultivariateFunction func,
+                                                 int dim,
+                                                 boolean isActive,
+                                                 int diagonalOnly,
+                                                 double[][] boundaries,
+                                                 int maxEval,
+                                                 int evaluations,
+                                                 int iterations,
+                                                 double value) {
+        final CMAESOptimizer optimizer
+            = new CMAESOptimizer(30000, 1e-13, isActive, diagonalOnly, 0,
+                                 RandomSource.MT_64.create(12345L), false, null);
+        final PointValuePair optimum
+            = optimizer.optimize(new MaxEval(maxEval),
+                                 new ObjectiveFunction(func),
+                                 GoalType.MINIMIZE,
+                                 boundaries == null ?
+                                 SimpleBounds.unbounded(dim) :
+                                 new SimpleBounds(boundaries[0], boundaries[1]),
+                                 new InitialGuess(OptimTestUtils.point(dim, 1.0)),
+                                 new Sigma(OptimTestUtils.point(dim, 0.1)),
+                                 new PopulationSize(4 + (int) (3. * JdkMath.log(dim))));
+        Assert.assertEquals(evaluations, optimizer.getEvaluations());
+        Assert.assertEquals(iterations, optimizer.getIterations());
+        Assert.assertEquals(value, optimum.getValue(), 0);
+        return optimum;
+    }
+
+    /**
+     * @param optimizer Optimizer.
+     * @param func Objective function.
+     * @param dim Dimension.
+     * @param maxEval Maximal number of evaluations.
+     * @return the optimum.
+     */
+    private static PointValuePair optimizeRosenbrock(CMAESOptimizer optimizer,
+                                                     MultivariateFunction func,
+                                                     int dim,
+                                                     int maxEval) {
+        return optimizer.optimize(new MaxEval(maxEval),
+                                  new ObjectiveFunction(func),
+                                  GoalType.MINIMIZE,
+                                  SimpleBounds.unbounded(dim),
+                                  new PopulationSize(64),
+                                  new Sigma(OptimTestUtils.point(dim, 0.1)),
+                                  new InitialGuess(OptimTestUtils.point(dim, 0.1)));
+    }
+
     /**
      * Cf. MATH-867
      */
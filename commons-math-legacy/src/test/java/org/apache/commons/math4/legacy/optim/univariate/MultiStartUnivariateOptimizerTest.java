@@ -16,12 +16,17 @@
  */
 package org.apache.commons.math4.legacy.optim.univariate;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.apache.commons.math4.legacy.analysis.QuinticFunction;
 import org.apache.commons.math4.legacy.analysis.UnivariateFunction;
 import org.apache.commons.math4.legacy.analysis.function.Sin;
 import org.apache.commons.math4.legacy.exception.MathIllegalStateException;
+import org.apache.commons.math4.legacy.exception.TooManyEvaluationsException;
 import org.apache.commons.math4.legacy.optim.MaxEval;
 import org.apache.commons.math4.legacy.optim.nonlinear.scalar.GoalType;
+import org.apache.commons.math4.legacy.optim.nonlinear.scalar.TargetValue;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.simple.RandomSource;
 import org.apache.commons.math4.core.jdkmath.JdkMath;
@@ -69,6 +74,92 @@ public class MultiStartUnivariateOptimizerTest {
         Assert.assertTrue(optimizer.getEvaluations() < 300);
     }
 
+    @Test
+    public void testConcurrentSinMin() {
+        final UnivariateFunction f = new Sin();
+        final MultiStartUnivariateOptimizer sequential
+            = new MultiStartUnivariateOptimizer(() -> new BrentOptimizer(1e-10, 1e-14), 10,
+                                                RandomSource.TWO_CMRES.create(44428400075L), null);
+        final UnivariatePointValuePair expected
+            = sequential.optimize(new MaxEval(3000),
+                                  new UnivariateObjectiveFunction(f),
+                                  GoalType.MINIMIZE,
+                                  new SearchInterval(-100.0, 100.0));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final MultiStartUnivariateOptimizer concurrent
+                = new MultiStartUnivariateOptimizer(() -> new BrentOptimizer(1e-10, 1e-14), 10,
+                                                    RandomSource.TWO_CMRES.create(44428400075L), executor);
+            final UnivariatePointValuePair optimum
+                = concurrent.optimize(new MaxEval(3000),
+                                      new UnivariateObjectiveFunction(f),
+                                      GoalType.MINIMIZE,
+                                      new SearchInterval(-100.0, 100.0));
+            Assert.assertEquals(expected.getPoint(), optimum.getPoint(), 0);
+            Assert.assertEquals(sequential.getEvaluations(), concurrent.getEvaluations());
+            final UnivariatePointValuePair[] expectedOptima = sequential.getOptima();
+            final UnivariatePointValuePair[] optima = concurrent.getOptima();
+            Assert.assertEquals(expectedOptima.length, optima.length);
+            for (int i = 0; i < optima.length; i++) {
+                Assert.assertEquals(expectedOptima[i].getPoint(), optima[i].getPoint(), 0);
+                Assert.assertEquals(expectedOptima[i].getValue(), optima[i].getValue(), 0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTargetValue() {
+        final UnivariateFunction f = new Sin();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (ExecutorService e : new ExecutorService[] {null, executor}) {
+                final MultiStartUnivariateOptimizer optimizer
+                    = new MultiStartUnivariateOptimizer(() -> new BrentOptimizer(1e-10, 1e-14), 10,
+                                                        RandomSource.TWO_CMRES.create(44428400075L), e);
+                // The initial start finds a local minimum at -1.
+                final UnivariatePointValuePair optimum
+                    = optimizer.optimize(new MaxEval(3000),
+                                         new UnivariateObjectiveFunction(f),
+                                         GoalType.MINIMIZE,
+                                         new SearchInterval(-100.0, 100.0),
+                                         new TargetValue(-0.5));
+                Assert.assertEquals(-1, optimum.getValue(), 1e-10);
+                final UnivariatePointValuePair[] optima = optimizer.getOptima();
+                Assert.assertNotNull(optima[0]);
+                for (int i = 1; i < optima.length; i++) {
+                    Assert.assertNull(optima[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentFewerEvaluationsThanStarts() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final MultiStartUnivariateOptimizer optimizer
+                = new MultiStartUnivariateOptimizer(() -> new BrentOptimizer(1e-10, 1e-14), 200,
+                                                    RandomSource.TWO_CMRES.create(44428400075L), executor);
+            try {
+                optimizer.optimize(new MaxEval(100),
+                                   new UnivariateObjectiveFunction(new Sin()),
+                                   GoalType.MINIMIZE,
+                                   new SearchInterval(-100.0, 100.0));
+                Assert.fail("an exception should have been thrown");
+            } catch (TooManyEvaluationsException e) {
+                // expected: a single evaluation per start is not enough
+            }
+            Assert.assertEquals(100, optimizer.getEvaluations());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testQuinticMin() {
         UnivariateFunction f = new QuinticFunction();
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.stat.descriptive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math4.legacy.exception.DimensionMismatchException;
+import org.apache.commons.math4.legacy.linear.RealMatrix;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the {@link ConcurrentMultivariateSummaryStatistics} class.
+ */
+public final class ConcurrentMultivariateSummaryStatisticsTest {
+
+    @Test
+    public void testEmpty() {
+        final ConcurrentMultivariateSummaryStatistics stats = new ConcurrentMultivariateSummaryStatistics(2, true);
+        final MultivariateSummaryStatistics expected = new MultivariateSummaryStatistics(2, true);
+        Assert.assertEquals(2, stats.getDimension());
+        assertSameStatistics(expected, stats);
+    }
+
+    @Test
+    public void testSingleValue() {
+        final ConcurrentMultivariateSummaryStatistics stats = new ConcurrentMultivariateSummaryStatistics(2, true);
+        final MultivariateSummaryStatistics expected = new MultivariateSummaryStatistics(2, true);
+        stats.addValue(new double[] {2.5, 4});
+        expected.addValue(new double[] {2.5, 4});
+        assertSameStatistics(expected, stats);
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testDimensionMismatch() {
+        new ConcurrentMultivariateSummaryStatistics(2, true).addValue(new double[] {1, 2, 3});
+    }
+
+    @Test
+    public void testSameAsMultivariateSummaryStatistics() {
+        for (final boolean biasCorrected : new boolean[] {true, false}) {
+            final ConcurrentMultivariateSummaryStatistics stats =
+                new ConcurrentMultivariateSummaryStatistics(3, biasCorrected);
+            final MultivariateSummaryStatistics expected = new MultivariateSummaryStatistics(3, biasCorrected);
+            final UniformRandomProvider rng = RandomSource.WELL_19937_C.create(1234L);
+            for (int i = 0; i < 1000; i++) {
+                final double x = 10 * rng.nextDouble();
+                final double[] value = {x, x + rng.nextDouble(), 5 - 2 * x + 0.5 * rng.nextDouble()};
+                stats.addValue(value);
+                expected.addValue(value);
+            }
+            assertSameStatistics(expected, stats);
+        }
+    }
+
+    @Test
+    public void testClear() {
+        final ConcurrentMultivariateSummaryStatistics stats = new ConcurrentMultivariateSummaryStatistics(2, true);
+        stats.addValue(new double[] {1, 2});
+        stats.addValue(new double[] {3, 4});
+        stats.clear();
+        Assert.assertEquals(0, stats.getN());
+        stats.addValue(new double[] {5, 6});
+        Assert.assertEquals(1, stats.getN());
+        Assert.assertArrayEquals(new double[] {5, 6}, stats.getMean(), 0);
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final int threads = 8;
+        final int values = 10000;
+        final double[][][] data = new double[threads][values][];
+        final UniformRandomProvider rng = RandomSource.WELL_19937_C.create(5678L);
+        final MultivariateSummaryStatistics expected = new MultivariateSummaryStatistics(2, true);
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < values; i++) {
+                // Different distribution for each thread.
+                final double x = (t + 1) * rng.nextDouble() + t;
+                data[t][i] = new double[] {x, t - x * rng.nextDouble()};
+                expected.addValue(data[t][i]);
+            }
+        }
+
+        final ConcurrentMultivariateSummaryStatistics stats = new ConcurrentMultivariateSummaryStatistics(2, true);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<Long>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final double[][] d = data[t];
+                tasks.add(() -> {
+                    long n = 0;
+                    for (final double[] x : d) {
+                        stats.addValue(x);
+                        // Concurrent reads.
+                        if (++n % 1000 == 0) {
+                            Assert.assertTrue(stats.getN() >= n);
+                        }
+                    }
+                    return n;
+                });
+            }
+            for (final Future<Long> f : executor.invokeAll(tasks)) {
+                Assert.assertEquals(values, f.get().longValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertSameStatistics(expected, stats);
+    }
+
+    /**
+     * @param expected Expected statistics.
+     * @param actual Actual statistics.
+     */
+    private static void assertSameStatistics(MultivariateSummaryStatistics expected,
+                                             ConcurrentMultivariateSummaryStatistics actual) {
+        final StatisticalMultivariateSummary summary = actual.getSummary();
+        Assert.assertEquals(expected.getN(), summary.getN());
+        Assert.assertArrayEquals(expected.getMin(), summary.getMin(), 0);
+        Assert.assertArrayEquals(expected.getMax(), summary.getMax(), 0);
+        assertArrayEquals(expected.getSum(), summary.getSum(), 1e-12);
+        assertArrayEquals(expected.getSumSq(), summary.getSumSq(), 1e-12);
+        assertArrayEquals(expected.getSumLog(), summary.getSumLog(), 1e-10);
+        assertArrayEquals(expected.getMean(), summary.getMean(), 1e-12);
+        assertArrayEquals(expected.getGeometricMean(), summary.getGeometricMean(), 1e-10);
+        assertArrayEquals(expected.getStandardDeviation(), summary.getStandardDeviation(), 1e-10);
+        final RealMatrix expectedCovariance = expected.getCovariance();
+        final RealMatrix covariance = summary.getCovariance();
+        for (int i = 0; i < expected.getDimension(); i++) {
+            assertArrayEquals(expectedCovariance.getRow(i), covariance.getRow(i), 1e-10);
+        }
+    }
+
+    /**
+     * @param expected Expected values.
+     * @param actual Actual values.
+     * @param relTol Relative tolerance.
+     */
+    private static void assertArrayEquals(double[] expected, double[] actual, double relTol) {
+        Assert.assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.isNaN(expected[i])) {
+                Assert.assertTrue(Double.isNaN(actual[i]));
+            } else {
+                Assert.assertEquals(expected[i], actual[i], relTol * Math.abs(expected[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.stat.descriptive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the {@link ConcurrentSummaryStatistics} class.
+ */
+public final class ConcurrentSummaryStatisticsTest {
+
+    @Test
+    public void testEmpty() {
+        final ConcurrentSummaryStatistics stats = new ConcurrentSummaryStatistics();
+        Assert.assertEquals(0, stats.getN());
+        Assert.assertTrue(Double.isNaN(stats.getMean()));
+        Assert.assertTrue(Double.isNaN(stats.getVariance()));
+        Assert.assertTrue(Double.isNaN(stats.getMin()));
+        Assert.assertTrue(Double.isNaN(stats.getMax()));
+        Assert.assertTrue(Double.isNaN(stats.getGeometricMean()));
+        Assert.assertEquals(0, stats.getSum(), 0);
+        Assert.assertEquals(0, stats.getSumOfLogs(), 0);
+    }
+
+    @Test
+    public void testSingleValue() {
+        final ConcurrentSummaryStatistics stats = new ConcurrentSummaryStatistics();
+        stats.addValue(2.5);
+        Assert.assertEquals(1, stats.getN());
+        Assert.assertEquals(2.5, stats.getMean(), 0);
+        Assert.assertEquals(0, stats.getVariance(), 0);
+        Assert.assertEquals(2.5, stats.getMin(), 0);
+        Assert.assertEquals(2.5, stats.getMax(), 0);
+        Assert.assertEquals(2.5, stats.getGeometricMean(), 1e-15);
+    }
+
+    @Test
+    public void testSameAsSummaryStatistics() {
+        final ConcurrentSummaryStatistics stats = new ConcurrentSummaryStatistics();
+        final SummaryStatistics expected = new SummaryStatistics();
+        final UniformRandomProvider rng = RandomSource.WELL_19937_C.create(1234L);
+        for (int i = 0; i < 1000; i++) {
+            final double x = 10 * rng.nextDouble();
+            stats.addValue(x);
+            expected.addValue(x);
+        }
+        assertSameStatistics(expected, stats);
+    }
+
+    @Test
+    public void testClear() {
+        final ConcurrentSummaryStatistics stats = new ConcurrentSummaryStatistics();
+        stats.addValue(1);
+        stats.addValue(2);
+        stats.clear();
+        Assert.assertEquals(0, stats.getN());
+        stats.addValue(3);
+        Assert.assertEquals(1, stats.getN());
+        Assert.assertEquals(3, stats.getMean(), 0);
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final int threads = 8;
+        final int values = 20000;
+        final double[][] data = new double[threads][values];
+        final UniformRandomProvider rng = RandomSource.WELL_19937_C.create(5678L);
+        final SummaryStatistics expected = new SummaryStatistics();
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < values; i++) {
+                // Different distribution for each thread.
+                data[t][i] = (t + 1) * rng.nextDouble() + t;
+                expected.addValue(data[t][i]);
+            }
+        }
+
+        final ConcurrentSummaryStatistics stats = new ConcurrentSummaryStatistics();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<Long>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final double[] d = data[t];
+                tasks.add(() -> {
+                    long n = 0;
+                    for (final double x : d) {
+                        stats.addValue(x);
+                        // Concurrent reads.
+                        if (++n % 1000 == 0) {
+                            Assert.assertTrue(stats.getN() >= n);
+                        }
+                    }
+                    return n;
+                });
+            }
+            for (final Future<Long> f : executor.invokeAll(tasks)) {
+                Assert.assertEquals(values, f.get().longValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertSameStatistics(expected, stats);
+    }
+
+    /**
+     * @param expected Expected statistics.
+     * @param actual Actual statistics.
+     */
+    private static void assertSameStatistics(SummaryStatistics expected,
+                                             ConcurrentSummaryStatistics actual) {
+        final StatisticalSummary summary = actual.getSummary();
+        Assert.assertEquals(expected.getN(), summary.getN());
+        Assert.assertEquals(expected.getMin(), summary.getMin(), 0);
+        Assert.assertEquals(expected.getMax(), summary.getMax(), 0);
+        Assert.assertEquals(expected.getSum(), summary.getSum(), 1e-12 * Math.abs(expected.getSum()));
+        Assert.assertEquals(expected.getMean(), summary.getMean(), 1e-12 * Math.abs(expected.getMean()));
+        Assert.assertEquals(expected.getVariance(), summary.getVariance(), 1e-10 * expected.getVariance());
+        Assert.assertEquals(expected.getSumOfLogs(), actual.getSumOfLogs(), 1e-10 * Math.abs(expected.getSumOfLogs()));
+        Assert.assertEquals(expected.getGeometricMean(), actual.getGeometricMean(), 1e-10 * expected.getGeometricMean());
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.legacy.stat.descriptive.rank;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.statistics.distribution.ContinuousDistribution;
+import org.apache.commons.statistics.distribution.LogNormalDistribution;
+import org.apache.commons.math4.legacy.exception.MathIllegalArgumentException;
+import org.apache.commons.math4.legacy.exception.NotANumberException;
+import org.apache.commons.math4.legacy.exception.NullArgumentException;
+import org.apache.commons.math4.legacy.exception.NumberIsTooSmallException;
+import org.apache.commons.math4.legacy.exception.OutOfRangeException;
+import org.apache.commons.rng.simple.RandomSource;
+import org.apache.commons.math4.legacy.stat.descriptive.StorelessUnivariateStatisticAbstractTest;
+import org.apache.commons.math4.legacy.stat.descriptive.UnivariateStatistic;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the {@link TDigestPercentile} class.
+ */
+public class TDigestPercentileTest extends StorelessUnivariateStatisticAbstractTest {
+    /** Percentiles checked by the accuracy tests. */
+    private static final double[] PERCENTILES = {0.1, 1, 10, 50, 90, 99, 99.9};
+
+    @Override
+    public UnivariateStatistic getUnivariateStatistic() {
+        return new TDigestPercentile();
+    }
+
+    @Override
+    public double expectedValue() {
+        return this.median;
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testPercentileTooLarge() {
+        new TDigestPercentile(100.5);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testPercentileNaN() {
+        new TDigestPercentile().getPercentile(Double.NaN);
+    }
+
+    @Test(expected = NumberIsTooSmallException.class)
+    public void testCompressionTooSmall() {
+        new TDigestPercentile(50, 0.5);
+    }
+
+    @Test(expected = NotANumberException.class)
+    public void testIncrementNaN() {
+        new TDigestPercentile().increment(Double.NaN);
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void testMergeNull() {
+        new TDigestPercentile().merge((TDigestPercentile) null);
+    }
+
+    @Test
+    public void testEmpty() {
+        final TDigestPercentile digest = new TDigestPercentile(90);
+        Assert.assertEquals(0, digest.getN());
+        Assert.assertTrue(Double.isNaN(digest.getResult()));
+        Assert.assertTrue(Double.isNaN(digest.getPercentile(0)));
+        digest.merge(new TDigestPercentile());
+        Assert.assertEquals(0, digest.getN());
+    }
+
+    @Test
+    public void testSmallSample() {
+        final TDigestPercentile digest = new TDigestPercentile(25);
+        digest.incrementAll(new double[] {4, 1, 3, 2});
+        Assert.assertEquals(1, digest.getPercentile(0), 0);
+        Assert.assertEquals(1.5, digest.getResult(), 0);
+        Assert.assertEquals(2.5, digest.getPercentile(50), 0);
+        Assert.assertEquals(4, digest.getPercentile(100), 0);
+        Assert.assertEquals(25, digest.getQuantile(), 0);
+        Assert.assertEquals(TDigestPercentile.DEFAULT_COMPRESSION, digest.getCompression(), 0);
+    }
+
+    @Test
+    public void testAccuracy() {
+        final double[] data = createSample(1000000, 1234L);
+        final TDigestPercentile digest = new TDigestPercentile();
+        digest.incrementAll(data);
+        Assert.assertEquals(data.length, digest.getN());
+        checkAccuracy(digest, data);
+    }
+
+    @Test
+    public void testMemoryIsBounded() {
+        final TDigestPercentile digest = new TDigestPercentile(50, 50);
+        digest.incrementAll(createSample(200000, 42L));
+        // Each centroid uses 16 bytes.
+        Assert.assertTrue(digest.toByteArray().length < 2 * 50 * 16 + 100);
+    }
+
+    @Test
+    public void testMerge() {
+        final double[] data = createSample(400000, 5678L);
+        final int parts = 7;
+        final List<TDigestPercentile> digests = new ArrayList<>();
+        for (int i = 0; i < parts; i++) {
+            final TDigestPercentile digest = new TDigestPercentile();
+            final int from = i * data.length / parts;
+            final int to = (i + 1) * data.length / parts;
+            digest.incrementAll(data, from, to - from);
+            digests.add(digest);
+        }
+        final TDigestPercentile merged = new TDigestPercentile(99);
+        merged.merge(digests);
+        Assert.assertEquals(data.length, merged.getN());
+        Assert.assertEquals(Arrays.stream(data).min().getAsDouble(), merged.getPercentile(0), 0);
+        Assert.assertEquals(Arrays.stream(data).max().getAsDouble(), merged.getPercentile(100), 0);
+        checkAccuracy(merged, data);
+
+        // Merging does not modify the merged instances.
+        final TDigestPercentile first = digests.get(0);
+        final byte[] before = first.toByteArray();
+        merged.merge(first);
+        Assert.assertArrayEquals(before, first.toByteArray());
+    }
+
+    @Test
+    public void testSerialization() {
+        final TDigestPercentile digest = new TDigestPercentile(99.9, 200);
+        digest.incrementAll(createSample(100000, 91011L));
+        final TDigestPercentile restored = TDigestPercentile.fromByteArray(digest.toByteArray());
+        Assert.assertEquals(digest.getN(), restored.getN());
+        Assert.assertEquals(digest.getQuantile(), restored.getQuantile(), 0);
+        Assert.assertEquals(digest.getCompression(), restored.getCompression(), 0);
+        for (int p = 0; p <= 100; p++) {
+            Assert.assertEquals(digest.getPercentile(p), restored.getPercentile(p), 0);
+        }
+        Assert.assertEquals(digest, restored);
+
+        final TDigestPercentile empty = TDigestPercentile.fromByteArray(new TDigestPercentile().toByteArray());
+        Assert.assertEquals(0, empty.getN());
+        Assert.assertTrue(Double.isNaN(empty.getResult()));
+    }
+
+    @Test
+    public void testSerializationFullDigest() {
+        // More centroids than the capacity derived from the compression,
+        // e.g. from a digest serialized by another implementation.
+        final int centroids = 1000;
+        final ByteBuffer buffer = ByteBuffer.allocate(1 + 4 * Double.BYTES + Integer.BYTES +
+                                                      centroids * (Double.BYTES + Long.BYTES));
+        buffer.put((byte) 1)
+            .putDouble(50)
+            .putDouble(10)
+            .putDouble(0)
+            .putDouble(centroids - 1)
+            .putInt(centroids);
+        for (int i = 0; i < centroids; i++) {
+            buffer.putDouble(i).putLong(1);
+        }
+        final TDigestPercentile digest = TDigestPercentile.fromByteArray(buffer.array());
+        Assert.assertEquals(centroids, digest.getN());
+        Assert.assertArrayEquals(buffer.array(), digest.toByteArray());
+
+        final TDigestPercentile restored = TDigestPercentile.fromByteArray(digest.toByteArray());
+        for (int i = 0; i < centroids; i++) {
+            digest.increment(i + 0.5);
+            restored.increment(i + 0.5);
+        }
+        Assert.assertEquals(2 * centroids, digest.getN());
+        Assert.assertEquals(digest, restored);
+        Assert.assertEquals(centroids / 2, digest.getResult(), 0.05 * centroids);
+        Assert.assertTrue(digest.toByteArray().length < buffer.array().length);
+    }
+
+    @Test
+    public void testInvalidSerializedData() {
+        final TDigestPercentile digest = new TDigestPercentile();
+        digest.incrementAll(createSample(1000, 1L));
+        final byte[] bytes = digest.toByteArray();
+
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+        Assert.assertThrows(MathIllegalArgumentException.class,
+                            () -> TDigestPercentile.fromByteArray(truncated));
+        final byte[] version = bytes.clone();
+        version[0] = 42;
+        Assert.assertThrows(MathIllegalArgumentException.class,
+                            () -> TDigestPercentile.fromByteArray(version));
+        Assert.assertThrows(MathIllegalArgumentException.class,
+                            () -> TDigestPercentile.fromByteArray(new byte[3]));
+    }
+
+    /**
+     * Checks that the rank of the estimates is close to the expected rank.
+     *
+     * @param digest Digest.
+     * @param data Data.
+     */
+    private static void checkAccuracy(TDigestPercentile digest,
+                                      double[] data) {
+        final double[] sorted = data.clone();
+        Arrays.sort(sorted);
+        for (final double p : PERCENTILES) {
+            final double q = p / 100;
+            final double estimate = digest.getPercentile(p);
+            int rank = Arrays.binarySearch(sorted, estimate);
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            final double error = Math.abs((double) rank / sorted.length - q);
+            // Relative accuracy is much better in the tails.
+            final double tolerance = 0.01 * Math.max(2e-2, 4 * q * (1 - q));
+            Assert.assertTrue("p=" + p + " error=" + error, error < tolerance);
+        }
+    }
+
+    /**
+     * @param size Sample size.
+     * @param seed Seed.
+     * @return a (skewed) sample.
+     */
+    private static double[] createSample(int size,
+                                         long seed) {
+        final ContinuousDistribution.Sampler sampler =
+            LogNormalDistribution.of(0, 1).createSampler(RandomSource.WELL_19937_C.create(seed));
+        final double[] data = new double[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = sampler.sample();
+        }
+        return data;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math4.legacy.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math4.legacy.exception.MathIllegalStateException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ConcurrentTasks}.
+ */
+public class ConcurrentTasksTest {
+    @Test
+    public void testResultsInTaskOrder() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final int value = i;
+                tasks.add(() -> {
+                    Thread.sleep((100 - value) % 7);
+                    return value;
+                });
+            }
+            final List<Integer> results = ConcurrentTasks.invokeAll(executor, tasks);
+            Assert.assertEquals(100, results.size());
+            for (int i = 0; i < 100; i++) {
+                Assert.assertEquals(i, results.get(i).intValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmitAllAndCancel() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final List<Callable<Integer>> tasks = new ArrayList<>();
+            tasks.add(() -> 1);
+            tasks.add(() -> {
+                Thread.sleep(50);
+                return 2;
+            });
+            tasks.add(() -> 3);
+            final List<Future<Integer>> futures = ConcurrentTasks.submitAll(executor, tasks);
+            Assert.assertEquals(3, futures.size());
+            Assert.assertEquals(1, ConcurrentTasks.get(futures.get(0)).intValue());
+            // The last task is queued behind the second one.
+            Assert.assertTrue(futures.get(2).cancel(false));
+            Assert.assertEquals(2, ConcurrentTasks.get(futures.get(1)).intValue());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testGetRethrowsUncheckedException() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final List<Callable<Integer>> tasks = new ArrayList<>();
+            tasks.add(() -> {
+                throw new ArithmeticException();
+            });
+            ConcurrentTasks.get(ConcurrentTasks.submitAll(executor, tasks).get(0));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNullExecutor() {
+        final Thread caller = Thread.currentThread();
+        final List<Callable<Thread>> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(Thread::currentThread);
+        }
+        for (final Thread thread : ConcurrentTasks.invokeAll(null, tasks)) {
+            Assert.assertSame(caller, thread);
+        }
+    }
+
+    @Test(expected = MathIllegalStateException.class)
+    public void testNullExecutorCheckedException() {
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            throw new IOException();
+        });
+        ConcurrentTasks.invokeAll(null, tasks);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testUncheckedExceptionIsRethrown() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Callable<Integer>> tasks = new ArrayList<>();
+            tasks.add(() -> 1);
+            tasks.add(() -> {
+                throw new ArithmeticException();
+            });
+            ConcurrentTasks.invokeAll(executor, tasks);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.transform;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * Transforms of many signals stored in a single array, and multi-dimensional
+ * transforms.
+ * <p>
+ * In a batch, the signals are stored one after the other: element {@code j}
+ * of signal {@code s} is at index {@code s * length + j}.
+ * Multi-dimensional data is stored in row major order: in two dimensions,
+ * element {@code (i, j)} is at index {@code i * cols + j}; in three
+ * dimensions, element {@code (i, j, k)} is at index
+ * {@code (i * n1 + j) * n2 + k}.
+ * Multi-dimensional transforms are computed by the row-column method, i.e.
+ * by applying the one-dimensional transform along each dimension in turn.
+ * </p>
+ * <p>
+ * All the methods transform the data in place. When a {@link ForkJoinPool}
+ * is provided, the independent one-dimensional transforms are distributed
+ * among its threads (the results do not depend on the number of threads);
+ * when it is {@code null}, they are computed in the calling thread.
+ * If an exception is thrown (e.g. because a dimension is not a length
+ * supported by the transform), the contents of the arrays are undefined.
+ * </p>
+ */
+public final class BatchTransforms {
+    /** Number of tasks per thread of the pool (for load balancing). */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /** Utility class. */
+    private BatchTransforms() {}
+
+    /**
+     * Transforms each signal of a batch.
+     *
+     * @param transform Transform.
+     * @param data Signals, stored one after the other.
+     * @param length Length of each signal.
+     * @param pool Pool (can be {@code null}).
+     * @throws IllegalArgumentException if {@code length} is not strictly
+     * positive, if the length of {@code data} is not a multiple of
+     * {@code length}, or if {@code length} is not supported by the transform.
+     */
+    public static void transformBatch(final RealTransform transform,
+                                      final double[] data,
+                                      final int length,
+                                      final ForkJoinPool pool) {
+        checkBatch(data.length, length);
+        transform(real(transform), data, null, pool, 1, data.length / length, length);
+    }
+
+    /**
+     * Computes the two-dimensional transform of data stored in row major order.
+     *
+     * @param transform One-dimensional transform.
+     * @param data Data.
+     * @param rows Number of rows.
+     * @param cols Number of columns.
+     * @param pool Pool (can be {@code null}).
+     * @throws IllegalArgumentException if a dimension is not strictly
+     * positive or is not supported by the transform, or if the length of
+     * {@code data} is not {@code rows * cols}.
+     */
+    public static void transform2D(final RealTransform transform,
+                                   final double[] data,
+                                   final int rows,
+                                   final int cols,
+                                   final ForkJoinPool pool) {
+        checkShape(data.length, rows, cols);
+        transform(real(transform), data, null, pool, 0, rows, cols);
+    }
+
+    /**
+     * Computes the three-dimensional transform of data stored in row major order.
+     *
+     * @param transform One-dimensional transform.
+     * @param data Data.
+     * @param n0 First dimension.
+     * @param n1 Second dimension.
+     * @param n2 Third dimension.
+     * @param pool Pool (can be {@code null}).
+     * @throws IllegalArgumentException if a dimension is not strictly
+     * positive or is not supported by the transform, or if the length of
+     * {@code data} is not {@code n0 * n1 * n2}.
+     */
+    public static void transform3D(final RealTransform transform,
+                                   final double[] data,
+                                   final int n0,
+                                   final int n1,
+                                   final int n2,
+                                   final ForkJoinPool pool) {
+        checkShape(data.length, n0, n1, n2);
+        transform(real(transform), data, null, pool, 0, n0, n1, n2);
+    }
+
+    /**
+     * Transforms each signal of a batch of complex signals.
+     *
+     * @param transform Transform.
+     * @param re Real parts of the signals, stored one after the other.
+     * @param im Imaginary parts of the signals, stored one after the other.
+     * @param length Length of each signal.
+     * @param pool Pool (can be {@code null}).
+     * @throws IllegalArgumentException if {@code length} is not strictly
+     * positive or not a power of two, or if the lengths of {@code re} and
+     * {@code im} differ or are not a multiple of {@code length}.
+     */
+    public static void transformBatch(final FastFourierTransform transform,
+                                      final double[] re,
+                                      final double[] im,
+                                      final int length,
+                                      final ForkJoinPool pool) {
+        checkParts(re, im);
+        checkBatch(re.length, length);
+        transform(complex(transform), re, im, pool, 1, re.length / length, length);
+    }
+
+    /**
+     * Computes the two-dimensional transform of complex data stored in row
+     * major order.
+     *
+     * @param transform One-dimensional transform.
+     * @param re Real parts of the data.
+     * @param im Imaginary parts of the data.
+     * @param rows Number of rows.
+     * @param cols Number of columns.
+     * @param pool Pool (can be {@code null}).
+     * @throws IllegalArgumentException if a dimension is not strictly
+     * positive or not a power of two, or if the length of {@code re} or
+     * {@code im} is not {@code rows * cols}.
+     */
+    public static void transform2D(final FastFourierTransform transform,
+                                   final double[] re,
+                                   final double[] im,
+                                   final int rows,
+                                   final int cols,
+                                   final ForkJoinPool pool) {
+        checkParts(re, im);
+        checkShape(re.length, rows, cols);
+        transform(complex(transform), re, im, pool, 0, rows, cols);
+    }
+
+    /**
+     * Computes the three-dimensional transform of complex data stored in row
+     * major order.
+     *
+     * @param transform One-dimensional transform.
+     * @param re Real parts of the data.
+     * @param im Imaginary parts of the data.
+     * @param n0 First dimension.
+     * @param n1 Second dimension.
+     * @param n2 Third dimension.
+     * @param pool Pool (can be {@code null}).
+     * @throws IllegalArgumentException if a dimension is not strictly
+     * positive or not a power of two, or if the length of {@code re} or
+     * {@code im} is not {@code n0 * n1 * n2}.
+     */
+    public static void transform3D(final FastFourierTransform transform,
+                                   final double[] re,
+                                   final double[] im,
+                                   final int n0,
+                                   final int n1,
+                                   final int n2,
+                                   final ForkJoinPool pool) {
+        checkParts(re, im);
+        checkShape(re.length, n0, n1, n2);
+        transform(complex(transform), re, im, pool, 0, n0, n1, n2);
+    }
+
+    /**
+     * Transforms the data along the dimensions {@code first}, ...,
+     * {@code shape.length - 1}, starting with the last one.
+     *
+     * @param factory Creates the operator that transforms the lines of a
+     * given length.
+     * @param re Real parts of the data.
+     * @param im Imaginary parts of the data (can be {@code null}).
+     * @param pool Pool (can be {@code null}).
+     * @param first First dimension to be transformed.
+     * @param shape Dimensions.
+     */
+    private static void transform(final IntFunction<LineOperator> factory,
+                                  final double[] re,
+                                  final double[] im,
+                                  final ForkJoinPool pool,
+                                  final int first,
+                                  final int... shape) {
+        // Create all the operators before modifying the data.
+        final LineOperator[] ops = new LineOperator[shape.length];
+        for (int d = first; d < shape.length; d++) {
+            ops[d] = factory.apply(shape[d]);
+        }
+
+        int stride = 1;
+        for (int d = shape.length - 1; d >= first; d--) {
+            final int n = shape[d];
+            final Lines data = new Lines(ops[d], re, im, n, stride);
+            final int count = re.length / n;
+            if (pool == null) {
+                data.transform(0, count);
+            } else {
+                final int leaf = Math.max(1, count / (TASKS_PER_THREAD * pool.getParallelism()));
+                pool.invoke(new LinesTask(data, 0, count, leaf));
+            }
+            stride *= n;
+        }
+    }
+
+    /**
+     * @param transform Transform.
+     * @return a factory of operators that apply the given transform.
+     */
+    private static IntFunction<LineOperator> real(final RealTransform transform) {
+        return n -> (re, im) -> System.arraycopy(transform.apply(re), 0, re, 0, n);
+    }
+
+    /**
+     * @param transform Transform.
+     * @return a factory of operators that apply the given transform.
+     */
+    private static IntFunction<LineOperator> complex(final FastFourierTransform transform) {
+        return n -> transform.plan(n)::transform;
+    }
+
+    /**
+     * @param dataLength Length of the data.
+     * @param length Length of each signal.
+     * @throws TransformException if the arguments are inconsistent.
+     */
+    private static void checkBatch(final int dataLength,
+                                   final int length) {
+        if (length <= 0) {
+            throw new TransformException(TransformException.NOT_STRICTLY_POSITIVE, length);
+        }
+        if (dataLength % length != 0) {
+            throw new TransformException(TransformException.SIZE_MISMATCH, dataLength, length);
+        }
+    }
+
+    /**
+     * @param dataLength Length of the data.
+     * @param shape Dimensions.
+     * @throws TransformException if the arguments are inconsistent.
+     */
+    private static void checkShape(final int dataLength,
+                                   final int... shape) {
+        long size = 1;
+        for (final int n : shape) {
+            if (n <= 0) {
+                throw new TransformException(TransformException.NOT_STRICTLY_POSITIVE, n);
+            }
+            size *= n;
+        }
+        if (size != dataLength) {
+            throw new TransformException(TransformException.SIZE_MISMATCH, dataLength, size);
+        }
+    }
+
+    /**
+     * @param re Real parts.
+     * @param im Imaginary parts.
+     * @throws TransformException if the lengths differ.
+     */
+    private static void checkParts(final double[] re,
+                                   final double[] im) {
+        if (re.length != im.length) {
+            throw new TransformException(TransformException.SIZE_MISMATCH, re.length, im.length);
+        }
+    }
+
+    /**
+     * Operator that transforms a line of data in place.
+     */
+    @FunctionalInterface
+    private interface LineOperator {
+        /**
+         * @param re Real parts of the line.
+         * @param im Imaginary parts of the line ({@code null} for real data).
+         */
+        void apply(double[] re, double[] im);
+    }
+
+    /**
+     * Lines of data along one dimension.
+     * Line {@code l} starts at index
+     * {@code (l / stride) * n * stride + l % stride}, and its consecutive
+     * elements are {@code stride} apart.
+     */
+    private static final class Lines {
+        /** Operator. */
+        private final LineOperator op;
+        /** Real parts of the data. */
+        private final double[] re;
+        /** Imaginary parts of the data. */
+        private final double[] im;
+        /** Length of the lines. */
+        private final int n;
+        /** Distance between consecutive elements of a line. */
+        private final int stride;
+
+        /**
+         * @param op Operator.
+         * @param re Real parts of the data.
+         * @param im Imaginary parts of the data (can be {@code null}).
+         * @param n Length of the lines.
+         * @param stride Distance between consecutive elements of a line.
+         */
+        Lines(final LineOperator op,
+              final double[] re,
+              final double[] im,
+              final int n,
+              final int stride) {
+            this.op = op;
+            this.re = re;
+            this.im = im;
+            this.n = n;
+            this.stride = stride;
+        }
+
+        /**
+         * Transforms a range of lines.
+         *
+         * @param from First line (inclusive).
+         * @param to Last line (exclusive).
+         */
+        void transform(final int from,
+                       final int to) {
+            final double[] lineR = new double[n];
+            final double[] lineI = im == null ? null : new double[n];
+            for (int l = from; l < to; l++) {
+                final int start = (l / stride) * n * stride + l % stride;
+                gather(re, start, lineR);
+                if (im != null) {
+                    gather(im, start, lineI);
+                }
+                op.apply(lineR, lineI);
+                scatter(lineR, re, start);
+                if (im != null) {
+                    scatter(lineI, im, start);
+                }
+            }
+        }
+
+        /**
+         * @param data Data.
+         * @param start Index of the first element of the line.
+         * @param line Line (output).
+         */
+        private void gather(final double[] data,
+                            final int start,
+                            final double[] line) {
+            if (stride == 1) {
+                System.arraycopy(data, start, line, 0, n);
+            } else {
+                for (int j = 0, k = start; j < n; j++, k += stride) {
+                    line[j] = data[k];
+                }
+            }
+        }
+
+        /**
+         * @param line Line.
+         * @param data Data (output).
+         * @param start Index of the first element of the line.
+         */
+        private void scatter(final double[] line,
+                             final double[] data,
+                             final int start) {
+            if (stride == 1) {
+                System.arraycopy(line, 0, data, start, n);
+            } else {
+                for (int j = 0, k = start; j < n; j++, k += stride) {
+                    data[k] = line[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Task that transforms a range of lines, splitting it among subtasks.
+     */
+    private static final class LinesTask extends RecursiveAction {
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20261017L;
+        /** Lines. */
+        private final transient Lines lines;
+        /** First line (inclusive). */
+        private final int from;
+        /** Last line (exclusive). */
+        private final int to;
+        /** Maximum number of lines transformed by a single task. */
+        private final int leaf;
+
+        /**
+         * @param lines Lines.
+         * @param from First line (inclusive).
+         * @param to Last line (exclusive).
+         * @param leaf Maximum number of lines transformed by a single task.
+         */
+        LinesTask(final Lines lines,
+                  final int from,
+                  final int to,
+                  final int leaf) {
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (to - from <= leaf) {
+                lines.transform(from, to);
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new LinesTask(lines, from, mid, leaf),
+                          new LinesTask(lines, mid, to, leaf));
+            }
+        }
+    }
+}
@@ -38,55 +38,21 @@ import org.apache.commons.numbers.complex.Complex;
  * reference, see S. Winograd,
  * <i>On computing the discrete Fourier transform</i>, Mathematics of
  * Computation, 32 (1978), 175 - 199.
+ * <p>
+ * The transform combines pairs of radix-2 stages into radix-4 passes, using
+ * tables of roots of unity that are computed once for each length and shared
+ * by all instances.
+ * When only the non-redundant half of the spectrum of real data is needed,
+ * {@link #applyHalfSpectrum(double[])} computes it with a complex FFT of half
+ * the length.
+ * <p>
+ * Applications that repeatedly transform data of the same length should
+ * create a {@link #plan(int) plan}, which transforms the data in arrays
+ * provided by the caller, without allocating any memory.
  */
 public class FastFourierTransform implements ComplexTransform {
     /** Number of array slots: 1 for "real" parts 1 for "imaginary" parts. */
     private static final int NUM_PARTS = 2;
-    /**
-     * {@code W_SUB_N_R[i]} is the real part of
-     * {@code exp(- 2 * i * pi / n)}:
-     * {@code W_SUB_N_R[i] = cos(2 * pi/ n)}, where {@code n = 2^i}.
-     */
-    private static final double[] W_SUB_N_R = {
-        0x1.0p0, -0x1.0p0, 0x1.1a62633145c07p-54, 0x1.6a09e667f3bcdp-1,
-        0x1.d906bcf328d46p-1, 0x1.f6297cff75cbp-1, 0x1.fd88da3d12526p-1, 0x1.ff621e3796d7ep-1,
-        0x1.ffd886084cd0dp-1, 0x1.fff62169b92dbp-1, 0x1.fffd8858e8a92p-1, 0x1.ffff621621d02p-1,
-        0x1.ffffd88586ee6p-1, 0x1.fffff62161a34p-1, 0x1.fffffd8858675p-1, 0x1.ffffff621619cp-1,
-        0x1.ffffffd885867p-1, 0x1.fffffff62161ap-1, 0x1.fffffffd88586p-1, 0x1.ffffffff62162p-1,
-        0x1.ffffffffd8858p-1, 0x1.fffffffff6216p-1, 0x1.fffffffffd886p-1, 0x1.ffffffffff621p-1,
-        0x1.ffffffffffd88p-1, 0x1.fffffffffff62p-1, 0x1.fffffffffffd9p-1, 0x1.ffffffffffff6p-1,
-        0x1.ffffffffffffep-1, 0x1.fffffffffffffp-1, 0x1.0p0, 0x1.0p0,
-        0x1.0p0, 0x1.0p0, 0x1.0p0, 0x1.0p0,
-        0x1.0p0, 0x1.0p0, 0x1.0p0, 0x1.0p0,
-        0x1.0p0, 0x1.0p0, 0x1.0p0, 0x1.0p0,
-        0x1.0p0, 0x1.0p0, 0x1.0p0, 0x1.0p0,
-        0x1.0p0, 0x1.0p0, 0x1.0p0, 0x1.0p0,
-        0x1.0p0, 0x1.0p0, 0x1.0p0, 0x1.0p0,
-        0x1.0p0, 0x1.0p0, 0x1.0p0, 0x1.0p0,
-        0x1.0p0, 0x1.0p0, 0x1.0p0 };
-
-    /**
-     * {@code W_SUB_N_I[i]} is the imaginary part of
-     * {@code exp(- 2 * i * pi / n)}:
-     * {@code W_SUB_N_I[i] = -sin(2 * pi/ n)}, where {@code n = 2^i}.
-     */
-    private static final double[] W_SUB_N_I = {
-        0x1.1a62633145c07p-52, -0x1.1a62633145c07p-53, -0x1.0p0, -0x1.6a09e667f3bccp-1,
-        -0x1.87de2a6aea963p-2, -0x1.8f8b83c69a60ap-3, -0x1.917a6bc29b42cp-4, -0x1.91f65f10dd814p-5,
-        -0x1.92155f7a3667ep-6, -0x1.921d1fcdec784p-7, -0x1.921f0fe670071p-8, -0x1.921f8becca4bap-9,
-        -0x1.921faaee6472dp-10, -0x1.921fb2aecb36p-11, -0x1.921fb49ee4ea6p-12, -0x1.921fb51aeb57bp-13,
-        -0x1.921fb539ecf31p-14, -0x1.921fb541ad59ep-15, -0x1.921fb5439d73ap-16, -0x1.921fb544197ap-17,
-        -0x1.921fb544387bap-18, -0x1.921fb544403c1p-19, -0x1.921fb544422c2p-20, -0x1.921fb54442a83p-21,
-        -0x1.921fb54442c73p-22, -0x1.921fb54442cefp-23, -0x1.921fb54442d0ep-24, -0x1.921fb54442d15p-25,
-        -0x1.921fb54442d17p-26, -0x1.921fb54442d18p-27, -0x1.921fb54442d18p-28, -0x1.921fb54442d18p-29,
-        -0x1.921fb54442d18p-30, -0x1.921fb54442d18p-31, -0x1.921fb54442d18p-32, -0x1.921fb54442d18p-33,
-        -0x1.921fb54442d18p-34, -0x1.921fb54442d18p-35, -0x1.921fb54442d18p-36, -0x1.921fb54442d18p-37,
-        -0x1.921fb54442d18p-38, -0x1.921fb54442d18p-39, -0x1.921fb54442d18p-40, -0x1.921fb54442d18p-41,
-        -0x1.921fb54442d18p-42, -0x1.921fb54442d18p-43, -0x1.921fb54442d18p-44, -0x1.921fb54442d18p-45,
-        -0x1.921fb54442d18p-46, -0x1.921fb54442d18p-47, -0x1.921fb54442d18p-48, -0x1.921fb54442d18p-49,
-        -0x1.921fb54442d18p-50, -0x1.921fb54442d18p-51, -0x1.921fb54442d18p-52, -0x1.921fb54442d18p-53,
-        -0x1.921fb54442d18p-54, -0x1.921fb54442d18p-55, -0x1.921fb54442d18p-56, -0x1.921fb54442d18p-57,
-        -0x1.921fb54442d18p-58, -0x1.921fb54442d18p-59, -0x1.921fb54442d18p-60 };
 
     /** Type of DFT. */
     private final Norm normalization;
@@ -137,143 +103,20 @@ public class FastFourierTransform implements ComplexTransform {
             throw new TransformException(TransformException.SIZE_MISMATCH,
                                          dataI.length, dataR.length);
         }
-        final int n = dataR.length;
-        if (!ArithmeticUtils.isPowerOfTwo(n)) {
-            throw new TransformException(TransformException.NOT_POWER_OF_TWO,
-                                         Integer.valueOf(n));
-        }
-
-        if (n == 1) {
-            return;
-        } else if (n == 2) {
-            final double srcR0 = dataR[0];
-            final double srcI0 = dataI[0];
-            final double srcR1 = dataR[1];
-            final double srcI1 = dataI[1];
-
-            // X_0 = x_0 + x_1
-            dataR[0] = srcR0 + srcR1;
-            dataI[0] = srcI0 + srcI1;
-            // X_1 = x_0 - x_1
-            dataR[1] = srcR0 - srcR1;
-            dataI[1] = srcI0 - srcI1;
-
-            normalizeTransformedData(dataRI);
-            return;
-        }
-
-        bitReversalShuffle2(dataR, dataI);
-
-        // Do 4-term DFT.
-        if (inverse) {
-            for (int i0 = 0; i0 < n; i0 += 4) {
-                final int i1 = i0 + 1;
-                final int i2 = i0 + 2;
-                final int i3 = i0 + 3;
-
-                final double srcR0 = dataR[i0];
-                final double srcI0 = dataI[i0];
-                final double srcR1 = dataR[i2];
-                final double srcI1 = dataI[i2];
-                final double srcR2 = dataR[i1];
-                final double srcI2 = dataI[i1];
-                final double srcR3 = dataR[i3];
-                final double srcI3 = dataI[i3];
-
-                // 4-term DFT
-                // X_0 = x_0 + x_1 + x_2 + x_3
-                dataR[i0] = srcR0 + srcR1 + srcR2 + srcR3;
-                dataI[i0] = srcI0 + srcI1 + srcI2 + srcI3;
-                // X_1 = x_0 - x_2 + j * (x_3 - x_1)
-                dataR[i1] = srcR0 - srcR2 + (srcI3 - srcI1);
-                dataI[i1] = srcI0 - srcI2 + (srcR1 - srcR3);
-                // X_2 = x_0 - x_1 + x_2 - x_3
-                dataR[i2] = srcR0 - srcR1 + srcR2 - srcR3;
-                dataI[i2] = srcI0 - srcI1 + srcI2 - srcI3;
-                // X_3 = x_0 - x_2 + j * (x_1 - x_3)
-                dataR[i3] = srcR0 - srcR2 + (srcI1 - srcI3);
-                dataI[i3] = srcI0 - srcI2 + (srcR3 - srcR1);
-            }
-        } else {
-            for (int i0 = 0; i0 < n; i0 += 4) {
-                final int i1 = i0 + 1;
-                final int i2 = i0 + 2;
-                final int i3 = i0 + 3;
-
-                final double srcR0 = dataR[i0];
-                final double srcI0 = dataI[i0];
-                final double srcR1 = dataR[i2];
-                final double srcI1 = dataI[i2];
-                final double srcR2 = dataR[i1];
-                final double srcI2 = dataI[i1];
-                final double srcR3 = dataR[i3];
-                final double srcI3 = dataI[i3];
-
-                // 4-term DFT
-                // X_0 = x_0 + x_1 + x_2 + x_3
-                dataR[i0] = srcR0 + srcR1 + srcR2 + srcR3;
-                dataI[i0] = srcI0 + srcI1 + srcI2 + srcI3;
-                // X_1 = x_0 - x_2 + j * (x_3 - x_1)
-                dataR[i1] = srcR0 - srcR2 + (srcI1 - srcI3);
-                dataI[i1] = srcI0 - srcI2 + (srcR3 - srcR1);
-                // X_2 = x_0 - x_1 + x_2 - x_3
-                dataR[i2] = srcR0 - srcR1 + srcR2 - srcR3;
-                dataI[i2] = srcI0 - srcI1 + srcI2 - srcI3;
-                // X_3 = x_0 - x_2 + j * (x_1 - x_3)
-                dataR[i3] = srcR0 - srcR2 + (srcI3 - srcI1);
-                dataI[i3] = srcI0 - srcI2 + (srcR1 - srcR3);
-            }
-        }
-
-        int lastN0 = 4;
-        int lastLogN0 = 2;
-        while (lastN0 < n) {
-            final int n0 = lastN0 << 1;
-            final int logN0 = lastLogN0 + 1;
-            final double wSubN0R = W_SUB_N_R[logN0];
-            double wSubN0I = W_SUB_N_I[logN0];
-            if (inverse) {
-                wSubN0I = -wSubN0I;
-            }
-
-            // Combine even/odd transforms of size lastN0 into a transform of size N0 (lastN0 * 2).
-            for (int destEvenStartIndex = 0; destEvenStartIndex < n; destEvenStartIndex += n0) {
-                final int destOddStartIndex = destEvenStartIndex + lastN0;
-
-                double wSubN0ToRR = 1;
-                double wSubN0ToRI = 0;
-
-                for (int r = 0; r < lastN0; r++) {
-                    final int destEvenStartIndexPlusR = destEvenStartIndex + r;
-                    final int destOddStartIndexPlusR = destOddStartIndex + r;
-
-                    final double grR = dataR[destEvenStartIndexPlusR];
-                    final double grI = dataI[destEvenStartIndexPlusR];
-                    final double hrR = dataR[destOddStartIndexPlusR];
-                    final double hrI = dataI[destOddStartIndexPlusR];
-
-                    final double a = wSubN0ToRR * hrR - wSubN0ToRI * hrI;
-                    final double b = wSubN0ToRR * hrI + wSubN0ToRI * hrR;
-                    // dest[destEvenStartIndex + r] = Gr + WsubN0ToR * Hr
-                    dataR[destEvenStartIndexPlusR] = grR + a;
-                    dataI[destEvenStartIndexPlusR] = grI + b;
-                    // dest[destOddStartIndex + r] = Gr - WsubN0ToR * Hr
-                    dataR[destOddStartIndexPlusR] = grR - a;
-                    dataI[destOddStartIndexPlusR] = grI - b;
-
-                    // WsubN0ToR *= WsubN0R
-                    final double nextWsubN0ToRR = wSubN0ToRR * wSubN0R - wSubN0ToRI * wSubN0I;
-                    final double nextWsubN0ToRI = wSubN0ToRR * wSubN0I + wSubN0ToRI * wSubN0R;
-                    wSubN0ToRR = nextWsubN0ToRR;
-                    wSubN0ToRI = nextWsubN0ToRI;
-                }
-            }
-
-            lastN0 = n0;
-            lastLogN0 = logN0;
-        }
+        plan(dataR.length).transform(dataR, dataI);
+    }
 
-        normalizeTransformedData(dataRI);
+    /**
+     * Creates a plan for computing transforms of the given length, with the
+     * normalization and direction of this instance.
+     *
+     * @param n Length of the data.
+     * @return the plan.
+     * @throws IllegalArgumentException if {@code n} is not a power of two.
+     */
+    public Plan plan(final int n) {
+        checkPowerOfTwo(n);
+        return new Plan(n, normalization, inverse);
     }
 
     /**
@@ -291,6 +134,28 @@ public class FastFourierTransform implements ComplexTransform {
         return TransformUtils.createComplex(dataRI);
     }
 
+    /**
+     * Computes the transform of real data, and returns only the half of the
+     * spectrum that is not redundant.
+     * The spectrum {@code X} of real data is Hermitian-symmetric: if {@code n}
+     * is the length of the data, {@code X[n - k]} is the complex conjugate of
+     * {@code X[k]}.
+     * The transform is computed with a complex FFT of length {@code n / 2},
+     * and thus requires about half of the time and memory of
+     * {@link #apply(double[])}.
+     *
+     * @param f Data (signal).
+     * @return the first {@code n / 2 + 1} elements of the spectrum.
+     * @throws IllegalArgumentException if the length of the data array is
+     * not a power of two.
+     */
+    public Complex[] applyHalfSpectrum(final double[] f) {
+        final Plan plan = plan(f.length);
+        final double[][] dataRI = new double[NUM_PARTS][plan.getHalfSpectrumLength()];
+        plan.transformReal(f, dataRI[0], dataRI[1]);
+        return TransformUtils.createComplex(dataRI);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -321,77 +186,221 @@ public class FastFourierTransform implements ComplexTransform {
     }
 
     /**
-     * Applies normalization to the transformed data.
+     * @param n Length of the data.
+     * @throws IllegalArgumentException if {@code n} is not a power of two.
+     */
+    private static void checkPowerOfTwo(final int n) {
+        if (!ArithmeticUtils.isPowerOfTwo(n)) {
+            throw new TransformException(TransformException.NOT_POWER_OF_TWO,
+                                         Integer.valueOf(n));
+        }
+    }
+
+    /**
+     * Transforms of a given length.
+     * <p>
+     * A plan holds the (shared) tables of roots of unity and bit-reversal
+     * permutation of its length, and transforms data in arrays provided by
+     * the caller: once created, it does not allocate any memory.
+     * The transforms are computed in place, or use the output arrays as
+     * workspace, so that a plan does not need scratch storage of its own;
+     * it is immutable and can be used concurrently by several threads.
+     * </p>
      *
-     * @param dataRI Unscaled transformed data.
+     * @see FastFourierTransform#plan(int)
      */
-    private void normalizeTransformedData(final double[][] dataRI) {
-        final double[] dataR = dataRI[0];
-        final double[] dataI = dataRI[1];
-        final int n = dataR.length;
+    public static final class Plan {
+        /** Length of the transform. */
+        private final int n;
+        /** Type of DFT. */
+        private final Norm normalization;
+        /** Inverse or forward. */
+        private final boolean inverse;
+        /** Kernel of length {@code n}. */
+        private final FourierKernel kernel;
+        /** Kernel of length {@code n / 2} (for real data). */
+        private final FourierKernel halfKernel;
 
-        switch (normalization) {
-        case STD:
-            if (inverse) {
-                final double scaleFactor = 1d / n;
-                for (int i = 0; i < n; i++) {
-                    dataR[i] *= scaleFactor;
-                    dataI[i] *= scaleFactor;
-                }
-            }
+        /**
+         * @param n Length of the transform (must be a power of two).
+         * @param normalization Normalization to be applied to the
+         * transformed data.
+         * @param inverse Whether to perform the inverse transform.
+         */
+        Plan(final int n,
+             final Norm normalization,
+             final boolean inverse) {
+            this.n = n;
+            this.normalization = normalization;
+            this.inverse = inverse;
+            kernel = FourierKernel.of(n);
+            halfKernel = n > 1 ? FourierKernel.of(n >> 1) : null;
+        }
+
+        /**
+         * @return the length of the transform.
+         */
+        public int getLength() {
+            return n;
+        }
+
+        /**
+         * @return the length {@code n / 2 + 1} of the half spectrum of real
+         * data computed by {@link #transformReal(double[],double[],double[])}.
+         */
+        public int getHalfSpectrumLength() {
+            return (n >> 1) + 1;
+        }
 
-            break;
+        /**
+         * Computes the transform of complex data, in place.
+         *
+         * @param re Real parts of the data (overwritten by those of the transform).
+         * @param im Imaginary parts of the data (overwritten by those of the
+         * transform).
+         * @throws IllegalArgumentException if the length of the arrays is not
+         * the length of the plan.
+         */
+        public void transform(final double[] re,
+                              final double[] im) {
+            checkLength(re.length, n);
+            checkLength(im.length, n);
+            kernel.transform(re, im, inverse);
+            normalize(re, im, n);
+        }
 
-        case UNIT:
-            final double scaleFactor = 1d / Math.sqrt(n);
-            for (int i = 0; i < n; i++) {
-                dataR[i] *= scaleFactor;
-                dataI[i] *= scaleFactor;
+        /**
+         * Computes the non-redundant half of the transform of real data.
+         * The input array is not modified.
+         *
+         * @param f Data.
+         * @param re Real parts of the first {@code n / 2 + 1} elements of the
+         * transform (output).
+         * @param im Imaginary parts of the first {@code n / 2 + 1} elements of
+         * the transform (output).
+         * @throws IllegalArgumentException if the length of {@code f} is not
+         * the length of the plan, or if the length of {@code re} or {@code im}
+         * is not {@link #getHalfSpectrumLength()}.
+         * @see FastFourierTransform#applyHalfSpectrum(double[])
+         */
+        public void transformReal(final double[] f,
+                                  final double[] re,
+                                  final double[] im) {
+            checkLength(f.length, n);
+            checkLength(re.length, getHalfSpectrumLength());
+            checkLength(im.length, getHalfSpectrumLength());
+
+            if (n == 1) {
+                re[0] = f[0];
+                im[0] = 0;
+                normalize(re, im, 1);
+                return;
             }
 
-            break;
+            // Transform z[j] = f[2j] + i f[2j + 1].
+            final int h = n >> 1;
+            for (int j = 0; j < h; j++) {
+                re[j] = f[2 * j];
+                im[j] = f[2 * j + 1];
+            }
+            halfKernel.transform(re, im, false);
+
+            // Separate the transforms E and O of the even and odd samples:
+            //   E[k] = (Z[k] + conj(Z[h - k])) / 2
+            //   O[k] = -i (Z[k] - conj(Z[h - k])) / 2
+            // and combine them:
+            //   X[k] = E[k] + w^k O[k]
+            //   X[h - k] = conj(E[k] - w^k O[k])
+            // with w = exp(-2 pi i / n).
+            final double z0r = re[0];
+            final double z0i = im[0];
+            re[0] = z0r + z0i;
+            im[0] = 0;
+            re[h] = z0r - z0i;
+            im[h] = 0;
+            int k = 1;
+            int l = h - 1;
+            while (k < l) {
+                final double zkr = re[k];
+                final double zki = im[k];
+                final double zlr = re[l];
+                final double zli = im[l];
+                final double er = 0.5 * (zkr + zlr);
+                final double ei = 0.5 * (zki - zli);
+                final double or = 0.5 * (zki + zli);
+                final double oi = 0.5 * (zlr - zkr);
+                final double wr = kernel.cos(k);
+                final double wi = kernel.sin(k);
+                final double tr = wr * or - wi * oi;
+                final double ti = wr * oi + wi * or;
+                re[k] = er + tr;
+                im[k] = ei + ti;
+                re[l] = er - tr;
+                im[l] = ti - ei;
+                ++k;
+                --l;
+            }
+            if (k == l) {
+                // X[h / 2] = conj(Z[h / 2]).
+                im[k] = -im[k];
+            }
 
-        default:
-            throw new IllegalStateException(); // Should never happen.
+            if (inverse) {
+                // The inverse transform of real data is the conjugate of the forward transform.
+                for (int j = 1; j < h; j++) {
+                    im[j] = -im[j];
+                }
+            }
+            normalize(re, im, h + 1);
         }
-    }
 
-    /**
-     * Performs identical index bit reversal shuffles on two arrays of
-     * identical size.
-     * Each element in the array is swapped with another element based
-     * on the bit-reversal of the index.
-     * For example, in an array with length 16, item at binary index 0011
-     * (decimal 3) would be swapped with the item at binary index 1100
-     * (decimal 12).
-     *
-     * @param a Array to be shuffled.
-     * @param b Array to be shuffled.
-     */
-    private static void bitReversalShuffle2(double[] a,
-                                            double[] b) {
-        final int n = a.length;
-        final int halfOfN = n >> 1;
+        /**
+         * Applies normalization to the transformed data.
+         *
+         * @param re Real parts of the unscaled transformed data.
+         * @param im Imaginary parts of the unscaled transformed data.
+         * @param length Number of elements to scale.
+         */
+        private void normalize(final double[] re,
+                               final double[] im,
+                               final int length) {
+            switch (normalization) {
+            case STD:
+                if (inverse) {
+                    final double scaleFactor = 1d / n;
+                    for (int i = 0; i < length; i++) {
+                        re[i] *= scaleFactor;
+                        im[i] *= scaleFactor;
+                    }
+                }
 
-        int j = 0;
-        for (int i = 0; i < n; i++) {
-            if (i < j) {
-                // swap indices i & j
-                double temp = a[i];
-                a[i] = a[j];
-                a[j] = temp;
+                break;
 
-                temp = b[i];
-                b[i] = b[j];
-                b[j] = temp;
+            case UNIT:
+                final double scaleFactor = 1d / Math.sqrt(n);
+                for (int i = 0; i < length; i++) {
+                    re[i] *= scaleFactor;
+                    im[i] *= scaleFactor;
+                }
+
+                break;
+
+            default:
+                throw new IllegalStateException(); // Should never happen.
             }
+        }
 
-            int k = halfOfN;
-            while (k <= j && k > 0) {
-                j -= k;
-                k >>= 1;
+        /**
+         * @param actual Length of an array.
+         * @param expected Expected length.
+         * @throws IllegalArgumentException if the lengths differ.
+         */
+        private static void checkLength(final int actual,
+                                        final int expected) {
+            if (actual != expected) {
+                throw new TransformException(TransformException.SIZE_MISMATCH,
+                                             actual, expected);
             }
-            j += k;
         }
     }
 
@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.transform;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Unnormalized in-place complex FFT of a given power-of-two length.
+ * <p>
+ * The transform is computed by a decimation-in-time algorithm that combines
+ * two radix-2 stages in each pass over the data (radix-2<sup>2</sup>), which
+ * saves a quarter of the complex multiplications and half of the memory
+ * traffic of the radix-2 algorithm.
+ * The twiddle factors and the bit-reversal permutation are tabulated once
+ * per length: instances are immutable and shared by all the transforms of
+ * the same length. The cache holds at most one instance per power of two,
+ * through soft references, so that the tables of long transforms which are
+ * no longer in use can be reclaimed when memory runs low.
+ * </p>
+ * Class is package-private (for internal use only).
+ */
+final class FourierKernel {
+    /** Cache of the kernels, indexed by the base-2 logarithm of their length. */
+    private static final AtomicReferenceArray<SoftReference<FourierKernel>> CACHE =
+        new AtomicReferenceArray<>(Integer.SIZE - 1);
+
+    /** Length of the transform. */
+    private final int n;
+    /** Base-2 logarithm of the length. */
+    private final int logN;
+    /** {@code cos[j]} is the real part of {@code exp(-2 * pi * i * j / n)}. */
+    private final double[] cos;
+    /** {@code sin[j]} is the imaginary part of {@code exp(-2 * pi * i * j / n)}. */
+    private final double[] sin;
+    /**
+     * Pairs of indices exchanged by the bit-reversal permutation:
+     * {@code swap[2 * p]} and {@code swap[2 * p + 1]}.
+     */
+    private final int[] swap;
+
+    /**
+     * @param logN Base-2 logarithm of the length.
+     */
+    private FourierKernel(final int logN) {
+        this.logN = logN;
+        n = 1 << logN;
+        swap = createBitReversalSwaps(logN);
+
+        // The radix-4 passes require the roots of unity up to 3n/4.
+        final int size = Math.max(1, 3 * (n >> 2));
+        cos = new double[size];
+        sin = new double[size];
+        // Compute the first octant, and derive the other values by symmetry,
+        // so that the roots on the axes are exact and the table is as
+        // symmetric as the roots themselves.
+        final int quarter = n >> 2;
+        if (quarter == 0) {
+            // Only exp(0) is needed.
+            cos[0] = 1;
+            sin[0] = 0;
+            return;
+        }
+        final int eighth = n >> 3;
+        for (int j = 0; j < size; j++) {
+            // exp(-2 pi i j / n) = exp(-i (pi / 2) a) exp(-2 pi i q / n)
+            final int a = j / quarter;
+            final int q = j - a * quarter;
+            final double c;
+            final double t;
+            if (q <= eighth) {
+                final double arg = 2 * Math.PI * q / n;
+                c = Math.cos(arg);
+                t = Math.sin(arg);
+            } else {
+                final double arg = 2 * Math.PI * (quarter - q) / n;
+                c = Math.sin(arg);
+                t = Math.cos(arg);
+            }
+            switch (a) {
+            case 0:
+                cos[j] = c;
+                sin[j] = -t;
+                break;
+            case 1:
+                cos[j] = -t;
+                sin[j] = -c;
+                break;
+            default:
+                cos[j] = -c;
+                sin[j] = t;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Gets the kernel of the given length.
+     *
+     * @param n Length (must be a power of two).
+     * @return the (cached) kernel.
+     */
+    static FourierKernel of(final int n) {
+        final int logN = Integer.numberOfTrailingZeros(n);
+        final SoftReference<FourierKernel> ref = CACHE.get(logN);
+        FourierKernel kernel = ref == null ? null : ref.get();
+        if (kernel == null) {
+            // Concurrent callers may create distinct (but identical) instances.
+            kernel = new FourierKernel(logN);
+            CACHE.set(logN, new SoftReference<>(kernel));
+        }
+        return kernel;
+    }
+
+    /**
+     * @return the length of the transform.
+     */
+    int size() {
+        return n;
+    }
+
+    /**
+     * @param j Index.
+     * @return the real part of {@code exp(-2 * pi * i * j / n)}, for
+     * {@code 0 <= j < max(1, 3n/4)}.
+     */
+    double cos(final int j) {
+        return cos[j];
+    }
+
+    /**
+     * @param j Index.
+     * @return the imaginary part of {@code exp(-2 * pi * i * j / n)}, for
+     * {@code 0 <= j < max(1, 3n/4)}.
+     */
+    double sin(final int j) {
+        return sin[j];
+    }
+
+    /**
+     * Computes the unnormalized transform of the first {@code n} elements of
+     * the given arrays, in place.
+     *
+     * @param re Real parts.
+     * @param im Imaginary parts.
+     * @param inverse Whether to compute the inverse transform (i.e. use
+     * {@code exp(2 * pi * i * j / n)} roots of unity).
+     */
+    void transform(final double[] re,
+                   final double[] im,
+                   final boolean inverse) {
+        if (n == 1) {
+            return;
+        }
+
+        bitReversalShuffle(re, im);
+
+        // Sign of the imaginary part of the roots of unity.
+        final double s = inverse ? -1 : 1;
+
+        if (n == 2) {
+            final double r0 = re[0];
+            final double j0 = im[0];
+            final double r1 = re[1];
+            final double j1 = im[1];
+            re[0] = r0 + r1;
+            im[0] = j0 + j1;
+            re[1] = r0 - r1;
+            im[1] = j0 - j1;
+            return;
+        }
+
+        // 4-term DFT (the twiddle factors of the first two stages are all 1).
+        for (int i0 = 0; i0 < n; i0 += 4) {
+            final int i1 = i0 + 1;
+            final int i2 = i0 + 2;
+            final int i3 = i0 + 3;
+
+            final double srcR0 = re[i0];
+            final double srcI0 = im[i0];
+            final double srcR1 = re[i2];
+            final double srcI1 = im[i2];
+            final double srcR2 = re[i1];
+            final double srcI2 = im[i1];
+            final double srcR3 = re[i3];
+            final double srcI3 = im[i3];
+
+            // X_0 = x_0 + x_1 + x_2 + x_3
+            re[i0] = srcR0 + srcR1 + srcR2 + srcR3;
+            im[i0] = srcI0 + srcI1 + srcI2 + srcI3;
+            // X_1 = x_0 - x_2 - j * (x_1 - x_3) (forward)
+            re[i1] = srcR0 - srcR2 + s * (srcI1 - srcI3);
+            im[i1] = srcI0 - srcI2 + s * (srcR3 - srcR1);
+            // X_2 = x_0 - x_1 + x_2 - x_3
+            re[i2] = srcR0 - srcR1 + srcR2 - srcR3;
+            im[i2] = srcI0 - srcI1 + srcI2 - srcI3;
+            // X_3 = x_0 - x_2 + j * (x_1 - x_3) (forward)
+            re[i3] = srcR0 - srcR2 + s * (srcI3 - srcI1);
+            im[i3] = srcI0 - srcI2 + s * (srcR1 - srcR3);
+        }
+
+        int m = 4;
+        if ((logN & 1) != 0 && m < n) {
+            // Odd number of radix-2 stages: combine pairs of transforms
+            // of length m into transforms of length 2m.
+            final int m2 = m << 1;
+            final int stride = n / m2;
+            for (int base = 0; base < n; base += m2) {
+                for (int k = 0; k < m; k++) {
+                    final int i0 = base + k;
+                    final int i1 = i0 + m;
+                    final int j = k * stride;
+                    final double wr = cos[j];
+                    final double wi = s * sin[j];
+
+                    final double er = re[i0];
+                    final double ei = im[i0];
+                    final double or = re[i1];
+                    final double oi = im[i1];
+                    final double tr = wr * or - wi * oi;
+                    final double ti = wr * oi + wi * or;
+                    re[i0] = er + tr;
+                    im[i0] = ei + ti;
+                    re[i1] = er - tr;
+                    im[i1] = ei - ti;
+                }
+            }
+            m = m2;
+        }
+
+        // Combine four transforms of length m into a transform of length 4m.
+        // Owing to the bit-reversal ordering, the blocks hold the transforms
+        // of the elements of index 0, 2, 1 and 3 (modulo 4) of the sub-sequence.
+        while (m < n) {
+            final int m4 = m << 2;
+            final int stride = n / m4;
+            for (int base = 0; base < n; base += m4) {
+                for (int k = 0; k < m; k++) {
+                    final int i0 = base + k;
+                    final int i1 = i0 + m;
+                    final int i2 = i1 + m;
+                    final int i3 = i2 + m;
+
+                    // w^k, w^2k and w^3k, with w = exp(-2 * pi * i / 4m).
+                    final int j1 = k * stride;
+                    final int j2 = j1 << 1;
+                    final int j3 = j1 + j2;
+                    final double w1r = cos[j1];
+                    final double w1i = s * sin[j1];
+                    final double w2r = cos[j2];
+                    final double w2i = s * sin[j2];
+                    final double w3r = cos[j3];
+                    final double w3i = s * sin[j3];
+
+                    final double b0r = re[i0];
+                    final double b0i = im[i0];
+                    final double b1r = re[i1];
+                    final double b1i = im[i1];
+                    final double b2r = re[i2];
+                    final double b2i = im[i2];
+                    final double b3r = re[i3];
+                    final double b3i = im[i3];
+
+                    final double t1r = w2r * b1r - w2i * b1i;
+                    final double t1i = w2r * b1i + w2i * b1r;
+                    final double t2r = w1r * b2r - w1i * b2i;
+                    final double t2i = w1r * b2i + w1i * b2r;
+                    final double t3r = w3r * b3r - w3i * b3i;
+                    final double t3i = w3r * b3i + w3i * b3r;
+
+                    final double a0r = b0r + t1r;
+                    final double a0i = b0i + t1i;
+                    final double a1r = b0r - t1r;
+                    final double a1i = b0i - t1i;
+                    final double a2r = t2r + t3r;
+                    final double a2i = t2i + t3i;
+                    // (t2 - t3) multiplied by w^m = -i (or i for the inverse).
+                    final double a3r = s * (t2i - t3i);
+                    final double a3i = s * (t3r - t2r);
+
+                    re[i0] = a0r + a2r;
+                    im[i0] = a0i + a2i;
+                    re[i1] = a1r + a3r;
+                    im[i1] = a1i + a3i;
+                    re[i2] = a0r - a2r;
+                    im[i2] = a0i - a2i;
+                    re[i3] = a1r - a3r;
+                    im[i3] = a1i - a3i;
+                }
+            }
+            m = m4;
+        }
+    }
+
+    /**
+     * Performs identical index bit reversal shuffles on the first {@code n}
+     * elements of two arrays.
+     * Each element in the array is swapped with another element based
+     * on the bit-reversal of the index.
+     * For example, in an array with length 16, item at binary index 0011
+     * (decimal 3) would be swapped with the item at binary index 1100
+     * (decimal 12).
+     *
+     * @param a Array to be shuffled.
+     * @param b Array to be shuffled.
+     */
+    private void bitReversalShuffle(final double[] a,
+                                    final double[] b) {
+        for (int p = 0; p < swap.length; p += 2) {
+            final int i = swap[p];
+            final int j = swap[p + 1];
+
+            double temp = a[i];
+            a[i] = a[j];
+            a[j] = temp;
+
+            temp = b[i];
+            b[i] = b[j];
+            b[j] = temp;
+        }
+    }
+
+    /**
+     * Tabulates the bit-reversal permutation.
+     *
+     * @param logN Base-2 logarithm of the length.
+     * @return the pairs of indices {@code i < j} such that {@code j} is
+     * the bit-reversal of {@code i}.
+     */
+    private static int[] createBitReversalSwaps(final int logN) {
+        if (logN < 2) {
+            return new int[0];
+        }
+        final int n = 1 << logN;
+        final int shift = Integer.SIZE - logN;
+
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (i < Integer.reverse(i) >>> shift) {
+                ++count;
+            }
+        }
+        final int[] pairs = new int[2 * count];
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            final int j = Integer.reverse(i) >>> shift;
+            if (i < j) {
+                pairs[p++] = i;
+                pairs[p++] = j;
+            }
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math4.transform;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+
+/**
+ * Test case for {@link BatchTransforms}.
+ */
+public final class BatchTransformsTest {
+    /** RNG. */
+    private static final UniformRandomProvider RNG = RandomSource.MWC_256.create();
+    /** Pool. */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testBatchWrongLength() {
+        final RealTransform t = new FastHadamardTransform();
+        Assertions.assertThrows(TransformException.class,
+            () -> BatchTransforms.transformBatch(t, new double[12], 8, null));
+        Assertions.assertThrows(TransformException.class,
+            () -> BatchTransforms.transformBatch(t, new double[12], 0, null));
+        final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.Norm.STD);
+        Assertions.assertThrows(TransformException.class,
+            () -> BatchTransforms.transformBatch(fft, new double[16], new double[8], 8, null));
+        Assertions.assertThrows(TransformException.class,
+            () -> BatchTransforms.transformBatch(fft, new double[18], new double[18], 6, null));
+    }
+
+    @Test
+    public void testMultidimensionalWrongShape() {
+        final RealTransform t = new FastHadamardTransform();
+        Assertions.assertThrows(TransformException.class,
+            () -> BatchTransforms.transform2D(t, new double[32], 4, 4, null));
+        Assertions.assertThrows(TransformException.class,
+            () -> BatchTransforms.transform3D(t, new double[32], 4, -2, -4, null));
+        final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.Norm.STD);
+        Assertions.assertThrows(TransformException.class,
+            () -> BatchTransforms.transform2D(fft, new double[16], new double[16], 2, 4, null));
+        Assertions.assertThrows(TransformException.class,
+            () -> BatchTransforms.transform3D(fft, new double[24], new double[24], 2, 4, 3, null));
+    }
+
+    @Test
+    public void testRealBatch() {
+        final RealTransform[] transforms = {
+            new FastHadamardTransform(),
+            new FastSineTransform(FastSineTransform.Norm.ORTHO),
+            new FastCosineTransform(FastCosineTransform.Norm.STD, true)
+        };
+        final int[] lengths = {16, 16, 17};
+        for (int t = 0; t < transforms.length; t++) {
+            final int n = lengths[t];
+            final int count = 37;
+            final double[] data = createData(count * n);
+            for (int s = 0; s < count; s++) {
+                // Required by the sine transform.
+                data[s * n] = 0;
+            }
+            final double[] expected = new double[data.length];
+            for (int s = 0; s < count; s++) {
+                final double[] y = transforms[t].apply(Arrays.copyOfRange(data, s * n, (s + 1) * n));
+                System.arraycopy(y, 0, expected, s * n, n);
+            }
+            final double[] serial = data.clone();
+            BatchTransforms.transformBatch(transforms[t], serial, n, null);
+            Assertions.assertArrayEquals(expected, serial);
+            final double[] parallel = data.clone();
+            BatchTransforms.transformBatch(transforms[t], parallel, n, POOL);
+            Assertions.assertArrayEquals(expected, parallel);
+        }
+    }
+
+    @Test
+    public void testComplexBatch() {
+        final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.Norm.UNIT, true);
+        final int n = 32;
+        final int count = 50;
+        final double[] re = createData(count * n);
+        final double[] im = createData(count * n);
+        final double[] expectedR = re.clone();
+        final double[] expectedI = im.clone();
+        for (int s = 0; s < count; s++) {
+            final double[] r = Arrays.copyOfRange(re, s * n, (s + 1) * n);
+            final double[] i = Arrays.copyOfRange(im, s * n, (s + 1) * n);
+            fft.transformInPlace(new double[][] {r, i});
+            System.arraycopy(r, 0, expectedR, s * n, n);
+            System.arraycopy(i, 0, expectedI, s * n, n);
+        }
+        for (final ForkJoinPool pool : new ForkJoinPool[] {null, POOL}) {
+            final double[] r = re.clone();
+            final double[] i = im.clone();
+            BatchTransforms.transformBatch(fft, r, i, n, pool);
+            Assertions.assertArrayEquals(expectedR, r);
+            Assertions.assertArrayEquals(expectedI, i);
+        }
+    }
+
+    @Test
+    public void testComplex2D() {
+        final int rows = 4;
+        final int cols = 8;
+        final double[] re = createData(rows * cols);
+        final double[] im = createData(rows * cols);
+
+        // Direct evaluation of the definition.
+        final double[] expectedR = new double[rows * cols];
+        final double[] expectedI = new double[rows * cols];
+        for (int u = 0; u < rows; u++) {
+            for (int v = 0; v < cols; v++) {
+                double sr = 0;
+                double si = 0;
+                for (int x = 0; x < rows; x++) {
+                    for (int y = 0; y < cols; y++) {
+                        final double a = -2 * Math.PI * ((double) (u * x) / rows + (double) (v * y) / cols);
+                        final double c = Math.cos(a);
+                        final double s = Math.sin(a);
+                        sr += re[x * cols + y] * c - im[x * cols + y] * s;
+                        si += re[x * cols + y] * s + im[x * cols + y] * c;
+                    }
+                }
+                expectedR[u * cols + v] = sr;
+                expectedI[u * cols + v] = si;
+            }
+        }
+
+        final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.Norm.STD);
+        final double[] r = re.clone();
+        final double[] i = im.clone();
+        BatchTransforms.transform2D(fft, r, i, rows, cols, null);
+        Assertions.assertArrayEquals(expectedR, r, 1e-12);
+        Assertions.assertArrayEquals(expectedI, i, 1e-12);
+
+        // Round trip.
+        BatchTransforms.transform2D(new FastFourierTransform(FastFourierTransform.Norm.STD, true),
+                                    r, i, rows, cols, POOL);
+        Assertions.assertArrayEquals(re, r, 1e-14);
+        Assertions.assertArrayEquals(im, i, 1e-14);
+    }
+
+    @Test
+    public void testComplex3D() {
+        final int n0 = 4;
+        final int n1 = 16;
+        final int n2 = 8;
+        final double[] re = createData(n0 * n1 * n2);
+        final double[] im = createData(n0 * n1 * n2);
+        final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.Norm.UNIT);
+
+        final double[] serialR = re.clone();
+        final double[] serialI = im.clone();
+        BatchTransforms.transform3D(fft, serialR, serialI, n0, n1, n2, null);
+        final double[] parallelR = re.clone();
+        final double[] parallelI = im.clone();
+        BatchTransforms.transform3D(fft, parallelR, parallelI, n0, n1, n2, POOL);
+        Assertions.assertArrayEquals(serialR, parallelR);
+        Assertions.assertArrayEquals(serialI, parallelI);
+
+        // Constant component (unitary normalization).
+        final double scale = Math.sqrt(n0 * n1 * n2);
+        Assertions.assertEquals(Arrays.stream(re).sum() / scale, serialR[0], 1e-13);
+        Assertions.assertEquals(Arrays.stream(im).sum() / scale, serialI[0], 1e-13);
+
+        // Round trip.
+        BatchTransforms.transform3D(new FastFourierTransform(FastFourierTransform.Norm.UNIT, true),
+                                    serialR, serialI, n0, n1, n2, POOL);
+        Assertions.assertArrayEquals(re, serialR, 1e-14);
+        Assertions.assertArrayEquals(im, serialI, 1e-14);
+    }
+
+    @Test
+    public void testReal2D() {
+        final RealTransform t = new FastCosineTransform(FastCosineTransform.Norm.ORTHO);
+        final int rows = 9;
+        final int cols = 17;
+        final double[] data = createData(rows * cols);
+
+        // Rows, then columns.
+        final double[] expected = new double[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            final double[] y = t.apply(Arrays.copyOfRange(data, i * cols, (i + 1) * cols));
+            System.arraycopy(y, 0, expected, i * cols, cols);
+        }
+        for (int j = 0; j < cols; j++) {
+            final double[] column = new double[rows];
+            for (int i = 0; i < rows; i++) {
+                column[i] = expected[i * cols + j];
+            }
+            final double[] y = t.apply(column);
+            for (int i = 0; i < rows; i++) {
+                expected[i * cols + j] = y[i];
+            }
+        }
+
+        for (final ForkJoinPool pool : new ForkJoinPool[] {null, POOL}) {
+            final double[] x = data.clone();
+            BatchTransforms.transform2D(t, x, rows, cols, pool);
+            Assertions.assertArrayEquals(expected, x);
+        }
+    }
+
+    @Test
+    public void testReal3D() {
+        final int n = 8;
+        final double[] data = createData(n * n * n);
+        final double[] x = data.clone();
+        BatchTransforms.transform3D(new FastHadamardTransform(), x, n, n, n, POOL);
+        BatchTransforms.transform3D(new FastHadamardTransform(true), x, n, n, n, null);
+        Assertions.assertArrayEquals(data, x, 1e-14);
+    }
+
+    /**
+     * @param n Length.
+     * @return random data.
+     */
+    private static double[] createData(int n) {
+        final double[] data = new double[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = 2 * RNG.nextDouble() - 1;
+        }
+        return data;
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.commons.math4.transform;
 
+import java.util.Arrays;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.Supplier;
 import org.junit.Test;
@@ -436,4 +437,156 @@ public final class FastFourierTransformerTest {
             Assertions.assertEquals(0.0, result[i].getImaginary(), tolerance);
         }
     }
+
+    @Test
+    public void testHalfSpectrumSizeNotAPowerOfTwo() {
+        final int[] sizes = {0, 3, 5, 6, 7, 9, 1000};
+        final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.Norm.STD);
+        for (final int n : sizes) {
+            final double[] x = createRealData(n);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> fft.applyHalfSpectrum(x));
+        }
+    }
+
+    @Test
+    public void testHalfSpectrum() {
+        for (final FastFourierTransform.Norm norm : FastFourierTransform.Norm.values()) {
+            for (final boolean inverse : new boolean[] {true, false}) {
+                final FastFourierTransform fft = new FastFourierTransform(norm, inverse);
+                for (int n = 1; n <= 4096; n <<= 1) {
+                    final double[] x = createRealData(n);
+                    final Complex[] xc = new Complex[n];
+                    for (int i = 0; i < n; i++) {
+                        xc[i] = Complex.ofCartesian(x[i], 0.0);
+                    }
+                    final Complex[] expected = fft.apply(xc);
+                    final Complex[] half = fft.applyHalfSpectrum(x);
+                    final Complex[] full = fft.apply(x);
+                    Assertions.assertEquals(n / 2 + 1, half.length);
+                    final double tol = 1e-14 * Math.max(1, Math.sqrt(n));
+                    for (int k = 0; k < n; k++) {
+                        final String msg = norm + ", " + inverse + ", " + n + ", " + k;
+                        if (k < half.length) {
+                            Assertions.assertEquals(expected[k].getReal(), half[k].getReal(), tol, msg);
+                            Assertions.assertEquals(expected[k].getImaginary(), half[k].getImaginary(), tol, msg);
+                        }
+                        Assertions.assertEquals(expected[k].getReal(), full[k].getReal(), tol, msg);
+                        Assertions.assertEquals(expected[k].getImaginary(), full[k].getImaginary(), tol, msg);
+                    }
+                    // Half spectrum of real data: DC and Nyquist terms are real.
+                    Assertions.assertEquals(0.0, half[0].getImaginary(), 0.0);
+                    Assertions.assertEquals(0.0, half[n / 2].getImaginary(), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTransformComplexLarge() {
+        // Larger lengths, with an odd and even number of radix-2 stages.
+        for (final int n : new int[] {256, 512, 1024}) {
+            for (final boolean inverse : new boolean[] {true, false}) {
+                doTestTransformComplex(n, 1e-10, 64 * EPSILON, FastFourierTransform.Norm.UNIT, inverse);
+            }
+        }
+    }
+
+    @Test
+    public void testPlanSizeNotAPowerOfTwo() {
+        final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.Norm.STD);
+        for (final int n : new int[] {0, 3, 5, 6, 7, 9, 1000}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> fft.plan(n));
+        }
+    }
+
+    @Test
+    public void testPlanWrongLength() {
+        final FastFourierTransform.Plan plan = new FastFourierTransform(FastFourierTransform.Norm.STD).plan(8);
+        Assertions.assertEquals(8, plan.getLength());
+        Assertions.assertEquals(5, plan.getHalfSpectrumLength());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> plan.transform(new double[4], new double[8]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> plan.transform(new double[8], new double[16]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> plan.transformReal(new double[4], new double[5], new double[5]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> plan.transformReal(new double[8], new double[8], new double[5]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> plan.transformReal(new double[8], new double[5], new double[4]));
+    }
+
+    @Test
+    public void testPlan() {
+        for (final FastFourierTransform.Norm norm : FastFourierTransform.Norm.values()) {
+            for (final boolean inverse : new boolean[] {true, false}) {
+                final FastFourierTransform fft = new FastFourierTransform(norm, inverse);
+                for (int n = 1; n <= 1024; n <<= 1) {
+                    final FastFourierTransform.Plan plan = fft.plan(n);
+
+                    final Complex[] x = createComplexData(n);
+                    final Complex[] expected = fft.apply(x);
+                    final double[] re = new double[n];
+                    final double[] im = new double[n];
+                    // Reuse the same plan and arrays.
+                    for (int repeat = 0; repeat < 2; repeat++) {
+                        for (int i = 0; i < n; i++) {
+                            re[i] = x[i].getReal();
+                            im[i] = x[i].getImaginary();
+                        }
+                        plan.transform(re, im);
+                        for (int i = 0; i < n; i++) {
+                            Assertions.assertEquals(expected[i].getReal(), re[i], 0.0);
+                            Assertions.assertEquals(expected[i].getImaginary(), im[i], 0.0);
+                        }
+                    }
+
+                    final double[] f = createRealData(n);
+                    final double[] copy = f.clone();
+                    final Complex[] half = fft.applyHalfSpectrum(f);
+                    final double[] hr = new double[plan.getHalfSpectrumLength()];
+                    final double[] hi = new double[plan.getHalfSpectrumLength()];
+                    plan.transformReal(f, hr, hi);
+                    Assertions.assertArrayEquals(copy, f, 0.0);
+                    for (int k = 0; k < hr.length; k++) {
+                        Assertions.assertEquals(half[k].getReal(), hr[k], 0.0);
+                        Assertions.assertEquals(half[k].getImaginary(), hi[k], 0.0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPlanSharedByThreads() throws InterruptedException {
+        final int n = 1 << 12;
+        final FastFourierTransform.Plan plan = new FastFourierTransform(FastFourierTransform.Norm.UNIT).plan(n);
+        final double[] f = createRealData(n);
+        final double[] expectedR = new double[plan.getHalfSpectrumLength()];
+        final double[] expectedI = new double[plan.getHalfSpectrumLength()];
+        plan.transformReal(f, expectedR, expectedI);
+
+        final int numThreads = 4;
+        final boolean[] ok = new boolean[numThreads];
+        final Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                final double[] re = new double[plan.getHalfSpectrumLength()];
+                final double[] im = new double[plan.getHalfSpectrumLength()];
+                boolean same = true;
+                for (int repeat = 0; repeat < 50; repeat++) {
+                    plan.transformReal(f, re, im);
+                    same &= Arrays.equals(expectedR, re) &&
+                        Arrays.equals(expectedI, im);
+                }
+                ok[id] = same;
+            });
+            threads[t].start();
+        }
+        for (final Thread t : threads) {
+            t.join();
+        }
+        for (final boolean b : ok) {
+            Assertions.assertTrue(b);
+        }
+    }
 }